@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1;
+
+import org.jd.core.v1.api.loader.Loader;
+import org.jd.core.v1.api.loader.LoaderException;
+import org.jd.core.v1.api.printer.Printer;
+import org.jd.core.v1.api.printer.TokenStreamPrinter;
+import org.jd.core.v1.cache.DecompilationCache;
+import org.jd.core.v1.cache.RecordingPrinter;
+import org.jd.core.v1.model.message.Message;
+import org.jd.core.v1.util.DefaultList;
+
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.jar.Manifest;
+
+/**
+ * Decompiler replaying the printer calls stored in a {@link DecompilationCache}.<br><br>
+ *
+ * The key is a SHA-256 hash of the decompiler version, of the scalar configuration values and of the main and inner
+ * class files read by the deserializer. Only the deserializer runs before the cache lookup; on a miss, the pipeline
+ * continues with the deserialized class file and the printer calls are recorded. Other class files read by the
+ * converter, to resolve super types and generic signatures, are not part of the key.<br><br>
+ *
+ * {@link TokenStreamPrinter}s are not cached. Without version, given or read from the manifest of the JAR, nothing is
+ * cached: records of an older decompiler could be replayed after an upgrade.
+ */
+public class CachingClassFileToJavaSourceDecompiler extends ClassFileToJavaSourceDecompiler {
+    protected static final String DEFAULT_VERSION = readVersion();
+
+    protected DecompilationCache cache;
+    protected String version;
+
+    public CachingClassFileToJavaSourceDecompiler(DecompilationCache cache) {
+        this(cache, DEFAULT_VERSION);
+    }
+
+    /**
+     * @param version decompiler version, part of the key: records of other versions are not replayed. If null, the
+     *                cache is bypassed.
+     */
+    public CachingClassFileToJavaSourceDecompiler(DecompilationCache cache, String version) {
+        this.cache = cache;
+        this.version = version;
+    }
+
+    public DecompilationCache getCache() {
+        return cache;
+    }
+
+    @Override
+    protected void decompile(Message message) throws Exception {
+        Printer printer = message.getHeader("printer");
+
+        if ((version == null) || (printer instanceof TokenStreamPrinter)) {
+            super.decompile(message);
+            return;
+        }
+
+        Loader loader = message.getHeader("loader");
+        RecordingLoader recordingLoader = new RecordingLoader(loader);
+
+        message.setHeader("loader", recordingLoader);
+        this.deserializer.process(message);
+        message.setHeader("loader", loader);
+
+        String key = createKey(message.getHeader("mainInternalTypeName"), message.getHeader("configuration"), recordingLoader.getRecords());
+        byte[] record = cache.get(key);
+
+        if (record != null) {
+            RecordingPrinter.replay(record, printer);
+        } else {
+            RecordingPrinter recordingPrinter = new RecordingPrinter(printer);
+
+            message.setHeader("printer", recordingPrinter);
+            this.converter.process(message);
+            this.fragmenter.process(message);
+            this.layouter.process(message);
+            this.tokenizer.process(message);
+            this.writer.process(message);
+            message.setHeader("printer", printer);
+
+            cache.put(key, recordingPrinter.toByteArray());
+        }
+    }
+
+    protected String createKey(String internalTypeName, Map<String, Object> configuration, List<Object[]> records) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+        update(digest, version);
+        update(digest, internalTypeName);
+
+        if (configuration != null) {
+            // Sorted scalar values only: the configuration also carries caches, like the TypeMaker
+            for (Map.Entry<String, Object> entry : new TreeMap<>(configuration).entrySet()) {
+                Object value = entry.getValue();
+
+                if ((value instanceof String) || (value instanceof Number) || (value instanceof Boolean) || (value instanceof Character) || (value instanceof Enum)) {
+                    update(digest, entry.getKey());
+                    update(digest, value.getClass().getName() + ':' + value);
+                }
+            }
+        }
+
+        for (Object[] record : records) {
+            update(digest, (String)record[0]);
+
+            byte[] data = (byte[])record[1];
+            digest.update((byte)(data.length >>> 24));
+            digest.update((byte)(data.length >>> 16));
+            digest.update((byte)(data.length >>> 8));
+            digest.update((byte)data.length);
+            digest.update(data);
+        }
+
+        StringBuilder sb = new StringBuilder(64);
+
+        for (byte b : digest.digest()) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * @return the 'Implementation-Version' or the 'JD-Core-Version' attribute of the manifest of the JAR containing the
+     * decompiler, or null if the classes are not loaded from a JAR
+     */
+    protected static String readVersion() {
+        Class<?> clazz = ClassFileToJavaSourceDecompiler.class;
+        String version = clazz.getPackage().getImplementationVersion();
+
+        if (version == null) {
+            URL url = clazz.getResource(clazz.getSimpleName() + ".class");
+
+            if ((url != null) && "jar".equals(url.getProtocol())) {
+                try {
+                    JarURLConnection connection = (JarURLConnection)url.openConnection();
+
+                    connection.setUseCaches(false);
+
+                    Manifest manifest = connection.getManifest();
+
+                    if (manifest != null) {
+                        version = manifest.getMainAttributes().getValue("JD-Core-Version");
+                    }
+                } catch (IOException ignore) {
+                    // Unknown version: the cache is bypassed
+                }
+            }
+        }
+
+        return version;
+    }
+
+    protected static void update(MessageDigest digest, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        digest.update(bytes);
+        digest.update((byte)0);
+    }
+
+    protected static class RecordingLoader implements Loader {
+        protected Loader loader;
+        protected List<Object[]> records = new DefaultList<>();
+
+        public RecordingLoader(Loader loader) {
+            this.loader = loader;
+        }
+
+        /**
+         * @return [internal name, data] of the class files loaded
+         */
+        public List<Object[]> getRecords() {
+            return records;
+        }
+
+        @Override
+        public boolean canLoad(String internalName) {
+            return loader.canLoad(internalName);
+        }
+
+        @Override
+        public byte[] load(String internalName) throws LoaderException {
+            byte[] data = loader.load(internalName);
+
+            if (data != null) {
+                records.add(new Object[] { internalName, data });
+            }
+
+            return data;
+        }
+    }
+}
@@ -34,6 +34,8 @@ public class ClassFileToJavaSourceDecompiler implements Decompiler {
         message.setHeader("mainInternalTypeName", internalName);
         message.setHeader("loader", loader);
         message.setHeader("printer", printer);
+        // The class file and the intermediate models belong to this pipeline
+        message.setHeader("releaseModels", Boolean.TRUE);
 
         decompile(message);
     }
@@ -45,6 +47,8 @@ public class ClassFileToJavaSourceDecompiler implements Decompiler {
         message.setHeader("configuration", configuration);
         message.setHeader("loader", loader);
         message.setHeader("printer", printer);
+        // The class file and the intermediate models belong to this pipeline
+        message.setHeader("releaseModels", Boolean.TRUE);
 
         decompile(message);
     }
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1;
+
+import org.jd.core.v1.api.Decompiler;
+import org.jd.core.v1.api.loader.Loader;
+import org.jd.core.v1.api.printer.Printer;
+import org.jd.core.v1.api.printer.TokenStreamPrinter;
+import org.jd.core.v1.model.message.Message;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.ClassFileToJavaSyntaxProcessor;
+import org.jd.core.v1.service.deserializer.classfile.DeserializeClassFileProcessor;
+import org.jd.core.v1.service.extractor.javafragmenttotokenstream.ExtractTokenStreamProcessor;
+import org.jd.core.v1.service.fragmenter.javasyntaxtojavafragment.JavaSyntaxToJavaFragmentProcessor;
+import org.jd.core.v1.service.writer.WriteTokenProcessor;
+
+import java.util.Map;
+
+/**
+ * Extract declarations, references and line numbers to a {@link TokenStreamPrinter}, without laying out and
+ * tokenizing the source. Real line numbers are not computed.
+ */
+public class ClassFileToTokenStreamDecompiler implements Decompiler {
+    protected DeserializeClassFileProcessor deserializer = new DeserializeClassFileProcessor();
+    protected ClassFileToJavaSyntaxProcessor converter = new ClassFileToJavaSyntaxProcessor();
+    protected JavaSyntaxToJavaFragmentProcessor fragmenter = new JavaSyntaxToJavaFragmentProcessor();
+    protected ExtractTokenStreamProcessor extractor = new ExtractTokenStreamProcessor();
+    protected WriteTokenProcessor writer = new WriteTokenProcessor();
+
+    public void decompile(Loader loader, Printer printer, String internalName) throws Exception {
+        decompile(loader, printer, internalName, null);
+    }
+
+    public void decompile(Loader loader, Printer printer, String internalName, Map<String, Object> configuration) throws Exception {
+        if (!(printer instanceof TokenStreamPrinter)) {
+            throw new IllegalArgumentException("Printer must implement TokenStreamPrinter");
+        }
+
+        Message message = new Message();
+
+        message.setHeader("mainInternalTypeName", internalName);
+        message.setHeader("configuration", configuration);
+        message.setHeader("loader", loader);
+        message.setHeader("printer", printer);
+        // The class file and the intermediate models belong to this pipeline
+        message.setHeader("releaseModels", Boolean.TRUE);
+
+        decompile(message);
+    }
+
+    protected void decompile(Message message) throws Exception {
+        this.deserializer.process(message);
+        this.converter.process(message);
+        this.fragmenter.process(message);
+        this.extractor.process(message);
+        this.writer.process(message);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1;
+
+import org.jd.core.v1.api.Decompiler;
+import org.jd.core.v1.api.loader.Loader;
+import org.jd.core.v1.api.printer.Printer;
+import org.jd.core.v1.api.printer.ProgressivePrinter;
+import org.jd.core.v1.model.classfile.ClassFile;
+import org.jd.core.v1.model.message.Message;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.ClassFileToJavaSyntaxProcessor;
+import org.jd.core.v1.service.deserializer.classfile.DeserializeClassFileProcessor;
+import org.jd.core.v1.service.fragmenter.javasyntaxtojavafragment.JavaSyntaxToJavaFragmentProcessor;
+import org.jd.core.v1.service.layouter.LayoutFragmentProcessor;
+import org.jd.core.v1.service.tokenizer.javafragmenttotoken.JavaFragmentToTokenProcessor;
+import org.jd.core.v1.service.writer.WriteTokenProcessor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Print the outline of a class to a {@link ProgressivePrinter} as soon as its declarations are known, then its
+ * complete source.<br><br>
+ *
+ * The method bodies are not streamed: the class is converted twice, first with stub bodies for the outline, then
+ * completely for the source, and 'methodDecompiled' only reports the progress of the second conversion. Both phases
+ * share the class file, deserialized once, and the type maker. The class file is released during the second phase
+ * only.
+ */
+public class ProgressiveClassFileToJavaSourceDecompiler implements Decompiler {
+    protected DeserializeClassFileProcessor deserializer = new DeserializeClassFileProcessor();
+    protected ClassFileToJavaSyntaxProcessor converter = new ClassFileToJavaSyntaxProcessor();
+    protected JavaSyntaxToJavaFragmentProcessor fragmenter = new JavaSyntaxToJavaFragmentProcessor();
+    protected LayoutFragmentProcessor layouter = new LayoutFragmentProcessor();
+    protected JavaFragmentToTokenProcessor tokenizer = new JavaFragmentToTokenProcessor();
+    protected WriteTokenProcessor writer = new WriteTokenProcessor();
+
+    public void decompile(Loader loader, Printer printer, String internalName) throws Exception {
+        decompile(loader, printer, internalName, null);
+    }
+
+    public void decompile(Loader loader, Printer printer, String internalName, Map<String, Object> configuration) throws Exception {
+        if (!(printer instanceof ProgressivePrinter)) {
+            throw new IllegalArgumentException("Printer must implement ProgressivePrinter");
+        }
+
+        ProgressivePrinter progressivePrinter = (ProgressivePrinter)printer;
+        Map<String, Object> outlineConfiguration = (configuration == null) ? new HashMap<>() : new HashMap<>(configuration);
+        Message message = new Message();
+
+        outlineConfiguration.put("outline", "true");
+
+        message.setHeader("mainInternalTypeName", internalName);
+        message.setHeader("configuration", outlineConfiguration);
+        message.setHeader("loader", loader);
+        // No progress notification during the outline phase
+        message.setHeader("printer", null);
+
+        // Outline phase: the class file is kept for the source phase
+        this.deserializer.process(message);
+
+        ClassFile classFile = message.getBody();
+
+        this.converter.process(message);
+        print(message, progressivePrinter, ProgressivePrinter.OUTLINE);
+
+        // Source phase
+        Map<String, Object> sourceConfiguration = new HashMap<>(outlineConfiguration);
+
+        sourceConfiguration.remove("outline");
+
+        message.setHeader("configuration", sourceConfiguration);
+        message.setHeader("printer", printer);
+        // The class file and the intermediate models belong to this pipeline
+        message.setHeader("releaseModels", Boolean.TRUE);
+        message.setBody(classFile);
+
+        this.converter.process(message);
+        print(message, progressivePrinter, ProgressivePrinter.SOURCE);
+    }
+
+    protected void print(Message message, ProgressivePrinter printer, int phase) throws Exception {
+        this.fragmenter.process(message);
+        this.layouter.process(message);
+        this.tokenizer.process(message);
+
+        message.setHeader("printer", printer);
+        printer.startPhase(phase);
+
+        this.writer.process(message);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.agent;
+
+import org.jd.core.v1.ClassFileToJavaSourceDecompiler;
+import org.jd.core.v1.loader.InstrumentationLoader;
+import org.jd.core.v1.printer.WriterPrinter;
+
+import java.io.*;
+import java.lang.instrument.Instrumentation;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Decompile the classes of a running JVM, in a single low priority background thread.<br><br>
+ *
+ * Started with '-javaagent:jd-core.jar[=&lt;options&gt;]' or attached to a running JVM. Options are a comma separated
+ * list: an output directory, followed by the internal names of the classes to decompile into it. Without option,
+ * the agent is only installed and is available through {@link #getInstance()}.
+ */
+public class DecompilerAgent implements Closeable {
+    protected static volatile DecompilerAgent instance;
+
+    protected InstrumentationLoader loader;
+    protected ClassFileToJavaSourceDecompiler decompiler = new ClassFileToJavaSourceDecompiler();
+    protected ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jd-core-agent");
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DecompilerAgent(Instrumentation instrumentation) {
+        this(new InstrumentationLoader(instrumentation));
+    }
+
+    public DecompilerAgent(InstrumentationLoader loader) {
+        this.loader = loader;
+    }
+
+    public static void premain(String options, Instrumentation instrumentation) {
+        agentmain(options, instrumentation);
+    }
+
+    public static synchronized void agentmain(String options, Instrumentation instrumentation) {
+        if (instance == null) {
+            instance = new DecompilerAgent(instrumentation);
+        }
+
+        if ((options != null) && !options.isEmpty()) {
+            String[] values = options.split(",");
+            File directory = new File(values[0]);
+
+            for (int i=1; i<values.length; i++) {
+                instance.decompile(values[i].trim().replace('.', '/'), directory);
+            }
+        }
+    }
+
+    /**
+     * @return the agent installed by 'premain' or 'agentmain', or null
+     */
+    public static DecompilerAgent getInstance() {
+        return instance;
+    }
+
+    public InstrumentationLoader getLoader() {
+        return loader;
+    }
+
+    public Future<String> decompile(String internalTypeName) {
+        return executor.submit(() -> {
+            StringWriter writer = new StringWriter(1024 * 8);
+            decompiler.decompile(loader, new WriterPrinter(writer), internalTypeName);
+            return writer.toString();
+        });
+    }
+
+    /**
+     * Write the source to '&lt;directory&gt;/&lt;internal type name&gt;.java'.
+     */
+    public Future<File> decompile(String internalTypeName, File directory) {
+        return executor.submit(() -> {
+            File file = new File(directory, internalTypeName + ".java");
+            file.getParentFile().mkdirs();
+
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+                decompiler.decompile(loader, new WriterPrinter(writer), internalTypeName);
+            }
+
+            return file;
+        });
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        loader.close();
+
+        synchronized (DecompilerAgent.class) {
+            if (instance == this) {
+                instance = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.api;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token stopping a decompilation, passed with the configuration entry 'cancellationToken'. It is checked between
+ * processors, between methods, in the loops of the reducers and of the layouter, and while writing: a cancelled
+ * decompilation throws a {@link CancellationException}.
+ */
+public class CancellationToken {
+    protected volatile boolean cancelled;
+    protected boolean deadline;
+    protected long deadlineNanoTime;
+
+    public CancellationToken() {}
+
+    /**
+     * @param timeout delay after which the token is cancelled
+     */
+    public CancellationToken(long timeout, TimeUnit unit) {
+        this.deadline = true;
+        this.deadlineNanoTime = System.nanoTime() + unit.toNanos(timeout);
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled || (deadline && (System.nanoTime() - deadlineNanoTime >= 0));
+    }
+
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Decompilation cancelled");
+        }
+        if (deadline && (System.nanoTime() - deadlineNanoTime >= 0)) {
+            throw new CancellationException("Decompilation deadline exceeded");
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.api.loader;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Optional extension of {@link Loader} for stores with a high latency per request: the deserializer requests the inner
+ * classes of a type in a single batch, and the type maker prefetches the super types and interfaces of each type it
+ * reads.
+ */
+public interface BatchLoader extends Loader {
+    /**
+     * Start loading the class files of 'internalNames'.
+     *
+     * @return a future per requested name; a future completes with null if the class file can not be loaded
+     */
+    Map<String, Future<byte[]>> loadAll(Collection<String> internalNames);
+
+    /**
+     * Wait for a future returned by 'loadAll'.
+     */
+    static byte[] getData(Future<byte[]> future) throws LoaderException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw (cause instanceof LoaderException) ? (LoaderException)cause : new LoaderException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoaderException(e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.api.printer;
+
+public interface CharSink {
+    void append(char c);
+
+    /**
+     * Append the characters from 'start', inclusive, to 'end', exclusive.
+     */
+    void append(CharSequence s, int start, int end);
+}
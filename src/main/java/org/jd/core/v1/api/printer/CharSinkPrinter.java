@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.api.printer;
+
+/**
+ * Printer receiving string constants through a {@link CharSink}: large constants are escaped directly into the output
+ * of the printer, instead of being materialized as strings.
+ */
+public interface CharSinkPrinter extends Printer {
+    /**
+     * Replace 'printStringConstant': the constant, quotes included, is appended to the returned sink, then
+     * 'endStringConstant' is called.
+     */
+    CharSink startStringConstant(String ownerInternalName);
+
+    void endStringConstant();
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.api.printer;
+
+/**
+ * Printer receiving a class in two phases: first its outline, with stub method bodies, as soon as the declarations
+ * are known, then its complete source. Between both phases, it is notified each time the body of a method has been
+ * decompiled.
+ */
+public interface ProgressivePrinter extends Printer {
+    // Phases
+    int OUTLINE = 1;
+    int SOURCE = 2;
+
+    /**
+     * Called before 'start(int, int, int)': the outline and the complete source are printed one after the other.
+     */
+    void startPhase(int phase);
+
+    /**
+     * Called during the decompilation of the complete source, before its printing.
+     */
+    default void methodDecompiled(String internalTypeName, String name, String descriptor) {}
+}
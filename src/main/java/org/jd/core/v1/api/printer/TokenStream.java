@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.api.printer;
+
+/**
+ * Struct-of-arrays view of the tokens selected by a {@link TokenStreamPrinter}. Strings are interned per stream:
+ * identical names share the same id, and id 0 stands for <code>null</code>.
+ */
+public interface TokenStream {
+    int NULL_ID = 0;
+
+    int size();
+
+    /**
+     * @return TokenStreamPrinter.DECLARATION, TokenStreamPrinter.REFERENCE or TokenStreamPrinter.LINE_NUMBER
+     */
+    int getKind(int index);
+
+    /**
+     * @return Printer.TYPE, Printer.FIELD, Printer.METHOD, ... for declarations and references, 0 otherwise
+     */
+    int getType(int index);
+
+    /**
+     * @return the original line number, as it would be passed to 'Printer.startLine(int)'
+     */
+    int getLineNumber(int index);
+
+    /**
+     * @return the line number in the generated source, starting at 1, or 0 if the source has not been laid out
+     */
+    int getRealLineNumber(int index);
+
+    int getInternalTypeNameId(int index);
+    int getNameId(int index);
+    int getDescriptorId(int index);
+    int getOwnerInternalNameId(int index);
+
+    int getStringCount();
+    String getString(int id);
+}
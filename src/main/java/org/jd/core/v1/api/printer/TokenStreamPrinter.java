@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.api.printer;
+
+/**
+ * Printer for consumers that only need declarations, references and line mappings: instead of receiving text
+ * fragments one by one, it receives once per class a {@link TokenStream} containing the subscribed token kinds.
+ */
+public interface TokenStreamPrinter extends Printer {
+    // Token kinds
+    int DECLARATION = 1;
+    int REFERENCE = 2;
+    int LINE_NUMBER = 4;
+
+    /**
+     * @return a mask of the token kinds to encode, for example 'DECLARATION | REFERENCE'
+     */
+    int getTokenKinds();
+
+    void printTokenStream(TokenStream stream);
+
+    default void printText(String text) {}
+    default void printNumericConstant(String constant) {}
+    default void printStringConstant(String constant, String ownerInternalName) {}
+    default void printKeyword(String keyword) {}
+
+    default void printDeclaration(int type, String internalTypeName, String name, String descriptor) {}
+    default void printReference(int type, String internalTypeName, String name, String descriptor, String ownerInternalName) {}
+
+    default void indent() {}
+    default void unindent() {}
+
+    default void startLine(int lineNumber) {}
+    default void endLine() {}
+    default void extraLine(int count) {}
+
+    default void startMarker(int type) {}
+    default void endMarker(int type) {}
+}
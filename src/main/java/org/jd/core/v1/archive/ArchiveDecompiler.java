@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.archive;
+
+import org.jd.core.v1.ClassFileToJavaSourceDecompiler;
+import org.jd.core.v1.api.loader.Loader;
+import org.jd.core.v1.loader.ZipFileLoader;
+import org.jd.core.v1.printer.ByteChannelPrinter;
+import org.jd.core.v1.util.DefaultList;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.util.ArrayDeque;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Decompile a JAR, a WAR or a JMOD archive to a source archive.<br><br>
+ *
+ * Class files are read on demand through the central directory and decompiled by a pool of workers. A single writer,
+ * the calling thread, writes the sources in the order of the archive. At most 'maxPendingClassCount' sources are held
+ * in memory, whatever the size of the archive. Other resources under the class root are copied at the end.
+ */
+public class ArchiveDecompiler {
+    protected static final String CLASS_FILE_SUFFIX = ".class";
+    protected static final String JAVA_FILE_SUFFIX = ".java";
+
+    protected int threadCount;
+    protected int maxPendingClassCount;
+    protected Map<String, Object> configuration;
+
+    public ArchiveDecompiler() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ArchiveDecompiler(int threadCount) {
+        this(threadCount, threadCount * 4, null);
+    }
+
+    /**
+     * @param configuration decompiler configuration, copied for each worker
+     */
+    public ArchiveDecompiler(int threadCount, int maxPendingClassCount, Map<String, Object> configuration) {
+        if ((threadCount < 1) || (maxPendingClassCount < 1)) {
+            throw new IllegalArgumentException("Thread count and pending class count must be positive");
+        }
+
+        this.threadCount = threadCount;
+        this.maxPendingClassCount = maxPendingClassCount;
+        this.configuration = configuration;
+    }
+
+    public ArchiveDecompilerStatistics decompile(File archive, File sourceArchive) throws IOException {
+        ArchiveDecompilerStatistics statistics = new ArchiveDecompilerStatistics();
+        decompile(archive, sourceArchive, statistics);
+        return statistics;
+    }
+
+    public void decompile(File archive, File sourceArchive, ArchiveDecompilerListener listener) throws IOException {
+        try (ZipFileLoader loader = new ZipFileLoader(archive);
+             ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(sourceArchive)))) {
+            decompile(loader, out, listener);
+        }
+    }
+
+    public void decompile(ZipFileLoader loader, ZipOutputStream out, ArchiveDecompilerListener listener) throws IOException {
+        ZipFile zipFile = loader.getZipFile();
+        String prefix = loader.getPrefix();
+        ThreadLocal<Worker> workers = ThreadLocal.withInitial(() -> new Worker(loader));
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount, new WorkerThreadFactory());
+        ArrayDeque<Future<Result>> pendingResults = new ArrayDeque<>(maxPendingClassCount);
+        List<ZipEntry> resources = new DefaultList<>();
+
+        try {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+
+                if (!entry.isDirectory() && name.startsWith(prefix)) {
+                    String path = name.substring(prefix.length());
+
+                    if (path.endsWith(CLASS_FILE_SUFFIX)) {
+                        String internalTypeName = path.substring(0, path.length() - CLASS_FILE_SUFFIX.length());
+
+                        if (!isInnerClass(loader, internalTypeName)) {
+                            while (pendingResults.size() >= maxPendingClassCount) {
+                                write(out, pendingResults.removeFirst().get(), listener);
+                            }
+
+                            pendingResults.add(submit(executor, workers, internalTypeName));
+                        }
+                    } else {
+                        resources.add(entry);
+                    }
+                }
+            }
+
+            while (!pendingResults.isEmpty()) {
+                write(out, pendingResults.removeFirst().get(), listener);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Copy resources
+        byte[] buffer = new byte[1024 * 8];
+
+        for (ZipEntry entry : resources) {
+            out.putNextEntry(new ZipEntry(entry.getName().substring(prefix.length())));
+
+            try (InputStream is = zipFile.getInputStream(entry)) {
+                int read;
+
+                while ((read = is.read(buffer)) > 0) {
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            out.closeEntry();
+        }
+    }
+
+    protected Future<Result> submit(ExecutorService executor, ThreadLocal<Worker> workers, String internalTypeName) {
+        return executor.submit(() -> workers.get().decompile(internalTypeName));
+    }
+
+    protected static boolean isInnerClass(Loader loader, String internalTypeName) {
+        int index = internalTypeName.lastIndexOf('$');
+        return (index > 0) && loader.canLoad(internalTypeName.substring(0, index));
+    }
+
+    protected void write(ZipOutputStream out, Result result, ArchiveDecompilerListener listener) throws IOException {
+        if (result.throwable == null) {
+            out.putNextEntry(new ZipEntry(result.internalTypeName + JAVA_FILE_SUFFIX));
+            out.write(result.source);
+            out.closeEntry();
+
+            if (result.copied) {
+                listener.classCopied(result.internalTypeName);
+            } else {
+                listener.classDecompiled(result.internalTypeName, result.timeNanos);
+            }
+        } else if (result.throwable instanceof CancellationException) {
+            // The cancellation token of the configuration is shared by all the classes -> Stop
+            throw (CancellationException)result.throwable;
+        } else {
+            listener.classFailed(result.internalTypeName, result.timeNanos, result.throwable);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: java " + ArchiveDecompiler.class.getName() + " <archive> [<source archive>] [<thread count>]");
+            System.exit(2);
+        }
+
+        File archive = new File(args[0]);
+        File sourceArchive;
+
+        if (args.length > 1) {
+            sourceArchive = new File(args[1]);
+        } else {
+            String name = archive.getName();
+            int index = name.lastIndexOf('.');
+            sourceArchive = new File(archive.getAbsoluteFile().getParentFile(), ((index == -1) ? name : name.substring(0, index)) + "-sources.jar");
+        }
+
+        ArchiveDecompiler decompiler = (args.length > 2) ? new ArchiveDecompiler(Integer.parseInt(args[2])) : new ArchiveDecompiler();
+        ArchiveDecompilerStatistics statistics = new ArchiveDecompilerStatistics();
+        long time0 = System.currentTimeMillis();
+
+        decompiler.decompile(archive, sourceArchive, statistics);
+
+        for (String failure : statistics.getFailures()) {
+            System.err.println("Failed: " + failure);
+        }
+
+        System.out.println(sourceArchive + " written in " + (System.currentTimeMillis() - time0) + " ms");
+        System.out.println(statistics);
+    }
+
+    protected class Worker {
+        protected ClassFileToJavaSourceDecompiler decompiler = new ClassFileToJavaSourceDecompiler();
+        protected HashMap<String, Object> configuration = new HashMap<>();
+        protected ByteArrayOutputStream output = new ByteArrayOutputStream(1024 * 16);
+        protected ByteChannelPrinter printer = new ByteChannelPrinter(Channels.newChannel(output));
+        protected Loader loader;
+
+        public Worker(Loader loader) {
+            this.loader = loader;
+
+            if (ArchiveDecompiler.this.configuration != null) {
+                configuration.putAll(ArchiveDecompiler.this.configuration);
+            }
+        }
+
+        public Result decompile(String internalTypeName) {
+            long time0 = System.nanoTime();
+
+            try {
+                output.reset();
+                decompiler.decompile(loader, printer, internalTypeName, configuration);
+                return new Result(internalTypeName, output.toByteArray(), System.nanoTime() - time0, null);
+            } catch (Throwable t) {
+                return new Result(internalTypeName, null, System.nanoTime() - time0, t);
+            }
+        }
+    }
+
+    protected static class Result {
+        protected String internalTypeName;
+        protected byte[] source;
+        protected long timeNanos;
+        protected Throwable throwable;
+        protected boolean copied;
+
+        public Result(String internalTypeName, byte[] source, long timeNanos, Throwable throwable) {
+            this.internalTypeName = internalTypeName;
+            this.source = source;
+            this.timeNanos = timeNanos;
+            this.throwable = throwable;
+        }
+
+        public Result(String internalTypeName, byte[] source) {
+            this.internalTypeName = internalTypeName;
+            this.source = source;
+            this.copied = true;
+        }
+    }
+
+    protected static class WorkerThreadFactory implements ThreadFactory {
+        protected ThreadFactory defaultThreadFactory = Executors.defaultThreadFactory();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = defaultThreadFactory.newThread(runnable);
+            thread.setName("jd-core-" + thread.getName());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
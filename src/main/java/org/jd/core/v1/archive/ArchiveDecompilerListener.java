@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.archive;
+
+/**
+ * Receive the result of each class, in the order of the archive, from the thread writing the source archive.
+ */
+public interface ArchiveDecompilerListener {
+    void classDecompiled(String internalTypeName, long timeNanos);
+
+    void classFailed(String internalTypeName, long timeNanos, Throwable throwable);
+
+    /**
+     * The source has been copied from a previous source archive, without decompiling the class.
+     */
+    default void classCopied(String internalTypeName) {}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.archive;
+
+import org.jd.core.v1.util.DefaultList;
+
+import java.util.List;
+
+public class ArchiveDecompilerStatistics implements ArchiveDecompilerListener {
+    protected int classCount;
+    protected int failedClassCount;
+    protected int copiedClassCount;
+    protected long totalTimeNanos;
+    protected long maxTimeNanos;
+    protected String slowestInternalTypeName;
+    protected List<String> failures = new DefaultList<>();
+
+    public int getClassCount() {
+        return classCount;
+    }
+
+    public int getFailedClassCount() {
+        return failedClassCount;
+    }
+
+    public int getCopiedClassCount() {
+        return copiedClassCount;
+    }
+
+    public long getTotalTimeNanos() {
+        return totalTimeNanos;
+    }
+
+    public long getMaxTimeNanos() {
+        return maxTimeNanos;
+    }
+
+    public String getSlowestInternalTypeName() {
+        return slowestInternalTypeName;
+    }
+
+    /**
+     * @return '&lt;internal type name&gt;: &lt;error&gt;' for each failed class
+     */
+    public List<String> getFailures() {
+        return failures;
+    }
+
+    @Override
+    public void classDecompiled(String internalTypeName, long timeNanos) {
+        classCount++;
+        updateTime(internalTypeName, timeNanos);
+    }
+
+    @Override
+    public void classFailed(String internalTypeName, long timeNanos, Throwable throwable) {
+        classCount++;
+        failedClassCount++;
+        updateTime(internalTypeName, timeNanos);
+        failures.add(internalTypeName + ": " + throwable);
+    }
+
+    @Override
+    public void classCopied(String internalTypeName) {
+        classCount++;
+        copiedClassCount++;
+    }
+
+    protected void updateTime(String internalTypeName, long timeNanos) {
+        totalTimeNanos += timeNanos;
+
+        if (maxTimeNanos < timeNanos) {
+            maxTimeNanos = timeNanos;
+            slowestInternalTypeName = internalTypeName;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ArchiveDecompilerStatistics{classCount=" + classCount +
+                ", failedClassCount=" + failedClassCount +
+                ", copiedClassCount=" + copiedClassCount +
+                ", totalTime=" + (totalTimeNanos / 1000000) + " ms" +
+                ", averageTime=" + ((classCount == copiedClassCount) ? 0 : totalTimeNanos / (classCount - copiedClassCount) / 1000) + " us" +
+                ", maxTime=" + (maxTimeNanos / 1000000) + " ms" +
+                ", slowestClass=" + slowestInternalTypeName + "}";
+    }
+}
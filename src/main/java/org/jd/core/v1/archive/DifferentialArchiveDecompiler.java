@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.archive;
+
+import org.jd.core.v1.loader.ZipFileLoader;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Decompile a new version of an archive, reusing the source archive of a previous version.<br><br>
+ *
+ * A top-level class is unchanged if the class files of the class and of its '$' inner classes have the same names,
+ * CRC and sizes in both archives. Its source is copied from the previous source archive; other classes are
+ * decompiled. CRC and sizes are read from the central directories. The content is hashed only when they are unknown.
+ * The previous source archive must have been produced with the same configuration.<br><br>
+ *
+ * Limitation: the signature covers only the class files of the class itself. The decompiled source also depends on
+ * the super types, the interfaces and the members of the other types loaded by the converter, for example to insert
+ * casts or to choose the imports. A copied source may therefore differ from a fresh decompilation when only these
+ * dependencies changed. Use {@link ArchiveDecompiler} when such differences matter.
+ */
+public class DifferentialArchiveDecompiler extends ArchiveDecompiler {
+    protected File previousArchive;
+    protected File previousSourceArchive;
+
+    protected Map<String, String> previousSignatures;
+    protected Map<String, String> signatures;
+    protected ZipFile previousSourceZipFile;
+
+    public DifferentialArchiveDecompiler(File previousArchive, File previousSourceArchive) {
+        this(previousArchive, previousSourceArchive, Runtime.getRuntime().availableProcessors());
+    }
+
+    public DifferentialArchiveDecompiler(File previousArchive, File previousSourceArchive, int threadCount) {
+        this(previousArchive, previousSourceArchive, threadCount, threadCount * 4, null);
+    }
+
+    public DifferentialArchiveDecompiler(File previousArchive, File previousSourceArchive, int threadCount, int maxPendingClassCount, Map<String, Object> configuration) {
+        super(threadCount, maxPendingClassCount, configuration);
+        this.previousArchive = previousArchive;
+        this.previousSourceArchive = previousSourceArchive;
+    }
+
+    @Override
+    public synchronized void decompile(ZipFileLoader loader, ZipOutputStream out, ArchiveDecompilerListener listener) throws IOException {
+        try (ZipFile previousZipFile = new ZipFile(previousArchive);
+             ZipFile previousSourceZipFile = new ZipFile(previousSourceArchive)) {
+            this.previousSignatures = computeSignatures(previousZipFile, ZipFileLoader.getClassPrefix(previousArchive.getName()));
+            this.signatures = computeSignatures(loader.getZipFile(), loader.getPrefix());
+            this.previousSourceZipFile = previousSourceZipFile;
+
+            super.decompile(loader, out, listener);
+        } finally {
+            this.previousSignatures = this.signatures = null;
+            this.previousSourceZipFile = null;
+        }
+    }
+
+    @Override
+    protected Future<Result> submit(ExecutorService executor, ThreadLocal<Worker> workers, String internalTypeName) {
+        String signature = signatures.get(internalTypeName);
+
+        if ((signature != null) && signature.equals(previousSignatures.get(internalTypeName))) {
+            ZipEntry entry = previousSourceZipFile.getEntry(internalTypeName + JAVA_FILE_SUFFIX);
+
+            if (entry != null) {
+                try (InputStream is = previousSourceZipFile.getInputStream(entry)) {
+                    return CompletableFuture.completedFuture(new Result(internalTypeName, readFully(is)));
+                } catch (IOException ignore) {
+                    // Decompile the class
+                }
+            }
+        }
+
+        return super.submit(executor, workers, internalTypeName);
+    }
+
+    /**
+     * @return the signature of each top-level class: the names, CRC and sizes of its class files
+     */
+    protected static Map<String, String> computeSignatures(ZipFile zipFile, String prefix) throws IOException {
+        TreeMap<String, ZipEntry> entries = new TreeMap<>();
+        Enumeration<? extends ZipEntry> enumeration = zipFile.entries();
+
+        while (enumeration.hasMoreElements()) {
+            ZipEntry entry = enumeration.nextElement();
+            String name = entry.getName();
+
+            if (!entry.isDirectory() && name.startsWith(prefix) && name.endsWith(CLASS_FILE_SUFFIX)) {
+                entries.put(name.substring(prefix.length(), name.length() - CLASS_FILE_SUFFIX.length()), entry);
+            }
+        }
+
+        // Sorted by name: the signatures do not depend on the order of the archives
+        HashMap<String, StringBuilder> builders = new HashMap<>(entries.size() * 2);
+
+        for (Map.Entry<String, ZipEntry> mapEntry : entries.entrySet()) {
+            String internalTypeName = mapEntry.getKey();
+            ZipEntry entry = mapEntry.getValue();
+            long crc = entry.getCrc();
+            long size = entry.getSize();
+
+            if ((crc == -1) || (size == -1)) {
+                CRC32 crc32 = new CRC32();
+
+                try (InputStream is = zipFile.getInputStream(entry)) {
+                    byte[] bytes = readFully(is);
+                    crc32.update(bytes);
+                    size = bytes.length;
+                }
+
+                crc = crc32.getValue();
+            }
+
+            builders.computeIfAbsent(getTopLevelTypeName(entries, internalTypeName), k -> new StringBuilder())
+                    .append(internalTypeName).append(':').append(crc).append(':').append(size).append(';');
+        }
+
+        HashMap<String, String> signatures = new HashMap<>(builders.size() * 2);
+
+        for (Map.Entry<String, StringBuilder> mapEntry : builders.entrySet()) {
+            signatures.put(mapEntry.getKey(), mapEntry.getValue().toString());
+        }
+
+        return signatures;
+    }
+
+    protected static String getTopLevelTypeName(Map<String, ZipEntry> entries, String internalTypeName) {
+        int index;
+
+        while (((index = internalTypeName.lastIndexOf('$')) > 0) && entries.containsKey(internalTypeName.substring(0, index))) {
+            internalTypeName = internalTypeName.substring(0, index);
+        }
+
+        return internalTypeName;
+    }
+
+    protected static byte[] readFully(InputStream is) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024 * 8];
+        int read;
+
+        while ((read = is.read(buffer)) > 0) {
+            out.write(buffer, 0, read);
+        }
+
+        return out.toByteArray();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("Usage: java " + DifferentialArchiveDecompiler.class.getName() + " <previous archive> <previous source archive> <archive> <source archive> [<thread count>]");
+            System.exit(2);
+        }
+
+        File previousArchive = new File(args[0]);
+        File previousSourceArchive = new File(args[1]);
+        File archive = new File(args[2]);
+        File sourceArchive = new File(args[3]);
+
+        DifferentialArchiveDecompiler decompiler = (args.length > 4) ?
+                new DifferentialArchiveDecompiler(previousArchive, previousSourceArchive, Integer.parseInt(args[4])) :
+                new DifferentialArchiveDecompiler(previousArchive, previousSourceArchive);
+        ArchiveDecompilerStatistics statistics = new ArchiveDecompilerStatistics();
+        long time0 = System.currentTimeMillis();
+
+        decompiler.decompile(archive, sourceArchive, statistics);
+
+        for (String failure : statistics.getFailures()) {
+            System.err.println("Failed: " + failure);
+        }
+
+        System.out.println(sourceArchive + " written in " + (System.currentTimeMillis() - time0) + " ms, " +
+                statistics.getCopiedClassCount() + " classes skipped");
+        System.out.println(statistics);
+    }
+}
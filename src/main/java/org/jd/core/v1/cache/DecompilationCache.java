@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Disk store of decompilation records, addressed by the hexadecimal hash of their content key. Each record is a file
+ * 'ab/cdef...'. The total size is bounded: the least recently used records are deleted first. Records are written to
+ * a temporary file, then moved atomically.<br><br>
+ *
+ * Instances are thread-safe.
+ */
+public class DecompilationCache {
+    protected Path directory;
+    protected long maxSize;
+    protected long size;
+    protected LinkedHashMap<String, Long> recordSizes = new LinkedHashMap<>(256, 0.75F, true);
+
+    protected long hitCount;
+    protected long missCount;
+    protected long storeCount;
+    protected long evictionCount;
+
+    /**
+     * @param maxSize maximum size in bytes of the records
+     */
+    public DecompilationCache(File directory, long maxSize) throws IOException {
+        this.directory = directory.toPath();
+        this.maxSize = maxSize;
+
+        Files.createDirectories(this.directory);
+
+        // Index existing records, least recently used first
+        List<Path> paths = new ArrayList<>();
+
+        try (Stream<Path> stream = Files.walk(this.directory, 2)) {
+            stream.filter(p -> Files.isRegularFile(p) && !p.getFileName().toString().endsWith(".tmp")).forEach(paths::add);
+        }
+
+        HashMap<Path, Long> lastModifiedTimes = new HashMap<>();
+
+        for (Path path : paths) {
+            lastModifiedTimes.put(path, Files.getLastModifiedTime(path).toMillis());
+        }
+
+        paths.sort(Comparator.comparing(lastModifiedTimes::get));
+
+        for (Path path : paths) {
+            long recordSize = Files.size(path);
+            recordSizes.put(path.getParent().getFileName().toString() + path.getFileName(), recordSize);
+            size += recordSize;
+        }
+
+        evict();
+    }
+
+    /**
+     * @return the record or null
+     */
+    public byte[] get(String key) {
+        synchronized (this) {
+            if (recordSizes.get(key) == null) {
+                missCount++;
+                return null;
+            }
+        }
+
+        Path path = getPath(key);
+
+        try {
+            byte[] record = Files.readAllBytes(path);
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+
+            synchronized (this) {
+                hitCount++;
+            }
+
+            return record;
+        } catch (IOException e) {
+            // Deleted by another process
+            synchronized (this) {
+                Long recordSize = recordSizes.remove(key);
+
+                if (recordSize != null) {
+                    size -= recordSize;
+                }
+
+                missCount++;
+            }
+
+            return null;
+        }
+    }
+
+    public void put(String key, byte[] record) throws IOException {
+        if (record.length > maxSize) {
+            return;
+        }
+
+        Path path = getPath(key);
+        Path tmpPath = path.resolveSibling(path.getFileName() + "." + Thread.currentThread().getId() + ".tmp");
+
+        Files.createDirectories(path.getParent());
+        Files.write(tmpPath, record);
+
+        try {
+            Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        synchronized (this) {
+            Long oldSize = recordSizes.put(key, (long)record.length);
+
+            if (oldSize != null) {
+                size -= oldSize;
+            }
+
+            size += record.length;
+            storeCount++;
+            evict();
+        }
+    }
+
+    public synchronized long getSize() {
+        return size;
+    }
+
+    public synchronized int getRecordCount() {
+        return recordSizes.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getStoreCount() {
+        return storeCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public synchronized double getHitRatio() {
+        long count = hitCount + missCount;
+        return (count == 0) ? 0 : (double)hitCount / count;
+    }
+
+    protected Path getPath(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key.substring(2));
+    }
+
+    protected synchronized void evict() {
+        Iterator<Map.Entry<String, Long>> iterator = recordSizes.entrySet().iterator();
+
+        while ((size > maxSize) && iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+
+            try {
+                Files.deleteIfExists(getPath(entry.getKey()));
+            } catch (IOException ignore) {
+                // Deleted later, at the next start
+            }
+
+            size -= entry.getValue();
+            evictionCount++;
+            iterator.remove();
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "DecompilationCache{records=" + recordSizes.size() + ", size=" + size + ", hits=" + hitCount +
+                ", misses=" + missCount + ", hitRatio=" + getHitRatio() + ", evictions=" + evictionCount + "}";
+    }
+}
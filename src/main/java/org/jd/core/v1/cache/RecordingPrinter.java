@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.cache;
+
+import org.jd.core.v1.api.printer.Printer;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Forward the calls to a printer and record them. The record can be replayed later into any printer.
+ */
+public class RecordingPrinter implements Printer {
+    protected static final byte START = 1;
+    protected static final byte END = 2;
+    protected static final byte TEXT = 3;
+    protected static final byte NUMERIC_CONSTANT = 4;
+    protected static final byte STRING_CONSTANT = 5;
+    protected static final byte KEYWORD = 6;
+    protected static final byte DECLARATION = 7;
+    protected static final byte REFERENCE = 8;
+    protected static final byte INDENT = 9;
+    protected static final byte UNINDENT = 10;
+    protected static final byte START_LINE = 11;
+    protected static final byte END_LINE = 12;
+    protected static final byte EXTRA_LINE = 13;
+    protected static final byte START_MARKER = 14;
+    protected static final byte END_MARKER = 15;
+
+    protected Printer printer;
+    protected ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024 * 8);
+    protected DataOutputStream out = new DataOutputStream(buffer);
+
+    public RecordingPrinter(Printer printer) {
+        this.printer = printer;
+    }
+
+    public byte[] toByteArray() {
+        return buffer.toByteArray();
+    }
+
+    public static void replay(byte[] record, Printer printer) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        int code;
+
+        while ((code = in.read()) != -1) {
+            switch (code) {
+                case START: printer.start(in.readInt(), in.readInt(), in.readInt()); break;
+                case END: printer.end(); break;
+                case TEXT: printer.printText(readString(in)); break;
+                case NUMERIC_CONSTANT: printer.printNumericConstant(readString(in)); break;
+                case STRING_CONSTANT: printer.printStringConstant(readString(in), readString(in)); break;
+                case KEYWORD: printer.printKeyword(readString(in)); break;
+                case DECLARATION: printer.printDeclaration(in.readInt(), readString(in), readString(in), readString(in)); break;
+                case REFERENCE: printer.printReference(in.readInt(), readString(in), readString(in), readString(in), readString(in)); break;
+                case INDENT: printer.indent(); break;
+                case UNINDENT: printer.unindent(); break;
+                case START_LINE: printer.startLine(in.readInt()); break;
+                case END_LINE: printer.endLine(); break;
+                case EXTRA_LINE: printer.extraLine(in.readInt()); break;
+                case START_MARKER: printer.startMarker(in.readInt()); break;
+                case END_MARKER: printer.endMarker(in.readInt()); break;
+                default: throw new IOException("Invalid record");
+            }
+        }
+    }
+
+    @Override
+    public void start(int maxLineNumber, int majorVersion, int minorVersion) {
+        write(START);
+        writeInt(maxLineNumber);
+        writeInt(majorVersion);
+        writeInt(minorVersion);
+        printer.start(maxLineNumber, majorVersion, minorVersion);
+    }
+
+    @Override
+    public void end() {
+        write(END);
+        printer.end();
+    }
+
+    @Override
+    public void printText(String text) {
+        write(TEXT);
+        writeString(text);
+        printer.printText(text);
+    }
+
+    @Override
+    public void printNumericConstant(String constant) {
+        write(NUMERIC_CONSTANT);
+        writeString(constant);
+        printer.printNumericConstant(constant);
+    }
+
+    @Override
+    public void printStringConstant(String constant, String ownerInternalName) {
+        write(STRING_CONSTANT);
+        writeString(constant);
+        writeString(ownerInternalName);
+        printer.printStringConstant(constant, ownerInternalName);
+    }
+
+    @Override
+    public void printKeyword(String keyword) {
+        write(KEYWORD);
+        writeString(keyword);
+        printer.printKeyword(keyword);
+    }
+
+    @Override
+    public void printDeclaration(int type, String internalTypeName, String name, String descriptor) {
+        write(DECLARATION);
+        writeInt(type);
+        writeString(internalTypeName);
+        writeString(name);
+        writeString(descriptor);
+        printer.printDeclaration(type, internalTypeName, name, descriptor);
+    }
+
+    @Override
+    public void printReference(int type, String internalTypeName, String name, String descriptor, String ownerInternalName) {
+        write(REFERENCE);
+        writeInt(type);
+        writeString(internalTypeName);
+        writeString(name);
+        writeString(descriptor);
+        writeString(ownerInternalName);
+        printer.printReference(type, internalTypeName, name, descriptor, ownerInternalName);
+    }
+
+    @Override
+    public void indent() {
+        write(INDENT);
+        printer.indent();
+    }
+
+    @Override
+    public void unindent() {
+        write(UNINDENT);
+        printer.unindent();
+    }
+
+    @Override
+    public void startLine(int lineNumber) {
+        write(START_LINE);
+        writeInt(lineNumber);
+        printer.startLine(lineNumber);
+    }
+
+    @Override
+    public void endLine() {
+        write(END_LINE);
+        printer.endLine();
+    }
+
+    @Override
+    public void extraLine(int count) {
+        write(EXTRA_LINE);
+        writeInt(count);
+        printer.extraLine(count);
+    }
+
+    @Override
+    public void startMarker(int type) {
+        write(START_MARKER);
+        writeInt(type);
+        printer.startMarker(type);
+    }
+
+    @Override
+    public void endMarker(int type) {
+        write(END_MARKER);
+        writeInt(type);
+        printer.endMarker(type);
+    }
+
+    protected void write(byte code) {
+        buffer.write(code);
+    }
+
+    protected void writeInt(int i) {
+        try {
+            out.writeInt(i);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Length -1 for null. 'writeUTF' is limited to 64KB.
+    protected void writeString(String s) {
+        try {
+            if (s == null) {
+                out.writeInt(-1);
+            } else {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+
+        if (length == -1) {
+            return null;
+        } else {
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
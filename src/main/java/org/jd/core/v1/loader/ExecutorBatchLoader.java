@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.loader;
+
+import org.jd.core.v1.api.loader.BatchLoader;
+import org.jd.core.v1.api.loader.Loader;
+import org.jd.core.v1.api.loader.LoaderException;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Batch loader running the requests of a synchronous {@link Loader} concurrently on an {@link Executor}: the round
+ * trips of a batch overlap. The wrapped loader must be thread-safe.
+ */
+public class ExecutorBatchLoader implements BatchLoader {
+    protected Loader loader;
+    protected Executor executor;
+
+    public ExecutorBatchLoader(Loader loader, Executor executor) {
+        this.loader = loader;
+        this.executor = executor;
+    }
+
+    @Override
+    public boolean canLoad(String internalName) {
+        return loader.canLoad(internalName);
+    }
+
+    @Override
+    public byte[] load(String internalName) throws LoaderException {
+        return loader.load(internalName);
+    }
+
+    @Override
+    public Map<String, Future<byte[]>> loadAll(Collection<String> internalNames) {
+        HashMap<String, Future<byte[]>> futures = new HashMap<>(internalNames.size() * 2);
+
+        for (String internalName : internalNames) {
+            if (!futures.containsKey(internalName)) {
+                FutureTask<byte[]> future = new FutureTask<>(() -> loader.canLoad(internalName) ? loader.load(internalName) : null);
+
+                futures.put(internalName, future);
+                executor.execute(future);
+            }
+        }
+
+        return futures;
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.loader;
+
+import org.jd.core.v1.api.loader.Loader;
+import org.jd.core.v1.api.loader.LoaderException;
+
+import java.io.Closeable;
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.Instrumentation;
+import java.lang.instrument.UnmodifiableClassException;
+import java.lang.ref.WeakReference;
+import java.security.ProtectionDomain;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Load the class files of the classes loaded in the current JVM, from memory.<br><br>
+ *
+ * This loader is a retransformation capable {@link ClassFileTransformer}: it never modifies a class, it captures the
+ * bytes of the classes defined after its registration, runtime generated proxies included, in a LRU buffer bounded in
+ * bytes. The bytes of the other loaded classes are requested on demand by retransforming them. The class files are
+ * those reconstituted by the JVM: the constant pool order may differ from the original files.<br><br>
+ *
+ * When several class loaders define the same name, the first class found is used. Hidden classes and VM anonymous
+ * classes can not be retransformed and are only available if captured at their definition.<br><br>
+ *
+ * Instances are thread-safe. The agent JAR must declare 'Can-Retransform-Classes: true'.
+ */
+public class InstrumentationLoader implements Loader, ClassFileTransformer, Closeable {
+    public static final int DEFAULT_MAX_CAPTURE_SIZE = 1024 * 1024 * 4;
+
+    protected Instrumentation instrumentation;
+    protected LinkedHashMap<String, byte[]> captures = new LinkedHashMap<>(64, 0.75F, true);
+    protected int captureSize;
+    protected int maxCaptureSize;
+    protected HashMap<String, WeakReference<Class<?>>> loadedClasses = new HashMap<>();
+    protected int definedClassCount;
+    protected int indexedClassCount = -1;
+    protected ThreadLocal<Request> requests = new ThreadLocal<>();
+
+    public InstrumentationLoader(Instrumentation instrumentation) {
+        this(instrumentation, DEFAULT_MAX_CAPTURE_SIZE);
+    }
+
+    /**
+     * @param maxCaptureSize maximum size in bytes of the captured class files
+     */
+    public InstrumentationLoader(Instrumentation instrumentation, int maxCaptureSize) {
+        if (!instrumentation.isRetransformClassesSupported()) {
+            throw new IllegalArgumentException("Class retransformation not supported");
+        }
+
+        this.instrumentation = instrumentation;
+        this.maxCaptureSize = maxCaptureSize;
+
+        instrumentation.addTransformer(this, true);
+    }
+
+    @Override
+    public boolean canLoad(String internalName) {
+        synchronized (captures) {
+            if (captures.containsKey(internalName)) {
+                return true;
+            }
+        }
+
+        return getLoadedClass(internalName) != null;
+    }
+
+    @Override
+    public byte[] load(String internalName) throws LoaderException {
+        byte[] data;
+
+        synchronized (captures) {
+            data = captures.get(internalName);
+        }
+
+        if (data == null) {
+            Class<?> loadedClass = getLoadedClass(internalName);
+
+            if (loadedClass != null) {
+                Request request = new Request(internalName);
+
+                requests.set(request);
+
+                try {
+                    instrumentation.retransformClasses(loadedClass);
+                } catch (UnmodifiableClassException e) {
+                    throw new LoaderException(e);
+                } finally {
+                    requests.remove();
+                }
+
+                data = request.data;
+            }
+        }
+
+        return data;
+    }
+
+    @Override
+    public byte[] transform(
+            ClassLoader loader, String className, Class<?> classBeingRedefined,
+            ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+        if (className != null) {
+            Request request = requests.get();
+
+            if ((request != null) && className.equals(request.internalName)) {
+                request.data = classfileBuffer;
+            }
+
+            capture(className, classfileBuffer, classBeingRedefined == null);
+        }
+
+        // Unchanged
+        return null;
+    }
+
+    public int getCaptureSize() {
+        synchronized (captures) {
+            return captureSize;
+        }
+    }
+
+    @Override
+    public void close() {
+        instrumentation.removeTransformer(this);
+
+        synchronized (captures) {
+            captures.clear();
+            captureSize = 0;
+            loadedClasses.clear();
+            indexedClassCount = -1;
+        }
+    }
+
+    protected void capture(String internalName, byte[] data, boolean definition) {
+        synchronized (captures) {
+            if (definition) {
+                definedClassCount++;
+            }
+
+            if (data.length <= maxCaptureSize) {
+                byte[] old = captures.put(internalName, data);
+
+                if (old != null) {
+                    captureSize -= old.length;
+                }
+
+                captureSize += data.length;
+
+                Iterator<byte[]> iterator = captures.values().iterator();
+
+                while (captureSize > maxCaptureSize) {
+                    captureSize -= iterator.next().length;
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    protected Class<?> getLoadedClass(String internalName) {
+        int count;
+
+        synchronized (captures) {
+            WeakReference<Class<?>> reference = loadedClasses.get(internalName);
+
+            if (reference != null) {
+                Class<?> loadedClass = reference.get();
+
+                if (loadedClass != null) {
+                    return loadedClass;
+                }
+            }
+
+            if (indexedClassCount == definedClassCount) {
+                // No class defined since the last indexation
+                return null;
+            }
+
+            count = definedClassCount;
+        }
+
+        // Index the loaded classes, outside of the lock: class definitions call 'transform'
+        HashMap<String, WeakReference<Class<?>>> index = new HashMap<>();
+
+        for (Class<?> loadedClass : instrumentation.getAllLoadedClasses()) {
+            if (!loadedClass.isArray() && !loadedClass.isPrimitive() && instrumentation.isModifiableClass(loadedClass)) {
+                index.putIfAbsent(loadedClass.getName().replace('.', '/'), new WeakReference<>(loadedClass));
+            }
+        }
+
+        synchronized (captures) {
+            loadedClasses = index;
+            indexedClassCount = count;
+
+            WeakReference<Class<?>> reference = index.get(internalName);
+            return (reference == null) ? null : reference.get();
+        }
+    }
+
+    protected static class Request {
+        protected String internalName;
+        protected byte[] data;
+
+        public Request(String internalName) {
+            this.internalName = internalName;
+        }
+    }
+}
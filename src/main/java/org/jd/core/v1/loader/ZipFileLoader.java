@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.loader;
+
+import org.jd.core.v1.api.loader.Loader;
+import org.jd.core.v1.api.loader.LoaderException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Load class files from a JAR, a WAR or a JMOD archive.<br><br>
+ *
+ * The central directory is indexed once by internal type name: 'canLoad' is a single lookup. Entries are inflated on
+ * demand into an array of their uncompressed size. The class files recently loaded are kept in a LRU cache bounded in bytes:
+ * a class is usually requested several times, by the deserializer, then by the TypeMaker for its type, its super
+ * types and its members.<br><br>
+ *
+ * Instances are thread-safe.
+ */
+public class ZipFileLoader implements Loader, Closeable {
+    public static final int DEFAULT_MAX_CACHE_SIZE = 1024 * 1024 * 8;
+
+    protected static final String CLASS_FILE_SUFFIX = ".class";
+
+    protected ZipFile zipFile;
+    protected String prefix;
+    protected HashMap<String, ZipEntry> entries = new HashMap<>();
+    protected LinkedHashMap<String, byte[]> cache = new LinkedHashMap<>(64, 0.75F, true);
+    protected int cacheSize;
+    protected int maxCacheSize;
+
+    public ZipFileLoader(File file) throws IOException {
+        this(new ZipFile(file), getClassPrefix(file.getName()), DEFAULT_MAX_CACHE_SIZE);
+    }
+
+    public ZipFileLoader(ZipFile zipFile, String prefix) {
+        this(zipFile, prefix, DEFAULT_MAX_CACHE_SIZE);
+    }
+
+    /**
+     * @param prefix       path of the root package in the archive, for example "WEB-INF/classes/"
+     * @param maxCacheSize maximum size in bytes of the cached class files, 0 to disable the cache
+     */
+    public ZipFileLoader(ZipFile zipFile, String prefix, int maxCacheSize) {
+        this.zipFile = zipFile;
+        this.prefix = prefix;
+        this.maxCacheSize = maxCacheSize;
+
+        int prefixLength = prefix.length();
+        Enumeration<? extends ZipEntry> enumeration = zipFile.entries();
+
+        while (enumeration.hasMoreElements()) {
+            ZipEntry entry = enumeration.nextElement();
+            String name = entry.getName();
+
+            if (!entry.isDirectory() && name.startsWith(prefix) && name.endsWith(CLASS_FILE_SUFFIX)) {
+                entries.put(name.substring(prefixLength, name.length() - CLASS_FILE_SUFFIX.length()), entry);
+            }
+        }
+    }
+
+    public ZipFile getZipFile() {
+        return zipFile;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public static String getClassPrefix(String fileName) {
+        String lowerCaseFileName = fileName.toLowerCase();
+
+        if (lowerCaseFileName.endsWith(".jmod")) {
+            return "classes/";
+        } else if (lowerCaseFileName.endsWith(".war")) {
+            return "WEB-INF/classes/";
+        } else {
+            return "";
+        }
+    }
+
+    @Override
+    public boolean canLoad(String internalName) {
+        return entries.containsKey(internalName);
+    }
+
+    @Override
+    public byte[] load(String internalName) throws LoaderException {
+        ZipEntry entry = entries.get(internalName);
+
+        if (entry == null) {
+            return null;
+        }
+
+        byte[] data;
+
+        synchronized (cache) {
+            data = cache.get(internalName);
+        }
+
+        if (data == null) {
+            try (InputStream is = zipFile.getInputStream(entry)) {
+                data = read(is, entry.getSize());
+            } catch (IOException e) {
+                throw new LoaderException(e);
+            }
+
+            if (data.length <= maxCacheSize) {
+                synchronized (cache) {
+                    if (cache.put(internalName, data) == null) {
+                        cacheSize += data.length;
+                    }
+
+                    Iterator<byte[]> iterator = cache.values().iterator();
+
+                    while (cacheSize > maxCacheSize) {
+                        cacheSize -= iterator.next().length;
+                        iterator.remove();
+                    }
+                }
+            }
+        }
+
+        return data;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (cache) {
+            cache.clear();
+            cacheSize = 0;
+        }
+
+        zipFile.close();
+    }
+
+    protected byte[] read(InputStream is, long size) throws IOException {
+        if (size >= 0) {
+            byte[] data = new byte[(int)size];
+            int length = 0;
+            int read;
+
+            while ((length < data.length) && ((read = is.read(data, length, data.length - length)) > 0)) {
+                length += read;
+            }
+
+            return (length == data.length) ? data : Arrays.copyOf(data, length);
+        }
+
+        // Unknown size
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024 * 16);
+        byte[] buffer = new byte[1024 * 4];
+        int read;
+
+        while ((read = is.read(buffer)) > 0) {
+            out.write(buffer, 0, read);
+        }
+
+        return out.toByteArray();
+    }
+}
@@ -98,6 +98,32 @@ public class ClassFile {
         this.innerClassFiles = innerClassFiles;
     }
 
+    /**
+     * Release the attributes and the constant pool of the class file and of its inner class files, once converted to
+     * a Java syntax model. Names, descriptors and flags are kept.
+     */
+    public void release() {
+        if (fields != null) {
+            for (Field field : fields) {
+                field.release();
+            }
+        }
+
+        if (methods != null) {
+            for (Method method : methods) {
+                method.release();
+            }
+        }
+
+        attributes = null;
+
+        if (innerClassFiles != null) {
+            for (ClassFile innerClassFile : innerClassFiles) {
+                innerClassFile.release();
+            }
+        }
+    }
+
     @Override
     public String toString() {
         return "ClassFile{" + internalTypeName + "}";
@@ -41,6 +41,13 @@ public class Field {
         return (attributes == null) ? null : (T)attributes.get(name);
     }
 
+    /**
+     * Release the attributes, once the field has been converted.
+     */
+    public void release() {
+        this.attributes = null;
+    }
+
     @Override
     public String toString() {
         return "Field{" + name + " " + descriptor + "}";
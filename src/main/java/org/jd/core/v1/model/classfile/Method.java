@@ -50,6 +50,14 @@ public class Method {
         return constants;
     }
 
+    /**
+     * Release the attributes and the constant pool, once the method has been converted.
+     */
+    public void release() {
+        this.attributes = null;
+        this.constants = null;
+    }
+
     @Override
     public String toString() {
         return "Method{" + name + " " + descriptor + "}";
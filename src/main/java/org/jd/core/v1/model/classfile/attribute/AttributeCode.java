@@ -44,4 +44,17 @@ public class AttributeCode implements Attribute {
     public <T extends Attribute> T getAttribute(String name) {
         return (attributes == null) ? null : (T)attributes.get(name);
     }
+
+    /**
+     * Release the byte code, the exception table and the attributes, once the statements of the method are built.
+     */
+    public void release() {
+        this.code = null;
+        this.exceptionTable = null;
+        this.attributes = null;
+    }
+
+    public boolean isReleased() {
+        return code == null;
+    }
 }
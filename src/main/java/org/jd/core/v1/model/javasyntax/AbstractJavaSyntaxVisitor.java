@@ -13,7 +13,6 @@ import org.jd.core.v1.model.javasyntax.reference.*;
 import org.jd.core.v1.model.javasyntax.statement.*;
 import org.jd.core.v1.model.javasyntax.type.*;
 
-import java.util.Iterator;
 import java.util.List;
 
 public abstract class AbstractJavaSyntaxVisitor extends AbstractTypeArgumentVisitor implements DeclarationVisitor, ExpressionVisitor, ReferenceVisitor, StatementVisitor, TypeVisitor, TypeParameterVisitor {
@@ -631,10 +630,8 @@ public abstract class AbstractJavaSyntaxVisitor extends AbstractTypeArgumentVisi
 
     @Override
     public void visit(TypeParameters parameters) {
-        Iterator<TypeParameter> iterator = parameters.iterator();
-
-        while (iterator.hasNext())
-            iterator.next().accept(this);
+        for (int i=0, size=parameters.size(); i<size; i++)
+            parameters.get(i).accept(this);
     }
 
     public void visit(TypeDeclaration declaration) {
@@ -644,33 +641,32 @@ public abstract class AbstractJavaSyntaxVisitor extends AbstractTypeArgumentVisi
     @Override
     @SuppressWarnings("unchecked")
     public void visit(Types types) {
-        Iterator<Type> iterator = types.iterator();
-
-        while (iterator.hasNext()) {
-            BaseType type = iterator.next();
+        for (int i=0, size=types.size(); i<size; i++) {
+            BaseType type = types.get(i);
 
             type.accept(this);
         }
     }
 
+    // Index-based loops: the lists are array lists, no iterator is created
     public void acceptListDeclaration(List<? extends Declaration> list) {
-        for (Declaration declaration : list)
-            declaration.accept(this);
+        for (int i=0, size=list.size(); i<size; i++)
+            list.get(i).accept(this);
     }
 
     public void acceptListExpression(List<? extends Expression> list) {
-        for (Expression expression : list)
-            expression.accept(this);
+        for (int i=0, size=list.size(); i<size; i++)
+            list.get(i).accept(this);
     }
 
     public void acceptListReference(List<? extends Reference> list) {
-        for (Reference reference : list)
-            reference.accept(this);
+        for (int i=0, size=list.size(); i<size; i++)
+            list.get(i).accept(this);
     }
 
     public void acceptListStatement(List<? extends Statement> list) {
-        for (Statement statement : list)
-            statement.accept(this);
+        for (int i=0, size=list.size(); i<size; i++)
+            list.get(i).accept(this);
     }
 
     public void safeAccept(Declaration declaration) {
@@ -704,16 +700,12 @@ public abstract class AbstractJavaSyntaxVisitor extends AbstractTypeArgumentVisi
     }
 
     public void safeAcceptListDeclaration(List<? extends Declaration> list) {
-        if (list != null) {
-            for (Declaration declaration : list)
-                declaration.accept(this);
-        }
+        if (list != null)
+            acceptListDeclaration(list);
     }
 
     public void safeAcceptListStatement(List<? extends Statement> list) {
-        if (list != null) {
-            for (Statement statement : list)
-                statement.accept(this);
-        }
+        if (list != null)
+            acceptListStatement(list);
     }
 }
@@ -10,8 +10,8 @@ package org.jd.core.v1.model.javasyntax.type;
 public abstract class AbstractTypeArgumentVisitor implements TypeArgumentVisitor {
     @Override
     public void visit(TypeArguments arguments) {
-        for (TypeArgument typeArgument : arguments) {
-            typeArgument.accept(this);
+        for (int i=0, size=arguments.size(); i<size; i++) {
+            arguments.get(i).accept(this);
         }
     }
 
@@ -33,6 +33,13 @@ public interface BaseTypeArgument extends TypeArgumentVisitable {
         return 1;
     }
 
+    default TypeArgument getTypeArgument(int index) {
+        if (index != 0) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: 1");
+        }
+        return (TypeArgument)this;
+    }
+
     default boolean isGenericTypeArgument() { return false; }
     default boolean isInnerObjectTypeArgument() { return false; }
     default boolean isObjectTypeArgument() { return false; }
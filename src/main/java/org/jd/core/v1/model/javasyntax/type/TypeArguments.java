@@ -39,11 +39,8 @@ public class TypeArguments extends DefaultList<TypeArgument> implements BaseType
             return false;
         }
 
-        Iterator<TypeArgument> iterator1 = iterator();
-        Iterator<TypeArgument> iterator2 = ata.iterator();
-
-        while (iterator1.hasNext()) {
-            if (!iterator1.next().isTypeArgumentAssignableFrom(typeBounds, iterator2.next())) {
+        for (int i=0, size=size(); i<size; i++) {
+            if (!get(i).isTypeArgumentAssignableFrom(typeBounds, ata.get(i))) {
                 return false;
             }
         }
@@ -71,6 +68,11 @@ public class TypeArguments extends DefaultList<TypeArgument> implements BaseType
         return size();
     }
 
+    @Override
+    public TypeArgument getTypeArgument(int index) {
+        return get(index);
+    }
+
     @Override
     public void accept(TypeArgumentVisitor visitor) {
         visitor.visit(this);
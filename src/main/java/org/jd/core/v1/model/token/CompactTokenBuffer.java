@@ -0,0 +1,454 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.model.token;
+
+import org.jd.core.v1.api.printer.CharSink;
+import org.jd.core.v1.util.EscapeUtil;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+
+/**
+ * List of tokens stored in parallel arrays: one kind byte and one value per token, strings interned in a table.
+ * Declarations, references and constants with an owner keep their additional values in a pool of ints.<br><br>
+ *
+ * Readers walk the tokens with an index and the 'get*(index)' accessors. 'get(index)' returns an equivalent
+ * {@link Token} object, for compatibility: block and marker singletons, and other marker tokens, are returned as is.<br><br>
+ *
+ * The buffer is append-only: tokens are added with 'add(token)' and 'addAll(tokens)'; 'set', 'add(index, token)' and
+ * 'remove' throw an UnsupportedOperationException.
+ */
+public class CompactTokenBuffer extends AbstractList<Token> {
+    public static final byte BOOLEAN_CONSTANT = 1;
+    public static final byte CHARACTER_CONSTANT = 2;
+    public static final byte DECLARATION = 3;
+    public static final byte START_BLOCK = 4;
+    public static final byte END_BLOCK = 5;
+    public static final byte START_MARKER = 6;
+    public static final byte END_MARKER = 7;
+    public static final byte NEW_LINE = 8;
+    public static final byte KEYWORD = 9;
+    public static final byte LINE_NUMBER = 10;
+    public static final byte NUMERIC_CONSTANT = 11;
+    public static final byte REFERENCE = 12;
+    public static final byte STRING_CONSTANT = 13;
+    public static final byte UNESCAPED_STRING_CONSTANT = 14;
+    public static final byte TEXT = 15;
+
+    protected static final StartBlockToken[] START_BLOCKS = {
+        StartBlockToken.START_BLOCK, StartBlockToken.START_ARRAY_BLOCK, StartBlockToken.START_ARRAY_INITIALIZER_BLOCK,
+        StartBlockToken.START_PARAMETERS_BLOCK, StartBlockToken.START_RESOURCES_BLOCK, StartBlockToken.START_DECLARATION_OR_STATEMENT_BLOCK
+    };
+    protected static final EndBlockToken[] END_BLOCKS = {
+        EndBlockToken.END_BLOCK, EndBlockToken.END_ARRAY_BLOCK, EndBlockToken.END_ARRAY_INITIALIZER_BLOCK,
+        EndBlockToken.END_PARAMETERS_BLOCK, EndBlockToken.END_RESOURCES_BLOCK, EndBlockToken.END_DECLARATION_OR_STATEMENT_BLOCK
+    };
+    protected static final StartMarkerToken[] START_MARKERS = {
+        StartMarkerToken.COMMENT, StartMarkerToken.JAVADOC, StartMarkerToken.ERROR, StartMarkerToken.IMPORT_STATEMENTS
+    };
+    protected static final EndMarkerToken[] END_MARKERS = {
+        EndMarkerToken.COMMENT, EndMarkerToken.JAVADOC, EndMarkerToken.ERROR, EndMarkerToken.IMPORT_STATEMENTS
+    };
+    protected static final int RESOURCES_BLOCK_INDEX = 4;
+
+    protected int size;
+    protected byte[] kinds;
+    protected int[] values;       // String id, line number, new line count, marker type, block index, offset in 'extras' or ~index in 'objects'
+    protected int[] extras;       // Type and string ids of the declarations and references, string ids of the constants
+    protected int extraCount;
+
+    protected HashMap<String, Integer> stringIds;
+    protected String[] strings;
+    protected int stringCount;
+
+    protected Token[] objects;    // Marker tokens other than the singletons, kept as is
+    protected int objectCount;
+
+    protected AddTokenVisitor addTokenVisitor = new AddTokenVisitor();
+
+    public CompactTokenBuffer() {
+        this(64);
+    }
+
+    public CompactTokenBuffer(int initialCapacity) {
+        if (initialCapacity < 1) {
+            initialCapacity = 1;
+        }
+
+        this.kinds = new byte[initialCapacity];
+        this.values = new int[initialCapacity];
+        this.extras = new int[16];
+        this.strings = new String[16];
+        this.stringCount = 1; // Id 0 is reserved for 'null'
+    }
+
+    @Override
+    public boolean add(Token token) {
+        token.accept(addTokenVisitor);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Token> tokens) {
+        for (Token token : tokens) {
+            token.accept(addTokenVisitor);
+        }
+        modCount++;
+        return !tokens.isEmpty();
+    }
+
+    /**
+     * Trim the arrays to the number of tokens and release the string index.
+     */
+    public void trimToSize() {
+        kinds = Arrays.copyOf(kinds, Math.max(size, 1));
+        values = Arrays.copyOf(values, Math.max(size, 1));
+        extras = Arrays.copyOf(extras, Math.max(extraCount, 1));
+        strings = Arrays.copyOf(strings, stringCount);
+        stringIds = null;
+
+        if (objects != null) {
+            objects = Arrays.copyOf(objects, objectCount);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public byte getKind(int index) {
+        return kinds[index];
+    }
+
+    public boolean getBooleanValue(int index) {
+        return values[index] != 0;
+    }
+
+    public int getLineNumber(int index) {
+        return values[index];
+    }
+
+    public int getCount(int index) {
+        return values[index];
+    }
+
+    /**
+     * @return the marker type, or the declaration and reference type
+     */
+    public int getType(int index) {
+        switch (kinds[index]) {
+            case DECLARATION: case REFERENCE:
+                return extras[values[index]];
+            case START_MARKER:
+                return (values[index] >= 0) ? values[index] : ((StartMarkerToken)objects[~values[index]]).getType();
+            case END_MARKER:
+                return (values[index] >= 0) ? values[index] : ((EndMarkerToken)objects[~values[index]]).getType();
+            default:
+                return values[index];
+        }
+    }
+
+    /**
+     * @return the text of a text, keyword, numeric constant, block or escaped string constant token, or the character
+     * of a character constant token
+     */
+    public String getText(int index) {
+        int value = values[index];
+
+        switch (kinds[index]) {
+            case START_BLOCK:
+                return (value >= 0) ? START_BLOCKS[value].getText() : strings[~value];
+            case END_BLOCK:
+                return (value >= 0) ? END_BLOCKS[value].getText() : strings[~value];
+            case CHARACTER_CONSTANT: case STRING_CONSTANT:
+                return strings[extras[value]];
+            case UNESCAPED_STRING_CONSTANT:
+                return EscapeUtil.escapeString(strings[extras[value]]);
+            default:
+                return strings[value];
+        }
+    }
+
+    /**
+     * Append the escaped text of a string constant token, without the quotes.
+     */
+    public void appendText(int index, CharSink sink) {
+        String text = strings[extras[values[index]]];
+
+        if (kinds[index] == UNESCAPED_STRING_CONSTANT) {
+            EscapeUtil.escapeString(text, sink);
+        } else {
+            sink.append(text, 0, text.length());
+        }
+    }
+
+    public boolean isResourcesBlock(int index) {
+        return values[index] == RESOURCES_BLOCK_INDEX;
+    }
+
+    public String getInternalTypeName(int index) {
+        return strings[extras[values[index]+1]];
+    }
+
+    public String getName(int index) {
+        return strings[extras[values[index]+2]];
+    }
+
+    public String getDescriptor(int index) {
+        return strings[extras[values[index]+3]];
+    }
+
+    public String getOwnerInternalName(int index) {
+        int offset = values[index];
+
+        switch (kinds[index]) {
+            case REFERENCE:
+                return strings[extras[offset+4]];
+            default: // CHARACTER_CONSTANT, STRING_CONSTANT, UNESCAPED_STRING_CONSTANT
+                return strings[extras[offset+1]];
+        }
+    }
+
+    @Override
+    public Token get(int index) {
+        if ((index < 0) || (index >= size)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        int value = values[index];
+
+        switch (kinds[index]) {
+            case BOOLEAN_CONSTANT:
+                return new BooleanConstantToken(value != 0);
+            case CHARACTER_CONSTANT:
+                return new CharacterConstantToken(getText(index), getOwnerInternalName(index));
+            case DECLARATION:
+                return new DeclarationToken(getType(index), getInternalTypeName(index), getName(index), getDescriptor(index));
+            case START_BLOCK:
+                return (value >= 0) ? START_BLOCKS[value] : new StartBlockToken(strings[~value]);
+            case END_BLOCK:
+                return (value >= 0) ? END_BLOCKS[value] : new EndBlockToken(strings[~value]);
+            case START_MARKER:
+                return (value >= 0) ? getStartMarker(value) : objects[~value];
+            case END_MARKER:
+                return (value >= 0) ? getEndMarker(value) : objects[~value];
+            case NEW_LINE:
+                return (value == 1) ? NewLineToken.NEWLINE_1 : (value == 2) ? NewLineToken.NEWLINE_2 : new NewLineToken(value);
+            case KEYWORD:
+                return new KeywordToken(strings[value]);
+            case LINE_NUMBER:
+                return new LineNumberToken(value);
+            case NUMERIC_CONSTANT:
+                return new NumericConstantToken(strings[value]);
+            case REFERENCE:
+                return new ReferenceToken(getType(index), getInternalTypeName(index), getName(index), getDescriptor(index), getOwnerInternalName(index));
+            case STRING_CONSTANT:
+                return new StringConstantToken(getText(index), getOwnerInternalName(index));
+            case UNESCAPED_STRING_CONSTANT:
+                return new UnescapedStringConstantToken(strings[extras[value]], getOwnerInternalName(index));
+            default: // TEXT
+                return new TextToken(strings[value]);
+        }
+    }
+
+    protected static StartMarkerToken getStartMarker(int type) {
+        for (StartMarkerToken marker : START_MARKERS) {
+            if (marker.getType() == type) {
+                return marker;
+            }
+        }
+        return new StartMarkerToken(type);
+    }
+
+    protected static EndMarkerToken getEndMarker(int type) {
+        for (EndMarkerToken marker : END_MARKERS) {
+            if (marker.getType() == type) {
+                return marker;
+            }
+        }
+        return new EndMarkerToken(type);
+    }
+
+    protected void add(byte kind, int value) {
+        if (size == kinds.length) {
+            int capacity = size * 2;
+
+            kinds = Arrays.copyOf(kinds, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        kinds[size] = kind;
+        values[size] = value;
+        size++;
+    }
+
+    protected int addExtras(int length) {
+        int offset = extraCount;
+
+        extraCount += length;
+
+        if (extraCount > extras.length) {
+            extras = Arrays.copyOf(extras, Math.max(extraCount, extras.length * 2));
+        }
+
+        return offset;
+    }
+
+    protected int addObject(Token token) {
+        if (objects == null) {
+            objects = new Token[4];
+        } else if (objectCount == objects.length) {
+            objects = Arrays.copyOf(objects, objectCount * 2);
+        }
+
+        objects[objectCount] = token;
+        return objectCount++;
+    }
+
+    protected int getStringId(String s) {
+        if (s == null) {
+            return 0;
+        }
+
+        if (stringIds == null) {
+            stringIds = new HashMap<>(stringCount * 2);
+
+            for (int i=1; i<stringCount; i++) {
+                stringIds.put(strings[i], i);
+            }
+        }
+
+        Integer id = stringIds.get(s);
+
+        if (id == null) {
+            if (stringCount == strings.length) {
+                strings = Arrays.copyOf(strings, stringCount * 2);
+            }
+
+            strings[stringCount] = s;
+            id = stringCount++;
+            stringIds.put(s, id);
+        }
+
+        return id;
+    }
+
+    protected static int indexOf(Token[] tokens, Token token) {
+        for (int i=0; i<tokens.length; i++) {
+            if (tokens[i] == token) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    protected class AddTokenVisitor implements TokenVisitor {
+        @Override
+        public void visit(BooleanConstantToken token) {
+            add(BOOLEAN_CONSTANT, token.getValue() ? 1 : 0);
+        }
+
+        @Override
+        public void visit(CharacterConstantToken token) {
+            int offset = addExtras(2);
+
+            extras[offset] = getStringId(token.getCharacter());
+            extras[offset+1] = getStringId(token.getOwnerInternalName());
+            add(CHARACTER_CONSTANT, offset);
+        }
+
+        @Override
+        public void visit(DeclarationToken token) {
+            int offset = addExtras(4);
+
+            extras[offset] = token.getType();
+            extras[offset+1] = getStringId(token.getInternalTypeName());
+            extras[offset+2] = getStringId(token.getName());
+            extras[offset+3] = getStringId(token.getDescriptor());
+            add(DECLARATION, offset);
+        }
+
+        @Override
+        public void visit(StartBlockToken token) {
+            int index = indexOf(START_BLOCKS, token);
+            add(START_BLOCK, (index >= 0) ? index : ~getStringId(token.getText()));
+        }
+
+        @Override
+        public void visit(EndBlockToken token) {
+            int index = indexOf(END_BLOCKS, token);
+            add(END_BLOCK, (index >= 0) ? index : ~getStringId(token.getText()));
+        }
+
+        @Override
+        public void visit(StartMarkerToken token) {
+            add(START_MARKER, (indexOf(START_MARKERS, token) >= 0) ? token.getType() : ~addObject(token));
+        }
+
+        @Override
+        public void visit(EndMarkerToken token) {
+            add(END_MARKER, (indexOf(END_MARKERS, token) >= 0) ? token.getType() : ~addObject(token));
+        }
+
+        @Override
+        public void visit(NewLineToken token) {
+            add(NEW_LINE, token.getCount());
+        }
+
+        @Override
+        public void visit(KeywordToken token) {
+            add(KEYWORD, getStringId(token.getKeyword()));
+        }
+
+        @Override
+        public void visit(LineNumberToken token) {
+            add(LINE_NUMBER, token.getLineNumber());
+        }
+
+        @Override
+        public void visit(NumericConstantToken token) {
+            add(NUMERIC_CONSTANT, getStringId(token.getText()));
+        }
+
+        @Override
+        public void visit(ReferenceToken token) {
+            int offset = addExtras(5);
+
+            extras[offset] = token.getType();
+            extras[offset+1] = getStringId(token.getInternalTypeName());
+            extras[offset+2] = getStringId(token.getName());
+            extras[offset+3] = getStringId(token.getDescriptor());
+            extras[offset+4] = getStringId(token.getOwnerInternalName());
+            add(REFERENCE, offset);
+        }
+
+        @Override
+        public void visit(StringConstantToken token) {
+            int offset = addExtras(2);
+
+            extras[offset+1] = getStringId(token.getOwnerInternalName());
+
+            if (token instanceof UnescapedStringConstantToken) {
+                extras[offset] = getStringId(((UnescapedStringConstantToken)token).getValue());
+                add(UNESCAPED_STRING_CONSTANT, offset);
+            } else {
+                extras[offset] = getStringId(token.getText());
+                add(STRING_CONSTANT, offset);
+            }
+        }
+
+        @Override
+        public void visit(TextToken token) {
+            add(TEXT, getStringId(token.getText()));
+        }
+    }
+}
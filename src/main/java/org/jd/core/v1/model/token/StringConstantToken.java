@@ -7,6 +7,8 @@
 
 package org.jd.core.v1.model.token;
 
+import org.jd.core.v1.api.printer.CharSink;
+
 public class StringConstantToken implements Token {
 
     protected String text;
@@ -21,6 +23,11 @@ public class StringConstantToken implements Token {
         return text;
     }
 
+    public void appendText(CharSink sink) {
+        String text = getText();
+        sink.append(text, 0, text.length());
+    }
+
     public String getOwnerInternalName() {
         return ownerInternalName;
     }
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.model.token;
+
+import org.jd.core.v1.api.printer.TokenStream;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+public class TokenBuffer implements TokenStream {
+    protected int size;
+    protected int[] kinds;
+    protected int[] types;
+    protected int[] lineNumbers;
+    protected int[] realLineNumbers;
+    protected int[] internalTypeNameIds;
+    protected int[] nameIds;
+    protected int[] descriptorIds;
+    protected int[] ownerInternalNameIds;
+
+    protected HashMap<String, Integer> stringIds = new HashMap<>();
+    protected String[] strings;
+    protected int stringCount;
+
+    public TokenBuffer() {
+        this(64);
+    }
+
+    public TokenBuffer(int initialCapacity) {
+        if (initialCapacity < 1) {
+            initialCapacity = 1;
+        }
+
+        this.kinds = new int[initialCapacity];
+        this.types = new int[initialCapacity];
+        this.lineNumbers = new int[initialCapacity];
+        this.realLineNumbers = new int[initialCapacity];
+        this.internalTypeNameIds = new int[initialCapacity];
+        this.nameIds = new int[initialCapacity];
+        this.descriptorIds = new int[initialCapacity];
+        this.ownerInternalNameIds = new int[initialCapacity];
+        this.strings = new String[16];
+        this.stringCount = 1; // Id 0 is reserved for 'null'
+    }
+
+    public void add(int kind, int type, int lineNumber, int realLineNumber, String internalTypeName, String name, String descriptor, String ownerInternalName) {
+        insert(size, kind, type, lineNumber, realLineNumber, internalTypeName, name, descriptor, ownerInternalName);
+    }
+
+    public void insert(int index, int kind, int type, int lineNumber, int realLineNumber, String internalTypeName, String name, String descriptor, String ownerInternalName) {
+        if (size == kinds.length) {
+            int capacity = size * 2;
+
+            kinds = Arrays.copyOf(kinds, capacity);
+            types = Arrays.copyOf(types, capacity);
+            lineNumbers = Arrays.copyOf(lineNumbers, capacity);
+            realLineNumbers = Arrays.copyOf(realLineNumbers, capacity);
+            internalTypeNameIds = Arrays.copyOf(internalTypeNameIds, capacity);
+            nameIds = Arrays.copyOf(nameIds, capacity);
+            descriptorIds = Arrays.copyOf(descriptorIds, capacity);
+            ownerInternalNameIds = Arrays.copyOf(ownerInternalNameIds, capacity);
+        }
+
+        if (index < size) {
+            int length = size - index;
+
+            System.arraycopy(kinds, index, kinds, index+1, length);
+            System.arraycopy(types, index, types, index+1, length);
+            System.arraycopy(lineNumbers, index, lineNumbers, index+1, length);
+            System.arraycopy(realLineNumbers, index, realLineNumbers, index+1, length);
+            System.arraycopy(internalTypeNameIds, index, internalTypeNameIds, index+1, length);
+            System.arraycopy(nameIds, index, nameIds, index+1, length);
+            System.arraycopy(descriptorIds, index, descriptorIds, index+1, length);
+            System.arraycopy(ownerInternalNameIds, index, ownerInternalNameIds, index+1, length);
+        }
+
+        kinds[index] = kind;
+        types[index] = type;
+        lineNumbers[index] = lineNumber;
+        realLineNumbers[index] = realLineNumber;
+        internalTypeNameIds[index] = intern(internalTypeName);
+        nameIds[index] = intern(name);
+        descriptorIds[index] = intern(descriptor);
+        ownerInternalNameIds[index] = intern(ownerInternalName);
+        size++;
+    }
+
+    public void setLineNumber(int index, int lineNumber) {
+        lineNumbers[index] = lineNumber;
+    }
+
+    public int intern(String s) {
+        if (s == null) {
+            return NULL_ID;
+        }
+
+        Integer id = stringIds.get(s);
+
+        if (id == null) {
+            if (stringCount == strings.length) {
+                strings = Arrays.copyOf(strings, stringCount * 2);
+            }
+
+            strings[stringCount] = s;
+            stringIds.put(s, id = stringCount++);
+        }
+
+        return id;
+    }
+
+    public void clear() {
+        size = 0;
+        stringIds.clear();
+        Arrays.fill(strings, 1, stringCount, null);
+        stringCount = 1;
+    }
+
+    // --- TokenStream --- //
+    @Override public int size() { return size; }
+
+    @Override public int getKind(int index) { return kinds[index]; }
+    @Override public int getType(int index) { return types[index]; }
+    @Override public int getLineNumber(int index) { return lineNumbers[index]; }
+    @Override public int getRealLineNumber(int index) { return realLineNumbers[index]; }
+    @Override public int getInternalTypeNameId(int index) { return internalTypeNameIds[index]; }
+    @Override public int getNameId(int index) { return nameIds[index]; }
+    @Override public int getDescriptorId(int index) { return descriptorIds[index]; }
+    @Override public int getOwnerInternalNameId(int index) { return ownerInternalNameIds[index]; }
+
+    @Override public int getStringCount() { return stringCount; }
+    @Override public String getString(int id) { return strings[id]; }
+
+    @Override
+    public String toString() {
+        return "TokenBuffer{size=" + size + ", stringCount=" + stringCount + "}";
+    }
+}
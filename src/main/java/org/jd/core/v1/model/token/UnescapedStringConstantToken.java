@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.model.token;
+
+import org.jd.core.v1.api.printer.CharSink;
+import org.jd.core.v1.util.EscapeUtil;
+
+/**
+ * String constant token holding the value of the constant. The value is escaped only when the text is requested, or
+ * directly into a {@link CharSink}.
+ */
+public class UnescapedStringConstantToken extends StringConstantToken {
+    protected String value;
+
+    public UnescapedStringConstantToken(String value, String ownerInternalName) {
+        super(null, ownerInternalName);
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String getText() {
+        if (text == null) {
+            text = EscapeUtil.escapeString(value);
+        }
+        return text;
+    }
+
+    @Override
+    public void appendText(CharSink sink) {
+        if (text == null) {
+            EscapeUtil.escapeString(value, sink);
+        } else {
+            super.appendText(sink);
+        }
+    }
+
+    public String toString() {
+        return "UnescapedStringConstantToken{'" + value + "'}";
+    }
+}
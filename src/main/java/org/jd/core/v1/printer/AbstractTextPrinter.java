@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.printer;
+
+import org.jd.core.v1.api.printer.CharSink;
+import org.jd.core.v1.api.printer.CharSinkPrinter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Base of the printers writing the source as plain text. Indentations are precomputed and, if a line number mapping
+ * writer is given, each line with a known original line number produces a '&lt;line&gt;:&lt;original line&gt;' line
+ * in the mapping.
+ */
+public abstract class AbstractTextPrinter implements CharSinkPrinter, CharSink {
+    protected static final String DEFAULT_TAB = "    ";
+    protected static final String NEWLINE = "\n";
+
+    protected String tab;
+    protected String[] indents;
+    protected int indentationCount;
+    protected int realLineNumber;
+    protected Writer lineNumberMappingWriter;
+
+    protected AbstractTextPrinter(String tab, Writer lineNumberMappingWriter) {
+        this.tab = tab;
+        this.indents = new String[16];
+        this.lineNumberMappingWriter = lineNumberMappingWriter;
+
+        StringBuilder sb = new StringBuilder(tab.length() * indents.length);
+
+        for (int i=0; i<indents.length; i++) {
+            indents[i] = sb.toString();
+            sb.append(tab);
+        }
+    }
+
+    public int getRealLineNumber() {
+        return realLineNumber;
+    }
+
+    protected abstract void write(String s) throws IOException;
+
+    protected void write(char c) throws IOException {
+        write(String.valueOf(c));
+    }
+
+    protected void write(CharSequence s, int start, int end) throws IOException {
+        write(s.subSequence(start, end).toString());
+    }
+
+    protected void flush() throws IOException {}
+
+    // --- Printer --- //
+    @Override
+    public void start(int maxLineNumber, int majorVersion, int minorVersion) {
+        this.indentationCount = 0;
+        this.realLineNumber = 0;
+    }
+
+    @Override
+    public void end() {
+        try {
+            flush();
+
+            if (lineNumberMappingWriter != null) {
+                lineNumberMappingWriter.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override public void printText(String text) { print(text); }
+    @Override public void printNumericConstant(String constant) { print(constant); }
+    @Override public void printStringConstant(String constant, String ownerInternalName) { print(constant); }
+    @Override public void printKeyword(String keyword) { print(keyword); }
+    @Override public void printDeclaration(int type, String internalTypeName, String name, String descriptor) { print(name); }
+    @Override public void printReference(int type, String internalTypeName, String name, String descriptor, String ownerInternalName) { print(name); }
+
+    // --- CharSinkPrinter --- //
+    @Override
+    public CharSink startStringConstant(String ownerInternalName) {
+        return this;
+    }
+
+    @Override public void endStringConstant() {}
+
+    // --- CharSink --- //
+    @Override
+    public void append(char c) {
+        try {
+            write(c);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void append(CharSequence s, int start, int end) {
+        try {
+            write(s, start, end);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void indent() {
+        this.indentationCount++;
+    }
+
+    @Override
+    public void unindent() {
+        if (this.indentationCount > 0)
+            this.indentationCount--;
+    }
+
+    @Override
+    public void startLine(int lineNumber) {
+        realLineNumber++;
+
+        try {
+            if ((lineNumberMappingWriter != null) && (lineNumber != UNKNOWN_LINE_NUMBER)) {
+                lineNumberMappingWriter.write(Integer.toString(realLineNumber));
+                lineNumberMappingWriter.write(':');
+                lineNumberMappingWriter.write(Integer.toString(lineNumber));
+                lineNumberMappingWriter.write(NEWLINE);
+            }
+
+            write(getIndent(indentationCount));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void endLine() {
+        print(NEWLINE);
+    }
+
+    @Override
+    public void extraLine(int count) {
+        realLineNumber += count;
+
+        while (count-- > 0) {
+            print(NEWLINE);
+        }
+    }
+
+    @Override public void startMarker(int type) {}
+    @Override public void endMarker(int type) {}
+
+    protected void print(String s) {
+        try {
+            write(s);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected String getIndent(int count) {
+        if (count >= indents.length) {
+            int length = indents.length;
+
+            indents = Arrays.copyOf(indents, count * 2);
+
+            for (int i=length; i<indents.length; i++) {
+                indents[i] = indents[i-1] + tab;
+            }
+        }
+
+        return indents[count];
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.printer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Encode the source in UTF-8 into a byte buffer, flushed to a {@link WritableByteChannel} when full and at the end
+ * of each class. The buffer may be supplied by the caller to be reused between printers.
+ */
+public class ByteChannelPrinter extends AbstractTextPrinter {
+    protected static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    protected WritableByteChannel channel;
+    protected ByteBuffer buffer;
+    protected char highSurrogate;
+
+    public ByteChannelPrinter(WritableByteChannel channel) {
+        this(channel, ByteBuffer.allocateDirect(DEFAULT_BUFFER_SIZE), DEFAULT_TAB, null);
+    }
+
+    public ByteChannelPrinter(WritableByteChannel channel, Writer lineNumberMappingWriter) {
+        this(channel, ByteBuffer.allocateDirect(DEFAULT_BUFFER_SIZE), DEFAULT_TAB, lineNumberMappingWriter);
+    }
+
+    public ByteChannelPrinter(WritableByteChannel channel, ByteBuffer buffer, String tab, Writer lineNumberMappingWriter) {
+        super(tab, lineNumberMappingWriter);
+
+        if (buffer.capacity() < 4) {
+            throw new IllegalArgumentException("Buffer capacity must be at least 4 bytes");
+        }
+
+        this.channel = channel;
+        this.buffer = buffer;
+        buffer.clear();
+    }
+
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    @Override
+    public void start(int maxLineNumber, int majorVersion, int minorVersion) {
+        super.start(maxLineNumber, majorVersion, minorVersion);
+        this.highSurrogate = 0;
+    }
+
+    @Override
+    public void end() {
+        if (highSurrogate != 0) {
+            // Malformed surrogate pair at the end of the source
+            highSurrogate = 0;
+            append('?');
+        }
+
+        super.end();
+    }
+
+    @Override
+    protected void write(String s) throws IOException {
+        write(s, 0, s.length());
+    }
+
+    @Override
+    protected void write(char c) throws IOException {
+        if (buffer.remaining() < 4) {
+            flush();
+        }
+
+        put(c);
+    }
+
+    @Override
+    protected void write(CharSequence s, int start, int end) throws IOException {
+        ByteBuffer buffer = this.buffer;
+
+        for (int i=start; i<end; i++) {
+            if (buffer.remaining() < 4) {
+                flush();
+            }
+
+            put(s.charAt(i));
+        }
+    }
+
+    /**
+     * Encode a character. A high surrogate is kept until the next character, to encode the pair together when the
+     * string constant escaper appends it char by char.
+     */
+    protected void put(char c) {
+        ByteBuffer buffer = this.buffer;
+
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+
+            highSurrogate = 0;
+
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(high, c);
+
+                buffer.put((byte)(0xF0 | (codePoint >> 18)));
+                buffer.put((byte)(0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte)(0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte)(0x80 | (codePoint & 0x3F)));
+                return;
+            }
+
+            // Malformed surrogate pair
+            buffer.put((byte)'?');
+        }
+
+        if (c < 0x80) {
+            buffer.put((byte)c);
+        } else if (c < 0x800) {
+            buffer.put((byte)(0xC0 | (c >> 6)));
+            buffer.put((byte)(0x80 | (c & 0x3F)));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            // Malformed surrogate pair
+            buffer.put((byte)'?');
+        } else {
+            buffer.put((byte)(0xE0 | (c >> 12)));
+            buffer.put((byte)(0x80 | ((c >> 6) & 0x3F)));
+            buffer.put((byte)(0x80 | (c & 0x3F)));
+        }
+    }
+
+    @Override
+    protected void flush() throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.printer;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Write the source directly to a {@link Writer}. The writer is neither buffered nor closed by this printer.
+ */
+public class WriterPrinter extends AbstractTextPrinter {
+    protected Writer writer;
+
+    public WriterPrinter(Writer writer) {
+        this(writer, DEFAULT_TAB, null);
+    }
+
+    public WriterPrinter(Writer writer, Writer lineNumberMappingWriter) {
+        this(writer, DEFAULT_TAB, lineNumberMappingWriter);
+    }
+
+    public WriterPrinter(Writer writer, String tab, Writer lineNumberMappingWriter) {
+        super(tab, lineNumberMappingWriter);
+        this.writer = writer;
+    }
+
+    @Override
+    protected void write(String s) throws IOException {
+        writer.write(s);
+    }
+
+    @Override
+    protected void write(char c) throws IOException {
+        writer.write(c);
+    }
+
+    @Override
+    protected void write(CharSequence s, int start, int end) throws IOException {
+        if (s instanceof String) {
+            writer.write((String)s, start, end - start);
+        } else {
+            writer.append(s, start, end);
+        }
+    }
+
+    @Override
+    protected void flush() throws IOException {
+        writer.flush();
+    }
+}
@@ -7,12 +7,17 @@
 
 package org.jd.core.v1.service.converter.classfiletojavasyntax;
 
+import org.jd.core.v1.api.CancellationToken;
 import org.jd.core.v1.api.loader.Loader;
+import org.jd.core.v1.model.classfile.ClassFile;
 import org.jd.core.v1.model.message.Message;
 import org.jd.core.v1.model.processor.Processor;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.processor.ConvertClassFileProcessor;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.processor.UpdateJavaSyntaxTreeProcessor;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.processor.UpdateOutlineJavaSyntaxTreeProcessor;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ScratchArena;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.TypeMaker;
+import org.jd.core.v1.util.CancellationUtil;
 
 import java.util.Map;
 
@@ -22,15 +27,22 @@ import java.util.Map;
  * Input:  {@link org.jd.core.v1.model.classfile.ClassFile}<br>
  * Output: {@link org.jd.core.v1.model.javasyntax.CompilationUnit}<br>
  *
+ * Configuration: 'outline' = "true" to create the declarations with stub bodies only.<br>
+ * Header: 'releaseModels' = Boolean.TRUE to release the byte code, the attributes and the constant pools of the input
+ * class file once converted. Set by the decompilers, which own the class file they deserialize; without it, the
+ * input is left intact.<br><br>
+ *
  * @see ConvertClassFileProcessor
  */
 public class ClassFileToJavaSyntaxProcessor implements Processor {
     protected static final ConvertClassFileProcessor CONVERT_CLASS_FILE_PROCESSOR = new ConvertClassFileProcessor();
     protected static final UpdateJavaSyntaxTreeProcessor UPDATE_JAVA_SYNTAX_TREE_PROCESSOR = new UpdateJavaSyntaxTreeProcessor();
+    protected static final UpdateOutlineJavaSyntaxTreeProcessor UPDATE_OUTLINE_JAVA_SYNTAX_TREE_PROCESSOR = new UpdateOutlineJavaSyntaxTreeProcessor();
 
     public void process(Message message) throws Exception {
         Loader loader = message.getHeader("loader");
         Map<String, Object> configuration = message.getHeader("configuration");
+        boolean outline = false;
 
         if (configuration == null) {
             message.setHeader("typeMaker", new TypeMaker(loader));
@@ -51,9 +63,37 @@ public class ClassFileToJavaSyntaxProcessor implements Processor {
             }
 
             message.setHeader("typeMaker", typeMaker);
+
+            Object outlineValue = configuration.get("outline");
+            outline = (outlineValue != null) && "true".equals(outlineValue.toString());
         }
 
-        CONVERT_CLASS_FILE_PROCESSOR.process(message);
-        UPDATE_JAVA_SYNTAX_TREE_PROCESSOR.process(message);
+        // Bind the cancellation token for the checks of the visitors and the reducers
+        CancellationToken previousCancellationToken = CancellationUtil.bind(CancellationUtil.getToken(message));
+
+        try {
+            ClassFile classFile = message.getBody();
+
+            CancellationUtil.throwIfCancelled();
+            CONVERT_CLASS_FILE_PROCESSOR.process(message);
+
+            if (outline) {
+                UPDATE_OUTLINE_JAVA_SYNTAX_TREE_PROCESSOR.process(message);
+            } else {
+                UPDATE_JAVA_SYNTAX_TREE_PROCESSOR.process(message);
+            }
+
+            if (Boolean.TRUE.equals(message.getHeader("releaseModels"))) {
+                // The declarations keep references to the class file: release what the next stages do not need
+                classFile.release();
+            }
+        } finally {
+            CancellationUtil.bind(previousCancellationToken);
+            // The scratch arena of this thread must not keep the constant pool and the byte code until the next class
+            ScratchArena.get().release();
+            // Neither the type maker, reused from one class to the next, the class files prefetched and not read
+            TypeMaker typeMaker = message.getHeader("typeMaker");
+            typeMaker.clearPrefetchedData();
+        }
     }
 }
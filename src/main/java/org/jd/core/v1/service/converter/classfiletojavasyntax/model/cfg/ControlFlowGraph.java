@@ -8,6 +8,7 @@
 package org.jd.core.v1.service.converter.classfiletojavasyntax.model.cfg;
 
 import org.jd.core.v1.model.classfile.Method;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.InstructionStream;
 import org.jd.core.v1.util.DefaultList;
 
 import java.util.HashSet;
@@ -20,6 +21,7 @@ public class ControlFlowGraph {
         }
     };
     protected int[] offsetToLineNumbers = null;
+    protected InstructionStream instructions = null;
 
     public ControlFlowGraph(Method method) {
         this.method = method;
@@ -29,6 +31,14 @@ public class ControlFlowGraph {
         return method;
     }
 
+    public InstructionStream getInstructions() {
+        return instructions;
+    }
+
+    public void setInstructions(InstructionStream instructions) {
+        this.instructions = instructions;
+    }
+
     public DefaultList<BasicBlock> getBasicBlocks() {
         return list;
     }
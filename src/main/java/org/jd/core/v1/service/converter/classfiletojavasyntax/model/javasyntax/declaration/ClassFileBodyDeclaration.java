@@ -8,6 +8,7 @@
 package org.jd.core.v1.service.converter.classfiletojavasyntax.model.javasyntax.declaration;
 
 import org.jd.core.v1.model.classfile.ClassFile;
+import org.jd.core.v1.model.javasyntax.declaration.BaseFieldDeclarator;
 import org.jd.core.v1.model.javasyntax.declaration.BaseMemberDeclaration;
 import org.jd.core.v1.model.javasyntax.declaration.BodyDeclaration;
 import org.jd.core.v1.model.javasyntax.type.BaseType;
@@ -31,6 +32,8 @@ public class ClassFileBodyDeclaration extends BodyDeclaration implements ClassFi
     protected ClassFileBodyDeclaration outerBodyDeclaration;
     protected Map<String, TypeArgument> bindings;
     protected Map<String, BaseType> typeBounds;
+    protected HashMap<String, ClassFileFieldDeclaration> fieldIndex;
+    protected HashMap<String, ClassFileConstructorOrMethodDeclaration> methodIndex;
 
     public ClassFileBodyDeclaration(ClassFile classFile, Map<String, TypeArgument> bindings, Map<String, BaseType> typeBounds, ClassFileBodyDeclaration outerBodyDeclaration) {
         super(classFile.getInternalTypeName(), null);
@@ -51,9 +54,34 @@ public class ClassFileBodyDeclaration extends BodyDeclaration implements ClassFi
     public void setFieldDeclarations(List<ClassFileFieldDeclaration> fieldDeclarations) {
         if (fieldDeclarations != null) {
             updateFirstLineNumber(this.fieldDeclarations = fieldDeclarations);
+            fieldIndex = null;
         }
     }
 
+    /**
+     * @return the field declaring 'name', or null. The index is built on the first lookup, see
+     *         {@link #resetIndexes()}.
+     */
+    public ClassFileFieldDeclaration getFieldDeclaration(String name) {
+        if (fieldDeclarations == null) {
+            return null;
+        }
+
+        if (fieldIndex == null) {
+            fieldIndex = new HashMap<>(fieldDeclarations.size() * 2);
+
+            for (ClassFileFieldDeclaration field : fieldDeclarations) {
+                BaseFieldDeclarator declarators = field.getFieldDeclarators();
+
+                for (int i=0, len=declarators.size(); i<len; i++) {
+                    fieldIndex.putIfAbsent(declarators.get(i).getName(), field);
+                }
+            }
+        }
+
+        return fieldIndex.get(name);
+    }
+
     public List<ClassFileConstructorOrMethodDeclaration> getMethodDeclarations() {
         return methodDeclarations;
     }
@@ -61,9 +89,39 @@ public class ClassFileBodyDeclaration extends BodyDeclaration implements ClassFi
     public void setMethodDeclarations(List<ClassFileConstructorOrMethodDeclaration> methodDeclarations) {
         if (methodDeclarations != null) {
             updateFirstLineNumber(this.methodDeclarations = methodDeclarations);
+            methodIndex = null;
         }
     }
 
+    /**
+     * @return the constructor or method declared with 'name' and 'descriptor', or null. The index is built on the
+     *         first lookup, see {@link #resetIndexes()}.
+     */
+    public ClassFileConstructorOrMethodDeclaration getMethodDeclaration(String name, String descriptor) {
+        if (methodDeclarations == null) {
+            return null;
+        }
+
+        if (methodIndex == null) {
+            methodIndex = new HashMap<>(methodDeclarations.size() * 2);
+
+            for (ClassFileConstructorOrMethodDeclaration method : methodDeclarations) {
+                methodIndex.putIfAbsent(method.getMethod().getName() + method.getMethod().getDescriptor(), method);
+            }
+        }
+
+        return methodIndex.get(name + descriptor);
+    }
+
+    /**
+     * Clear the field and method indexes. To call after adding or removing fields or methods in the lists returned
+     * by 'getFieldDeclarations' and 'getMethodDeclarations', or after moving field declarators.
+     */
+    public void resetIndexes() {
+        fieldIndex = null;
+        methodIndex = null;
+    }
+
     public List<ClassFileTypeDeclaration> getInnerTypeDeclarations() {
         return innerTypeDeclarations;
     }
@@ -203,10 +203,21 @@ public class Frame {
     }
 
     public void createNames(HashSet<String> parentNames) {
-        HashSet<String> names = new HashSet<>(parentNames);
-        HashMap<Type, Boolean> types = new HashMap<>();
+        createNames(new GenerateLocalVariableNameVisitor(new ScopedNameSet(parentNames), new HashMap<>()));
+    }
+
+    /**
+     * Names this frame and its children. The visitor, its name set and its type map are shared by all the frames of
+     * the method: the names added by this frame are removed once its children have been named.
+     */
+    protected void createNames(GenerateLocalVariableNameVisitor visitor) {
+        ScopedNameSet names = visitor.blackListNames;
+        HashMap<Type, Boolean> types = visitor.types;
+        int mark = names.mark();
         int length = localVariableArray.length;
 
+        types.clear();
+
         for (int i=0; i<length; i++) {
             AbstractLocalVariable lv = localVariableArray[i];
 
@@ -218,12 +229,8 @@ public class Frame {
                     // Unique type
                     types.put(lv.getType(), Boolean.FALSE);
                 }
-                if (lv.name != null) {
-                    if (names.contains(lv.name)) {
-                        lv.name = null;
-                    } else {
-                        names.add(lv.name);
-                    }
+                if ((lv.name != null) && !names.add(lv.name)) {
+                    lv.name = null;
                 }
                 assert lv != lv.getNext();
                 lv = lv.getNext();
@@ -241,8 +248,6 @@ public class Frame {
         }
 
         if (! types.isEmpty()) {
-            GenerateLocalVariableNameVisitor visitor = new GenerateLocalVariableNameVisitor(names, types);
-
             for (int i=0; i<length; i++) {
                 AbstractLocalVariable lv = localVariableArray[i];
 
@@ -264,9 +269,11 @@ public class Frame {
         // Recursive call
         if (children != null) {
             for (Frame child : children) {
-                child.createNames(names);
+                child.createNames(visitor);
             }
         }
+
+        names.reset(mark);
     }
 
     @SuppressWarnings("unchecked")
@@ -887,11 +894,11 @@ public class Frame {
         protected static final String[] INTEGER_NAMES = { "i", "j", "k", "m", "n" };
 
         protected StringBuilder sb = new StringBuilder();
-        protected HashSet<String> blackListNames;
+        protected ScopedNameSet blackListNames;
         protected HashMap<Type, Boolean> types;
         protected String name;
 
-        public GenerateLocalVariableNameVisitor(HashSet<String> blackListNames, HashMap<Type, Boolean> types) {
+        public GenerateLocalVariableNameVisitor(ScopedNameSet blackListNames, HashMap<Type, Boolean> types) {
             this.blackListNames = blackListNames;
             this.types = types;
         }
@@ -911,8 +918,8 @@ public class Frame {
                 case FLAG_FLOAT : sb.append("f"); break;
                 case FLAG_INT :
                     for (String in : INTEGER_NAMES) {
-                        if (!blackListNames.contains(in)) {
-                            blackListNames.add(name = in);
+                        if (blackListNames.add(in)) {
+                            name = in;
                             return;
                         }
                     }
@@ -1020,13 +1027,11 @@ public class Frame {
 
             name = sb.toString();
 
-            while (blackListNames.contains(name)) {
+            while (!blackListNames.add(name)) {
                 sb.setLength(length);
                 sb.append(counter++);
                 name = sb.toString();
             }
-
-            blackListNames.add(name);
         }
 
         @Override public void visit(TypeArguments type) {}
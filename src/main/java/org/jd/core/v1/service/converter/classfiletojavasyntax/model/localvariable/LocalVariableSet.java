@@ -10,59 +10,57 @@ package org.jd.core.v1.service.converter.classfiletojavasyntax.model.localvariab
 import org.jd.core.v1.model.javasyntax.type.GenericType;
 import org.jd.core.v1.model.javasyntax.type.ObjectType;
 
+/**
+ * Local variables not yet attached to a frame, indexed by slot. The variables of a slot are stored in an array sorted
+ * by decreasing start offset, so the variable visible at an offset is found by binary search.
+ */
 public class LocalVariableSet {
-    protected AbstractLocalVariable[] array = new AbstractLocalVariable[10];
+    protected AbstractLocalVariable[][] array = new AbstractLocalVariable[10][];
+    protected int[] counts = new int[10];
     protected int size = 0;
 
     public void add(int index, AbstractLocalVariable newLV) {
         if (index >= array.length) {
-            // Increases array
-            Object[] tmp = array;
-            array = new AbstractLocalVariable[index * 2];
-            System.arraycopy(tmp, 0, array, 0, tmp.length);
-            // Store
-            array[index] = newLV;
-        } else {
-            AbstractLocalVariable lv = array[index];
-
-            if (lv == null) {
-                array[index] = newLV;
-            } else if (lv.fromOffset < newLV.fromOffset) {
-                assert newLV != lv;
-                newLV.setNext(lv);
-                array[index] = newLV;
-            } else {
-                AbstractLocalVariable previous = lv;
-
-                lv = lv.getNext();
-
-                while ((lv != null) && (lv.fromOffset > newLV.fromOffset)) {
-                    previous = lv;
-                    lv = lv.getNext();
-                }
+            // Increases arrays
+            AbstractLocalVariable[][] tmp1 = array;
+            array = new AbstractLocalVariable[index * 2][];
+            System.arraycopy(tmp1, 0, array, 0, tmp1.length);
+            int[] tmp2 = counts;
+            counts = new int[index * 2];
+            System.arraycopy(tmp2, 0, counts, 0, tmp2.length);
+        }
 
-                assert previous != newLV;
-                previous.setNext(newLV);
+        AbstractLocalVariable[] lvs = array[index];
+        int count = counts[index];
+        int position;
+
+        if (lvs == null) {
+            array[index] = lvs = new AbstractLocalVariable[4];
+            position = 0;
+        } else if (count == 0) {
+            position = 0;
+        } else if (lvs[0].fromOffset < newLV.fromOffset) {
+            position = 0;
+        } else {
+            // Insert after the first variable and after the variables starting later
+            position = search(lvs, 1, count, newLV.fromOffset);
+        }
 
-                assert newLV != lv;
-                newLV.setNext(lv);
-            }
+        if (count == lvs.length) {
+            AbstractLocalVariable[] tmp = lvs;
+            array[index] = lvs = new AbstractLocalVariable[count * 2];
+            System.arraycopy(tmp, 0, lvs, 0, count);
         }
 
+        System.arraycopy(lvs, position, lvs, position + 1, count - position);
+        lvs[position] = newLV;
+        counts[index] = count + 1;
         size++;
     }
 
     public AbstractLocalVariable root(int index) {
-        if (index < array.length) {
-            AbstractLocalVariable lv = array[index];
-
-            if (lv != null) {
-                while (lv.getNext() != null) {
-                    assert lv != lv.getNext();
-                    lv = lv.getNext();
-                }
-                return lv;
-            }
+        if ((index < array.length) && (counts[index] > 0)) {
+            return array[index][counts[index] - 1];
         }
 
         return null;
@@ -70,25 +68,11 @@ public class LocalVariableSet {
 
     public AbstractLocalVariable remove(int index, int offset) {
         if (index < array.length) {
-            AbstractLocalVariable previous = null;
-            AbstractLocalVariable lv = array[index];
-
-            while (lv != null) {
-                if (lv.fromOffset <= offset) {
-                    if (previous == null) {
-                        array[index] = lv.getNext();
-                    } else {
-                        previous.setNext(lv.getNext());
-                    }
-
-                    size--;
-                    lv.setNext(null);
-                    return lv;
-                }
-
-                previous = lv;
-                assert lv != lv.getNext();
-                lv = lv.getNext();
+            int count = counts[index];
+            int position = search(array[index], 0, count, offset);
+
+            if (position < count) {
+                return removeAt(index, position);
             }
         }
 
@@ -97,15 +81,11 @@ public class LocalVariableSet {
 
     public AbstractLocalVariable get(int index, int offset) {
         if (index < array.length) {
-            AbstractLocalVariable lv = array[index];
-
-            while (lv != null) {
-                if (lv.fromOffset <= offset) {
-                    return lv;
-                }
+            int count = counts[index];
+            int position = search(array[index], 0, count, offset);
 
-                assert lv != lv.getNext();
-                lv = lv.getNext();
+            if (position < count) {
+                return array[index][position];
             }
         }
 
@@ -118,44 +98,24 @@ public class LocalVariableSet {
 
     public void update(int index, int offset, ObjectType type) {
         if (index < array.length) {
-            AbstractLocalVariable lv = array[index];
-
-            while (lv != null) {
-                if (lv.fromOffset == offset) {
-                    ObjectLocalVariable olv = (ObjectLocalVariable)lv;
-                    olv.type = type;
-                    break;
-                }
+            int count = counts[index];
+            int position = search(array[index], 0, count, offset);
 
-                assert lv != lv.getNext();
-                lv = lv.getNext();
+            if ((position < count) && (array[index][position].fromOffset == offset)) {
+                ObjectLocalVariable olv = (ObjectLocalVariable)array[index][position];
+                olv.type = type;
             }
         }
     }
 
     public void update(int index, int offset, GenericType type) {
         if (index < array.length) {
-            AbstractLocalVariable previous = null;
-            AbstractLocalVariable lv = array[index];
-
-            while (lv != null) {
-                if (lv.fromOffset == offset) {
-                    GenericLocalVariable glv = new GenericLocalVariable(index, lv.fromOffset, type, lv.name);
-                    glv.setNext(lv.getNext());
-
-                    if (previous == null) {
-                        array[index] = glv;
-                    } else {
-                        assert previous != glv;
-                        previous.setNext(glv);
-                    }
-
-                    break;
-                }
-
-                previous = lv;
-                assert lv != lv.getNext();
-                lv = lv.getNext();
+            int count = counts[index];
+            int position = search(array[index], 0, count, offset);
+
+            if ((position < count) && (array[index][position].fromOffset == offset)) {
+                AbstractLocalVariable lv = array[index][position];
+                array[index][position] = new GenericLocalVariable(index, lv.fromOffset, type, lv.name);
             }
         }
     }
@@ -164,32 +124,46 @@ public class LocalVariableSet {
         AbstractLocalVariable[] cache = new AbstractLocalVariable[array.length];
 
         for (int index=array.length-1; index>=0; index--) {
-            AbstractLocalVariable lv = array[index];
-
-            if (lv != null) {
-                AbstractLocalVariable previous = null;
-
-                while (lv.getNext() != null) {
-                    previous = lv;
-                    assert lv != lv.getNext();
-                    lv = lv.getNext();
-                }
-
-                if (lv.fromOffset == 0) {
-                    if (previous == null) {
-                        array[index] = lv.getNext();
-                    } else {
-                        previous.setNext(lv.getNext());
-                    }
-
-                    size--;
-                    lv.setNext(null);
-                    rootFrame.addLocalVariable(lv);
-                    cache[index] = lv;
-                }
+            int count = counts[index];
+
+            if ((count > 0) && (array[index][count - 1].fromOffset == 0)) {
+                AbstractLocalVariable lv = removeAt(index, count - 1);
+
+                rootFrame.addLocalVariable(lv);
+                cache[index] = lv;
             }
         }
 
         return cache;
     }
+
+    protected AbstractLocalVariable removeAt(int index, int position) {
+        AbstractLocalVariable[] lvs = array[index];
+        int count = counts[index] - 1;
+        AbstractLocalVariable lv = lvs[position];
+
+        System.arraycopy(lvs, position + 1, lvs, position, count - position);
+        lvs[count] = null;
+        counts[index] = count;
+        size--;
+
+        return lv;
+    }
+
+    /**
+     * @return the position of the first variable, between 'from' and 'to', starting at or before 'offset', or 'to'
+     */
+    protected static int search(AbstractLocalVariable[] lvs, int from, int to, int offset) {
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+
+            if (lvs[middle].fromOffset <= offset) {
+                to = middle;
+            } else {
+                from = middle + 1;
+            }
+        }
+
+        return from;
+    }
 }
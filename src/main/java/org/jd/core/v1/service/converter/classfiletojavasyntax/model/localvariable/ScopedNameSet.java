@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.service.converter.classfiletojavasyntax.model.localvariable;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * Set of names visible from a frame. Names added after a call to 'mark()' are removed by 'reset(mark)', so nested
+ * frames share one set instead of copying the names of their parents. The base set is restored once the outermost
+ * scope is reset.
+ */
+public class ScopedNameSet {
+    protected HashSet<String> names;
+    protected String[] added = new String[16];
+    protected int size = 0;
+
+    public ScopedNameSet() {
+        this(new HashSet<>());
+    }
+
+    public ScopedNameSet(HashSet<String> names) {
+        this.names = names;
+    }
+
+    public boolean contains(String name) {
+        return names.contains(name);
+    }
+
+    public boolean add(String name) {
+        if (names.add(name)) {
+            if (size == added.length) {
+                added = Arrays.copyOf(added, size * 2);
+            }
+            added[size++] = name;
+            return true;
+        }
+        return false;
+    }
+
+    public int mark() {
+        return size;
+    }
+
+    public void reset(int mark) {
+        while (size > mark) {
+            names.remove(added[--size]);
+            added[size] = null;
+        }
+    }
+}
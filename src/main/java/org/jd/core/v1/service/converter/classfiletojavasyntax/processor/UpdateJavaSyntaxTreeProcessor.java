@@ -7,29 +7,42 @@
 
 package org.jd.core.v1.service.converter.classfiletojavasyntax.processor;
 
+import org.jd.core.v1.api.printer.Printer;
+import org.jd.core.v1.api.printer.ProgressivePrinter;
 import org.jd.core.v1.model.javasyntax.CompilationUnit;
 import org.jd.core.v1.model.message.Message;
 import org.jd.core.v1.model.processor.Processor;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.TypeMaker;
-import org.jd.core.v1.service.converter.classfiletojavasyntax.visitor.UpdateJavaSyntaxTreeStep0Visitor;
-import org.jd.core.v1.service.converter.classfiletojavasyntax.visitor.UpdateJavaSyntaxTreeStep1Visitor;
-import org.jd.core.v1.service.converter.classfiletojavasyntax.visitor.UpdateJavaSyntaxTreeStep2Visitor;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.visitor.*;
 
 /**
  * Create statements, init fields, merge declarations.<br><br>
  *
  * Input:  {@link CompilationUnit}<br>
  * Output: {@link CompilationUnit}<br>
+ *
+ * Header: 'releaseModels' = Boolean.TRUE to release the byte code of each method once its statements are built.<br>
  */
 public class UpdateJavaSyntaxTreeProcessor implements Processor {
 
     @Override
     public void process(Message message) throws Exception {
         TypeMaker typeMaker = message.getHeader("typeMaker");
+        Printer printer = message.getHeader("printer");
         CompilationUnit compilationUnit = message.getBody();
+        CreateInstructionsVisitor createInstructionsVisitor;
 
         new UpdateJavaSyntaxTreeStep0Visitor(typeMaker).visit(compilationUnit);
-        new UpdateJavaSyntaxTreeStep1Visitor(typeMaker).visit(compilationUnit);
+
+        if (printer instanceof ProgressivePrinter) {
+            createInstructionsVisitor = new CreateInstructionsAndNotifyVisitor(typeMaker, (ProgressivePrinter)printer);
+        } else {
+            createInstructionsVisitor = new CreateInstructionsVisitor(typeMaker);
+        }
+
+        createInstructionsVisitor.setReleaseByteCode(Boolean.TRUE.equals(message.getHeader("releaseModels")));
+        new UpdateJavaSyntaxTreeStep1Visitor(createInstructionsVisitor).visit(compilationUnit);
+
         new UpdateJavaSyntaxTreeStep2Visitor(typeMaker).visit(compilationUnit);
     }
 }
@@ -14,7 +14,6 @@ import org.jd.core.v1.model.classfile.attribute.AttributeBootstrapMethods;
 import org.jd.core.v1.model.classfile.attribute.AttributeCode;
 import org.jd.core.v1.model.classfile.attribute.BootstrapMethod;
 import org.jd.core.v1.model.classfile.constant.*;
-import org.jd.core.v1.model.javasyntax.AbstractJavaSyntaxVisitor;
 import org.jd.core.v1.model.javasyntax.declaration.*;
 import org.jd.core.v1.model.javasyntax.expression.*;
 import org.jd.core.v1.model.javasyntax.statement.*;
@@ -46,7 +45,6 @@ import static org.jd.core.v1.model.javasyntax.type.PrimitiveType.*;
 public class ByteCodeParser {
     private static final JsrReturnAddressExpression JSR_RETURN_ADDRESS_EXPRESSION = new JsrReturnAddressExpression();
 
-    private MemberVisitor memberVisitor = new MemberVisitor();
     private SearchFirstLineNumberVisitor searchFirstLineNumberVisitor = new SearchFirstLineNumberVisitor();
     private EraseTypeArgumentVisitor eraseTypeArgumentVisitor = new EraseTypeArgumentVisitor();
     private LambdaParameterNamesVisitor lambdaParameterNamesVisitor = new LambdaParameterNamesVisitor();;
@@ -57,6 +55,8 @@ public class ByteCodeParser {
     protected boolean genericTypesSupported;
     private String internalTypeName;
     private AbstractTypeParametersToTypeArgumentsBinder typeParametersToTypeArgumentsBinder;
+    private Java5TypeParametersToTypeArgumentsBinder java5TypeParametersToTypeArgumentsBinder;
+    private JavaTypeParametersToTypeArgumentsBinder javaTypeParametersToTypeArgumentsBinder;
     private AttributeBootstrapMethods attributeBootstrapMethods;
     private ClassFileBodyDeclaration bodyDeclaration;
     private Map<String, BaseType> typeBounds;
@@ -66,6 +66,15 @@ public class ByteCodeParser {
             TypeMaker typeMaker, LocalVariableMaker localVariableMaker, ClassFile classFile,
             ClassFileBodyDeclaration bodyDeclaration, ClassFileConstructorOrMethodDeclaration comd) {
         this.typeMaker = typeMaker;
+        reset(localVariableMaker, classFile, bodyDeclaration, comd);
+    }
+
+    /**
+     * Prepare the parser for another method, keeping its visitors and binders.
+     */
+    public void reset(
+            LocalVariableMaker localVariableMaker, ClassFile classFile,
+            ClassFileBodyDeclaration bodyDeclaration, ClassFileConstructorOrMethodDeclaration comd) {
         this.localVariableMaker = localVariableMaker;
         this.genericTypesSupported = (classFile.getMajorVersion() >= 49); // (majorVersion >= Java 5)
         this.internalTypeName = classFile.getInternalTypeName();
@@ -75,9 +84,17 @@ public class ByteCodeParser {
         this.typeBounds = comd.getTypeBounds();
 
         if (this.genericTypesSupported) {
-            this.typeParametersToTypeArgumentsBinder = new Java5TypeParametersToTypeArgumentsBinder(typeMaker, this.internalTypeName, comd);
+            if (this.java5TypeParametersToTypeArgumentsBinder == null) {
+                this.java5TypeParametersToTypeArgumentsBinder = new Java5TypeParametersToTypeArgumentsBinder(typeMaker, this.internalTypeName, comd);
+            } else {
+                this.java5TypeParametersToTypeArgumentsBinder.reset(this.internalTypeName, comd);
+            }
+            this.typeParametersToTypeArgumentsBinder = this.java5TypeParametersToTypeArgumentsBinder;
         } else {
-            this.typeParametersToTypeArgumentsBinder = new JavaTypeParametersToTypeArgumentsBinder();
+            if (this.javaTypeParametersToTypeArgumentsBinder == null) {
+                this.javaTypeParametersToTypeArgumentsBinder = new JavaTypeParametersToTypeArgumentsBinder();
+            }
+            this.typeParametersToTypeArgumentsBinder = this.javaTypeParametersToTypeArgumentsBinder;
         }
     }
 
@@ -90,8 +107,15 @@ public class ByteCodeParser {
         Method method = cfg.getMethod();
         ConstantPool constants = method.getConstants();
         byte[] code = method.<AttributeCode>getAttribute("Code").getCode();
+        InstructionStream instructions = cfg.getInstructions();
         boolean syntheticFlag = (method.getAccessFlags() & FLAG_SYNTHETIC) != 0;
 
+        if ((instructions == null) || (instructions.getCode() != code)) {
+            // Decoded arrays reused by another method
+            instructions = new InstructionStream(constants, code);
+            cfg.setInstructions(instructions);
+        }
+
         Expression indexRef, arrayRef, valueRef, expression1, expression2, expression3;
         Type type1, type2, type3;
         ConstantMemberRef constantMemberRef;
@@ -101,8 +125,11 @@ public class ByteCodeParser {
         int i, count, value;
         AbstractLocalVariable localVariable;
 
-        for (int offset=fromOffset; offset<toOffset; offset++) {
-            int opcode = code[offset] & 255;
+        int size = instructions.size();
+
+        for (int index=instructions.indexOf(fromOffset); (index < size) && (instructions.getOffset(index) < toOffset); index++) {
+            int offset = instructions.getOffset(index);
+            int opcode = instructions.getOpcode(index);
             int lineNumber = syntheticFlag ? Expression.UNKNOWN_LINE_NUMBER : cfg.getLineNumber(offset);
 
             switch (opcode) {
@@ -130,30 +157,30 @@ public class ByteCodeParser {
                     stack.push(new DoubleConstantExpression(lineNumber, (double)(opcode - 14)));
                     break;
                 case 16: // BIPUSH
-                    value = (byte)(code[++offset] & 255);
+                    value = instructions.getOperand(index);
                     stack.push(new IntegerConstantExpression(lineNumber, PrimitiveTypeUtil.getPrimitiveTypeFromValue(value), value));
                     break;
                 case 17: // SIPUSH
-                    value = (short)(((code[++offset] & 255) << 8) | (code[++offset] & 255));
+                    value = instructions.getOperand(index);
                     stack.push(new IntegerConstantExpression(lineNumber, PrimitiveTypeUtil.getPrimitiveTypeFromValue(value), value));
                     break;
                 case 18: // LDC
-                    parseLDC(stack, constants, lineNumber, constants.getConstant(code[++offset] & 255));
+                    parseLDC(stack, constants, lineNumber, constants.getConstant(instructions.getOperand(index)));
                     break;
                 case 19: case 20: // LDC_W, LDC2_W
-                    parseLDC(stack, constants, lineNumber, constants.getConstant(((code[++offset] & 255) << 8) | (code[++offset] & 255)));
+                    parseLDC(stack, constants, lineNumber, constants.getConstant(instructions.getOperand(index)));
                     break;
                 case 21: // ILOAD
-                    localVariable = localVariableMaker.getLocalVariable(code[++offset] & 255, offset);
+                    localVariable = localVariableMaker.getLocalVariable(instructions.getOperand(index), ++offset);
                     parseILOAD(statements, stack, lineNumber, offset, localVariable);
                     break;
                 case 22: case 23: case 24: // LLOAD, FLOAD, DLOAD
-                    localVariable = localVariableMaker.getLocalVariable(code[++offset] & 255, offset);
+                    localVariable = localVariableMaker.getLocalVariable(instructions.getOperand(index), ++offset);
                     stack.push(new ClassFileLocalVariableReferenceExpression(lineNumber, offset, localVariable));
                     break;
                 case 25: // ALOAD
-                    i = code[++offset] & 255;
-                    localVariable = localVariableMaker.getLocalVariable(i, offset);
+                    i = instructions.getOperand(index);
+                    localVariable = localVariableMaker.getLocalVariable(i, ++offset);
                     if ((i == 0) && ((method.getAccessFlags() & FLAG_STATIC) == 0)) {
                         stack.push(new ThisExpression(lineNumber, localVariable.getType()));
                     } else {
@@ -194,11 +221,11 @@ public class ByteCodeParser {
                     stack.push(new ArrayExpression(lineNumber, arrayRef, indexRef));
                     break;
                 case 54: case 55: case 56: case 57: // ISTORE, LSTORE, FSTORE, DSTORE
-                    localVariable = getLocalVariableInAssignment(code[++offset] & 255, offset + 2, valueRef = stack.pop());
+                    localVariable = getLocalVariableInAssignment(instructions.getOperand(index), ++offset + 2, valueRef = stack.pop());
                     parseSTORE(statements, stack, lineNumber, offset, localVariable, valueRef);
                     break;
                 case 58: // ASTORE
-                    localVariable = getLocalVariableInAssignment(code[++offset] & 255, offset + 1, valueRef = stack.pop());
+                    localVariable = getLocalVariableInAssignment(instructions.getOperand(index), ++offset + 1, valueRef = stack.pop());
                     parseASTORE(statements, stack, lineNumber, offset, localVariable, valueRef);
                     break;
                 case 59: case 60: case 61: case 62: // ISTORE_0 ... ISTORE_3
@@ -566,8 +593,8 @@ public class ByteCodeParser {
                     stack.push(new BinaryOperatorExpression(lineNumber, TYPE_LONG, expression1, "^", expression2, 11));
                     break;
                 case 132: // IINC
-                    localVariable = localVariableMaker.getLocalVariable(code[++offset] & 255, offset);
-                    parseIINC(statements, stack, lineNumber, offset, localVariable, (byte)(code[++offset] & 255));
+                    localVariable = localVariableMaker.getLocalVariable(instructions.getOperand(index), ++offset);
+                    parseIINC(statements, stack, lineNumber, offset, localVariable, instructions.getOperand2(index));
                     break;
                 case 133: // I2L
                     stack.push(new CastExpression(lineNumber, TYPE_LONG, stack.pop(), false));
@@ -621,94 +648,62 @@ public class ByteCodeParser {
                     break;
                 case 153: // IFEQ
                     parseIF(stack, lineNumber, basicBlock, "!=", "==", 8);
-                    offset += 2; // Skip branch offset
                     break;
                 case 154: // IFNE
                     parseIF(stack, lineNumber, basicBlock, "==", "!=", 8);
-                    offset += 2; // Skip branch offset
                     break;
                 case 155: // IFLT
                     parseIF(stack, lineNumber, basicBlock, ">=", "<", 7);
-                    offset += 2; // Skip branch offset
                     break;
                 case 156: // IFGE
                     parseIF(stack, lineNumber, basicBlock, "<", ">=", 7);
-                    offset += 2; // Skip branch offset
                     break;
                 case 157: // IFGT
                     parseIF(stack, lineNumber, basicBlock, "<=", ">", 7);
-                    offset += 2; // Skip branch offset
                     break;
                 case 158: // IFLE
                     parseIF(stack, lineNumber, basicBlock, ">", "<=", 7);
-                    offset += 2; // Skip branch offset
                     break;
                 case 159: // IF_ICMPEQ
                 case 165: // IF_ACMPEQ
                     expression2 = stack.pop();
                     expression1 = stack.pop();
                     stack.push(newIntegerOrBooleanComparisonOperatorExpression(lineNumber, expression1, basicBlock.mustInverseCondition() ? "!=" : "==", expression2, 9));
-                    offset += 2; // Skip branch offset
                     break;
                 case 160: // IF_ICMPNE
                 case 166: // IF_ACMPNE
                     expression2 = stack.pop();
                     expression1 = stack.pop();
                     stack.push(newIntegerOrBooleanComparisonOperatorExpression(lineNumber, expression1, basicBlock.mustInverseCondition() ? "==" : "!=", expression2, 9));
-                    offset += 2; // Skip branch offset
                     break;
                 case 161: // IF_ICMPLT
                     expression2 = stack.pop();
                     expression1 = stack.pop();
                     stack.push(newIntegerComparisonOperatorExpression(lineNumber, expression1, basicBlock.mustInverseCondition() ? ">=" : "<", expression2, 8));
-                    offset += 2; // Skip branch offset
                     break;
                 case 162: // IF_ICMPGE
                     expression2 = stack.pop();
                     expression1 = stack.pop();
                     stack.push(newIntegerComparisonOperatorExpression(lineNumber, expression1, basicBlock.mustInverseCondition() ? "<" : ">=", expression2, 8));
-                    offset += 2; // Skip branch offset
                     break;
                 case 163: // IF_ICMPGT
                     expression2 = stack.pop();
                     expression1 = stack.pop();
                     stack.push(newIntegerComparisonOperatorExpression(lineNumber, expression1, basicBlock.mustInverseCondition() ? "<=" : ">", expression2, 8));
-                    offset += 2; // Skip branch offset
                     break;
                 case 164: // IF_ICMPLE
                     expression2 = stack.pop();
                     expression1 = stack.pop();
                     stack.push(newIntegerComparisonOperatorExpression(lineNumber, expression1, basicBlock.mustInverseCondition() ? ">" : "<=", expression2, 8));
-                    offset += 2; // Skip branch offset
                     break;
                 case 168: // JSR
                     stack.push(JSR_RETURN_ADDRESS_EXPRESSION);
                 case 167: // GOTO
-                    offset += 2; // Skip branch offset
                     break;
                 case 169: // RET
-                    offset++; // Skip index
-                    break;
-                case 170: // TABLESWITCH
-                    offset = (offset+4) & 0xFFFC; // Skip padding
-                    offset += 4; // Skip default offset
-
-                    int low = ((code[offset++] & 255) << 24) | ((code[offset++] & 255) << 16) | ((code[offset++] & 255) << 8 ) |  (code[offset++] & 255);
-                    int high = ((code[offset++] & 255) << 24) | ((code[offset++] & 255) << 16) | ((code[offset++] & 255) << 8 ) |  (code[offset++] & 255);
-
-                    offset += (4 * (high - low + 1)) - 1;
-
-                    statements.add(new SwitchStatement(stack.pop(), new DefaultList<>(high - low + 2)));
                     break;
-                case 171: // LOOKUPSWITCH
-                    offset = (offset+4) & 0xFFFC; // Skip padding
-                    offset += 4; // Skip default offset
-
-                    count = ((code[offset++] & 255) << 24) | ((code[offset++] & 255) << 16) | ((code[offset++] & 255) << 8 ) |  (code[offset++] & 255);
-
-                    offset += (8 * count) - 1;
-
-                    statements.add(new SwitchStatement(stack.pop(), new DefaultList<>(count+1)));
+                case 170: case 171: // TABLESWITCH, LOOKUPSWITCH
+                    statements.add(new SwitchStatement(stack.pop(), new DefaultList<>(instructions.getSwitchOffsets(index).length)));
                     break;
                 case 172: case 173: case 174: case 175: case 176: // IRETURN, LRETURN, FRETURN, DRETURN, ARETURN
                     parseXRETURN(statements, stack, lineNumber);
@@ -717,19 +712,19 @@ public class ByteCodeParser {
                     statements.add(RETURN);
                     break;
                 case 178: // GETSTATIC
-                    parseGetStatic(stack, constants, lineNumber, ((code[++offset] & 255) << 8) | (code[++offset] & 255));
+                    parseGetStatic(stack, constants, lineNumber, instructions.getOperand(index));
                     break;
                 case 179: // PUTSTATIC
-                    parsePutStatic(statements, stack, constants, lineNumber, ((code[++offset] & 255) << 8) | (code[++offset] & 255));
+                    parsePutStatic(statements, stack, constants, lineNumber, instructions.getOperand(index));
                     break;
                 case 180: // GETFIELD
-                    parseGetField(stack, constants, lineNumber, ((code[++offset] & 255) << 8) | (code[++offset] & 255));
+                    parseGetField(stack, constants, lineNumber, instructions.getOperand(index));
                     break;
                 case 181: // PUTFIELD
-                    parsePutField(statements, stack, constants, lineNumber, ((code[++offset] & 255) << 8) | (code[++offset] & 255));
+                    parsePutField(statements, stack, constants, lineNumber, instructions.getOperand(index));
                     break;
                 case 182: case 183: case 184: case 185: // INVOKEVIRTUAL, INVOKESPECIAL, INVOKESTATIC, INVOKEINTERFACE
-                    constantMemberRef = constants.getConstant( ((code[++offset] & 255) << 8) | (code[++offset] & 255) );
+                    constantMemberRef = constants.getConstant(instructions.getOperand(index));
                     typeName = constants.getConstantTypeName(constantMemberRef.getClassIndex());
                     ot = typeMaker.makeFromDescriptorOrInternalTypeName(typeName);
                     constantNameAndType = constants.getConstant(constantMemberRef.getNameAndTypeIndex());
@@ -751,9 +746,6 @@ public class ByteCodeParser {
                         if (expression1.isLocalVariableReferenceExpression()) {
                             ((ClassFileLocalVariableReferenceExpression)expression1).getLocalVariable().typeOnLeft(typeBounds, ot);
                         }
-                        if (opcode == 185) { // INVOKEINTERFACE
-                            offset += 2; // Skip 'count' and one byte
-                        }
                         if (TYPE_VOID.equals(methodTypes.returnedType)) {
                             if ((opcode == 183) && // INVOKESPECIAL
                                 "<init>".equals(name)) {
@@ -787,19 +779,18 @@ public class ByteCodeParser {
                     }
                     break;
                 case 186: // INVOKEDYNAMIC
-                    parseInvokeDynamic(statements, stack, constants, lineNumber,  ((code[++offset] & 255) << 8) | (code[++offset] & 255));
-                    offset += 2; // Skip 2 bytes
+                    parseInvokeDynamic(statements, stack, constants, lineNumber, instructions.getOperand(index));
                     break;
                 case 187: // NEW
-                    typeName = constants.getConstantTypeName( ((code[++offset] & 255) << 8) | (code[++offset] & 255) );
+                    typeName = constants.getConstantTypeName(instructions.getOperand(index));
                     stack.push(newNewExpression(lineNumber, typeName));
                     break;
                 case 188: // NEWARRAY
-                    type1 = PrimitiveTypeUtil.getPrimitiveTypeFromTag( (code[++offset] & 255) ).createType(1);
+                    type1 = PrimitiveTypeUtil.getPrimitiveTypeFromTag(instructions.getOperand(index)).createType(1);
                     stack.push(new NewArray(lineNumber, type1, stack.pop()));
                     break;
                 case 189: // ANEWARRAY
-                    typeName = constants.getConstantTypeName( ((code[++offset] & 255) << 8) | (code[++offset] & 255) );
+                    typeName = constants.getConstantTypeName(instructions.getOperand(index));
                     if (typeName.charAt(0) == '[') {
                         type1 = typeMaker.makeFromDescriptor(typeName);
                         type1 = type1.createType(type1.getDimension()+1);
@@ -821,7 +812,7 @@ public class ByteCodeParser {
                     statements.add(new ThrowStatement(stack.pop()));
                     break;
                 case 192: // CHECKCAST
-                    typeName = constants.getConstantTypeName( ((code[++offset] & 255) << 8) | (code[++offset] & 255) );
+                    typeName = constants.getConstantTypeName(instructions.getOperand(index));
                     type1 = typeMaker.makeFromDescriptorOrInternalTypeName(typeName);
                     expression1 = stack.peek();
                     if (type1.isObjectType() && expression1.getType().isObjectType() && typeMaker.isRawTypeAssignable((ObjectType) type1, (ObjectType) expression1.getType())) {
@@ -836,7 +827,7 @@ public class ByteCodeParser {
                     }
                     break;
                 case 193: // INSTANCEOF
-                    typeName = constants.getConstantTypeName( ((code[++offset] & 255) << 8) | (code[++offset] & 255) );
+                    typeName = constants.getConstantTypeName(instructions.getOperand(index));
                     type1 = typeMaker.makeFromDescriptorOrInternalTypeName(typeName);
                     if (type1 == null) {
                         type1 = PrimitiveTypeUtil.getPrimitiveTypeFromDescriptor(typeName);
@@ -850,11 +841,13 @@ public class ByteCodeParser {
                     statements.add(new ClassFileMonitorExitStatement(stack.pop()));
                     break;
                 case 196: // WIDE
-                    opcode = code[++offset] & 255;
-                    i = ((code[++offset] & 255) << 8) | (code[++offset] & 255);
+                    opcode = instructions.getWideOpcode(index);
+                    i = instructions.getOperand(index);
+                    offset += 3;
 
                     if (opcode == 132) { // IINC
-                        count = (short)( ((code[++offset] & 255) << 8) | (code[++offset] & 255) );
+                        count = instructions.getOperand2(index);
+                        offset += 2;
                         parseIINC(statements, stack, lineNumber, offset, localVariableMaker.getLocalVariable(i, offset), count);
                     } else {
                         switch (opcode) {
@@ -891,9 +884,9 @@ public class ByteCodeParser {
                     }
                     break;
                 case 197: // MULTIANEWARRAY
-                    typeName = constants.getConstantTypeName( ((code[++offset] & 255) << 8) | (code[++offset] & 255) );
+                    typeName = constants.getConstantTypeName(instructions.getOperand(index));
                     type1 = typeMaker.makeFromDescriptor(typeName);
-                    i = code[++offset] & 255;
+                    i = instructions.getOperand2(index);
 
                     Expressions dimensions = new Expressions(i);
 
@@ -908,20 +901,17 @@ public class ByteCodeParser {
                     expression1 = stack.pop();
                     typeParametersToTypeArgumentsBinder.bindParameterTypesWithArgumentTypes(TYPE_OBJECT, expression1);
                     stack.push(new BinaryOperatorExpression(lineNumber, TYPE_BOOLEAN, expression1, basicBlock.mustInverseCondition() ? "!=" : "==", new NullExpression(expression1.getLineNumber(), expression1.getType()), 9));
-                    offset += 2; // Skip branch offset
-                    checkStack(stack, code, offset);
+                    checkStack(stack, instructions, index);
                     break;
                 case 199: // IFNONNULL
                     expression1 = stack.pop();
                     typeParametersToTypeArgumentsBinder.bindParameterTypesWithArgumentTypes(TYPE_OBJECT, expression1);
                     stack.push(new BinaryOperatorExpression(lineNumber, TYPE_BOOLEAN, expression1, basicBlock.mustInverseCondition() ? "==" : "!=", new NullExpression(expression1.getLineNumber(), expression1.getType()), 9));
-                    offset += 2; // Skip branch offset
-                    checkStack(stack, code, offset);
+                    checkStack(stack, instructions, index);
                     break;
                 case 201: // JSR_W
                     stack.push(JSR_RETURN_ADDRESS_EXPRESSION);
                 case 200: // GOTO_W
-                    offset += 4; // Skip branch offset
                     break;
             }
         }
@@ -1312,16 +1302,16 @@ public class ByteCodeParser {
         String descriptor1 = constants.getConstantUtf8(cnat1.getDescriptorIndex());
 
         if (typeName.equals(internalTypeName)) {
-            for (ClassFileConstructorOrMethodDeclaration methodDeclaration : bodyDeclaration.getMethodDeclarations()) {
-                if (((methodDeclaration.getFlags() & (FLAG_SYNTHETIC|FLAG_PRIVATE)) == (FLAG_SYNTHETIC|FLAG_PRIVATE)) && methodDeclaration.getMethod().getName().equals(name1) && methodDeclaration.getMethod().getDescriptor().equals(descriptor1)) {
-                    // Create lambda expression
-                    ClassFileMethodDeclaration cfmd = (ClassFileMethodDeclaration)methodDeclaration;
-                    stack.push(new LambdaIdentifiersExpression(
-                            lineNumber, indyMethodTypes.returnedType, indyMethodTypes.returnedType,
-                            prepareLambdaParameterNames(cfmd.getFormalParameters(), parameterCount),
-                            prepareLambdaStatements(cfmd.getFormalParameters(), indyParameters, cfmd.getStatements())));
-                    return;
-                }
+            ClassFileConstructorOrMethodDeclaration methodDeclaration = bodyDeclaration.getMethodDeclaration(name1, descriptor1);
+
+            if ((methodDeclaration != null) && ((methodDeclaration.getFlags() & (FLAG_SYNTHETIC|FLAG_PRIVATE)) == (FLAG_SYNTHETIC|FLAG_PRIVATE))) {
+                // Create lambda expression
+                ClassFileMethodDeclaration cfmd = (ClassFileMethodDeclaration)methodDeclaration;
+                stack.push(new LambdaIdentifiersExpression(
+                        lineNumber, indyMethodTypes.returnedType, indyMethodTypes.returnedType,
+                        prepareLambdaParameterNames(cfmd.getFormalParameters(), parameterCount),
+                        prepareLambdaStatements(cfmd.getFormalParameters(), indyParameters, cfmd.getStatements())));
+                return;
             }
         }
 
@@ -1944,17 +1934,11 @@ public class ByteCodeParser {
      * @return expression, 'this' or 'super'
      */
     private Expression getFieldInstanceReference(Expression expression, ObjectType ot, String name) {
-        if ((bodyDeclaration.getFieldDeclarations() != null) && expression.isThisExpression()) {
+        if (expression.isThisExpression()) {
             String internalName = expression.getType().getInternalName();
 
-            if (!ot.getInternalName().equals(internalName)) {
-                memberVisitor.init(name, null);
-                for (ClassFileFieldDeclaration field : bodyDeclaration.getFieldDeclarations()) {
-                    field.getFieldDeclarators().accept(memberVisitor);
-                    if (memberVisitor.found()) {
-                        return new SuperExpression(expression.getLineNumber(), expression.getType());
-                    }
-                }
+            if (!ot.getInternalName().equals(internalName) && (bodyDeclaration.getFieldDeclaration(name) != null)) {
+                return new SuperExpression(expression.getLineNumber(), expression.getType());
             }
         }
 
@@ -1965,27 +1949,20 @@ public class ByteCodeParser {
      * @return expression, 'this' or 'super'
      */
     private Expression getMethodInstanceReference(Expression expression, ObjectType ot, String name, String descriptor) {
-        if ((bodyDeclaration.getMethodDeclarations() != null) && expression.isThisExpression()) {
+        if (expression.isThisExpression()) {
             String internalName = expression.getType().getInternalName();
 
-            if (!ot.getInternalName().equals(internalName)) {
-                memberVisitor.init(name, descriptor);
-
-                for (ClassFileConstructorOrMethodDeclaration member : bodyDeclaration.getMethodDeclarations()) {
-                    member.accept(memberVisitor);
-                    if (memberVisitor.found()) {
-                        return new SuperExpression(expression.getLineNumber(), expression.getType());
-                    }
-                }
+            if (!ot.getInternalName().equals(internalName) && (bodyDeclaration.getMethodDeclaration(name, descriptor) instanceof ClassFileMethodDeclaration)) {
+                return new SuperExpression(expression.getLineNumber(), expression.getType());
             }
         }
 
         return expression;
     }
 
-    private static void checkStack(DefaultStack<Expression> stack, byte[] code, int offset) {
-        if ((stack.size() > 1) && (offset < code.length)) {
-            int opcode = code[offset+1] & 255;
+    private static void checkStack(DefaultStack<Expression> stack, InstructionStream instructions, int index) {
+        if ((stack.size() > 1) && (index+1 < instructions.size())) {
+            int opcode = instructions.getOpcode(index+1);
 
             if ((opcode == 87) || (opcode == 176)) { // POP || ARETURN
                 // Duplicate last expression
@@ -2056,32 +2033,6 @@ public class ByteCodeParser {
         }
     }
 
-    private static class MemberVisitor extends AbstractJavaSyntaxVisitor {
-        protected String name;
-        protected String descriptor;
-        protected boolean found;
-
-        public void init(String name, String descriptor) {
-            this.name = name;
-            this.descriptor = descriptor;
-            this.found = false;
-        }
-
-        public boolean found() {
-            return found;
-        }
-
-        @Override
-        public void visit(FieldDeclarator declaration) {
-            found |= declaration.getName().equals(name);
-        }
-
-        @Override
-        public void visit(MethodDeclaration declaration) {
-            found |= declaration.getName().equals(name) && declaration.getDescriptor().equals(descriptor);
-        }
-    }
-
     private static class LambdaParameterNamesVisitor extends AbstractNopDeclarationVisitor {
         protected DefaultList<String> names;
 
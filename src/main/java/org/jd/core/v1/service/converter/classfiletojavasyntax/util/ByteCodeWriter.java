@@ -139,69 +139,52 @@ public class ByteCodeWriter {
     }
 
     protected static void writeByteCode(String linePrefix, StringBuilder sb, ConstantPool constants, byte[] code, int fromOffset, int toOffset) {
-        for (int offset=fromOffset; offset<toOffset; offset++) {
-            int opcode = code[offset] & 255;
+        InstructionStream instructions = new InstructionStream(constants, code);
+
+        for (int index=instructions.indexOf(fromOffset), size=instructions.size(); index<size; index++) {
+            int offset = instructions.getOffset(index);
+
+            if (offset >= toOffset) {
+                break;
+            }
+
+            int opcode = instructions.getOpcode(index);
+            int operand = instructions.getOperand(index);
 
             sb.append(linePrefix).append("  ").append(offset).append(": ").append(OPCODE_NAMES[opcode]);
 
             switch (opcode) {
-                case 16: // BIPUSH
-                    sb.append(" #").append((byte) (code[++offset] & 255));
-                    break;
-                case 17: // SIPUSH
-                    sb.append(" #").append((short)(((code[++offset] & 255) << 8) | (code[++offset] & 255)));
-                    break;
-                case 18:
-                    writeLDC(sb, constants, constants.getConstant(code[++offset] & 255));
-                    break;
-                case 19: case 20: // LDC_W, LDC2_W
-                    writeLDC(sb, constants, constants.getConstant(((code[++offset] & 255) << 8) | (code[++offset] & 255)));
-                    break;
+                case 16: case 17: // BIPUSH, SIPUSH
                 case 21: case 22: case 23: case 24: case 25: // ILOAD, LLOAD, FLOAD, DLOAD, ALOAD
                 case 54: case 55: case 56: case 57: case 58: // ISTORE, LSTORE, FSTORE, DSTORE, ASTORE
                 case 169: // RET
-                    sb.append(" #").append((code[++offset] & 255));
+                    sb.append(" #").append(operand);
+                    break;
+                case 18: case 19: case 20: // LDC, LDC_W, LDC2_W
+                    writeLDC(sb, constants, constants.getConstant(operand));
                     break;
                 case 132: // IINC
-                    sb.append(" #").append((code[++offset] & 255)).append(", ").append((byte)(code[++offset] & 255));
+                    sb.append(" #").append(operand).append(", ").append(instructions.getOperand2(index));
                     break;
                 case 153: case 154: case 155: case 156: case 157: case 158: // IFEQ, IFNE, IFLT, IFGE, IFGT, IFLE
                 case 159: case 160: case 161: case 162: case 163: case 164: case 165: case 166: // IF_ICMPEQ, IF_ICMPNE, IF_ICMPLT, IF_ICMPGE, IF_ICMPGT, IF_ICMPLE, IF_ACMPEQ, IF_ACMPNE
                 case 167: case 168: // GOTO, JSR
-                    sb.append(" -> ").append(offset + (short)(((code[++offset] & 255) << 8) | (code[++offset] & 255)));
-                    break;
-                case 170: // TABLESWITCH
-                    // Skip padding
-                    int i = (offset + 4) & 0xFFFC;
-
-                    sb.append(" default").append(" -> ").append(offset + (((code[i++] & 255) << 24) | ((code[i++] & 255) << 16) | ((code[i++] & 255) << 8) | (code[i++] & 255)));
-
-                    int low = ((code[i++] & 255) << 24) | ((code[i++] & 255) << 16) | ((code[i++] & 255) << 8) | (code[i++] & 255);
-                    int high = ((code[i++] & 255) << 24) | ((code[i++] & 255) << 16) | ((code[i++] & 255) << 8) | (code[i++] & 255);
-
-                    for (int value = low; value <= high; value++) {
-                        sb.append(", ").append(value).append(" -> ").append(offset + (((code[i++] & 255) << 24) | ((code[i++] & 255) << 16) | ((code[i++] & 255) << 8) | (code[i++] & 255)));
-                    }
-
-                    offset = (i - 1);
+                case 198: case 199: // IFNULL, IFNONNULL
+                case 200: case 201: // GOTO_W, JSR_W
+                    sb.append(" -> ").append(operand);
                     break;
-                case 171: // LOOKUPSWITCH
-                    // Skip padding
-                    i = (offset + 4) & 0xFFFC;
+                case 170: case 171: // TABLESWITCH, LOOKUPSWITCH
+                    int[] values = instructions.getSwitchValues(index);
+                    int[] offsets = instructions.getSwitchOffsets(index);
 
-                    sb.append(" default").append(" -> ").append(offset + (((code[i++] & 255) << 24) | ((code[i++] & 255) << 16) | ((code[i++] & 255) << 8) | (code[i++] & 255)));
+                    sb.append(" default").append(" -> ").append(offsets[0]);
 
-                    int npairs = ((code[i++] & 255) << 24) | ((code[i++] & 255) << 16) | ((code[i++] & 255) << 8) | (code[i++] & 255);
-
-                    for (int j = 0, k = 0; k < npairs; k++) {
-                        sb.append(", ").append(((code[i++] & 255) << 24) | ((code[i++] & 255) << 16) | ((code[i++] & 255) << 8) | (code[i++] & 255));
-                        sb.append(" -> ").append(offset + (((code[i++] & 255) << 24) | ((code[i++] & 255) << 16) | ((code[i++] & 255) << 8) | (code[i++] & 255)));
+                    for (int j=1, len=offsets.length; j<len; j++) {
+                        sb.append(", ").append(values[j]).append(" -> ").append(offsets[j]);
                     }
-
-                    offset = (i - 1);
                     break;
                 case 178: case 179: // GETSTATIC, PUTSTATIC
-                    ConstantMemberRef constantMemberRef = constants.getConstant(((code[++offset] & 255) << 8) | (code[++offset] & 255));
+                    ConstantMemberRef constantMemberRef = constants.getConstant(operand);
                     String typeName = constants.getConstantTypeName(constantMemberRef.getClassIndex());
                     ConstantNameAndType constantNameAndType = constants.getConstant(constantMemberRef.getNameAndTypeIndex());
                     String name = constants.getConstantUtf8(constantNameAndType.getNameIndex());
@@ -210,29 +193,20 @@ public class ByteCodeWriter {
                     sb.append(" ").append(typeName).append('.').append(name).append(" : ").append(descriptor);
                     break;
                 case 180: case 181: case 182: case 183: case 184: // GETFIELD, PUTFIELD, INVOKEVIRTUAL, INVOKESPECIAL, INVOKESTATIC
-                    constantMemberRef = constants.getConstant(((code[++offset] & 255) << 8) | (code[++offset] & 255));
-                    constantNameAndType = constants.getConstant(constantMemberRef.getNameAndTypeIndex());
-                    name = constants.getConstantUtf8(constantNameAndType.getNameIndex());
-                    descriptor = constants.getConstantUtf8(constantNameAndType.getDescriptorIndex());
-
-                    sb.append(" ").append(name).append(" : ").append(descriptor);
-                    break;
                 case 185: case 186: // INVOKEINTERFACE, INVOKEDYNAMIC
-                    constantMemberRef = constants.getConstant(((code[++offset] & 255) << 8) | (code[++offset] & 255));
+                    constantMemberRef = constants.getConstant(operand);
                     constantNameAndType = constants.getConstant(constantMemberRef.getNameAndTypeIndex());
                     name = constants.getConstantUtf8(constantNameAndType.getNameIndex());
                     descriptor = constants.getConstantUtf8(constantNameAndType.getDescriptorIndex());
 
                     sb.append(" ").append(name).append(" : ").append(descriptor);
-
-                    offset += 2; // Skip 2 bytes
                     break;
                 case 187: case 189: case 192: case 193: // NEW, ANEWARRAY, CHECKCAST, INSTANCEOF
-                    typeName = constants.getConstantTypeName(((code[++offset] & 255) << 8) | (code[++offset] & 255));
+                    typeName = constants.getConstantTypeName(operand);
                     sb.append(" ").append(typeName);
                     break;
                 case 188: // NEWARRAY
-                    switch ((code[++offset] & 255)) {
+                    switch (operand) {
                         case 4:  sb.append(" boolean"); break;
                         case 5:  sb.append(" char"); break;
                         case 6:  sb.append(" float"); break;
@@ -244,36 +218,24 @@ public class ByteCodeWriter {
                     }
                     break;
                 case 196: // WIDE
-                    opcode = code[++offset] & 255;
-                    i = ((code[++offset] & 255) << 8) | (code[++offset] & 255);
-
-                    if (opcode == 132) { // IINC
-                        sb.append(" iinc #").append(i).append(' ').append((short)(((code[++offset] & 255) << 8) | (code[++offset] & 255)));
-                    } else {
-                        switch (opcode) {
-                            case 21: sb.append(" iload #").append(i); break;
-                            case 22: sb.append(" lload #").append(i); break;
-                            case 23: sb.append(" fload #").append(i); break;
-                            case 24: sb.append(" dload #").append(i); break;
-                            case 25: sb.append(" aload #").append(i); break;
-                            case 54: sb.append(" istore #").append(i); break;
-                            case 55: sb.append(" lstore #").append(i); break;
-                            case 56: sb.append(" fstore #").append(i); break;
-                            case 57: sb.append(" dstore #").append(i); break;
-                            case 58: sb.append(" astore #").append(i); break;
-                            case 169: sb.append(" ret #").append(i); break;
-                        }
+                    switch (instructions.getWideOpcode(index)) {
+                        case 132: sb.append(" iinc #").append(operand).append(' ').append(instructions.getOperand2(index)); break;
+                        case 21: sb.append(" iload #").append(operand); break;
+                        case 22: sb.append(" lload #").append(operand); break;
+                        case 23: sb.append(" fload #").append(operand); break;
+                        case 24: sb.append(" dload #").append(operand); break;
+                        case 25: sb.append(" aload #").append(operand); break;
+                        case 54: sb.append(" istore #").append(operand); break;
+                        case 55: sb.append(" lstore #").append(operand); break;
+                        case 56: sb.append(" fstore #").append(operand); break;
+                        case 57: sb.append(" dstore #").append(operand); break;
+                        case 58: sb.append(" astore #").append(operand); break;
+                        case 169: sb.append(" ret #").append(operand); break;
                     }
                     break;
                 case 197: // MULTIANEWARRAY
-                    typeName = constants.getConstantTypeName(((code[++offset] & 255) << 8) | (code[++offset] & 255));
-                    sb.append(typeName).append(' ').append(code[++offset] & 255);
-                    break;
-                case 198: case 199: // IFNULL, IFNONNULL
-                    sb.append(" -> ").append(offset + (short)(((code[++offset] & 255) << 8) | (code[++offset] & 255)));
-                    break;
-                case 200: case 201: // GOTO_W, JSR_W
-                    sb.append(" -> ").append(offset + (((code[++offset] & 255) << 24) | ((code[++offset] & 255) << 16) | ((code[++offset] & 255) << 8) | (code[++offset] & 255)));
+                    typeName = constants.getConstantTypeName(operand);
+                    sb.append(typeName).append(' ').append(instructions.getOperand2(index));
                     break;
             }
 
@@ -10,6 +10,7 @@ package org.jd.core.v1.service.converter.classfiletojavasyntax.util;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.model.cfg.BasicBlock;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.model.cfg.ControlFlowGraph;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.model.cfg.Loop;
+import org.jd.core.v1.util.CancellationUtil;
 import org.jd.core.v1.util.DefaultList;
 
 import java.util.*;
@@ -19,28 +20,26 @@ import static org.jd.core.v1.service.converter.classfiletojavasyntax.model.cfg.B
 public class ControlFlowGraphLoopReducer {
     protected static final LoopComparator LOOP_COMPARATOR = new LoopComparator();
 
+    /**
+     * @return bit sets of the scratch arena of the current thread, valid until the next method is processed
+     */
     public static BitSet[] buildDominatorIndexes(ControlFlowGraph cfg) {
         List<BasicBlock> list = cfg.getBasicBlocks();
         int length = list.size();
-        BitSet[] arrayOfDominatorIndexes = new BitSet[length];
-
-        BitSet initial = new BitSet(length);
-        initial.set(0);
-        arrayOfDominatorIndexes[0] = initial;
+        ScratchArena arena = ScratchArena.get();
+        BitSet[] arrayOfDominatorIndexes = arena.getBitSets(length);
 
-        for (int i=0; i<length; i++) {
-            initial = new BitSet(length);
-            initial.flip(0, length);
-            arrayOfDominatorIndexes[i] = initial;
+        for (int i=1; i<length; i++) {
+            arrayOfDominatorIndexes[i].set(0, length);
         }
 
-        initial = arrayOfDominatorIndexes[0];
-        initial.clear();
+        BitSet initial = arrayOfDominatorIndexes[0];
         initial.set(0);
 
         boolean change;
 
         do {
+            CancellationUtil.throwIfCancelled();
             change = false;
 
             for (BasicBlock basicBlock : list) {
@@ -48,7 +47,8 @@ public class ControlFlowGraphLoopReducer {
 
                 BitSet dominatorIndexes = arrayOfDominatorIndexes[index];
 
-                initial = (BitSet)dominatorIndexes.clone();
+                initial = arena.getBitSet();
+                initial.or(dominatorIndexes);
 
                 for (BasicBlock predecessorBB : basicBlock.getPredecessors()) {
                     dominatorIndexes.and(arrayOfDominatorIndexes[predecessorBB.getIndex()]);
@@ -688,6 +688,8 @@ public class ControlFlowGraphLoopReducer {
         List<Loop> loops = identifyNaturalLoops(cfg, arrayOfDominatorIndexes);
 
         for (int i=0, loopsLength=loops.size(); i<loopsLength; i++) {
+            CancellationUtil.throwIfCancelled();
+
             Loop loop = loops.get(i);
             BasicBlock startBB = loop.getStart();
             BasicBlock loopBB = reduceLoop(loop);
@@ -13,8 +13,6 @@ import org.jd.core.v1.model.classfile.attribute.AttributeCode;
 import org.jd.core.v1.model.classfile.attribute.AttributeLineNumberTable;
 import org.jd.core.v1.model.classfile.attribute.CodeException;
 import org.jd.core.v1.model.classfile.attribute.LineNumber;
-import org.jd.core.v1.model.classfile.constant.ConstantMemberRef;
-import org.jd.core.v1.model.classfile.constant.ConstantNameAndType;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.model.cfg.BasicBlock;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.model.cfg.ControlFlowGraph;
 import org.jd.core.v1.util.DefaultList;
@@ -34,44 +32,36 @@ public class ControlFlowGraphMaker {
         if (attributeCode == null) {
             return null;
         } else {
-            // Parse byte-code
+            // Decode byte-code
             ConstantPool constants = method.getConstants();
             byte[] code = attributeCode.getCode();
             int length = code.length;
 
-            BasicBlock[] map = new BasicBlock[length];
+            // Reuse the arrays of the previous method
+            ScratchArena arena = ScratchArena.get();
+            InstructionStream instructions = arena.getInstructions(constants, code);
+            int size = instructions.size();
+            BasicBlock[] map = arena.getBasicBlocks(length);
 
-            char[] types = new char[length];                   // 'c' for conditional instruction, 'g' for goto, 't' for throw, 's' for switch, 'r' for return
-            int[] nextOffsets = new int[length];               // Next instruction offsets
-            int[] branchOffsets = new int[length];             // Branch offsets
-            int[][] switchValues = new int[length][];          // Default-value and switch-values
-            int[][] switchOffsets = new int[length][];         // Default-case offset and switch-case offsets
+            char[] types = arena.getTypes(length);                   // 'c' for conditional instruction, 'g' for goto, 't' for throw, 's' for switch, 'r' for return
+            int[] branchOffsets = arena.getBranchOffsets(length);    // Branch offsets
+            int[][] switchValues = arena.getSwitchValues(length);    // Default-value and switch-values
+            int[][] switchOffsets = arena.getSwitchOffsets(length);  // Default-case offset and switch-case offsets
 
             // --- Search leaders --- //
 
             // The first instruction is a leader
             map[0] = MARK;
 
-            int lastOffset = 0;
             int lastStatementOffset = -1;
 
-            for (int offset=0; offset<length; offset++) {
-                nextOffsets[lastOffset] = offset;
-                lastOffset = offset;
-
-                int opcode = code[offset] & 255;
+            for (int index=0; index<size; index++) {
+                // Offset of the last byte of the instruction
+                int offset = instructions.getNextOffset(index) - 1;
+                int opcode = instructions.getOpcode(index);
 
                 switch (opcode) {
-                    case 16: // BIPUSH
-                    case 18: // LDC
-                    case 21: case 22: case 23: case 24: case 25: // ILOAD, LLOAD, FLOAD, DLOAD, ALOAD
-                    case 188: // NEWARRAY
-                        offset++;
-                        break;
                     case 54: case 55: case 56: case 57: case 58: // ISTORE, LSTORE, FSTORE, DSTORE, ASTORE
-                        offset++;
-                        lastStatementOffset = offset;
-                        break;
                     case 59: case 60: case 61: case 62: // ISTORE_0 .. ISTORE_3
                     case 63: case 64: case 65: case 66: // LSTORE_0 .. LSTORE_3
                     case 67: case 68: case 69: case 70: // FSTORE_0 .. FSTORE_3
@@ -80,10 +70,10 @@ public class ControlFlowGraphMaker {
                     case 79: case 80: case 81: case 82: case 83: case 84: case 85: case 86: // IASTORE, LASTORE, FASTORE, DASTORE, AASTORE, BASTORE, CASTORE, SASTORE
                     case 87: case 88: // POP, POP2
                     case 194: case 195: // MONITORENTER, MONITOREXIT
+                    case 179: case 181: // PUTSTATIC, PUTFIELD
                         lastStatementOffset = offset;
                         break;
                     case 169: // RET
-                        offset++;
                         // The instruction that immediately follows a conditional or an unconditional goto/jump instruction is a leader
                         types[offset] = 'R';
                         if (offset + 1 < length) {
@@ -91,51 +81,26 @@ public class ControlFlowGraphMaker {
                         }
                         lastStatementOffset = offset;
                         break;
-                    case 179: case 181: // PUTSTATIC, PUTFIELD
-                        offset += 2;
-                        lastStatementOffset = offset;
-                        break;
                     case 182: case 183: case 184: // INVOKEVIRTUAL, INVOKESPECIAL, INVOKESTATIC
-                        ConstantMemberRef constantMemberRef = constants.getConstant( ((code[++offset] & 255) << 8) | (code[++offset] & 255) );
-                        ConstantNameAndType constantNameAndType = constants.getConstant(constantMemberRef.getNameAndTypeIndex());
-                        String descriptor = constants.getConstantUtf8(constantNameAndType.getDescriptorIndex());
-                        if (descriptor.charAt(descriptor.length()-1) == 'V') {
-                            lastStatementOffset = offset;
-                        }
-                        break;
                     case 185: case 186: // INVOKEINTERFACE, INVOKEDYNAMIC
-                        constantMemberRef = constants.getConstant( ((code[++offset] & 255) << 8) | (code[++offset] & 255) );
-                        constantNameAndType = constants.getConstant(constantMemberRef.getNameAndTypeIndex());
-                        descriptor = constants.getConstantUtf8(constantNameAndType.getDescriptorIndex());
-                        offset += 2; // Skip 2 bytes
-                        if (descriptor.charAt(descriptor.length()-1) == 'V') {
+                        if (instructions.isVoidInvocation(index)) {
                             lastStatementOffset = offset;
                         }
                         break;
                     case 132: // IINC
-                        offset += 2;
-                        if ((lastStatementOffset+3 == offset) && (checkILOADForIINC(code, offset, (code[offset-1] & 255)) == false)) {
+                        if ((lastStatementOffset+3 == offset) && (checkILOADForIINC(instructions, index, instructions.getOperand(index)) == false)) {
                             // Last instruction is a 'statement' & the next instruction is not a matching ILOAD -> IINC as a statement
                             lastStatementOffset = offset;
                         }
                         break;
-                    case 17: // SIPUSH
-                    case 19: case 20: // LDC_W, LDC2_W
-                    case 178: case 180: // GETSTATIC, GETFIELD
-                    case 187: case 189: // NEW, ANEWARRAY
-                    case 192: // CHECKCAST
-                    case 193: // INSTANCEOF
-                        offset += 2;
-                        break;
-                    case 167: // GOTO
-                        char type = (lastStatementOffset+1 == offset) ? 'g' : 'G';
+                    case 167: case 200: // GOTO, GOTO_W
+                        char type = (lastStatementOffset+1 == instructions.getOffset(index)) ? 'g' : 'G';
 
-                        if (lastStatementOffset != -1) {
+                        if ((opcode == 167) && (lastStatementOffset != -1)) {
                             map[lastStatementOffset + 1] = MARK;
                         }
                         // The target of a conditional or an unconditional goto/jump instruction is a leader
-                        types[offset] = type; // TODO debug, remove this line
-                        int branchOffset = offset + (short)(((code[++offset] & 255) << 8) | (code[++offset] & 255));
+                        int branchOffset = instructions.getOperand(index);
                         map[branchOffset] = MARK;
                         types[offset] = type;
                         branchOffsets[offset] = branchOffset;
@@ -145,22 +110,7 @@ public class ControlFlowGraphMaker {
                         }
                         lastStatementOffset = offset;
                         break;
-                    case 168: // JSR
-                        if (lastStatementOffset != -1) {
-                            map[lastStatementOffset + 1] = MARK;
-                        }
-                        types[offset] = 'j'; // TODO debug, remove this line
-                        // The target of a conditional or an unconditional goto/jump instruction is a leader
-                        branchOffset = offset + (short)(((code[++offset] & 255) << 8) | (code[++offset] & 255));
-                        map[branchOffset] = MARK;
-                        types[offset] = 'j';
-                        branchOffsets[offset] = branchOffset;
-                        // The instruction that immediately follows a conditional or an unconditional goto/jump instruction is a leader
-                        if (offset + 1 < length) {
-                            map[offset + 1] = MARK;
-                        }
-                        lastStatementOffset = offset;
-                        break;
+                    case 168: case 201: // JSR, JSR_W
                     case 153: case 154: case 155: case 156: case 157: case 158: // IFEQ, IFNE, IFLT, IFGE, IFGT, IFLE
                     case 159: case 160: case 161: case 162: case 163: case 164: case 165: case 166: // IF_ICMPEQ, IF_ICMPNE, IF_ICMPLT, IF_ICMPGE, IF_ICMPGT, IF_ICMPLE, IF_ACMPEQ, IF_ACMPNE
                     case 198: case 199: // IFNULL, IFNONNULL
@@ -168,9 +118,9 @@ public class ControlFlowGraphMaker {
                             map[lastStatementOffset + 1] = MARK;
                         }
                         // The target of a conditional or an unconditional goto/jump instruction is a leader
-                        branchOffset = offset + (short)(((code[++offset] & 255) << 8) | (code[++offset] & 255));
+                        branchOffset = instructions.getOperand(index);
                         map[branchOffset] = MARK;
-                        types[offset] = 'c';
+                        types[offset] = ((opcode == 168) || (opcode == 201)) ? 'j' : 'c';
                         branchOffsets[offset] = branchOffset;
                         // The instruction that immediately follows a conditional or an unconditional goto/jump instruction is a leader
                         if (offset + 1 < length) {
@@ -178,55 +128,15 @@ public class ControlFlowGraphMaker {
                         }
                         lastStatementOffset = offset;
                         break;
-                    case 170: // TABLESWITCH
-                        // Skip padding
-                        int i = (offset + 4) & 0xFFFC;
-                        int defaultOffset = offset + (((code[i++] & 255) << 24) | ((code[i++] & 255) << 16) | ((code[i++] & 255) << 8) | (code[i++] & 255));
+                    case 170: case 171: // TABLESWITCH, LOOKUPSWITCH
+                        int[] offsets = instructions.getSwitchOffsets(index);
 
-                        map[defaultOffset] = MARK;
-
-                        int low = ((code[i++] & 255) << 24) | ((code[i++] & 255) << 16) | ((code[i++] & 255) << 8) | (code[i++] & 255);
-                        int high = ((code[i++] & 255) << 24) | ((code[i++] & 255) << 16) | ((code[i++] & 255) << 8) | (code[i++] & 255);
-                        int[] values = new int[high - low + 2];
-                        int[] offsets = new int[high - low + 2];
-
-                        offsets[0] = defaultOffset;
-
-                        for (int j=1, len=high-low+2; j<len; j++) {
-                            values[j] = low + j - 1;
-                            branchOffset = offsets[j] = offset + (((code[i++] & 255) << 24) | ((code[i++] & 255) << 16) | ((code[i++] & 255) << 8) | (code[i++] & 255));
-                            map[branchOffset] = MARK;
+                        for (int switchOffset : offsets) {
+                            map[switchOffset] = MARK;
                         }
 
-                        offset = (i - 1);
                         types[offset] = 's';
-                        switchValues[offset] = values;
-                        switchOffsets[offset] = offsets;
-                        lastStatementOffset = offset;
-                        break;
-                    case 171: // LOOKUPSWITCH
-                        // Skip padding
-                        i = (offset + 4) & 0xFFFC;
-                        defaultOffset = offset + (((code[i++] & 255) << 24) | ((code[i++] & 255) << 16) | ((code[i++] & 255) << 8) | (code[i++] & 255));
-
-                        map[defaultOffset] = MARK;
-
-                        int npairs = ((code[i++] & 255) << 24) | ((code[i++] & 255) << 16) | ((code[i++] & 255) << 8) | (code[i++] & 255);
-
-                        values = new int[npairs + 1];
-                        offsets = new int[npairs + 1];
-
-                        offsets[0] = defaultOffset;
-
-                        for (int j=1; j<=npairs; j++) {
-                            values[j] = ((code[i++] & 255) << 24) | ((code[i++] & 255) << 16) | ((code[i++] & 255) << 8) | (code[i++] & 255);
-                            branchOffset = offsets[j] = offset + (((code[i++] & 255) << 24) | ((code[i++] & 255) << 16) | ((code[i++] & 255) << 8) | (code[i++] & 255));
-                            map[branchOffset] = MARK;
-                        }
-
-                        offset = (i - 1);
-                        types[offset] = 's';
-                        switchValues[offset] = values;
+                        switchValues[offset] = instructions.getSwitchValues(index);
                         switchOffsets[offset] = offsets;
                         lastStatementOffset = offset;
                         break;
@@ -255,18 +165,14 @@ public class ControlFlowGraphMaker {
                         lastStatementOffset = offset;
                         break;
                     case 196: // WIDE
-                        opcode = code[++offset] & 255;
-
-                        switch (opcode) {
+                        switch (instructions.getWideOpcode(index)) {
                             case 132: // IINC
-                                offset += 4;
-                                if ((lastStatementOffset+6 == offset) && (checkILOADForIINC(code, offset, ((code[offset-3] & 255) << 8) | (code[offset-2] & 255)) == false)) {
+                                if ((lastStatementOffset+6 == offset) && (checkILOADForIINC(instructions, index, instructions.getOperand(index)) == false)) {
                                     // Last instruction is a 'statement' & the next instruction is not a matching ILOAD -> IINC as a statement
                                     lastStatementOffset = offset;
                                 }
                                 break;
                             case 169: // RET
-                                offset += 2;
                                 // The instruction that immediately follows a conditional or an unconditional goto/jump instruction is a leader
                                 types[offset] = 'R';
                                 if (offset + 1 < length) {
@@ -275,49 +181,13 @@ public class ControlFlowGraphMaker {
                                 lastStatementOffset = offset;
                                 break;
                             case 54: case 55: case 56: case 57: case 58: // ISTORE, LSTORE, FSTORE, DSTORE, ASTORE
-                                lastStatementOffset = offset+2;
-                            default:
-                                offset += 2;
+                                lastStatementOffset = offset;
                                 break;
                         }
                         break;
-                    case 197: // MULTIANEWARRAY
-                        offset += 3;
-                        break;
-                    case 200: // GOTO_W
-                        type = (lastStatementOffset+1 == offset) ? 'g' : 'G';
-
-                        types[offset] = type; // TODO debug, remove this line
-                        branchOffset = offset + (((code[++offset] & 255) << 24) | ((code[++offset] & 255) << 16) | ((code[++offset] & 255) << 8) | (code[++offset] & 255));
-                        map[branchOffset] = MARK;
-                        types[offset] = type;
-                        branchOffsets[offset] = branchOffset;
-                        // The instruction that immediately follows a conditional or an unconditional goto/jump instruction is a leader
-                        if (offset + 1 < length) {
-                            map[offset + 1] = MARK;
-                        }
-                        lastStatementOffset = offset;
-                        break;
-                    case 201: // JSR_W
-                        if (lastStatementOffset != -1) {
-                            map[lastStatementOffset + 1] = MARK;
-                        }
-                        types[offset] = 'j'; // TODO debug, remove this line
-                        // The target of a conditional or an unconditional goto/jump instruction is a leader
-                        branchOffset = offset + (((code[++offset] & 255) << 24) | ((code[++offset] & 255) << 16) | ((code[++offset] & 255) << 8) | (code[++offset] & 255));
-                        map[branchOffset] = MARK;
-                        types[offset] = 'j';
-                        branchOffsets[offset] = branchOffset;
-                        // The instruction that immediately follows a conditional or an unconditional goto/jump instruction is a leader
-                        if (offset + 1 < length) {
-                            map[offset + 1] = MARK;
-                        }
-                        lastStatementOffset = offset;
-                        break;
                 }
             }
 
-            nextOffsets[lastOffset] = length;
             CodeException[] codeExceptions = attributeCode.getExceptionTable();
 
             if (codeExceptions != null) {
@@ -329,6 +199,7 @@ public class ControlFlowGraphMaker {
 
             // --- Create line numbers --- //
             ControlFlowGraph cfg = new ControlFlowGraph(method);
+            cfg.setInstructions(instructions);
             AttributeLineNumberTable attributeLineNumberTable = attributeCode.getAttribute("LineNumberTable");
 
             if (attributeLineNumberTable != null) {
@@ -358,12 +229,14 @@ public class ControlFlowGraphMaker {
             }
 
             // --- Create basic blocks --- //
-            lastOffset = 0;
+            int lastOffset = 0;
 
             // Add 'start'
             BasicBlock startBasicBlock = cfg.newBasicBlock(TYPE_START, 0, 0);
 
-            for (int offset=nextOffsets[0]; offset<length; offset=nextOffsets[offset]) {
+            for (int index=1; index<size; index++) {
+                int offset = instructions.getOffset(index);
+
                 if (map[offset] != null) {
                     map[lastOffset] = cfg.newBasicBlock(lastOffset, offset);
                     lastOffset = offset;
@@ -561,15 +434,15 @@ public class ControlFlowGraphMaker {
         }
     }
 
-    protected static boolean checkILOADForIINC(byte[] code, int offset, int index) {
-        if (++offset < code.length) {
-            int nextOpcode = code[offset] & 255;
+    protected static boolean checkILOADForIINC(InstructionStream instructions, int index, int localVariableIndex) {
+        if (++index < instructions.size()) {
+            int nextOpcode = instructions.getOpcode(index);
 
             if (nextOpcode == 21) { // ILOAD
-                if (index == (code[offset+1] & 255)) {
+                if (localVariableIndex == instructions.getOperand(index)) {
                     return true;
                 }
-            } else if (nextOpcode == 26+index) { // ILOAD_0 ... ILOAD_3
+            } else if (nextOpcode == 26+localVariableIndex) { // ILOAD_0 ... ILOAD_3
                 return true;
             }
         }
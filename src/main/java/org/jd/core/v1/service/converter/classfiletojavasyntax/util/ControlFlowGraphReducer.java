@@ -11,6 +11,7 @@ import org.jd.core.v1.model.classfile.attribute.AttributeCode;
 import org.jd.core.v1.model.javasyntax.expression.Expression;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.model.cfg.BasicBlock;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.model.cfg.ControlFlowGraph;
+import org.jd.core.v1.util.CancellationUtil;
 
 import java.util.*;
 
@@ -27,6 +28,8 @@ public class ControlFlowGraphReducer {
     }
 
     public static boolean reduce(BitSet visited, BasicBlock basicBlock, BitSet jsrTargets) {
+        CancellationUtil.throwIfCancelled();
+
         if (!basicBlock.matchType(GROUP_END) && (visited.get(basicBlock.getIndex()) == false)) {
             visited.set(basicBlock.getIndex());
 
@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.service.converter.classfiletojavasyntax.util;
+
+import org.jd.core.v1.model.classfile.ConstantPool;
+import org.jd.core.v1.model.classfile.constant.ConstantMemberRef;
+import org.jd.core.v1.model.classfile.constant.ConstantNameAndType;
+
+import java.util.Arrays;
+
+/**
+ * Byte code of a method, decoded once in a single pass driven by a table of operand formats. Instruction 'i' starts at
+ * 'getOffset(i)'; its operands are decoded: branch targets are absolute offsets, constant pool and local variable
+ * indexes are unsigned, immediate values are signed. For WIDE, 'getOpcode' returns 196 and 'getWideOpcode' the
+ * modified opcode. The return kinds of the invoked methods are resolved once per constant pool index.<br><br>
+ *
+ * The arrays of an instance are reused by 'init'.
+ */
+public class InstructionStream {
+    protected static final byte FORMAT_NONE = 0;
+    protected static final byte FORMAT_U1 = 1;           // Local variable index, constant index, array type
+    protected static final byte FORMAT_S1 = 2;           // BIPUSH
+    protected static final byte FORMAT_U2 = 3;           // Constant index
+    protected static final byte FORMAT_S2 = 4;           // SIPUSH
+    protected static final byte FORMAT_IINC = 5;         // Local variable index and signed increment
+    protected static final byte FORMAT_BRANCH = 6;       // 16-bit relative offset
+    protected static final byte FORMAT_BRANCH_W = 7;     // 32-bit relative offset
+    protected static final byte FORMAT_INVOKE = 8;       // Constant index
+    protected static final byte FORMAT_INVOKE_4 = 9;     // Constant index and 2 bytes
+    protected static final byte FORMAT_MULTIANEWARRAY = 10;
+    protected static final byte FORMAT_TABLESWITCH = 11;
+    protected static final byte FORMAT_LOOKUPSWITCH = 12;
+    protected static final byte FORMAT_WIDE = 13;
+
+    protected static final byte[] FORMATS = new byte[256];
+
+    protected static final int FLAG_VOID = 1 << 16;
+
+    static {
+        set(FORMAT_U1, 18, 21, 22, 23, 24, 25, 54, 55, 56, 57, 58, 169, 188); // LDC, xLOAD, xSTORE, RET, NEWARRAY
+        set(FORMAT_S1, 16); // BIPUSH
+        set(FORMAT_S2, 17); // SIPUSH
+        set(FORMAT_U2, 19, 20, 178, 179, 180, 181, 187, 189, 192, 193); // LDC_W, LDC2_W, GET/PUT, NEW, ANEWARRAY, CHECKCAST, INSTANCEOF
+        set(FORMAT_IINC, 132);
+        set(FORMAT_BRANCH, 153, 154, 155, 156, 157, 158, 159, 160, 161, 162, 163, 164, 165, 166, 167, 168, 198, 199); // IFxx, GOTO, JSR, IFNULL, IFNONNULL
+        set(FORMAT_BRANCH_W, 200, 201); // GOTO_W, JSR_W
+        set(FORMAT_INVOKE, 182, 183, 184); // INVOKEVIRTUAL, INVOKESPECIAL, INVOKESTATIC
+        set(FORMAT_INVOKE_4, 185, 186); // INVOKEINTERFACE, INVOKEDYNAMIC
+        set(FORMAT_MULTIANEWARRAY, 197);
+        set(FORMAT_TABLESWITCH, 170);
+        set(FORMAT_LOOKUPSWITCH, 171);
+        set(FORMAT_WIDE, 196);
+    }
+
+    protected byte[] code;
+    protected ConstantPool constants;
+    protected int size;
+    protected int[] offsets = new int[1];   // 'size + 1' offsets, the last one is the length of the code
+    protected int[] opcodes = new int[0];   // Opcode | (modified opcode << 8) for WIDE | FLAG_VOID for the invocations of void methods
+    protected int[] operands = new int[0];  // First operand, or switch index
+    protected int[] operands2 = new int[0]; // Second operand: IINC increment, MULTIANEWARRAY dimensions, INVOKEINTERFACE count
+    protected int switchCount;
+    protected int[][] switchValues = null;
+    protected int[][] switchOffsets = null;
+
+    public InstructionStream() {}
+
+    public InstructionStream(ConstantPool constants, byte[] code) {
+        init(constants, code);
+    }
+
+    /**
+     * Drop the references to the byte code and to the constant pool, keeping the arrays for the next method.
+     */
+    public void release() {
+        code = null;
+        constants = null;
+    }
+
+    public InstructionStream init(ConstantPool constants, byte[] code) {
+        this.code = code;
+        this.constants = constants;
+        this.size = 0;
+
+        if (switchCount > 0) {
+            Arrays.fill(switchValues, 0, switchCount, null);
+            Arrays.fill(switchOffsets, 0, switchCount, null);
+            switchCount = 0;
+        }
+
+        int length = code.length;
+        int capacity = (length >> 1) + 1;
+
+        if (opcodes.length < capacity) {
+            offsets = new int[capacity + 1];
+            opcodes = new int[capacity];
+            operands = new int[capacity];
+            operands2 = new int[capacity];
+        }
+
+        byte[] returnKinds = null;
+        int offset = 0;
+
+        while (offset < length) {
+            if (size == opcodes.length) {
+                grow();
+            }
+
+            int opcode = code[offset] & 255;
+            int operand = 0;
+            int operand2 = 0;
+
+            offsets[size] = offset;
+
+            switch (FORMATS[opcode]) {
+                case FORMAT_NONE:
+                    offset++;
+                    break;
+                case FORMAT_U1:
+                    operand = code[offset+1] & 255;
+                    offset += 2;
+                    break;
+                case FORMAT_S1:
+                    operand = code[offset+1];
+                    offset += 2;
+                    break;
+                case FORMAT_U2:
+                    operand = ((code[offset+1] & 255) << 8) | (code[offset+2] & 255);
+                    offset += 3;
+                    break;
+                case FORMAT_S2:
+                    operand = (short)(((code[offset+1] & 255) << 8) | (code[offset+2] & 255));
+                    offset += 3;
+                    break;
+                case FORMAT_IINC:
+                    operand = code[offset+1] & 255;
+                    operand2 = code[offset+2];
+                    offset += 3;
+                    break;
+                case FORMAT_BRANCH:
+                    operand = offset + (short)(((code[offset+1] & 255) << 8) | (code[offset+2] & 255));
+                    offset += 3;
+                    break;
+                case FORMAT_BRANCH_W:
+                    operand = offset + readInt(code, offset+1);
+                    offset += 5;
+                    break;
+                case FORMAT_INVOKE_4:
+                    operand2 = code[offset+3] & 255;
+                    // Fall through
+                case FORMAT_INVOKE:
+                    operand = ((code[offset+1] & 255) << 8) | (code[offset+2] & 255);
+
+                    if (returnKinds == null) {
+                        returnKinds = ScratchArena.get().getReturnKinds(constants);
+                    }
+                    if (operand >= returnKinds.length) {
+                        returnKinds = ScratchArena.get().growReturnKinds(operand + 1);
+                    }
+                    if (returnKinds[operand] == 0) {
+                        returnKinds[operand] = resolveReturnKind(constants, operand);
+                    }
+                    if (returnKinds[operand] == 'V') {
+                        opcode |= FLAG_VOID;
+                    }
+
+                    offset += (FORMATS[opcode & 255] == FORMAT_INVOKE) ? 3 : 5;
+                    break;
+                case FORMAT_MULTIANEWARRAY:
+                    operand = ((code[offset+1] & 255) << 8) | (code[offset+2] & 255);
+                    operand2 = code[offset+3] & 255;
+                    offset += 4;
+                    break;
+                case FORMAT_TABLESWITCH:
+                    // Skip padding
+                    int i = (offset + 4) & 0xFFFC;
+                    int defaultOffset = offset + readInt(code, i);
+                    int low = readInt(code, i+4);
+                    int high = readInt(code, i+8);
+                    int[] values = new int[high - low + 2];
+                    int[] targets = new int[high - low + 2];
+
+                    i += 12;
+                    targets[0] = defaultOffset;
+
+                    for (int j=1, len=high-low+2; j<len; j++, i+=4) {
+                        values[j] = low + j - 1;
+                        targets[j] = offset + readInt(code, i);
+                    }
+
+                    operand = addSwitch(values, targets);
+                    offset = i;
+                    break;
+                case FORMAT_LOOKUPSWITCH:
+                    // Skip padding
+                    i = (offset + 4) & 0xFFFC;
+                    defaultOffset = offset + readInt(code, i);
+
+                    int npairs = readInt(code, i+4);
+
+                    values = new int[npairs + 1];
+                    targets = new int[npairs + 1];
+                    i += 8;
+                    targets[0] = defaultOffset;
+
+                    for (int j=1; j<=npairs; j++, i+=8) {
+                        values[j] = readInt(code, i);
+                        targets[j] = offset + readInt(code, i+4);
+                    }
+
+                    operand = addSwitch(values, targets);
+                    offset = i;
+                    break;
+                case FORMAT_WIDE:
+                    int modifiedOpcode = code[offset+1] & 255;
+
+                    opcode |= modifiedOpcode << 8;
+                    operand = ((code[offset+2] & 255) << 8) | (code[offset+3] & 255);
+
+                    if (modifiedOpcode == 132) { // IINC
+                        operand2 = (short)(((code[offset+4] & 255) << 8) | (code[offset+5] & 255));
+                        offset += 6;
+                    } else {
+                        offset += 4;
+                    }
+                    break;
+            }
+
+            opcodes[size] = opcode;
+            operands[size] = operand;
+            operands2[size] = operand2;
+            size++;
+        }
+
+        offsets[size] = length;
+        return this;
+    }
+
+    public byte[] getCode() {
+        return code;
+    }
+
+    public ConstantPool getConstants() {
+        return constants;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getOffset(int index) {
+        return offsets[index];
+    }
+
+    public int getNextOffset(int index) {
+        return offsets[index+1];
+    }
+
+    /**
+     * @return the index of the instruction starting at 'offset', or the index of the next instruction
+     */
+    public int indexOf(int offset) {
+        int index = Arrays.binarySearch(offsets, 0, size, offset);
+        return (index < 0) ? ~index : index;
+    }
+
+    public int getOpcode(int index) {
+        return opcodes[index] & 255;
+    }
+
+    public int getWideOpcode(int index) {
+        return (opcodes[index] >> 8) & 255;
+    }
+
+    public int getOperand(int index) {
+        return operands[index];
+    }
+
+    public int getOperand2(int index) {
+        return operands2[index];
+    }
+
+    /**
+     * @return true for the invocation of a method returning 'void'
+     */
+    public boolean isVoidInvocation(int index) {
+        return (opcodes[index] & FLAG_VOID) != 0;
+    }
+
+    /**
+     * @return the switch values; the first element is unused
+     */
+    public int[] getSwitchValues(int index) {
+        return switchValues[operands[index]];
+    }
+
+    /**
+     * @return the default offset, followed by the offsets of the switch values
+     */
+    public int[] getSwitchOffsets(int index) {
+        return switchOffsets[operands[index]];
+    }
+
+    protected void grow() {
+        int capacity = opcodes.length * 2;
+
+        offsets = Arrays.copyOf(offsets, capacity + 1);
+        opcodes = Arrays.copyOf(opcodes, capacity);
+        operands = Arrays.copyOf(operands, capacity);
+        operands2 = Arrays.copyOf(operands2, capacity);
+    }
+
+    protected int addSwitch(int[] values, int[] targets) {
+        if (switchValues == null) {
+            switchValues = new int[4][];
+            switchOffsets = new int[4][];
+        } else if (switchCount == switchValues.length) {
+            switchValues = Arrays.copyOf(switchValues, switchCount * 2);
+            switchOffsets = Arrays.copyOf(switchOffsets, switchCount * 2);
+        }
+
+        switchValues[switchCount] = values;
+        switchOffsets[switchCount] = targets;
+        return switchCount++;
+    }
+
+    protected static byte resolveReturnKind(ConstantPool constants, int index) {
+        ConstantMemberRef constantMemberRef = constants.getConstant(index);
+        ConstantNameAndType constantNameAndType = constants.getConstant(constantMemberRef.getNameAndTypeIndex());
+        String descriptor = constants.getConstantUtf8(constantNameAndType.getDescriptorIndex());
+        return (byte)descriptor.charAt(descriptor.length()-1);
+    }
+
+    protected static int readInt(byte[] code, int offset) {
+        return ((code[offset] & 255) << 24) | ((code[offset+1] & 255) << 16) | ((code[offset+2] & 255) << 8) | (code[offset+3] & 255);
+    }
+
+    protected static void set(byte format, int... opcodes) {
+        for (int opcode : opcodes) {
+            FORMATS[opcode] = format;
+        }
+    }
+}
@@ -13,9 +13,8 @@ import org.jd.core.v1.service.converter.classfiletojavasyntax.model.javasyntax.d
 import org.jd.core.v1.service.converter.classfiletojavasyntax.model.javasyntax.expression.*;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.model.localvariable.AbstractLocalVariable;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.visitor.*;
+import org.jd.core.v1.util.SmallMap;
 
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 
 import static org.jd.core.v1.model.javasyntax.declaration.Declaration.FLAG_STATIC;
@@ -41,9 +40,13 @@ public class Java5TypeParametersToTypeArgumentsBinder extends AbstractTypeParame
 
     public Java5TypeParametersToTypeArgumentsBinder(TypeMaker typeMaker, String internalTypeName, ClassFileConstructorOrMethodDeclaration comd) {
         this.typeMaker = typeMaker;
+        this.populateBindingsWithTypeArgumentVisitor = new PopulateBindingsWithTypeArgumentVisitor(typeMaker);
+        reset(internalTypeName, comd);
+    }
+
+    public void reset(String internalTypeName, ClassFileConstructorOrMethodDeclaration comd) {
         this.internalTypeName = internalTypeName;
         this.staticMethod = ((comd.getFlags() & FLAG_STATIC) != 0);
-        this.populateBindingsWithTypeArgumentVisitor = new PopulateBindingsWithTypeArgumentVisitor(typeMaker);
         this.contextualBindings = comd.getBindings();
         this.contextualTypeBounds = comd.getTypeBounds();
     }
@@ -53,7 +56,7 @@ public class Java5TypeParametersToTypeArgumentsBinder extends AbstractTypeParame
             int lineNumber, ObjectType objectType, String descriptor,
             TypeMaker.MethodTypes methodTypes, BaseExpression parameters) {
 
-        Map<String, TypeArgument> bindings = new HashMap<>();
+        Map<String, TypeArgument> bindings = new SmallMap<>();
         BaseType parameterTypes = clone(methodTypes.parameterTypes);
         BaseTypeParameter methodTypeParameters = methodTypes.typeParameters;
 
@@ -78,7 +81,7 @@ public class Java5TypeParametersToTypeArgumentsBinder extends AbstractTypeParame
             TypeMaker.TypeTypes superTypeTypes = typeMaker.makeTypeTypes(objectType.getInternalName());
 
             if (superTypeTypes != null) {
-                bindings = new HashMap<>();
+                bindings = new SmallMap<>();
                 BaseTypeParameter typeParameters = superTypeTypes.typeParameters;
                 BaseTypeArgument typeArguments = typeTypes.superType.getTypeArguments();
                 BaseTypeParameter methodTypeParameters = methodTypes.typeParameters;
@@ -121,7 +124,7 @@ public class Java5TypeParametersToTypeArgumentsBinder extends AbstractTypeParame
                         if (typeTypes == null) {
                             type = (Type)bind(contextualBindings, type);
                         } else {
-                            Map<String, TypeArgument> bindings = new HashMap<>();
+                            Map<String, TypeArgument> bindings = new SmallMap<>();
                             BaseTypeParameter typeParameters = typeTypes.typeParameters;
                             BaseTypeArgument typeArguments = expressionObjectType.getTypeArguments();
                             boolean partialBinding = populateBindings(bindings, expression, typeParameters, typeArguments, null, TYPE_OBJECT, null, null, null);
@@ -169,12 +172,9 @@ public class Java5TypeParametersToTypeArgumentsBinder extends AbstractTypeParame
     protected void bindParameters(BaseType parameterTypes, BaseExpression parameters) {
         if (parameterTypes != null) {
             if (parameterTypes.isList() && parameters.isList()) {
-                Iterator<Type> parameterTypesIterator = parameterTypes.iterator();
-                Iterator<Expression> parametersIterator = parameters.iterator();
-
-                while (parametersIterator.hasNext()) {
-                    Expression parameter = parametersIterator.next();
-                    this.type = parameterTypesIterator.next();
+                for (int i=0, size=parameters.size(); i<size; i++) {
+                    Expression parameter = parameters.get(i);
+                    this.type = parameterTypes.get(i);
                     parameter.accept(this);
                     parameter.accept(REMOVE_NON_WILDCARD_TYPE_ARGUMENTS_VISITOR);
                 }
@@ -191,7 +191,7 @@ public class Java5TypeParametersToTypeArgumentsBinder extends AbstractTypeParame
             Map<String, TypeArgument> bindings, Expression expression,
             BaseTypeParameter typeParameters, BaseTypeArgument typeArguments, BaseTypeParameter methodTypeParameters,
             Type returnType, Type returnExpressionType, BaseType parameterTypes, BaseExpression parameters) {
-        Map<String, BaseType> typeBounds = new HashMap<>();
+        Map<String, BaseType> typeBounds = new SmallMap<>();
         boolean statik = (expression != null) && expression.isObjectTypeReferenceExpression();
 
         if (!statik) {
@@ -203,11 +203,8 @@ public class Java5TypeParametersToTypeArgumentsBinder extends AbstractTypeParame
 
                 if (typeArguments != null) {
                     if (typeParameters.isList() && typeArguments.isTypeArgumentList()) {
-                        Iterator<TypeParameter> iteratorTypeParameter = typeParameters.iterator();
-                        Iterator<TypeArgument> iteratorTypeArgument = typeArguments.getTypeArgumentList().iterator();
-
-                        while (iteratorTypeParameter.hasNext()) {
-                            bindings.put(iteratorTypeParameter.next().getIdentifier(), iteratorTypeArgument.next());
+                        for (int i=0, size=typeParameters.size(); i<size; i++) {
+                            bindings.put(typeParameters.get(i).getIdentifier(), typeArguments.getTypeArgument(i));
                         }
                     } else {
                         bindings.put(typeParameters.getFirst().getIdentifier(), typeArguments.getTypeArgumentFirst());
@@ -228,11 +225,8 @@ public class Java5TypeParametersToTypeArgumentsBinder extends AbstractTypeParame
 
         if (parameterTypes != null) {
             if (parameterTypes.isList() && parameters.isList()) {
-                Iterator<Type> parameterTypesIterator = parameterTypes.iterator();
-                Iterator<Expression> parametersIterator = parameters.iterator();
-
-                while (parametersIterator.hasNext()) {
-                    populateBindingsWithTypeArgument(bindings, typeBounds, parameterTypesIterator.next(), parametersIterator.next());
+                for (int i=0, size=parameters.size(); i<size; i++) {
+                    populateBindingsWithTypeArgument(bindings, typeBounds, parameterTypes.get(i), parameters.get(i));
                 }
             } else {
                 populateBindingsWithTypeArgument(bindings, typeBounds, parameterTypes.getFirst(), parameters.getFirst());
@@ -416,7 +410,7 @@ public class Java5TypeParametersToTypeArgumentsBinder extends AbstractTypeParame
                         }
                     }
 
-                    Map<String, TypeArgument> bindings = new HashMap<>();
+                    Map<String, TypeArgument> bindings = new SmallMap<>();
                     boolean partialBinding = populateBindings(bindings, exp, typeParameters, typeArguments, methodTypeParameters, type, t, parameterTypes, parameters);
 
                     mie.setParameterTypes(parameterTypes = bind(bindings, parameterTypes));
@@ -438,8 +432,8 @@ public class Java5TypeParametersToTypeArgumentsBinder extends AbstractTypeParame
                                 expressionType = expressionObjectType.createType(null);
                             } else if (typeParameters.isList()) {
                                 TypeArguments tas = new TypeArguments(typeParameters.size());
-                                for (TypeParameter typeParameter : typeParameters) {
-                                    tas.add(bindings.get(typeParameter.getIdentifier()));
+                                for (int i=0, size=typeParameters.size(); i<size; i++) {
+                                    tas.add(bindings.get(typeParameters.get(i).getIdentifier()));
                                 }
                                 expressionType = expressionObjectType.createType(tas);
                             } else {
@@ -500,8 +494,8 @@ public class Java5TypeParametersToTypeArgumentsBinder extends AbstractTypeParame
                     if ((typeParameters != null) && (typeArguments == null)) {
                         if (typeParameters.isList()) {
                             TypeArguments tas = new TypeArguments(typeParameters.size());
-                            for (TypeParameter typeParameter : typeParameters) {
-                                tas.add(new GenericType(typeParameter.getIdentifier()));
+                            for (int i=0, size=typeParameters.size(); i<size; i++) {
+                                tas.add(new GenericType(typeParameters.get(i).getIdentifier()));
                             }
                             neObjectType = neObjectType.createType(tas);
                         } else {
@@ -519,7 +513,7 @@ public class Java5TypeParametersToTypeArgumentsBinder extends AbstractTypeParame
                         }
                     }
 
-                    Map<String, TypeArgument> bindings = new HashMap<>();
+                    Map<String, TypeArgument> bindings = new SmallMap<>();
                     boolean partialBinding = populateBindings(bindings, null, typeParameters, typeArguments, null, type, t, parameterTypes, parameters);
 
                     ne.setParameterTypes(parameterTypes = bind(bindings, parameterTypes));
@@ -81,12 +81,8 @@ public class LocalVariableMaker {
         }
 
         if (parameterTypes != null) {
-            if (parameterTypes.isList()) {
-                for (Type type : parameterTypes) {
-                    type.accept(populateBlackListNamesVisitor);
-                }
-            } else {
-                parameterTypes.getFirst().accept(populateBlackListNamesVisitor);
+            for (int i=0, size=parameterTypes.size(); i<size; i++) {
+                parameterTypes.get(i).accept(populateBlackListNamesVisitor);
             }
         }
 
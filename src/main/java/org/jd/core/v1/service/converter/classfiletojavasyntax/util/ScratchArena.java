@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.service.converter.classfiletojavasyntax.util;
+
+import org.jd.core.v1.model.classfile.ConstantPool;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.model.cfg.BasicBlock;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Temporary arrays and bit sets of the control flow graph maker and reducers, reused from one method to the next.
+ * There is one arena per thread; arrays grow to the largest method seen. The arrays returned are cleared on the range
+ * requested and must not be kept after the method has been processed.
+ */
+public class ScratchArena {
+    protected static final ThreadLocal<ScratchArena> ARENAS = ThreadLocal.withInitial(ScratchArena::new);
+
+    protected BasicBlock[] basicBlocks = new BasicBlock[0];
+    protected char[] types = new char[0];
+    protected int[] branchOffsets = new int[0];
+    protected int[][] switchValues = new int[0][];
+    protected int[][] switchOffsets = new int[0][];
+    protected BitSet[] bitSets = new BitSet[0];
+    protected BitSet bitSet = new BitSet();
+    protected InstructionStream instructions = new InstructionStream();
+    protected ConstantPool constants;
+    protected byte[] returnKinds = new byte[0];
+
+    public static ScratchArena get() {
+        return ARENAS.get();
+    }
+
+    public BasicBlock[] getBasicBlocks(int length) {
+        if (basicBlocks.length < length) {
+            basicBlocks = new BasicBlock[length];
+        } else {
+            Arrays.fill(basicBlocks, 0, length, null);
+        }
+        return basicBlocks;
+    }
+
+    public char[] getTypes(int length) {
+        if (types.length < length) {
+            types = new char[length];
+        } else {
+            Arrays.fill(types, 0, length, (char)0);
+        }
+        return types;
+    }
+
+    public int[] getBranchOffsets(int length) {
+        if (branchOffsets.length < length) {
+            branchOffsets = new int[length];
+        } else {
+            Arrays.fill(branchOffsets, 0, length, 0);
+        }
+        return branchOffsets;
+    }
+
+    public int[][] getSwitchValues(int length) {
+        if (switchValues.length < length) {
+            switchValues = new int[length][];
+        } else {
+            Arrays.fill(switchValues, 0, length, null);
+        }
+        return switchValues;
+    }
+
+    public int[][] getSwitchOffsets(int length) {
+        if (switchOffsets.length < length) {
+            switchOffsets = new int[length][];
+        } else {
+            Arrays.fill(switchOffsets, 0, length, null);
+        }
+        return switchOffsets;
+    }
+
+    /**
+     * @return 'length' empty bit sets
+     */
+    public BitSet[] getBitSets(int length) {
+        if (bitSets.length < length) {
+            BitSet[] tmp = new BitSet[length];
+            System.arraycopy(bitSets, 0, tmp, 0, bitSets.length);
+            for (int i=bitSets.length; i<length; i++) {
+                tmp[i] = new BitSet();
+            }
+            bitSets = tmp;
+        }
+
+        for (int i=0; i<length; i++) {
+            bitSets[i].clear();
+        }
+
+        return bitSets;
+    }
+
+    /**
+     * @return the byte code of the method, decoded into the arrays of the previous method
+     */
+    public InstructionStream getInstructions(ConstantPool constants, byte[] code) {
+        return instructions.init(constants, code);
+    }
+
+    /**
+     * @return an empty bit set
+     */
+    public BitSet getBitSet() {
+        bitSet.clear();
+        return bitSet;
+    }
+
+    /**
+     * @return the return kinds of the methods referenced by 'constants', by constant index, shared by the methods of
+     * a class file: 0 if not resolved yet, else the last character of the method descriptor
+     */
+    public byte[] getReturnKinds(ConstantPool constants) {
+        if (this.constants != constants) {
+            this.constants = constants;
+            Arrays.fill(returnKinds, (byte)0);
+        }
+        return returnKinds;
+    }
+
+    /**
+     * Drop the references to the model of the last class converted, keeping the arrays for the next one.
+     */
+    public void release() {
+        Arrays.fill(basicBlocks, null);
+        instructions.release();
+        constants = null;
+    }
+
+    public byte[] growReturnKinds(int length) {
+        if (returnKinds.length < length) {
+            returnKinds = Arrays.copyOf(returnKinds, Math.max(length, returnKinds.length * 2));
+        }
+        return returnKinds;
+    }
+}
@@ -10,9 +10,6 @@ package org.jd.core.v1.service.converter.classfiletojavasyntax.util;
 import org.jd.core.v1.model.classfile.ClassFile;
 import org.jd.core.v1.model.classfile.Constants;
 import org.jd.core.v1.model.classfile.attribute.AttributeCode;
-import org.jd.core.v1.model.javasyntax.AbstractJavaSyntaxVisitor;
-import org.jd.core.v1.model.javasyntax.declaration.FieldDeclarator;
-import org.jd.core.v1.model.javasyntax.declaration.MethodDeclaration;
 import org.jd.core.v1.model.javasyntax.expression.*;
 import org.jd.core.v1.model.javasyntax.statement.*;
 import org.jd.core.v1.model.javasyntax.type.BaseType;
@@ -53,11 +50,11 @@ public class StatementMaker {
     protected String internalTypeName;
     protected ClassFileBodyDeclaration bodyDeclaration;
     protected DefaultStack<Expression> stack = new DefaultStack<>();
+    protected WatchDog watchdog = new WatchDog();
     protected RemoveFinallyStatementsVisitor removeFinallyStatementsVisitor;
     protected RemoveBinaryOpReturnStatementsVisitor removeBinaryOpReturnStatementsVisitor;
     protected UpdateIntegerConstantTypeVisitor updateIntegerConstantTypeVisitor;
     protected SearchFirstLineNumberVisitor searchFirstLineNumberVisitor = new SearchFirstLineNumberVisitor();
-    protected MemberVisitor memberVisitor = new MemberVisitor();
     protected boolean removeFinallyStatementsFlag = false;
     protected boolean mergeTryWithResourcesStatementFlag = false;
 
@@ -65,22 +62,43 @@ public class StatementMaker {
         ClassFile classFile = comd.getClassFile();
 
         this.typeMaker = typeMaker;
+        this.byteCodeParser = new ByteCodeParser(typeMaker, localVariableMaker, classFile, comd.getBodyDeclaration(), comd);
+        this.removeFinallyStatementsVisitor = new RemoveFinallyStatementsVisitor(localVariableMaker);
+        this.removeBinaryOpReturnStatementsVisitor = new RemoveBinaryOpReturnStatementsVisitor(localVariableMaker);
+        this.updateIntegerConstantTypeVisitor = new UpdateIntegerConstantTypeVisitor(comd.getReturnedType());
+        init(localVariableMaker, comd);
+    }
+
+    /**
+     * Prepare the maker for another method, keeping its parser, visitors, stack and watchdog.
+     */
+    public void reset(LocalVariableMaker localVariableMaker, ClassFileConstructorOrMethodDeclaration comd) {
+        byteCodeParser.reset(localVariableMaker, comd.getClassFile(), comd.getBodyDeclaration(), comd);
+        removeFinallyStatementsVisitor.setLocalVariableMaker(localVariableMaker);
+        removeBinaryOpReturnStatementsVisitor.setLocalVariableMaker(localVariableMaker);
+        updateIntegerConstantTypeVisitor.setReturnedType(comd.getReturnedType());
+        init(localVariableMaker, comd);
+    }
+
+    protected void init(LocalVariableMaker localVariableMaker, ClassFileConstructorOrMethodDeclaration comd) {
+        ClassFile classFile = comd.getClassFile();
+
         this.typeBounds = comd.getTypeBounds();
         this.localVariableMaker = localVariableMaker;
         this.majorVersion = classFile.getMajorVersion();
         this.internalTypeName = classFile.getInternalTypeName();
         this.bodyDeclaration = comd.getBodyDeclaration();
-        this.byteCodeParser = new ByteCodeParser(typeMaker, localVariableMaker, classFile, this.bodyDeclaration, comd);
-        this.removeFinallyStatementsVisitor = new RemoveFinallyStatementsVisitor(localVariableMaker);
-        this.removeBinaryOpReturnStatementsVisitor = new RemoveBinaryOpReturnStatementsVisitor(localVariableMaker);
-        this.updateIntegerConstantTypeVisitor = new UpdateIntegerConstantTypeVisitor(comd.getReturnedType());
+        this.removeFinallyStatementsFlag = false;
+        this.mergeTryWithResourcesStatementFlag = false;
+        this.stack.clear();
     }
 
     public Statements make(ControlFlowGraph cfg) {
         Statements statements = new Statements();
         Statements jumps = new Statements();
-        WatchDog watchdog = new WatchDog();
+        WatchDog watchdog = this.watchdog;
 
+        watchdog.clear();
         localVariableMaker.pushFrame(statements);
 
         // Generate statements
@@ -939,22 +957,15 @@ public class StatementMaker {
     @SuppressWarnings("unchecked")
     protected Expression createObjectTypeReferenceDotClassExpression(int lineNumber, String fieldName, MethodInvocationExpression mie) {
         // Add SYNTHETIC flags to field
-        memberVisitor.init(fieldName);
+        ClassFileFieldDeclaration field = bodyDeclaration.getFieldDeclaration(fieldName);
 
-        for (ClassFileFieldDeclaration field : bodyDeclaration.getFieldDeclarations()) {
-            field.getFieldDeclarators().accept(memberVisitor);
-            if (memberVisitor.found()) {
-                field.setFlags(field.getFlags() | Constants.ACC_SYNTHETIC);
-                break;
-            }
+        if (field != null) {
+            field.setFlags(field.getFlags() | Constants.ACC_SYNTHETIC);
         }
 
         // Add SYNTHETIC flags to method named 'class$'
-        memberVisitor.init("class$");
-
         for (ClassFileConstructorOrMethodDeclaration member : bodyDeclaration.getMethodDeclarations()) {
-            member.accept(memberVisitor);
-            if (memberVisitor.found()) {
+            if (member.getMethod().getName().equals("class$")) {
                 member.setFlags(member.getFlags() | Constants.ACC_SYNTHETIC);
                 break;
             }
@@ -1021,27 +1032,4 @@ public class StatementMaker {
         }
     }
 
-    protected static class MemberVisitor extends AbstractJavaSyntaxVisitor {
-        protected String name;
-        protected boolean found;
-
-        public void init(String name) {
-            this.name = name;
-            this.found = false;
-        }
-
-        public boolean found() {
-            return found;
-        }
-
-        @Override
-        public void visit(FieldDeclarator declaration) {
-            found |= declaration.getName().equals(name);
-        }
-
-        @Override
-        public void visit(MethodDeclaration declaration) {
-            found |= declaration.getName().equals(name);
-        }
-    }
 }
@@ -169,12 +169,11 @@ public class SwitchStatementMaker {
 
             if (mie.getDescriptor().equals("()[I") && methodName.startsWith("$SWITCH_TABLE$")) {
                 // Eclipse compiler switch-enum pattern
-                for (ClassFileConstructorOrMethodDeclaration declaration : bodyDeclaration.getMethodDeclarations()) {
-                     if (declaration.getMethod().getName().equals(methodName)) {
-                         DefaultList<Statement> statements = declaration.getStatements().getList();
-                         updateSwitchStatement(switchStatement, statements.listIterator(3));
-                         break;
-                     }
+                ClassFileConstructorOrMethodDeclaration declaration = bodyDeclaration.getMethodDeclaration(methodName, "()[I");
+
+                if (declaration != null) {
+                    DefaultList<Statement> statements = declaration.getStatements().getList();
+                    updateSwitchStatement(switchStatement, statements.listIterator(3));
                 }
             }
         }
@@ -7,6 +7,7 @@
 
 package org.jd.core.v1.service.converter.classfiletojavasyntax.util;
 
+import org.jd.core.v1.api.loader.BatchLoader;
 import org.jd.core.v1.api.loader.Loader;
 import org.jd.core.v1.api.loader.LoaderException;
 import org.jd.core.v1.model.classfile.ClassFile;
@@ -19,11 +20,13 @@ import org.jd.core.v1.model.javasyntax.type.*;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.visitor.BindTypesToTypesVisitor;
 import org.jd.core.v1.service.deserializer.classfile.ClassFileFormatException;
 import org.jd.core.v1.service.deserializer.classfile.ClassFileReader;
+import org.jd.core.v1.util.DefaultList;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.Future;
 
 import static org.jd.core.v1.model.javasyntax.type.ObjectType.TYPE_OBJECT;
 import static org.jd.core.v1.model.javasyntax.type.ObjectType.TYPE_UNDEFINED_OBJECT;
@@ -64,6 +67,7 @@ public class TypeMaker {
     private HashMap<Long, ObjectType> superParameterizedObjectTypes = new HashMap<>(1024);
 
     private HashMap<String, String[]> hierarchy = new HashMap<>(1024);
+    private HashMap<String, Future<byte[]>> prefetchedData = new HashMap<>();
     private ClassPathLoader classPathLoader = new ClassPathLoader();
     private Loader loader;
 
@@ -1037,8 +1041,8 @@ public class TypeMaker {
         TypeTypes typeTypes = null;
 
         try {
-            if (loader.canLoad(internalTypeName)) {
-                internalTypeNameToTypeTypes.put(internalTypeName, typeTypes = makeTypeTypes(internalTypeName, loader.load(internalTypeName)));
+            if (canLoad(internalTypeName)) {
+                internalTypeNameToTypeTypes.put(internalTypeName, typeTypes = makeTypeTypes(internalTypeName, load(internalTypeName)));
             } else if (classPathLoader.canLoad(internalTypeName)) {
                 internalTypeNameToTypeTypes.put(internalTypeName, typeTypes = makeTypeTypes(internalTypeName, classPathLoader.load(internalTypeName)));
             }
@@ -1346,8 +1350,8 @@ public class TypeMaker {
 
         if (ot == null) {
             try {
-                if (loader.canLoad(internalTypeName)) {
-                    internalTypeNameToObjectType.put(internalTypeName, ot = loadType(internalTypeName, loader.load(internalTypeName)));
+                if (canLoad(internalTypeName)) {
+                    internalTypeNameToObjectType.put(internalTypeName, ot = loadType(internalTypeName, load(internalTypeName)));
                 } else if (classPathLoader.canLoad(internalTypeName)) {
                     internalTypeNameToObjectType.put(internalTypeName, ot = loadType(internalTypeName, classPathLoader.load(internalTypeName)));
                 }
@@ -1448,8 +1452,8 @@ public class TypeMaker {
 
     private boolean loadFieldsAndMethods(String internalTypeName) {
         try {
-            if (loader.canLoad(internalTypeName)) {
-                loadFieldsAndMethods(internalTypeName, loader.load(internalTypeName));
+            if (canLoad(internalTypeName)) {
+                loadFieldsAndMethods(internalTypeName, load(internalTypeName));
                 return true;
             } else if (classPathLoader.canLoad(internalTypeName)) {
                 loadFieldsAndMethods(internalTypeName, classPathLoader.load(internalTypeName));
@@ -1612,9 +1616,76 @@ public class TypeMaker {
 
         hierarchy.put(internalTypeName, superClassAndInterfaceNames);
 
+        if (loader instanceof BatchLoader) {
+            prefetch(superClassAndInterfaceNames);
+        }
+
         return constants;
     }
 
+    /**
+     * Request, in one batch, the class files of the super types and interfaces not loaded yet.
+     */
+    private void prefetch(String[] internalTypeNames) {
+        DefaultList<String> names = null;
+
+        for (String internalTypeName : internalTypeNames) {
+            if ((internalTypeName != null) && !hierarchy.containsKey(internalTypeName) && !prefetchedData.containsKey(internalTypeName)) {
+                if (names == null) {
+                    names = new DefaultList<>(internalTypeNames.length);
+                }
+                names.add(internalTypeName);
+            }
+        }
+
+        if (names != null) {
+            prefetchedData.putAll(((BatchLoader)loader).loadAll(names));
+        }
+    }
+
+    /**
+     * Drop the class files prefetched and not used yet. The type maker is reused from one class to the next: without
+     * this call, the data of the super types never read would stay reachable.
+     */
+    public void clearPrefetchedData() {
+        prefetchedData.clear();
+    }
+
+    private boolean canLoad(String internalTypeName) throws LoaderException {
+        Future<byte[]> future = prefetchedData.get(internalTypeName);
+
+        if (future == null) {
+            return loader.canLoad(internalTypeName);
+        }
+
+        byte[] data;
+
+        try {
+            data = BatchLoader.getData(future);
+        } catch (LoaderException e) {
+            prefetchedData.remove(internalTypeName);
+            throw e;
+        }
+
+        if (data == null) {
+            // Not loadable: 'load' will not be called
+            prefetchedData.remove(internalTypeName);
+            return false;
+        }
+
+        return true;
+    }
+
+    private byte[] load(String internalTypeName) throws LoaderException {
+        Future<byte[]> future = prefetchedData.remove(internalTypeName);
+
+        if (future == null) {
+            return loader.load(internalTypeName);
+        } else {
+            return BatchLoader.getData(future);
+        }
+    }
+
     private static void skipMembers(ClassFileReader reader) {
         int count = reader.readUnsignedShort();
         for (int i = 0; i < count; i++) {
@@ -9,46 +9,89 @@ package org.jd.core.v1.service.converter.classfiletojavasyntax.util;
 
 import org.jd.core.v1.service.converter.classfiletojavasyntax.model.cfg.BasicBlock;
 
-import java.util.HashSet;
+import java.util.Arrays;
 
+/**
+ * Detect the links visited twice. Links are packed in longs, 'parent index' << 32 | 'child index', and stored in an
+ * open addressing table: no object is created per link.
+ */
 public class WatchDog {
-    protected HashSet<Link> links = new HashSet<>();
+    protected static final long EMPTY = -1L;
+
+    protected long[] links = newTable(64);
+    protected int size;
 
     public void clear() {
-        links.clear();
+        if (size > 0) {
+            Arrays.fill(links, EMPTY);
+            size = 0;
+        }
     }
 
     public void check(BasicBlock parent, BasicBlock child) {
         if (!child.matchType(BasicBlock.GROUP_END)) {
-            Link link = new Link(parent, child);
-
-            if (links.contains(link)) {
+            if (!add(link(parent, child))) {
                 throw new RuntimeException("CFG watchdog: parent=" + parent + ", child=" + child);
             }
-
-            links.add(link);
         }
     }
 
-    protected static class Link {
-        protected int parentIndex;
-        protected int childIndex;
+    protected static long link(BasicBlock parent, BasicBlock child) {
+        return ((long)parent.getIndex() << 32) | (child.getIndex() & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @return false if the link is already present
+     */
+    protected boolean add(long link) {
+        int mask = links.length - 1;
+        int index = hash(link) & mask;
+        long l;
 
-        public Link(BasicBlock parent, BasicBlock child) {
-            this.parentIndex = parent.getIndex();
-            this.childIndex = child.getIndex();
+        while ((l = links[index]) != EMPTY) {
+            if (l == link) {
+                return false;
+            }
+            index = (index + 1) & mask;
         }
 
-        @Override
-        public int hashCode() {
-            return 4807589 + parentIndex + 31 * childIndex;
+        links[index] = link;
+
+        // Load factor: 0.5
+        if (++size > (links.length >> 1)) {
+            rehash();
         }
 
-        @Override
-        public boolean equals(Object o) {
-            Link other = (Link)o;
+        return true;
+    }
 
-            return (parentIndex == other.parentIndex) && (childIndex == other.childIndex);
+    protected void rehash() {
+        long[] oldLinks = links;
+        int mask = (oldLinks.length << 1) - 1;
+
+        links = newTable(oldLinks.length << 1);
+
+        for (long link : oldLinks) {
+            if (link != EMPTY) {
+                int index = hash(link) & mask;
+
+                while (links[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+
+                links[index] = link;
+            }
         }
     }
+
+    protected static int hash(long link) {
+        long h = link * 0x9E3779B97F4A7C15L;
+        return (int)(h ^ (h >>> 32));
+    }
+
+    protected static long[] newTable(int capacity) {
+        long[] table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
 }
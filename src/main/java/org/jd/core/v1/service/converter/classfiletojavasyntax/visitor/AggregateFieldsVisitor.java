@@ -24,6 +24,7 @@ public class AggregateFieldsVisitor extends AbstractJavaSyntaxVisitor {
         ClassFileBodyDeclaration bodyDeclaration = (ClassFileBodyDeclaration)declaration;
         // Aggregate fields
         AggregateFieldsUtil.aggregate(bodyDeclaration.getFieldDeclarations());
+        bodyDeclaration.resetIndexes();
     }
 
     @Override
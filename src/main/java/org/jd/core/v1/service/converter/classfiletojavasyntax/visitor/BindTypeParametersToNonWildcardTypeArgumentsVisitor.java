@@ -48,8 +48,8 @@ public class BindTypeParametersToNonWildcardTypeArgumentsVisitor implements Type
         int size = parameters.size();
         TypeArguments arguments = new TypeArguments(size);
 
-        for (TypeParameter parameter : parameters) {
-            parameter.accept(this);
+        for (int i=0; i<size; i++) {
+            parameters.get(i).accept(this);
 
             if (result == null) {
                 return;
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.service.converter.classfiletojavasyntax.visitor;
+
+import org.jd.core.v1.api.printer.ProgressivePrinter;
+import org.jd.core.v1.model.classfile.Method;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.model.javasyntax.declaration.ClassFileConstructorOrMethodDeclaration;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.TypeMaker;
+
+/**
+ * Notify a {@link ProgressivePrinter} each time the statements of a method have been created.
+ */
+public class CreateInstructionsAndNotifyVisitor extends CreateInstructionsVisitor {
+    protected ProgressivePrinter printer;
+
+    public CreateInstructionsAndNotifyVisitor(TypeMaker typeMaker, ProgressivePrinter printer) {
+        super(typeMaker);
+        this.printer = printer;
+    }
+
+    @Override
+    protected void createParametersVariablesAndStatements(ClassFileConstructorOrMethodDeclaration comd, boolean constructor) {
+        super.createParametersVariablesAndStatements(comd, constructor);
+
+        Method method = comd.getMethod();
+
+        printer.methodDecompiled(comd.getClassFile().getInternalTypeName(), method.getName(), method.getDescriptor());
+    }
+}
@@ -18,18 +18,30 @@ import org.jd.core.v1.service.converter.classfiletojavasyntax.model.cfg.ControlF
 import org.jd.core.v1.service.converter.classfiletojavasyntax.model.javasyntax.declaration.ClassFileBodyDeclaration;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.model.javasyntax.declaration.ClassFileConstructorOrMethodDeclaration;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.*;
+import org.jd.core.v1.util.CancellationUtil;
 
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 import static org.jd.core.v1.model.javasyntax.declaration.Declaration.*;
 
 public class CreateInstructionsVisitor extends AbstractJavaSyntaxVisitor {
     protected TypeMaker typeMaker;
+    protected StatementMaker statementMaker;
+    protected boolean releaseByteCode;
 
     public CreateInstructionsVisitor(TypeMaker typeMaker) {
         this.typeMaker = typeMaker;
     }
 
+    /**
+     * @param releaseByteCode true to release the byte code of each method once its statements are built. The class
+     *                        file is then no longer usable by the caller.
+     */
+    public void setReleaseByteCode(boolean releaseByteCode) {
+        this.releaseByteCode = releaseByteCode;
+    }
+
     @Override
     public void visit(AnnotationDeclaration declaration) {
         safeAccept(declaration.getBodyDeclaration());
@@ -101,6 +113,8 @@ public class CreateInstructionsVisitor extends AbstractJavaSyntaxVisitor {
     }
 
     protected void createParametersVariablesAndStatements(ClassFileConstructorOrMethodDeclaration comd, boolean constructor) {
+        CancellationUtil.throwIfCancelled();
+
         ClassFile classFile = comd.getClassFile();
         Method method = comd.getMethod();
         AttributeCode attributeCode = method.getAttribute("Code");
@@ -109,7 +123,12 @@ public class CreateInstructionsVisitor extends AbstractJavaSyntaxVisitor {
         if (attributeCode == null) {
             localVariableMaker.make(false, typeMaker);
         } else {
-            StatementMaker statementMaker = new StatementMaker(typeMaker, localVariableMaker, comd);
+            if (statementMaker == null) {
+                statementMaker = new StatementMaker(typeMaker, localVariableMaker, comd);
+            } else {
+                statementMaker.reset(localVariableMaker, comd);
+            }
+
             boolean containsLineNumber = (attributeCode.getAttribute("LineNumberTable") != null);
 
             try {
@@ -125,12 +144,19 @@ public class CreateInstructionsVisitor extends AbstractJavaSyntaxVisitor {
                         comd.setStatements(new ByteCodeStatement(ByteCodeWriter.write("// ", method)));
                     }
                 }
+            } catch (CancellationException e) {
+                throw e;
             } catch (Exception e) {
                 assert ExceptionUtil.printStackTrace(e);
                 comd.setStatements(new ByteCodeStatement(ByteCodeWriter.write("// ", method)));
             }
 
             localVariableMaker.make(containsLineNumber, typeMaker);
+
+            if (releaseByteCode) {
+                // Byte code no longer needed
+                attributeCode.release();
+            }
         }
 
         comd.setFormalParameters(localVariableMaker.getFormalParameters());
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.service.converter.classfiletojavasyntax.visitor;
+
+import org.jd.core.v1.model.javasyntax.declaration.MethodDeclaration;
+import org.jd.core.v1.model.javasyntax.expression.Expression;
+import org.jd.core.v1.model.javasyntax.expression.StringConstantExpression;
+import org.jd.core.v1.model.javasyntax.statement.ThrowStatement;
+import org.jd.core.v1.model.javasyntax.type.ObjectType;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.model.javasyntax.declaration.ClassFileConstructorOrMethodDeclaration;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.model.javasyntax.expression.ClassFileNewExpression;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.LocalVariableMaker;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.TypeMaker;
+
+import static org.jd.core.v1.model.javasyntax.declaration.Declaration.*;
+
+/**
+ * Create the statements of the constructors, the static initializers and the accessors only: they are needed by the
+ * declarations (field initializers, enum constants, synthetic parameters). The other methods get their formal
+ * parameters and a stub body throwing an exception.
+ */
+public class CreateOutlineInstructionsVisitor extends CreateInstructionsVisitor {
+
+    public CreateOutlineInstructionsVisitor(TypeMaker typeMaker) {
+        super(typeMaker);
+    }
+
+    @Override
+    public void visit(MethodDeclaration declaration) {
+        ClassFileConstructorOrMethodDeclaration comd = (ClassFileConstructorOrMethodDeclaration)declaration;
+
+        if (((comd.getFlags() & (FLAG_SYNTHETIC|FLAG_BRIDGE)) != 0) && comd.getMethod().getName().startsWith("access$")) {
+            super.visit(declaration);
+        } else {
+            createParametersAndStubStatements(comd);
+        }
+    }
+
+    protected void createParametersAndStubStatements(ClassFileConstructorOrMethodDeclaration comd) {
+        LocalVariableMaker localVariableMaker = new LocalVariableMaker(typeMaker, comd, false);
+
+        localVariableMaker.make(false, typeMaker);
+        comd.setFormalParameters(localVariableMaker.getFormalParameters());
+
+        if (comd.getMethod().getAttribute("Code") != null) {
+            comd.setStatements(createStubStatement());
+        }
+
+        if (comd.getClassFile().isInterface()) {
+            comd.setFlags(comd.getFlags() & ~(FLAG_PUBLIC|FLAG_ABSTRACT));
+        }
+    }
+
+    /**
+     * @return 'throw new RuntimeException("Stub!");'
+     */
+    public static ThrowStatement createStubStatement() {
+        ClassFileNewExpression newExpression = new ClassFileNewExpression(Expression.UNKNOWN_LINE_NUMBER, ObjectType.TYPE_RUNTIME_EXCEPTION);
+
+        newExpression.set("(Ljava/lang/String;)V", ObjectType.TYPE_STRING, new StringConstantExpression("Stub!"));
+        return new ThrowStatement(newExpression);
+    }
+}
@@ -82,6 +82,7 @@ public class InitStaticFieldVisitor extends AbstractJavaSyntaxVisitor {
                     if (deleteStaticDeclaration != null) {
                         if (deleteStaticDeclaration.booleanValue()) {
                             methods.remove(i);
+                            bodyDeclaration.resetIndexes();
                         }
                         break;
                     }
@@ -10,7 +10,6 @@ package org.jd.core.v1.service.converter.classfiletojavasyntax.visitor;
 import org.jd.core.v1.model.javasyntax.type.*;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.TypeMaker;
 
-import java.util.Iterator;
 import java.util.Map;
 
 import static org.jd.core.v1.model.javasyntax.type.ObjectType.TYPE_CLASS;
@@ -39,12 +38,12 @@ public class PopulateBindingsWithTypeArgumentVisitor implements TypeArgumentVisi
     @Override
     public void visit(TypeArguments arguments) {
         if ((current != null) && current.isTypeArgumentList()) {
-            Iterator<TypeArgument> typeArgumentIterator = arguments.iterator();
-            Iterator<TypeArgument> typeGenericArgumentIterator = current.getTypeArgumentList().iterator();
+            BaseTypeArgument typeGenericArguments = current;
+            int size = Math.min(arguments.size(), typeGenericArguments.typeArgumentSize());
 
-            while (typeArgumentIterator.hasNext() && typeGenericArgumentIterator.hasNext()) {
-                current = typeGenericArgumentIterator.next();
-                typeArgumentIterator.next().accept(this);
+            for (int i=0; i<size; i++) {
+                current = typeGenericArguments.getTypeArgument(i);
+                arguments.get(i).accept(this);
             }
         }
     }
@@ -33,8 +33,8 @@ public class PopulateBindingsWithTypeParameterVisitor implements TypeParameterVi
 
     @Override
     public void visit(TypeParameters parameters) {
-        for (TypeParameter parameter : parameters) {
-            parameter.accept(this);
+        for (int i=0, size=parameters.size(); i<size; i++) {
+            parameters.get(i).accept(this);
         }
     }
 }
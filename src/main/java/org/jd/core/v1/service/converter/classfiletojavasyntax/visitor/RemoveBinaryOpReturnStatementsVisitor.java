@@ -26,6 +26,10 @@ public class RemoveBinaryOpReturnStatementsVisitor extends AbstractJavaSyntaxVis
         this.localVariableMaker = localVariableMaker;
     }
 
+    public void setLocalVariableMaker(LocalVariableMaker localVariableMaker) {
+        this.localVariableMaker = localVariableMaker;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public void visit(Statements statements) {
@@ -47,6 +47,7 @@ public class RemoveDefaultConstructorVisitor extends AbstractJavaSyntaxVisitor {
         if ((constructorCounter == 1) && (constructor != null)) {
             // Remove empty default constructor
             methods.remove(constructor);
+            bodyDeclaration.resetIndexes();
         }
     }
 
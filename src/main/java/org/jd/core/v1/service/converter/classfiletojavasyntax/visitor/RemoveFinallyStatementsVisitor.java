@@ -26,6 +26,10 @@ public class RemoveFinallyStatementsVisitor implements StatementVisitor {
         this.localVariableMaker = localVariableMaker;
     }
 
+    public void setLocalVariableMaker(LocalVariableMaker localVariableMaker) {
+        this.localVariableMaker = localVariableMaker;
+    }
+
     public void init() {
         this.statementCountInFinally = 0;
         this.statementCountToRemove = 0;
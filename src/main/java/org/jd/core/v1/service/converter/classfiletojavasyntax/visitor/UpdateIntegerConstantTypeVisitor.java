@@ -51,6 +51,10 @@ public class UpdateIntegerConstantTypeVisitor extends AbstractJavaSyntaxVisitor
         this.returnedType = returnedType;
     }
 
+    public void setReturnedType(Type returnedType) {
+        this.returnedType = returnedType;
+    }
+
     @Override
     public void visit(AssertStatement statement) {
         statement.setCondition(updateBooleanExpression(statement.getCondition()));
@@ -17,8 +17,12 @@ public class UpdateJavaSyntaxTreeStep1Visitor extends AbstractJavaSyntaxVisitor
     protected InitInnerClassVisitor initInnerClassStep1Visitor;
 
     public UpdateJavaSyntaxTreeStep1Visitor(TypeMaker typeMaker) {
-        createInstructionsVisitor = new CreateInstructionsVisitor(typeMaker);
-        initInnerClassStep1Visitor = new InitInnerClassVisitor();
+        this(new CreateInstructionsVisitor(typeMaker));
+    }
+
+    public UpdateJavaSyntaxTreeStep1Visitor(CreateInstructionsVisitor createInstructionsVisitor) {
+        this.createInstructionsVisitor = createInstructionsVisitor;
+        this.initInnerClassStep1Visitor = new InitInnerClassVisitor();
     }
 
     @Override
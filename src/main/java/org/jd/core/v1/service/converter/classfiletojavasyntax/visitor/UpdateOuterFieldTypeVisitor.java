@@ -18,14 +18,12 @@ import org.jd.core.v1.model.javasyntax.declaration.*;
 import org.jd.core.v1.model.javasyntax.type.*;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.model.javasyntax.declaration.ClassFileBodyDeclaration;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.model.javasyntax.declaration.ClassFileConstructorDeclaration;
-import org.jd.core.v1.service.converter.classfiletojavasyntax.model.javasyntax.declaration.ClassFileFieldDeclaration;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.TypeMaker;
 
 import static org.jd.core.v1.model.classfile.Constants.ACC_STATIC;
 
 public class UpdateOuterFieldTypeVisitor extends AbstractJavaSyntaxVisitor {
     protected TypeMaker typeMaker;
-    protected SearchFieldVisitor searchFieldVisitor = new SearchFieldVisitor();
 
     public UpdateOuterFieldTypeVisitor(TypeMaker typeMaker) {
         this.typeMaker = typeMaker;
@@ -79,27 +77,22 @@ public class UpdateOuterFieldTypeVisitor extends AbstractJavaSyntaxVisitor {
 
                 if ((typeTypes != null) && (typeTypes.typeParameters != null)) {
                     String name = constants.getConstantUtf8(constantNameAndType.getNameIndex());
-                    searchFieldVisitor.init(name);
-
-                    for (ClassFileFieldDeclaration field : cfcd.getBodyDeclaration().getFieldDeclarations()) {
-                        field.getFieldDeclarators().accept(searchFieldVisitor);
-                        if (searchFieldVisitor.found()) {
-                            BaseTypeArgument typeArguments;
-
-                            if (typeTypes.typeParameters.isList()) {
-                                TypeArguments tas = new TypeArguments(typeTypes.typeParameters.size());
-                                for (TypeParameter typeParameter : typeTypes.typeParameters) {
-                                    tas.add(new GenericType(typeParameter.getIdentifier()));
-                                }
-                                typeArguments = tas;
-                            } else {
-                                typeArguments = new GenericType(typeTypes.typeParameters.getFirst().getIdentifier());
-                            }
 
-                            // Update generic type of outer field reference
-                            typeMaker.setFieldType(typeName, name, typeTypes.thisType.createType(typeArguments));
-                            break;
+                    if (cfcd.getBodyDeclaration().getFieldDeclaration(name) != null) {
+                        BaseTypeArgument typeArguments;
+
+                        if (typeTypes.typeParameters.isList()) {
+                            TypeArguments tas = new TypeArguments(typeTypes.typeParameters.size());
+                            for (TypeParameter typeParameter : typeTypes.typeParameters) {
+                                tas.add(new GenericType(typeParameter.getIdentifier()));
+                            }
+                            typeArguments = tas;
+                        } else {
+                            typeArguments = new GenericType(typeTypes.typeParameters.getFirst().getIdentifier());
                         }
+
+                        // Update generic type of outer field reference
+                        typeMaker.setFieldType(typeName, name, typeTypes.thisType.createType(typeArguments));
                     }
                 }
             }
@@ -121,23 +114,4 @@ public class UpdateOuterFieldTypeVisitor extends AbstractJavaSyntaxVisitor {
 
     @Override public void visit(AnnotationDeclaration declaration) {}
     @Override public void visit(EnumDeclaration declaration) {}
-
-    protected static class SearchFieldVisitor extends AbstractJavaSyntaxVisitor {
-        protected String name;
-        protected boolean found;
-
-        public void init(String name) {
-            this.name = name;
-            this.found = false;
-        }
-
-        public boolean found() {
-            return found;
-        }
-
-        @Override
-        public void visit(FieldDeclarator declaration) {
-            found |= declaration.getName().equals(name);
-        }
-    }
 }
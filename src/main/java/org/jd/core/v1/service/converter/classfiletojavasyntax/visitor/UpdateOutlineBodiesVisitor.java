@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.service.converter.classfiletojavasyntax.visitor;
+
+import org.jd.core.v1.model.javasyntax.AbstractJavaSyntaxVisitor;
+import org.jd.core.v1.model.javasyntax.declaration.*;
+import org.jd.core.v1.model.javasyntax.expression.Expression;
+import org.jd.core.v1.model.javasyntax.statement.BaseStatement;
+import org.jd.core.v1.model.javasyntax.statement.Statement;
+import org.jd.core.v1.model.javasyntax.statement.Statements;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.model.javasyntax.declaration.ClassFileBodyDeclaration;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.model.javasyntax.declaration.ClassFileConstructorDeclaration;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.model.javasyntax.declaration.ClassFileFieldDeclaration;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.model.javasyntax.declaration.ClassFileStaticInitializerDeclaration;
+
+import java.util.List;
+
+import static org.jd.core.v1.model.javasyntax.declaration.Declaration.*;
+
+/**
+ * Reduce the constructors to the invocation of 'super(...)' or 'this(...)' followed by a stub, and remove the static
+ * initializers, once the declarations are complete. Constructors of anonymous classes and static initializers
+ * assigning final fields are kept.
+ */
+public class UpdateOutlineBodiesVisitor extends AbstractJavaSyntaxVisitor {
+    protected boolean keepStaticInitializers;
+
+    @Override
+    public void visit(BodyDeclaration declaration) {
+        ClassFileBodyDeclaration bodyDeclaration = (ClassFileBodyDeclaration)declaration;
+
+        safeAcceptListDeclaration(bodyDeclaration.getInnerTypeDeclarations());
+
+        keepStaticInitializers = containsUninitializedStaticFinalField(bodyDeclaration.getFieldDeclarations());
+        safeAcceptListDeclaration(bodyDeclaration.getMethodDeclarations());
+    }
+
+    @Override
+    public void visit(ConstructorDeclaration declaration) {
+        ClassFileConstructorDeclaration cfcd = (ClassFileConstructorDeclaration)declaration;
+        BaseStatement statements = cfcd.getStatements();
+
+        if ((statements != null) && ((cfcd.getFlags() & FLAG_ANONYMOUS) == 0)) {
+            Statement stub = CreateOutlineInstructionsVisitor.createStubStatement();
+
+            if (statements.size() > 0) {
+                Statement first = statements.getFirst();
+
+                if (first.isExpressionStatement()) {
+                    Expression expression = first.getExpression();
+
+                    if (expression.isSuperConstructorInvocationExpression() || expression.isConstructorInvocationExpression()) {
+                        cfcd.setStatements(new Statements(first, stub));
+                        return;
+                    }
+                }
+            }
+
+            cfcd.setStatements(stub);
+        }
+    }
+
+    @Override
+    public void visit(StaticInitializerDeclaration declaration) {
+        if (!keepStaticInitializers) {
+            ((ClassFileStaticInitializerDeclaration)declaration).setStatements(null);
+        }
+    }
+
+    @Override public void visit(FieldDeclaration declaration) {}
+    @Override public void visit(MethodDeclaration declaration) {}
+
+    @Override
+    public void visit(AnnotationDeclaration declaration) {
+        safeAccept(declaration.getBodyDeclaration());
+    }
+
+    @Override
+    public void visit(ClassDeclaration declaration) {
+        safeAccept(declaration.getBodyDeclaration());
+    }
+
+    @Override
+    public void visit(EnumDeclaration declaration) {
+        safeAccept(declaration.getBodyDeclaration());
+    }
+
+    @Override
+    public void visit(InterfaceDeclaration declaration) {
+        safeAccept(declaration.getBodyDeclaration());
+    }
+
+    protected static boolean containsUninitializedStaticFinalField(List<ClassFileFieldDeclaration> fieldDeclarations) {
+        if (fieldDeclarations != null) {
+            for (ClassFileFieldDeclaration fieldDeclaration : fieldDeclarations) {
+                if ((fieldDeclaration.getFlags() & (FLAG_STATIC|FLAG_FINAL)) == (FLAG_STATIC|FLAG_FINAL)) {
+                    for (FieldDeclarator fieldDeclarator : fieldDeclaration.getFieldDeclarators()) {
+                        if (fieldDeclarator.getVariableInitializer() == null) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+}
@@ -7,6 +7,7 @@
 
 package org.jd.core.v1.service.deserializer.classfile;
 
+import org.jd.core.v1.api.loader.BatchLoader;
 import org.jd.core.v1.api.loader.Loader;
 import org.jd.core.v1.model.classfile.ClassFile;
 import org.jd.core.v1.model.classfile.ConstantPool;
@@ -18,6 +19,8 @@ import org.jd.core.v1.util.DefaultList;
 
 import java.io.UTFDataFormatException;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
 
 import static org.jd.core.v1.model.classfile.Constants.ACC_SYNTHETIC;
 
@@ -40,8 +43,10 @@ public class ClassFileDeserializer {
             return null;
         }
 
-        byte[] data = loader.load(internalTypeName);
+        return innerLoadClassFile(loader, internalTypeName, loader.load(internalTypeName));
+    }
 
+    protected ClassFile innerLoadClassFile(Loader loader, String internalTypeName, byte[] data) throws Exception {
         if (data == null) {
             return null;
         }
@@ -55,7 +60,7 @@ public class ClassFileDeserializer {
         AttributeInnerClasses aic = classFile.getAttribute("InnerClasses");
 
         if (aic != null) {
-            DefaultList<ClassFile> innerClassFiles = new DefaultList<>();
+            DefaultList<InnerClass> innerClasses = new DefaultList<>();
             String innerTypePrefix = internalTypeName + '$';
 
             for (InnerClass ic : aic.getInnerClasses()) {
@@ -63,34 +68,59 @@ public class ClassFileDeserializer {
 
                 if (!internalTypeName.equals(innerTypeName)) {
                     if (internalTypeName.equals(ic.getOuterTypeName()) || innerTypeName.startsWith(innerTypePrefix)) {
-                        ClassFile innerClassFile = innerLoadClassFile(loader, innerTypeName);
-                        int flags = ic.getInnerAccessFlags();
-                        int length;
-
-                        if (innerTypeName.startsWith(innerTypePrefix)) {
-                            length = internalTypeName.length() + 1;
-                        } else {
-                            length = innerTypeName.indexOf('$') + 1;
-                        }
-
-                        if (Character.isDigit(innerTypeName.charAt(length))) {
-                            flags |= ACC_SYNTHETIC;
-                        }
-
-                        if (innerClassFile == null) {
-                            // Inner class not found. Create an empty one.
-                            innerClassFile = new ClassFile(classFile.getMajorVersion(), classFile.getMinorVersion(), 0, innerTypeName, "java/lang/Object", null, null, null, null);
-                        }
-
-                        innerClassFile.setOuterClassFile(classFile);
-                        innerClassFile.setAccessFlags(flags);
-                        innerClassFiles.add(innerClassFile);
+                        innerClasses.add(ic);
                     }
                 }
             }
 
+            if (!innerClasses.isEmpty()) {
+                Map<String, Future<byte[]>> futures = null;
+
+                if (loader instanceof BatchLoader) {
+                    // Request all inner types in one batch
+                    DefaultList<String> innerTypeNames = new DefaultList<>(innerClasses.size());
+
+                    for (InnerClass ic : innerClasses) {
+                        innerTypeNames.add(ic.getInnerTypeName());
+                    }
+
+                    futures = ((BatchLoader)loader).loadAll(innerTypeNames);
+                }
+
+                DefaultList<ClassFile> innerClassFiles = new DefaultList<>(innerClasses.size());
+
+                for (InnerClass ic : innerClasses) {
+                    String innerTypeName = ic.getInnerTypeName();
+                    ClassFile innerClassFile;
+                    int flags = ic.getInnerAccessFlags();
+                    int length;
+
+                    if (futures == null) {
+                        innerClassFile = innerLoadClassFile(loader, innerTypeName);
+                    } else {
+                        innerClassFile = innerLoadClassFile(loader, innerTypeName, BatchLoader.getData(futures.get(innerTypeName)));
+                    }
+
+                    if (innerTypeName.startsWith(innerTypePrefix)) {
+                        length = internalTypeName.length() + 1;
+                    } else {
+                        length = innerTypeName.indexOf('$') + 1;
+                    }
+
+                    if (Character.isDigit(innerTypeName.charAt(length))) {
+                        flags |= ACC_SYNTHETIC;
+                    }
+
+                    if (innerClassFile == null) {
+                        // Inner class not found. Create an empty one.
+                        innerClassFile = new ClassFile(classFile.getMajorVersion(), classFile.getMinorVersion(), 0, innerTypeName, "java/lang/Object", null, null, null, null);
+                    }
+
+                    innerClassFile.setOuterClassFile(classFile);
+                    innerClassFile.setAccessFlags(flags);
+                    innerClassFiles.add(innerClassFile);
+                }
 
-            if (!innerClassFiles.isEmpty()) {
                 classFile.setInnerClassFiles(innerClassFiles);
             }
         }
@@ -578,7 +608,8 @@ public class ClassFileDeserializer {
         for (int i=0; i<count; i++) {
             int nameIndex = reader.readUnsignedShort();
 
-            String name = constants.getConstantUtf8(nameIndex);
+            // 0 = no name
+            String name = (nameIndex == 0) ? null : constants.getConstantUtf8(nameIndex);
 
             parameters[i] = new MethodParameter(name, reader.readUnsignedShort());
         }
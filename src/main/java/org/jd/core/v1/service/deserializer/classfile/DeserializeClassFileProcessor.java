@@ -11,6 +11,7 @@ import org.jd.core.v1.api.loader.Loader;
 import org.jd.core.v1.model.classfile.ClassFile;
 import org.jd.core.v1.model.message.Message;
 import org.jd.core.v1.model.processor.Processor;
+import org.jd.core.v1.util.CancellationUtil;
 
 /**
  * Create a ClassFile model from a loader and a internal type name.<br><br>
@@ -22,6 +23,8 @@ public class DeserializeClassFileProcessor extends ClassFileDeserializer impleme
 
     @Override
     public void process(Message message) throws Exception {
+        CancellationUtil.throwIfCancelled(message);
+
         Loader loader = message.getHeader("loader");
         String internalTypeName = message.getHeader("mainInternalTypeName");
         ClassFile classFile = loadClassFile(loader, internalTypeName);
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.service.extractor.javafragmenttotokenstream;
+
+import org.jd.core.v1.api.printer.Printer;
+import org.jd.core.v1.api.printer.TokenStreamPrinter;
+import org.jd.core.v1.model.javafragment.JavaFragment;
+import org.jd.core.v1.model.message.Message;
+import org.jd.core.v1.model.processor.Processor;
+import org.jd.core.v1.service.extractor.javafragmenttotokenstream.visitor.ExtractTokenStreamVisitor;
+import org.jd.core.v1.util.CancellationUtil;
+
+import java.util.List;
+
+/**
+ * Extract declarations, references and line numbers from a list of fragments, skipping layout and tokenization.<br><br>
+ *
+ * Input:  List<{@link org.jd.core.v1.model.fragment.Fragment}><br>
+ * Output: {@link org.jd.core.v1.model.token.TokenBuffer}<br>
+ */
+public class ExtractTokenStreamProcessor implements Processor {
+
+    @Override
+    public void process(Message message) throws Exception {
+        CancellationUtil.throwIfCancelled(message);
+
+        Printer printer = message.getHeader("printer");
+        List<JavaFragment> fragments = message.getBody();
+        int tokenKinds = TokenStreamPrinter.DECLARATION | TokenStreamPrinter.REFERENCE | TokenStreamPrinter.LINE_NUMBER;
+
+        if (printer instanceof TokenStreamPrinter) {
+            tokenKinds = ((TokenStreamPrinter)printer).getTokenKinds();
+        }
+
+        ExtractTokenStreamVisitor visitor = new ExtractTokenStreamVisitor(tokenKinds, fragments.size() / 2);
+
+        for (JavaFragment fragment : fragments) {
+            fragment.accept(visitor);
+        }
+
+        message.setBody(visitor.getTokenBuffer());
+    }
+}
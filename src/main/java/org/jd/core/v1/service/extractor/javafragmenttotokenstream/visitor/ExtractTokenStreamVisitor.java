@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.service.extractor.javafragmenttotokenstream.visitor;
+
+import org.jd.core.v1.api.printer.Printer;
+import org.jd.core.v1.api.printer.TokenStreamPrinter;
+import org.jd.core.v1.model.fragment.FlexibleFragment;
+import org.jd.core.v1.model.javafragment.*;
+import org.jd.core.v1.model.token.*;
+import org.jd.core.v1.util.DefaultList;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Extract declarations, references and line numbers from a list of fragments, without layout nor tokenization. Line
+ * numbers follow the line breaks that the tokenizer would create from the initial line counts of the fragments: they
+ * match those passed to the printer when line numbers are not realigned.
+ */
+public class ExtractTokenStreamVisitor implements JavaFragmentVisitor {
+    protected static final int UNKNOWN_LINE_NUMBER = Printer.UNKNOWN_LINE_NUMBER;
+    protected static final ImportNameComparator NAME_COMPARATOR = new ImportNameComparator();
+
+    protected KnownLineNumberTokenVisitor knownLineNumberTokenVisitor = new KnownLineNumberTokenVisitor();
+    protected UnknownLineNumberTokenVisitor unknownLineNumberTokenVisitor = new UnknownLineNumberTokenVisitor();
+
+    protected TokenBuffer buffer;
+    protected boolean encodeDeclarations;
+    protected boolean encodeReferences;
+    protected boolean encodeLineNumbers;
+
+    // Line number of the current output line and index of its first record
+    protected int lineNumber = UNKNOWN_LINE_NUMBER;
+    protected int lineStartIndex;
+
+    public ExtractTokenStreamVisitor(int tokenKinds, int initialCapacity) {
+        this.buffer = new TokenBuffer(initialCapacity);
+        this.encodeDeclarations = (tokenKinds & TokenStreamPrinter.DECLARATION) != 0;
+        this.encodeReferences = (tokenKinds & TokenStreamPrinter.REFERENCE) != 0;
+        this.encodeLineNumbers = (tokenKinds & TokenStreamPrinter.LINE_NUMBER) != 0;
+    }
+
+    public TokenBuffer getTokenBuffer() {
+        endLine();
+        return buffer;
+    }
+
+    @Override
+    public void visit(ImportsFragment fragment) {
+        List<ImportsFragment.Import> imports = new DefaultList<>(fragment.getImports());
+
+        imports.sort(NAME_COMPARATOR);
+
+        for (ImportsFragment.Import imp : imports) {
+            if (encodeReferences) {
+                buffer.add(TokenStreamPrinter.REFERENCE, ReferenceToken.TYPE, lineNumber, 0, imp.getInternalName(), imp.getQualifiedName(), null, null);
+            }
+            endLine();
+        }
+    }
+
+    @Override
+    public void visit(LineNumberTokensFragment fragment) {
+        knownLineNumberTokenVisitor.reset(fragment.getFirstLineNumber());
+
+        for (Token token : fragment.getTokens()) {
+            token.accept(knownLineNumberTokenVisitor);
+        }
+    }
+
+    @Override
+    public void visit(TokensFragment fragment) {
+        for (Token token : fragment.getTokens()) {
+            token.accept(unknownLineNumberTokenVisitor);
+        }
+    }
+
+    @Override public void visit(EndBlockFragment fragment) { visitFlexibleFragment(fragment); }
+    @Override public void visit(EndBlockInParameterFragment fragment) { visitFlexibleFragment(fragment); }
+    @Override public void visit(EndBodyFragment fragment) { visitFlexibleFragment(fragment); }
+    @Override public void visit(EndBodyInParameterFragment fragment) { visitFlexibleFragment(fragment); }
+    @Override public void visit(EndMovableJavaBlockFragment fragment) {}
+    @Override public void visit(EndSingleStatementBlockFragment fragment) { visitFlexibleFragment(fragment); }
+    @Override public void visit(EndStatementsBlockFragment fragment) { visitFlexibleFragment(fragment); }
+    @Override public void visit(SpacerBetweenMembersFragment fragment) { visitFlexibleFragment(fragment); }
+    @Override public void visit(SpacerFragment fragment) { visitFlexibleFragment(fragment); }
+    @Override public void visit(SpaceSpacerFragment fragment) { visitFlexibleFragment(fragment); }
+    @Override public void visit(StartBlockFragment fragment) { visitFlexibleFragment(fragment); }
+    @Override public void visit(StartBodyFragment fragment) { visitFlexibleFragment(fragment); }
+    @Override public void visit(StartMovableJavaBlockFragment fragment) {}
+    @Override public void visit(StartSingleStatementBlockFragment fragment) { visitFlexibleFragment(fragment); }
+    @Override public void visit(StartStatementsBlockFragment fragment) { visitFlexibleFragment(fragment); }
+    @Override public void visit(StartStatementsDoWhileBlockFragment fragment) { visitFlexibleFragment(fragment); }
+    @Override public void visit(StartStatementsInfiniteForBlockFragment fragment) { visitFlexibleFragment(fragment); }
+    @Override public void visit(StartStatementsInfiniteWhileBlockFragment fragment) { visitFlexibleFragment(fragment); }
+    @Override public void visit(StartStatementsTryBlockFragment fragment) { visitFlexibleFragment(fragment); }
+
+    protected void visitFlexibleFragment(FlexibleFragment fragment) {
+        if (fragment.getLineCount() > 0) {
+            endLine();
+        }
+    }
+
+    protected void add(int kind, DeclarationToken token, String ownerInternalName) {
+        buffer.add(kind, token.getType(), lineNumber, 0, token.getInternalTypeName(), token.getName(), token.getDescriptor(), ownerInternalName);
+    }
+
+    protected void setLineNumber(int lineNumber) {
+        if (this.lineNumber == UNKNOWN_LINE_NUMBER) {
+            // The printer receives the first known line number of the line: update the previous records of this line
+            this.lineNumber = lineNumber;
+
+            for (int i=lineStartIndex, size=buffer.size(); i<size; i++) {
+                buffer.setLineNumber(i, lineNumber);
+            }
+
+            if (encodeLineNumbers) {
+                buffer.insert(lineStartIndex, TokenStreamPrinter.LINE_NUMBER, 0, lineNumber, 0, null, null, null, null);
+            }
+        }
+    }
+
+    protected void endLine() {
+        lineNumber = UNKNOWN_LINE_NUMBER;
+        lineStartIndex = buffer.size();
+    }
+
+    protected static class ImportNameComparator implements Comparator<ImportsFragment.Import> {
+        @Override
+        public int compare(ImportsFragment.Import tr1, ImportsFragment.Import tr2) {
+            return tr1.getQualifiedName().compareTo(tr2.getQualifiedName());
+        }
+    }
+
+    protected class KnownLineNumberTokenVisitor extends AbstractNopTokenVisitor {
+        public int currentLineNumber;
+
+        public void reset(int firstLineNumber) {
+            this.currentLineNumber = firstLineNumber;
+        }
+
+        @Override
+        public void visit(DeclarationToken token) {
+            if (encodeDeclarations) {
+                add(TokenStreamPrinter.DECLARATION, token, null);
+            }
+        }
+
+        @Override
+        public void visit(ReferenceToken token) {
+            if (encodeReferences) {
+                add(TokenStreamPrinter.REFERENCE, token, token.getOwnerInternalName());
+            }
+        }
+
+        @Override
+        public void visit(LineNumberToken token) {
+            int lineNumber = token.getLineNumber();
+
+            if (lineNumber != UNKNOWN_LINE_NUMBER) {
+                if ((currentLineNumber != UNKNOWN_LINE_NUMBER) && (currentLineNumber != lineNumber)) {
+                    endLine();
+                }
+
+                currentLineNumber = lineNumber;
+                setLineNumber(lineNumber);
+            }
+        }
+    }
+
+    protected class UnknownLineNumberTokenVisitor extends AbstractNopTokenVisitor {
+        @Override
+        public void visit(DeclarationToken token) {
+            if (encodeDeclarations) {
+                add(TokenStreamPrinter.DECLARATION, token, null);
+            }
+        }
+
+        @Override
+        public void visit(ReferenceToken token) {
+            if (encodeReferences) {
+                add(TokenStreamPrinter.REFERENCE, token, token.getOwnerInternalName());
+            }
+        }
+
+        @Override
+        public void visit(NewLineToken token) {
+            endLine();
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.jd.core.v1.model.message.Message;
 import org.jd.core.v1.model.processor.Processor;
 import org.jd.core.v1.service.fragmenter.javasyntaxtojavafragment.visitor.CompilationUnitVisitor;
 import org.jd.core.v1.service.fragmenter.javasyntaxtojavafragment.visitor.SearchImportsVisitor;
+import org.jd.core.v1.util.CancellationUtil;
 
 /**
  * Convert a Java syntax model to a list of fragments.<br><br>
@@ -24,6 +25,8 @@ import org.jd.core.v1.service.fragmenter.javasyntaxtojavafragment.visitor.Search
 public class JavaSyntaxToJavaFragmentProcessor implements Processor {
 
     public void process(Message message) throws Exception {
+        CancellationUtil.throwIfCancelled(message);
+
         Loader loader = message.getHeader("loader");
         String mainInternalTypeName = message.getHeader("mainInternalTypeName");
         int majorVersion = message.getHeader("majorVersion");
@@ -9,6 +9,13 @@ package org.jd.core.v1.service.fragmenter.javasyntaxtojavafragment.util;
 
 
 public class CharacterUtil {
+    protected static final String[] ASCII_STRINGS = new String[127];
+
+    static {
+        for (int c=' '; c<127; c++) {
+            ASCII_STRINGS[c] = String.valueOf((char)c).intern();
+        }
+    }
 
     public static String escapeChar(int c) {
         switch (c) {
@@ -33,7 +40,7 @@ public class CharacterUtil {
                     return "\\0" + ((char) ('0' + (c >> 3))) + ((char) ('0' + (c & 7)));
                 }
                 if (c < 127) {
-                    return String.valueOf((char)c);
+                    return ASCII_STRINGS[c];
                 }
                 if (c < 161) {
                     return unicode(c);
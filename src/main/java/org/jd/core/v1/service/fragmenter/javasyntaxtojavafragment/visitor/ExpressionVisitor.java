@@ -20,7 +20,6 @@ import org.jd.core.v1.model.javasyntax.type.*;
 import org.jd.core.v1.model.token.*;
 import org.jd.core.v1.service.fragmenter.javasyntaxtojavafragment.util.CharacterUtil;
 import org.jd.core.v1.service.fragmenter.javasyntaxtojavafragment.util.JavaFragmentFactory;
-import org.jd.core.v1.service.fragmenter.javasyntaxtojavafragment.util.StringUtil;
 import org.jd.core.v1.util.DefaultList;
 
 import java.util.HashSet;
@@ -152,7 +151,7 @@ public class ExpressionVisitor extends TypeVisitor {
     @Override
     public void visit(DoubleConstantExpression expression) {
         tokens.addLineNumberToken(expression);
-        tokens.add(new NumericConstantToken(String.valueOf(expression.getDoubleValue()) + 'D'));
+        tokens.add(newNumericConstantToken(String.valueOf(expression.getDoubleValue()) + 'D'));
     }
 
     @Override
@@ -161,7 +160,7 @@ public class ExpressionVisitor extends TypeVisitor {
 
         ObjectType type = expression.getObjectType();
 
-        tokens.add(new ReferenceToken(ReferenceToken.FIELD, type.getInternalName(), expression.getName(), type.getDescriptor(), currentInternalTypeName));
+        tokens.add(newReferenceToken(ReferenceToken.FIELD, type.getInternalName(), expression.getName(), type.getDescriptor(), currentInternalTypeName));
     }
 
     @Override
@@ -208,14 +207,14 @@ public class ExpressionVisitor extends TypeVisitor {
                 tokens.add(TextToken.DOT);
             }
 
-            tokens.add(new ReferenceToken(ReferenceToken.FIELD, expression.getInternalTypeName(), expression.getName(), expression.getDescriptor(), currentInternalTypeName));
+            tokens.add(newReferenceToken(ReferenceToken.FIELD, expression.getInternalTypeName(), expression.getName(), expression.getDescriptor(), currentInternalTypeName));
         }
     }
 
     @Override
     public void visit(FloatConstantExpression expression) {
         tokens.addLineNumberToken(expression);
-        tokens.add(new NumericConstantToken(String.valueOf(expression.getFloatValue()) + 'F'));
+        tokens.add(newNumericConstantToken(String.valueOf(expression.getFloatValue()) + 'F'));
     }
 
     @Override
@@ -232,7 +231,7 @@ public class ExpressionVisitor extends TypeVisitor {
                 tokens.add(new BooleanConstantToken(expression.getIntegerValue() != 0));
                 break;
             default:
-                tokens.add(new NumericConstantToken(String.valueOf(expression.getIntegerValue())));
+                tokens.add(newNumericConstantToken(String.valueOf(expression.getIntegerValue())));
                 break;
         }
     }
@@ -356,7 +355,7 @@ public class ExpressionVisitor extends TypeVisitor {
     @Override
     public void visit(LongConstantExpression expression) {
         tokens.addLineNumberToken(expression);
-        tokens.add(new NumericConstantToken(String.valueOf(expression.getLongValue()) + 'L'));
+        tokens.add(newNumericConstantToken(String.valueOf(expression.getLongValue()) + 'L'));
     }
 
     @Override
@@ -398,7 +397,7 @@ public class ExpressionVisitor extends TypeVisitor {
             tokens.add(TextToken.RIGHTANGLEBRACKET);
         }
 
-        tokens.add(new ReferenceToken(ReferenceToken.METHOD, expression.getInternalTypeName(), expression.getName(), expression.getDescriptor(), currentInternalTypeName));
+        tokens.add(newReferenceToken(ReferenceToken.METHOD, expression.getInternalTypeName(), expression.getName(), expression.getDescriptor(), currentInternalTypeName));
         tokens.add(StartBlockToken.START_PARAMETERS_BLOCK);
 
         if (parameters != null) {
@@ -416,7 +415,7 @@ public class ExpressionVisitor extends TypeVisitor {
         expression.getExpression().accept(this);
         tokens.addLineNumberToken(expression);
         tokens.add(TextToken.COLON_COLON);
-        tokens.add(new ReferenceToken(ReferenceToken.METHOD, expression.getInternalTypeName(), expression.getName(), expression.getDescriptor(), currentInternalTypeName));
+        tokens.add(newReferenceToken(ReferenceToken.METHOD, expression.getInternalTypeName(), expression.getName(), expression.getDescriptor(), currentInternalTypeName));
     }
 
     @Override
@@ -564,7 +563,7 @@ public class ExpressionVisitor extends TypeVisitor {
     @Override
     public void visit(StringConstantExpression expression) {
         tokens.addLineNumberToken(expression);
-        tokens.add(new StringConstantToken(StringUtil.escapeString(expression.getStringValue()), currentInternalTypeName));
+        tokens.add(new UnescapedStringConstantToken(expression.getStringValue(), currentInternalTypeName));
     }
 
     @Override
@@ -711,7 +710,7 @@ public class ExpressionVisitor extends TypeVisitor {
                     tokens.add(new BooleanConstantToken(expression.getIntegerValue() == 1));
                     break;
                 default:
-                    tokens.add(new NumericConstantToken("0x" + Integer.toHexString(expression.getIntegerValue()).toUpperCase()));
+                    tokens.add(newNumericConstantToken("0x" + Integer.toHexString(expression.getIntegerValue()).toUpperCase()));
                     break;
             }
         }
@@ -719,7 +718,7 @@ public class ExpressionVisitor extends TypeVisitor {
         @Override
         public void visit(LongConstantExpression expression) {
             tokens.addLineNumberToken(expression);
-            tokens.add(new NumericConstantToken("0x" + Long.toHexString(expression.getLongValue()).toUpperCase() + 'L'));
+            tokens.add(newNumericConstantToken("0x" + Long.toHexString(expression.getLongValue()).toUpperCase() + 'L'));
         }
 
         @Override public void visit(ArrayExpression expression) { ExpressionVisitor.this.visit(expression); }
@@ -18,6 +18,7 @@ import org.jd.core.v1.util.DefaultList;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.Objects;
 
 import static org.jd.core.v1.model.javasyntax.type.PrimitiveType.*;
 
@@ -54,6 +55,11 @@ public class TypeVisitor extends AbstractJavaSyntaxVisitor {
     protected int maxLineNumber = 0;
     protected String currentInternalTypeName;
     protected HashMap<String, TextToken> textTokenCache = new HashMap<>();
+    // Tokens are immutable: identical tokens of the compilation unit are shared
+    protected HashMap<ReferenceTokenKey, ReferenceToken> referenceTokenCache = new HashMap<>();
+    protected HashMap<ReferenceTokenKey, ReferenceToken> typeReferenceTokenCache = new HashMap<>();
+    protected HashMap<String, NumericConstantToken> numericConstantTokenCache = new HashMap<>();
+    protected ReferenceTokenKey referenceTokenKey = new ReferenceTokenKey();
 
     public TypeVisitor(Loader loader, String mainInternalTypeName, int majorVersion, ImportsFragment importsFragment) {
         this.loader = loader;
@@ -129,7 +135,7 @@ public class TypeVisitor extends AbstractJavaSyntaxVisitor {
         }
 
         // Build token for type reference
-        tokens.add(new ReferenceToken(ReferenceToken.TYPE, type.getInternalName(), type.getName(), null, currentInternalTypeName));
+        tokens.add(newReferenceToken(ReferenceToken.TYPE, type.getInternalName(), type.getName(), null, currentInternalTypeName));
 
         if (genericTypesSupported) {
             // Build token for type arguments
@@ -241,6 +247,18 @@ public class TypeVisitor extends AbstractJavaSyntaxVisitor {
     }
 
     protected ReferenceToken newTypeReferenceToken(ObjectType ot, String ownerInternalName) {
+        ReferenceTokenKey key = referenceTokenKey.init(ReferenceToken.TYPE, ot.getInternalName(), ot.getName(), ot.getQualifiedName(), ownerInternalName);
+        ReferenceToken referenceToken = typeReferenceTokenCache.get(key);
+
+        if (referenceToken == null) {
+            referenceToken = createTypeReferenceToken(ot, ownerInternalName);
+            typeReferenceTokenCache.put(key.copy(), referenceToken);
+        }
+
+        return referenceToken;
+    }
+
+    protected ReferenceToken createTypeReferenceToken(ObjectType ot, String ownerInternalName) {
         String internalName = ot.getInternalName();
         String qualifiedName = ot.getQualifiedName();
         String name = ot.getName();
@@ -302,6 +320,76 @@ public class TypeVisitor extends AbstractJavaSyntaxVisitor {
         return textToken;
     }
 
+    protected ReferenceToken newReferenceToken(int type, String internalTypeName, String name, String descriptor, String ownerInternalName) {
+        ReferenceTokenKey key = referenceTokenKey.init(type, internalTypeName, name, descriptor, ownerInternalName);
+        ReferenceToken referenceToken = referenceTokenCache.get(key);
+
+        if (referenceToken == null) {
+            referenceTokenCache.put(key.copy(), referenceToken=new ReferenceToken(type, internalTypeName, name, descriptor, ownerInternalName));
+        }
+
+        return referenceToken;
+    }
+
+    protected NumericConstantToken newNumericConstantToken(String text) {
+        NumericConstantToken numericConstantToken = numericConstantTokenCache.get(text);
+
+        if (numericConstantToken == null) {
+            numericConstantTokenCache.put(text, numericConstantToken=new NumericConstantToken(text));
+        }
+
+        return numericConstantToken;
+    }
+
+    /**
+     * Reusable lookup key: a copy is stored only when a new token is created.
+     */
+    protected static class ReferenceTokenKey {
+        protected int type;
+        protected String internalTypeName;
+        protected String name;
+        protected String descriptor;
+        protected String ownerInternalName;
+        protected int hashCode;
+
+        public ReferenceTokenKey init(int type, String internalTypeName, String name, String descriptor, String ownerInternalName) {
+            this.type = type;
+            this.internalTypeName = internalTypeName;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.ownerInternalName = ownerInternalName;
+
+            int result = type;
+            result = 31 * result + Objects.hashCode(internalTypeName);
+            result = 31 * result + Objects.hashCode(name);
+            result = 31 * result + Objects.hashCode(descriptor);
+            this.hashCode = 31 * result + Objects.hashCode(ownerInternalName);
+
+            return this;
+        }
+
+        public ReferenceTokenKey copy() {
+            return new ReferenceTokenKey().init(type, internalTypeName, name, descriptor, ownerInternalName);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ReferenceTokenKey)) return false;
+
+            ReferenceTokenKey other = (ReferenceTokenKey)o;
+
+            return (type == other.type) && (hashCode == other.hashCode) &&
+                    Objects.equals(internalTypeName, other.internalTypeName) && Objects.equals(name, other.name) &&
+                    Objects.equals(descriptor, other.descriptor) && Objects.equals(ownerInternalName, other.ownerInternalName);
+        }
+    }
+
     public class Tokens extends DefaultList<Token> {
         protected int currentLineNumber = UNKNOWN_LINE_NUMBER;
 
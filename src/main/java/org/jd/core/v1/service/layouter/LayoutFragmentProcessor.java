@@ -7,6 +7,7 @@
 
 package org.jd.core.v1.service.layouter;
 
+import org.jd.core.v1.api.CancellationToken;
 import org.jd.core.v1.model.fragment.FixedFragment;
 import org.jd.core.v1.model.fragment.FlexibleFragment;
 import org.jd.core.v1.model.fragment.Fragment;
@@ -16,6 +17,7 @@ import org.jd.core.v1.service.layouter.model.Section;
 import org.jd.core.v1.service.layouter.util.VisitorsHolder;
 import org.jd.core.v1.service.layouter.visitor.BuildSectionsVisitor;
 import org.jd.core.v1.service.layouter.visitor.UpdateSpacerBetweenMovableBlocksVisitor;
+import org.jd.core.v1.util.CancellationUtil;
 
 import java.util.List;
 import java.util.Map;
@@ -33,6 +35,10 @@ public class LayoutFragmentProcessor implements Processor {
 
     @Override
     public void process(Message message) throws Exception {
+        CancellationUtil.throwIfCancelled(message);
+
+        CancellationToken cancellationToken = CancellationUtil.getToken(message);
+
         int maxLineNumber = message.getHeader("maxLineNumber", UNKNOWN_LINE_NUMBER);
         boolean containsByteCode = message.getHeader("containsByteCode", Boolean.FALSE);
         boolean showBridgeAndSynthetic = message.getHeader("showBridgeAndSynthetic", Boolean.FALSE);
@@ -63,6 +69,10 @@ public class LayoutFragmentProcessor implements Processor {
             }
 
             for (int loop=0; loop<max; loop++) {
+                if (cancellationToken != null) {
+                    cancellationToken.throwIfCancelled();
+                }
+
                 // Update spacers
                 visitor.reset();
 
@@ -10,7 +10,9 @@ package org.jd.core.v1.service.tokenizer.javafragmenttotoken;
 import org.jd.core.v1.model.javafragment.JavaFragment;
 import org.jd.core.v1.model.message.Message;
 import org.jd.core.v1.model.processor.Processor;
+import org.jd.core.v1.model.token.CompactTokenBuffer;
 import org.jd.core.v1.service.tokenizer.javafragmenttotoken.visitor.TokenizeJavaFragmentVisitor;
+import org.jd.core.v1.util.CancellationUtil;
 
 import java.util.List;
 
@@ -18,20 +20,38 @@ import java.util.List;
  * Convert a list of fragments to a list of tokens.<br><br>
  *
  * Input:  List<{@link org.jd.core.v1.model.fragment.Fragment}><br>
- * Output: List<{@link org.jd.core.v1.model.token.Token}><br>
+ * Output: {@link org.jd.core.v1.model.token.CompactTokenBuffer}, a List<{@link org.jd.core.v1.model.token.Token}><br>
+ *
+ * Header: 'releaseModels' = Boolean.TRUE to clear the input list, which must then be modifiable, as the fragments are
+ * tokenized. Without it, the input list is left intact.<br>
  */
 public class JavaFragmentToTokenProcessor implements Processor {
 
     @Override
     public void process(Message message) throws Exception {
+        CancellationUtil.throwIfCancelled(message);
+
         List<JavaFragment> fragments = message.getBody();
         TokenizeJavaFragmentVisitor visitor = new TokenizeJavaFragmentVisitor(fragments.size() * 3);
 
-        // Create tokens
-        for (JavaFragment fragment : fragments) {
-            fragment.accept(visitor);
+        if (Boolean.TRUE.equals(message.getHeader("releaseModels"))) {
+            // Create tokens, and release the fragments as they are tokenized
+            message.setBody(null);
+
+            for (int i=0, len=fragments.size(); i<len; i++) {
+                fragments.get(i).accept(visitor);
+                fragments.set(i, null);
+            }
+        } else {
+            // Create tokens
+            for (int i=0, len=fragments.size(); i<len; i++) {
+                fragments.get(i).accept(visitor);
+            }
         }
 
-        message.setBody(visitor.getTokens());
+        CompactTokenBuffer tokens = visitor.getTokens();
+
+        tokens.trimToSize();
+        message.setBody(tokens);
     }
 }
@@ -34,13 +34,13 @@ public class TokenizeJavaFragmentVisitor implements JavaFragmentVisitor {
 
     protected KnownLineNumberTokenVisitor knownLineNumberTokenVisitor = new KnownLineNumberTokenVisitor();
     protected UnknownLineNumberTokenVisitor unknownLineNumberTokenVisitor = new UnknownLineNumberTokenVisitor();
-    protected DefaultList<Token> tokens;
+    protected CompactTokenBuffer tokens;
 
     public TokenizeJavaFragmentVisitor(int initialCapacity) {
-        this.tokens = new DefaultList<>(initialCapacity);
+        this.tokens = new CompactTokenBuffer(initialCapacity);
     }
 
-    public DefaultList<Token> getTokens() {
+    public CompactTokenBuffer getTokens() {
         return tokens;
     }
 
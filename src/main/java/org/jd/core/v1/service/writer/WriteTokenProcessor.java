@@ -7,39 +7,96 @@
 
 package org.jd.core.v1.service.writer;
 
+import org.jd.core.v1.api.CancellationToken;
 import org.jd.core.v1.api.printer.Printer;
+import org.jd.core.v1.api.printer.TokenStreamPrinter;
 import org.jd.core.v1.model.message.Message;
 import org.jd.core.v1.model.processor.Processor;
+import org.jd.core.v1.model.token.CompactTokenBuffer;
 import org.jd.core.v1.model.token.Token;
+import org.jd.core.v1.model.token.TokenBuffer;
+import org.jd.core.v1.service.writer.visitor.EncodeTokenVisitor;
 import org.jd.core.v1.service.writer.visitor.PrintTokenVisitor;
+import org.jd.core.v1.util.CancellationUtil;
 
 import java.util.List;
 
 /**
- * Write a list of tokens to a {@link org.jd.core.v1.api.printer.Printer}.<br><br>
+ * Write a list of tokens to a {@link org.jd.core.v1.api.printer.Printer}. A
+ * {@link org.jd.core.v1.api.printer.TokenStreamPrinter} receives an encoded stream instead of text.<br><br>
  *
- * Input:  List<{@link org.jd.core.v1.model.token.Token}><br>
- * Output: -<br>
+ * Input:  List<{@link org.jd.core.v1.model.token.Token}>, {@link org.jd.core.v1.model.token.CompactTokenBuffer} or
+ *         {@link org.jd.core.v1.model.token.TokenBuffer}<br>
+ * Output: -<br><br>
+ *
+ * A {@link org.jd.core.v1.model.token.TokenBuffer} can only be written to a
+ * {@link org.jd.core.v1.api.printer.TokenStreamPrinter}.
  */
 public class WriteTokenProcessor implements Processor {
 
     @Override
+    @SuppressWarnings("unchecked")
     public void process(Message message) throws Exception {
+        CancellationUtil.throwIfCancelled(message);
+
+        CancellationToken cancellationToken = CancellationUtil.getToken(message);
+
         Printer printer = message.getHeader("printer");
-        List<Token> tokens = message.getBody();
-        PrintTokenVisitor visitor = new PrintTokenVisitor();
+        Object body = message.getBody();
         int maxLineNumber = message.getHeader("maxLineNumber");
         int majorVersion = message.getHeader("majorVersion");
         int minorVersion = message.getHeader("minorVersion");
 
-        printer.start(maxLineNumber, majorVersion, minorVersion);
-        visitor.start(printer, tokens);
+        if (body instanceof TokenBuffer) {
+            // Already encoded
+            if (!(printer instanceof TokenStreamPrinter)) {
+                throw new IllegalArgumentException("Printer must implement TokenStreamPrinter to print a TokenBuffer");
+            }
 
-        for (Token token : tokens) {
-            token.accept(visitor);
-        }
+            printer.start(maxLineNumber, majorVersion, minorVersion);
+            ((TokenStreamPrinter)printer).printTokenStream((TokenBuffer)body);
+            printer.end();
+        } else if (printer instanceof TokenStreamPrinter) {
+            List<Token> tokens = (List<Token>)body;
+            TokenStreamPrinter tokenStreamPrinter = (TokenStreamPrinter)printer;
+            EncodeTokenVisitor visitor = new EncodeTokenVisitor(tokenStreamPrinter.getTokenKinds());
+
+            visitor.start(tokens);
+
+            for (int i=0, len=tokens.size(); i<len; i++) {
+                if ((cancellationToken != null) && ((i & 4095) == 0)) {
+                    cancellationToken.throwIfCancelled();
+                }
+
+                tokens.get(i).accept(visitor);
+            }
 
-        visitor.end();
-        printer.end();
+            visitor.end();
+
+            printer.start(maxLineNumber, majorVersion, minorVersion);
+            tokenStreamPrinter.printTokenStream(visitor.getTokenBuffer());
+            printer.end();
+        } else {
+            List<Token> tokens = (List<Token>)body;
+            PrintTokenVisitor visitor = new PrintTokenVisitor(cancellationToken);
+
+            printer.start(maxLineNumber, majorVersion, minorVersion);
+            visitor.start(printer, tokens);
+
+            if (tokens instanceof CompactTokenBuffer) {
+                visitor.print((CompactTokenBuffer)tokens);
+            } else {
+                for (int i=0, len=tokens.size(); i<len; i++) {
+                    if ((cancellationToken != null) && ((i & 4095) == 0)) {
+                        cancellationToken.throwIfCancelled();
+                    }
+
+                    tokens.get(i).accept(visitor);
+                }
+            }
+
+            visitor.end();
+            printer.end();
+        }
     }
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.service.writer.visitor;
+
+import org.jd.core.v1.api.printer.TokenStreamPrinter;
+import org.jd.core.v1.model.token.*;
+
+import java.util.List;
+
+/**
+ * Encode the declarations, the references and the line numbers of a list of tokens into a {@link TokenBuffer}.
+ * Line numbers are computed like {@link PrintTokenVisitor} does, without rendering any text.
+ */
+public class EncodeTokenVisitor implements TokenVisitor {
+    public static int UNKNOWN_LINE_NUMBER = PrintTokenVisitor.UNKNOWN_LINE_NUMBER;
+
+    protected PrintTokenVisitor.SearchLineNumberVisitor searchLineNumberVisitor = new PrintTokenVisitor.SearchLineNumberVisitor();
+
+    protected TokenBuffer buffer;
+    protected boolean encodeDeclarations;
+    protected boolean encodeReferences;
+    protected boolean encodeLineNumbers;
+
+    protected List<Token> tokens;
+    protected int index;
+    protected int newLineCount;
+    protected int lineNumber;
+    protected int realLineNumber;
+
+    public EncodeTokenVisitor(int tokenKinds) {
+        this.encodeDeclarations = (tokenKinds & TokenStreamPrinter.DECLARATION) != 0;
+        this.encodeReferences = (tokenKinds & TokenStreamPrinter.REFERENCE) != 0;
+        this.encodeLineNumbers = (tokenKinds & TokenStreamPrinter.LINE_NUMBER) != 0;
+    }
+
+    public TokenBuffer getTokenBuffer() {
+        return buffer;
+    }
+
+    public void start(List<Token> tokens) {
+        this.buffer = new TokenBuffer(tokens.size() / 8);
+        this.tokens = tokens;
+        this.index = 0;
+        this.newLineCount = 0;
+        this.realLineNumber = 1;
+        startLine();
+    }
+
+    public void end() {}
+
+    @Override
+    public void visit(DeclarationToken token) {
+        prepareNewLine();
+        if (encodeDeclarations) {
+            buffer.add(TokenStreamPrinter.DECLARATION, token.getType(), lineNumber, realLineNumber, token.getInternalTypeName(), token.getName(), token.getDescriptor(), null);
+        }
+        index++;
+    }
+
+    @Override
+    public void visit(ReferenceToken token) {
+        prepareNewLine();
+        if (encodeReferences) {
+            buffer.add(TokenStreamPrinter.REFERENCE, token.getType(), lineNumber, realLineNumber, token.getInternalTypeName(), token.getName(), token.getDescriptor(), token.getOwnerInternalName());
+        }
+        index++;
+    }
+
+    @Override
+    public void visit(NewLineToken token) {
+        newLineCount += token.getCount();
+        index++;
+    }
+
+    @Override
+    public void visit(LineNumberToken token) {
+        index++;
+    }
+
+    @Override public void visit(BooleanConstantToken token) { prepareNewLine(); index++; }
+    @Override public void visit(CharacterConstantToken token) { prepareNewLine(); index++; }
+    @Override public void visit(EndBlockToken token) { prepareNewLine(); index++; }
+    @Override public void visit(EndMarkerToken token) { prepareNewLine(); index++; }
+    @Override public void visit(KeywordToken token) { prepareNewLine(); index++; }
+    @Override public void visit(NumericConstantToken token) { prepareNewLine(); index++; }
+    @Override public void visit(StartBlockToken token) { prepareNewLine(); index++; }
+    @Override public void visit(StartMarkerToken token) { prepareNewLine(); index++; }
+    @Override public void visit(StringConstantToken token) { prepareNewLine(); index++; }
+    @Override public void visit(TextToken token) { prepareNewLine(); index++; }
+
+    protected void prepareNewLine() {
+        if (newLineCount > 0) {
+            realLineNumber += newLineCount;
+            newLineCount = 0;
+            startLine();
+        }
+    }
+
+    protected void startLine() {
+        lineNumber = searchLineNumber();
+
+        if (encodeLineNumbers && (lineNumber != UNKNOWN_LINE_NUMBER)) {
+            buffer.add(TokenStreamPrinter.LINE_NUMBER, 0, lineNumber, realLineNumber, null, null, null, null);
+        }
+    }
+
+    protected int searchLineNumber() {
+        // Backward search
+        searchLineNumberVisitor.reset();
+
+        for (int i=index; i>=0; i--) {
+            tokens.get(i).accept(searchLineNumberVisitor);
+
+            if (searchLineNumberVisitor.lineNumber != UNKNOWN_LINE_NUMBER)
+                return searchLineNumberVisitor.lineNumber;
+            if (searchLineNumberVisitor.newLineCounter > 0)
+                break;
+        }
+
+        // Forward search
+        searchLineNumberVisitor.reset();
+
+        int size = tokens.size();
+
+        for (int i=index; i<size; i++) {
+            tokens.get(i).accept(searchLineNumberVisitor);
+
+            if (searchLineNumberVisitor.lineNumber != UNKNOWN_LINE_NUMBER)
+                return searchLineNumberVisitor.lineNumber;
+            if (searchLineNumberVisitor.newLineCounter > 0)
+                break;
+        }
+
+        return UNKNOWN_LINE_NUMBER;
+    }
+}
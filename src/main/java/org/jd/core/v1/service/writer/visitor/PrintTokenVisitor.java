@@ -7,6 +7,9 @@
 
 package org.jd.core.v1.service.writer.visitor;
 
+import org.jd.core.v1.api.CancellationToken;
+import org.jd.core.v1.api.printer.CharSink;
+import org.jd.core.v1.api.printer.CharSinkPrinter;
 import org.jd.core.v1.api.printer.Printer;
 import org.jd.core.v1.model.token.*;
 
@@ -19,12 +22,24 @@ public class PrintTokenVisitor implements TokenVisitor {
 
     protected Printer printer;
     protected List<Token> tokens;
+    protected CompactTokenBuffer buffer;
     protected int index;
     protected int newLineCount;
+    protected CancellationToken cancellationToken;
+
+    public PrintTokenVisitor() {}
+
+    /**
+     * @param cancellationToken token checked every 4096 tokens printed from a buffer
+     */
+    public PrintTokenVisitor(CancellationToken cancellationToken) {
+        this.cancellationToken = cancellationToken;
+    }
 
     public void start(Printer printer, List<Token> tokens) {
         this.printer = printer;
         this.tokens = tokens;
+        this.buffer = (tokens instanceof CompactTokenBuffer) ? (CompactTokenBuffer)tokens : null;
         this.index = 0;
         this.newLineCount = 0;
         printer.startLine(searchLineNumber());
@@ -34,6 +49,87 @@ public class PrintTokenVisitor implements TokenVisitor {
         printer.endLine();
     }
 
+    /**
+     * Print the tokens of a buffer without creating token objects. Equivalent to visiting each token of the buffer.
+     */
+    public void print(CompactTokenBuffer buffer) {
+        int size = buffer.size();
+
+        while (index < size) {
+            if ((cancellationToken != null) && ((index & 4095) == 0)) {
+                cancellationToken.throwIfCancelled();
+            }
+
+            switch (buffer.getKind(index)) {
+                case CompactTokenBuffer.BOOLEAN_CONSTANT:
+                    prepareNewLine();
+                    printer.printKeyword(buffer.getBooleanValue(index) ? "true" : "false");
+                    break;
+                case CompactTokenBuffer.CHARACTER_CONSTANT:
+                    prepareNewLine();
+                    printer.printStringConstant('\'' + buffer.getText(index) + '\'', buffer.getOwnerInternalName(index));
+                    break;
+                case CompactTokenBuffer.DECLARATION:
+                    prepareNewLine();
+                    printer.printDeclaration(buffer.getType(index), buffer.getInternalTypeName(index), buffer.getName(index), buffer.getDescriptor(index));
+                    break;
+                case CompactTokenBuffer.START_BLOCK:
+                    printStartBlock(buffer.getText(index), buffer.isResourcesBlock(index));
+                    break;
+                case CompactTokenBuffer.END_BLOCK:
+                    printEndBlock(buffer.getText(index), buffer.isResourcesBlock(index));
+                    break;
+                case CompactTokenBuffer.START_MARKER:
+                    prepareNewLine();
+                    printer.startMarker(buffer.getType(index));
+                    break;
+                case CompactTokenBuffer.END_MARKER:
+                    prepareNewLine();
+                    printer.endMarker(buffer.getType(index));
+                    break;
+                case CompactTokenBuffer.NEW_LINE:
+                    newLineCount += buffer.getCount(index);
+                    break;
+                case CompactTokenBuffer.KEYWORD:
+                    prepareNewLine();
+                    printer.printKeyword(buffer.getText(index));
+                    break;
+                case CompactTokenBuffer.LINE_NUMBER:
+                    break;
+                case CompactTokenBuffer.NUMERIC_CONSTANT:
+                    prepareNewLine();
+                    printer.printNumericConstant(buffer.getText(index));
+                    break;
+                case CompactTokenBuffer.REFERENCE:
+                    prepareNewLine();
+                    printer.printReference(buffer.getType(index), buffer.getInternalTypeName(index), buffer.getName(index), buffer.getDescriptor(index), buffer.getOwnerInternalName(index));
+                    break;
+                case CompactTokenBuffer.STRING_CONSTANT:
+                case CompactTokenBuffer.UNESCAPED_STRING_CONSTANT:
+                    prepareNewLine();
+
+                    if (printer instanceof CharSinkPrinter) {
+                        CharSinkPrinter charSinkPrinter = (CharSinkPrinter)printer;
+                        CharSink sink = charSinkPrinter.startStringConstant(buffer.getOwnerInternalName(index));
+
+                        sink.append('"');
+                        buffer.appendText(index, sink);
+                        sink.append('"');
+                        charSinkPrinter.endStringConstant();
+                    } else {
+                        printer.printStringConstant('"' + buffer.getText(index) + '"', buffer.getOwnerInternalName(index));
+                    }
+                    break;
+                default: // TEXT
+                    prepareNewLine();
+                    printer.printText(buffer.getText(index));
+                    break;
+            }
+
+            index++;
+        }
+    }
+
     @Override
     public void visit(BooleanConstantToken token) {
         prepareNewLine();
@@ -57,23 +153,13 @@ public class PrintTokenVisitor implements TokenVisitor {
 
     @Override
     public void visit(StartBlockToken token) {
-        prepareNewLine();
-        printer.printText(token.getText());
-        printer.indent();
-        if (token == StartBlockToken.START_RESOURCES_BLOCK) {
-            printer.indent();
-        }
+        printStartBlock(token.getText(), token == StartBlockToken.START_RESOURCES_BLOCK);
         index++;
     }
 
     @Override
     public void visit(EndBlockToken token) {
-        printer.unindent();
-        if (token == EndBlockToken.END_RESOURCES_BLOCK) {
-            printer.unindent();
-        }
-        prepareNewLine();
-        printer.printText(token.getText());
+        printEndBlock(token.getText(), token == EndBlockToken.END_RESOURCES_BLOCK);
         index++;
     }
 
@@ -126,7 +212,19 @@ public class PrintTokenVisitor implements TokenVisitor {
     @Override
     public void visit(StringConstantToken token) {
         prepareNewLine();
-        printer.printStringConstant('"' + token.getText() + '"', token.getOwnerInternalName());
+
+        if (printer instanceof CharSinkPrinter) {
+            CharSinkPrinter charSinkPrinter = (CharSinkPrinter)printer;
+            CharSink sink = charSinkPrinter.startStringConstant(token.getOwnerInternalName());
+
+            sink.append('"');
+            token.appendText(sink);
+            sink.append('"');
+            charSinkPrinter.endStringConstant();
+        } else {
+            printer.printStringConstant('"' + token.getText() + '"', token.getOwnerInternalName());
+        }
+
         index++;
     }
 
@@ -137,6 +235,24 @@ public class PrintTokenVisitor implements TokenVisitor {
         index++;
     }
 
+    protected void printStartBlock(String text, boolean resources) {
+        prepareNewLine();
+        printer.printText(text);
+        printer.indent();
+        if (resources) {
+            printer.indent();
+        }
+    }
+
+    protected void printEndBlock(String text, boolean resources) {
+        printer.unindent();
+        if (resources) {
+            printer.unindent();
+        }
+        prepareNewLine();
+        printer.printText(text);
+    }
+
     protected void prepareNewLine() {
         if (newLineCount > 0) {
             printer.endLine();
@@ -157,6 +273,10 @@ public class PrintTokenVisitor implements TokenVisitor {
     }
 
     protected int searchLineNumber() {
+        if (buffer != null) {
+            return searchLineNumber(buffer);
+        }
+
         // Backward search
         searchLineNumberVisitor.reset();
 
@@ -186,6 +306,36 @@ public class PrintTokenVisitor implements TokenVisitor {
         return UNKNOWN_LINE_NUMBER;
     }
 
+    protected int searchLineNumber(CompactTokenBuffer buffer) {
+        // Backward search
+        for (int i=index; i>=0; i--) {
+            byte kind = buffer.getKind(i);
+
+            if (kind == CompactTokenBuffer.LINE_NUMBER) {
+                if (buffer.getLineNumber(i) != UNKNOWN_LINE_NUMBER)
+                    return buffer.getLineNumber(i);
+            } else if (kind == CompactTokenBuffer.NEW_LINE) {
+                break;
+            }
+        }
+
+        // Forward search
+        int size = buffer.size();
+
+        for (int i=index; i<size; i++) {
+            byte kind = buffer.getKind(i);
+
+            if (kind == CompactTokenBuffer.LINE_NUMBER) {
+                if (buffer.getLineNumber(i) != UNKNOWN_LINE_NUMBER)
+                    return buffer.getLineNumber(i);
+            } else if (kind == CompactTokenBuffer.NEW_LINE) {
+                break;
+            }
+        }
+
+        return UNKNOWN_LINE_NUMBER;
+    }
+
     protected static class SearchLineNumberVisitor extends AbstractNopTokenVisitor {
         public int lineNumber;
         public int newLineCounter;
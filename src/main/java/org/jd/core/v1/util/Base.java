@@ -32,6 +32,16 @@ public interface Base<T> extends Iterable<T> {
         return 1;
     }
 
+    /**
+     * Index-based access, for loops over a list or a single element without creating an iterator.
+     */
+    default T get(int index) {
+        if (index != 0) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: 1");
+        }
+        return (T)this;
+    }
+
     default Iterator<T> iterator() {
         return new Iterator() {
             private boolean hasNext = true;
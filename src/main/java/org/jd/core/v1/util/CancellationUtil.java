@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.util;
+
+import org.jd.core.v1.api.CancellationToken;
+import org.jd.core.v1.model.message.Message;
+
+import java.util.Map;
+
+/**
+ * Access to the {@link CancellationToken} of a message. Processors calling static utilities bind the token to the
+ * current thread for the duration of their work, so that these utilities can check it without a new parameter.
+ */
+public class CancellationUtil {
+    protected static final ThreadLocal<CancellationToken> TOKENS = new ThreadLocal<>();
+
+    public static CancellationToken getToken(Message message) {
+        Map<String, Object> configuration = message.getHeader("configuration");
+
+        if (configuration != null) {
+            Object token = configuration.get("cancellationToken");
+
+            if (token instanceof CancellationToken) {
+                return (CancellationToken)token;
+            }
+        }
+
+        return null;
+    }
+
+    public static void throwIfCancelled(Message message) {
+        CancellationToken token = getToken(message);
+
+        if (token != null) {
+            token.throwIfCancelled();
+        }
+    }
+
+    /**
+     * @return the token previously bound, to restore with a new call once the work is done
+     */
+    public static CancellationToken bind(CancellationToken token) {
+        CancellationToken previous = TOKENS.get();
+
+        if (token == null) {
+            TOKENS.remove();
+        } else {
+            TOKENS.set(token);
+        }
+
+        return previous;
+    }
+
+    public static void throwIfCancelled() {
+        CancellationToken token = TOKENS.get();
+
+        if (token != null) {
+            token.throwIfCancelled();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.util;
+
+import org.jd.core.v1.api.printer.CharSink;
+
+/**
+ * Escape string constants. Strings without special characters are scanned without allocation; other strings are
+ * escaped in a buffer of the exact size, or appended to a {@link CharSink} by runs of unescaped characters.
+ */
+public class EscapeUtil {
+
+    public static boolean needsEscape(String s) {
+        for (int i=0, length=s.length(); i<length; i++) {
+            if (needsEscape(s.charAt(i))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public static int escapedLength(String s) {
+        int length = s.length();
+        int escapedLength = length;
+
+        for (int i=0; i<length; i++) {
+            char c = s.charAt(i);
+
+            if (needsEscape(c)) {
+                escapedLength += getEscapeSequenceLength(c) - 1;
+            }
+        }
+
+        return escapedLength;
+    }
+
+    public static String escapeString(String s) {
+        int length = s.length();
+        int i = 0;
+
+        while ((i < length) && !needsEscape(s.charAt(i))) {
+            i++;
+        }
+
+        if (i == length) {
+            return s;
+        }
+
+        char[] buffer = new char[escapedLength(s)];
+        int index = i;
+
+        s.getChars(0, i, buffer, 0);
+
+        for (; i<length; i++) {
+            char c = s.charAt(i);
+
+            if (needsEscape(c)) {
+                index = putEscapeSequence(buffer, index, c);
+            } else {
+                buffer[index++] = c;
+            }
+        }
+
+        return new String(buffer);
+    }
+
+    public static void escapeString(String s, CharSink sink) {
+        int length = s.length();
+        int start = 0;
+        char[] sequence = null;
+
+        for (int i=0; i<length; i++) {
+            char c = s.charAt(i);
+
+            if (needsEscape(c)) {
+                if (start < i) {
+                    sink.append(s, start, i);
+                }
+
+                if (sequence == null) {
+                    sequence = new char[4];
+                }
+
+                int sequenceLength = putEscapeSequence(sequence, 0, c);
+
+                for (int j=0; j<sequenceLength; j++) {
+                    sink.append(sequence[j]);
+                }
+
+                start = i + 1;
+            }
+        }
+
+        if (start < length) {
+            sink.append(s, start, length);
+        }
+    }
+
+    protected static boolean needsEscape(char c) {
+        return (c == '\\') || (c == '"') || (c < ' ');
+    }
+
+    protected static int getEscapeSequenceLength(char c) {
+        switch (c) {
+            case '\\': case '\b': case '\f': case '\n': case '\r': case '\t': case '"':
+                return 2;
+            default:
+                return 4; // Octal escape sequence
+        }
+    }
+
+    /**
+     * @return the index following the escape sequence
+     */
+    protected static int putEscapeSequence(char[] buffer, int index, char c) {
+        buffer[index++] = '\\';
+
+        switch (c) {
+            case '\\': buffer[index++] = '\\'; break;
+            case '\b': buffer[index++] = 'b'; break;
+            case '\f': buffer[index++] = 'f'; break;
+            case '\n': buffer[index++] = 'n'; break;
+            case '\r': buffer[index++] = 'r'; break;
+            case '\t': buffer[index++] = 't'; break;
+            case '"': buffer[index++] = '"'; break;
+            default:
+                buffer[index++] = '0';
+                buffer[index++] = (char)('0' + ((int)c >> 3));
+                buffer[index++] = (char)('0' + ((int)c & 7));
+        }
+
+        return index;
+    }
+}
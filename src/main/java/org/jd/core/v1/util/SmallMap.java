@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2008-2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.util;
+
+import java.util.*;
+
+/**
+ * Map for a few entries: keys and values are stored side by side in a single array and searched linearly. An empty map
+ * allocates no array; there is no entry object per mapping.
+ */
+public class SmallMap<K, V> extends AbstractMap<K, V> {
+    protected static final Object[] EMPTY_TABLE = new Object[0];
+
+    protected Object[] table = EMPTY_TABLE; // key0, value0, key1, value1, ...
+    protected int size;
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) != -1;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (int i=1, length=size<<1; i<length; i+=2) {
+            if (Objects.equals(value, table[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int index = indexOf(key);
+        return (index == -1) ? null : (V)table[index+1];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        int index = indexOf(key);
+
+        if (index == -1) {
+            ensureCapacity(size + 1);
+            index = size << 1;
+            table[index] = key;
+            table[index+1] = value;
+            size++;
+            return null;
+        } else {
+            V old = (V)table[index+1];
+            table[index+1] = value;
+            return old;
+        }
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        if ((size == 0) && (m instanceof SmallMap)) {
+            SmallMap<?, ?> other = (SmallMap<?, ?>)m;
+            ensureCapacity(other.size);
+            System.arraycopy(other.table, 0, table, 0, other.size<<1);
+            size = other.size;
+        } else {
+            ensureCapacity(size + m.size());
+            super.putAll(m);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        int index = indexOf(key);
+
+        if (index == -1) {
+            return null;
+        } else {
+            V old = (V)table[index+1];
+            removeAt(index);
+            return old;
+        }
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(table, 0, size<<1, null);
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    protected int indexOf(Object key) {
+        int length = size << 1;
+
+        if (key == null) {
+            for (int i=0; i<length; i+=2) {
+                if (table[i] == null) {
+                    return i;
+                }
+            }
+        } else {
+            for (int i=0; i<length; i+=2) {
+                Object k = table[i];
+                if ((k == key) || key.equals(k)) {
+                    return i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    protected void ensureCapacity(int capacity) {
+        if ((capacity << 1) > table.length) {
+            table = Arrays.copyOf(table, Math.max(capacity, Math.max(4, size << 1)) << 1);
+        }
+    }
+
+    protected void removeAt(int index) {
+        int length = size << 1;
+        System.arraycopy(table, index+2, table, index, length-index-2);
+        table[length-2] = table[length-1] = null;
+        size--;
+    }
+
+    protected class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+    }
+
+    protected class EntryIterator implements Iterator<Entry<K, V>> {
+        protected int next = 0;
+        protected int last = -1;
+
+        @Override
+        public boolean hasNext() {
+            return next < (size << 1);
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next += 2;
+            return new SmallMapEntry(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last == -1) {
+                throw new IllegalStateException();
+            }
+            removeAt(last);
+            next = last;
+            last = -1;
+        }
+    }
+
+    protected class SmallMapEntry implements Entry<K, V> {
+        protected int index;
+
+        public SmallMapEntry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public K getKey() {
+            return (K)table[index];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V getValue() {
+            return (V)table[index+1];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V setValue(V value) {
+            V old = (V)table[index+1];
+            table[index+1] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?, ?> e = (Entry<?, ?>)o;
+            return Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1;
+
+import junit.framework.TestCase;
+import org.jd.core.v1.archive.ArchiveDecompiler;
+import org.jd.core.v1.archive.ArchiveDecompilerStatistics;
+import org.jd.core.v1.archive.DifferentialArchiveDecompiler;
+import org.jd.core.v1.loader.ZipFileLoader;
+import org.jd.core.v1.printer.WriterPrinter;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+public class ArchiveDecompilerTest extends TestCase {
+    @Test
+    public void testJdk170() throws Exception {
+        File archive = File.createTempFile("data-java-jdk-1.7.0", ".jar");
+        File sourceArchive = File.createTempFile("data-java-jdk-1.7.0-sources", ".jar");
+
+        try (InputStream is = this.getClass().getResourceAsStream("/zip/data-java-jdk-1.7.0.zip")) {
+            Files.copy(is, archive.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        try {
+            // Use a small window to check the ordered writer
+            ArchiveDecompilerStatistics statistics = new ArchiveDecompiler(4, 2, null).decompile(archive, sourceArchive);
+            List<String> names = new ArrayList<>();
+            String basicSource = null;
+
+            try (ZipInputStream zis = new ZipInputStream(new FileInputStream(sourceArchive))) {
+                ZipEntry entry;
+
+                while ((entry = zis.getNextEntry()) != null) {
+                    names.add(entry.getName());
+
+                    if (entry.getName().equals("org/jd/core/test/Basic.java")) {
+                        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                        byte[] buffer = new byte[1024];
+                        int read;
+
+                        while ((read = zis.read(buffer)) > 0) {
+                            baos.write(buffer, 0, read);
+                        }
+
+                        basicSource = new String(baos.toByteArray(), StandardCharsets.UTF_8);
+                    }
+                }
+            }
+
+            assertTrue(statistics.getClassCount() > 0);
+            assertEquals(statistics.getFailures().toString(), 0, statistics.getFailedClassCount());
+            assertEquals(statistics.getClassCount(), names.size());
+            assertFalse(names.contains("org/jd/core/test/OuterClass$InnerClass.java"));
+            assertTrue(names.contains("org/jd/core/test/OuterClass.java"));
+
+            // Check source
+            StringWriter expected = new StringWriter();
+
+            try (ZipFileLoader loader = new ZipFileLoader(archive)) {
+                new ClassFileToJavaSourceDecompiler().decompile(loader, new WriterPrinter(expected), "org/jd/core/test/Basic");
+            }
+
+            assertEquals(expected.toString(), basicSource);
+
+            // Check order
+            List<String> expectedNames = new ArrayList<>(names);
+            new ArchiveDecompiler(1).decompile(archive, sourceArchive);
+            names.clear();
+
+            try (ZipInputStream zis = new ZipInputStream(new FileInputStream(sourceArchive))) {
+                ZipEntry entry;
+
+                while ((entry = zis.getNextEntry()) != null) {
+                    names.add(entry.getName());
+                }
+            }
+
+            assertEquals(expectedNames, names);
+        } finally {
+            archive.delete();
+            sourceArchive.delete();
+        }
+    }
+
+    @Test
+    public void testJdk170Differential() throws Exception {
+        File previousArchive = File.createTempFile("data-java-jdk-1.7.0", ".jar");
+        File previousSourceArchive = File.createTempFile("data-java-jdk-1.7.0-sources", ".jar");
+        File archive = File.createTempFile("data-java-jdk-1.7.0-new", ".jar");
+        File sourceArchive = File.createTempFile("data-java-jdk-1.7.0-new-sources", ".jar");
+
+        try (InputStream is = this.getClass().getResourceAsStream("/zip/data-java-jdk-1.7.0.zip")) {
+            Files.copy(is, previousArchive.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        try {
+            // Mark the previous sources to distinguish copied sources from decompiled ones
+            new ArchiveDecompiler(2).decompile(previousArchive, sourceArchive);
+            Map<String, byte[]> previousSources = read(sourceArchive);
+
+            for (Map.Entry<String, byte[]> entry : previousSources.entrySet()) {
+                entry.setValue(("// Previous\n" + new String(entry.getValue(), StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8));
+            }
+
+            write(previousSourceArchive, previousSources);
+
+            // Change a top-level class and a nested inner class
+            Map<String, byte[]> classes = read(previousArchive);
+            classes.put("org/jd/core/test/Basic.class", append(classes.get("org/jd/core/test/Basic.class")));
+            classes.put("org/jd/core/test/OuterClass$InnerClass$InnerInnerClass.class", append(classes.get("org/jd/core/test/OuterClass$InnerClass$InnerInnerClass.class")));
+            write(archive, classes);
+
+            ArchiveDecompilerStatistics statistics = new DifferentialArchiveDecompiler(previousArchive, previousSourceArchive, 2).decompile(archive, sourceArchive);
+            Map<String, byte[]> sources = read(sourceArchive);
+
+            assertEquals(statistics.getFailures().toString(), 0, statistics.getFailedClassCount());
+            assertEquals(previousSources.keySet(), sources.keySet());
+            assertEquals(statistics.getClassCount() - 2, statistics.getCopiedClassCount());
+
+            for (Map.Entry<String, byte[]> entry : sources.entrySet()) {
+                String name = entry.getKey();
+                boolean changed = name.equals("org/jd/core/test/Basic.java") || name.equals("org/jd/core/test/OuterClass.java");
+
+                if (name.endsWith(".java")) {
+                    assertEquals(name, !changed, new String(entry.getValue(), StandardCharsets.UTF_8).startsWith("// Previous"));
+                }
+            }
+        } finally {
+            previousArchive.delete();
+            previousSourceArchive.delete();
+            archive.delete();
+            sourceArchive.delete();
+        }
+    }
+
+    protected static Map<String, byte[]> read(File archive) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+
+        try (ZipInputStream zis = new ZipInputStream(new FileInputStream(archive))) {
+            ZipEntry entry;
+
+            while ((entry = zis.getNextEntry()) != null) {
+                if (!entry.isDirectory()) {
+                    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[1024];
+                    int read;
+
+                    while ((read = zis.read(buffer)) > 0) {
+                        baos.write(buffer, 0, read);
+                    }
+
+                    entries.put(entry.getName(), baos.toByteArray());
+                }
+            }
+        }
+
+        return entries;
+    }
+
+    protected static void write(File archive, Map<String, byte[]> entries) throws IOException {
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(archive))) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                zos.putNextEntry(new ZipEntry(entry.getKey()));
+                zos.write(entry.getValue());
+                zos.closeEntry();
+            }
+        }
+    }
+
+    // Trailing bytes are ignored by the deserializer
+    protected static byte[] append(byte[] bytes) {
+        byte[] result = new byte[bytes.length + 1];
+        System.arraycopy(bytes, 0, result, 0, bytes.length);
+        return result;
+    }
+}
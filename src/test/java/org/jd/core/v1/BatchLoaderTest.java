@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1;
+
+import junit.framework.TestCase;
+import org.jd.core.v1.api.loader.Loader;
+import org.jd.core.v1.loader.ClassPathLoader;
+import org.jd.core.v1.loader.ExecutorBatchLoader;
+import org.jd.core.v1.loader.LatencyBatchLoader;
+import org.jd.core.v1.loader.LatencyLoader;
+import org.jd.core.v1.loader.ZipLoader;
+import org.jd.core.v1.printer.WriterPrinter;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class BatchLoaderTest extends TestCase {
+    protected static final long LATENCY = 5;
+
+    @Test
+    public void testBatchLoader() throws Exception {
+        try (InputStream is = this.getClass().getResourceAsStream("/zip/data-java-jdk-1.8.0.zip")) {
+            Loader loader = new ZipLoader(is);
+            String expected = decompile(loader, "org/jd/core/test/OuterClass");
+
+            LatencyLoader serialLoader = new LatencyLoader(loader, LATENCY);
+
+            assertEquals(expected, decompile(serialLoader, "org/jd/core/test/OuterClass"));
+
+            LatencyBatchLoader batchLoader = new LatencyBatchLoader(loader, LATENCY);
+
+            assertEquals(expected, decompile(batchLoader, "org/jd/core/test/OuterClass"));
+            assertTrue(batchLoader.getRoundTrips() < serialLoader.getRoundTrips());
+        }
+    }
+
+    @Test
+    public void testExecutorBatchLoader() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try (InputStream is = this.getClass().getResourceAsStream("/zip/data-java-jdk-1.8.0.zip")) {
+            Loader loader = new ZipLoader(is);
+            String expected = decompile(loader, "org/jd/core/test/OuterClass");
+
+            LatencyLoader concurrentLoader = new LatencyLoader(loader, LATENCY);
+
+            assertEquals(expected, decompile(new ExecutorBatchLoader(concurrentLoader, executor), "org/jd/core/test/OuterClass"));
+            assertTrue(concurrentLoader.getRoundTrips() > 0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    static class GrandParent {}
+    static class Parent extends GrandParent {}
+    static class Child extends Parent {
+        public String toString() {
+            return "child";
+        }
+    }
+
+    @Test
+    public void testPrefetchedDataReleased() throws Exception {
+        // Filled by the common pool threads
+        Queue<WeakReference<byte[]>> prefetchedData = new ConcurrentLinkedQueue<>();
+        Queue<CompletableFuture<byte[]>> pendingFutures = new ConcurrentLinkedQueue<>();
+        LatencyBatchLoader batchLoader = new LatencyBatchLoader(new ClassPathLoader(), 0) {
+            @Override
+            public Map<String, Future<byte[]>> loadAll(Collection<String> internalNames) {
+                HashMap<String, Future<byte[]>> futures = new HashMap<>();
+
+                for (Map.Entry<String, Future<byte[]>> entry : super.loadAll(internalNames).entrySet()) {
+                    CompletableFuture<byte[]> future = ((CompletableFuture<byte[]>)entry.getValue()).thenApply(data -> {
+                        if (data == null) {
+                            return null;
+                        }
+                        byte[] copy = data.clone();
+                        prefetchedData.add(new WeakReference<>(copy));
+                        return copy;
+                    });
+
+                    pendingFutures.add(future);
+                    futures.put(entry.getKey(), future);
+                }
+
+                return futures;
+            }
+        };
+        // Type maker reused from one class to the next
+        Map<String, Object> configuration = new HashMap<>();
+        String internalTypeName = Child.class.getName().replace('.', '/');
+
+        new ClassFileToJavaSourceDecompiler().decompile(batchLoader, new WriterPrinter(new StringWriter()), internalTypeName, configuration);
+
+        // Wait for all the prefetches, including the ones not read, then drop the futures holding their results
+        CompletableFuture<?> future;
+
+        while ((future = pendingFutures.poll()) != null) {
+            future.join();
+        }
+
+        assertNotNull(configuration.get("typeMaker"));
+        assertFalse(prefetchedData.isEmpty());
+
+        for (int i=0; i<10; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        // The class files prefetched and not read are not kept by the type maker
+        for (WeakReference<byte[]> reference : prefetchedData) {
+            assertNull(reference.get());
+        }
+    }
+
+    protected static String decompile(Loader loader, String internalTypeName) throws Exception {
+        StringWriter writer = new StringWriter();
+        new ClassFileToJavaSourceDecompiler().decompile(loader, new WriterPrinter(writer), internalTypeName);
+        return writer.toString();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1;
+
+import junit.framework.TestCase;
+import org.jd.core.v1.api.loader.Loader;
+import org.jd.core.v1.cache.DecompilationCache;
+import org.jd.core.v1.loader.ZipLoader;
+import org.jd.core.v1.printer.WriterPrinter;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class CachingClassFileToJavaSourceDecompilerTest extends TestCase {
+    @Test
+    public void testCache() throws Exception {
+        InputStream is = this.getClass().getResourceAsStream("/zip/data-java-jdk-1.7.0.zip");
+        Loader loader = new ZipLoader(is);
+        Map<String, Object> configuration = Collections.singletonMap("realignLineNumbers", Boolean.TRUE);
+        File directory = Files.createTempDirectory("jd-core-cache").toFile();
+
+        try {
+            DecompilationCache cache = new DecompilationCache(directory, 1024 * 1024);
+            CachingClassFileToJavaSourceDecompiler decompiler = new CachingClassFileToJavaSourceDecompiler(cache, "test");
+            String expected = decompile(new ClassFileToJavaSourceDecompiler(), loader, "org/jd/core/test/OuterClass", null);
+
+            assertEquals(expected, decompile(decompiler, loader, "org/jd/core/test/OuterClass", null));
+            assertEquals(0, cache.getHitCount());
+            assertEquals(1, cache.getStoreCount());
+
+            // Replay
+            assertEquals(expected, decompile(decompiler, loader, "org/jd/core/test/OuterClass", null));
+            assertEquals(1, cache.getHitCount());
+
+            // Other configuration
+            String realigned = decompile(decompiler, loader, "org/jd/core/test/OuterClass", configuration);
+            assertEquals(decompile(new ClassFileToJavaSourceDecompiler(), loader, "org/jd/core/test/OuterClass", configuration), realigned);
+            assertEquals(1, cache.getHitCount());
+            assertEquals(2, cache.getStoreCount());
+
+            // Reopen
+            cache = new DecompilationCache(directory, 1024 * 1024);
+            decompiler = new CachingClassFileToJavaSourceDecompiler(cache, "test");
+
+            assertEquals(2, cache.getRecordCount());
+            assertEquals(realigned, decompile(decompiler, loader, "org/jd/core/test/OuterClass", configuration));
+            assertEquals(1, cache.getHitCount());
+            assertEquals(1.0, cache.getHitRatio(), 0.0001);
+
+            // Other version
+            decompiler = new CachingClassFileToJavaSourceDecompiler(cache, "other");
+            assertEquals(realigned, decompile(decompiler, loader, "org/jd/core/test/OuterClass", configuration));
+            assertEquals(1, cache.getHitCount());
+
+            // Unknown version: cache bypassed
+            long storeCount = cache.getStoreCount();
+            decompiler = new CachingClassFileToJavaSourceDecompiler(cache, null);
+            assertEquals(realigned, decompile(decompiler, loader, "org/jd/core/test/OuterClass", configuration));
+            assertEquals(1, cache.getHitCount());
+            assertEquals(storeCount, cache.getStoreCount());
+
+            // Eviction
+            long maxSize = cache.getSize() / 3 + 1;
+            cache = new DecompilationCache(directory, maxSize);
+
+            assertTrue(cache.getEvictionCount() > 0);
+            assertTrue(cache.getSize() <= maxSize);
+        } finally {
+            delete(directory);
+        }
+    }
+
+    protected static String decompile(ClassFileToJavaSourceDecompiler decompiler, Loader loader, String internalTypeName, Map<String, Object> configuration) throws Exception {
+        StringWriter writer = new StringWriter();
+        decompiler.decompile(loader, new WriterPrinter(writer), internalTypeName, configuration);
+        return writer.toString();
+    }
+
+    protected static void delete(File directory) throws IOException {
+        try (Stream<Path> stream = Files.walk(directory.toPath())) {
+            stream.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
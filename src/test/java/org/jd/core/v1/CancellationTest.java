@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1;
+
+import junit.framework.TestCase;
+import org.jd.core.v1.api.CancellationToken;
+import org.jd.core.v1.loader.ZipLoader;
+import org.jd.core.v1.printer.PlainTextPrinter;
+import org.junit.Test;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+
+public class CancellationTest extends TestCase {
+    protected ClassFileToJavaSourceDecompiler decompiler = new ClassFileToJavaSourceDecompiler();
+
+    @Test
+    public void testCancelledToken() throws Exception {
+        try (InputStream is = new FileInputStream(getCommonsLang3File())) {
+            ZipLoader loader = new ZipLoader(is);
+            CancellationToken token = new CancellationToken();
+
+            token.cancel();
+
+            try {
+                decompiler.decompile(loader, new PlainTextPrinter(), "org/apache/commons/lang3/StringUtils", Collections.singletonMap("cancellationToken", token));
+                fail();
+            } catch (CancellationException e) {
+                assertEquals("Decompilation cancelled", e.getMessage());
+            }
+
+            try {
+                token = new CancellationToken(0, TimeUnit.MILLISECONDS);
+                decompiler.decompile(loader, new PlainTextPrinter(), "org/apache/commons/lang3/StringUtils", Collections.singletonMap("cancellationToken", token));
+                fail();
+            } catch (CancellationException e) {
+                assertEquals("Decompilation deadline exceeded", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testCancellationPoints() throws Exception {
+        // Cancel at each check point of the pipeline, then check that the decompiler is still usable
+        try (InputStream is = new FileInputStream(getCommonsLang3File())) {
+            ZipLoader loader = new ZipLoader(is);
+            String internalTypeName = "org/apache/commons/lang3/text/StrBuilder";
+            Map<String, Object> configuration = new HashMap<>();
+            CountingCancellationToken token = new CountingCancellationToken(Integer.MAX_VALUE);
+            PlainTextPrinter printer = new PlainTextPrinter();
+
+            configuration.put("realignLineNumbers", "true");
+            configuration.put("cancellationToken", token);
+            decompiler.decompile(loader, printer, internalTypeName, configuration);
+
+            String expected = printer.toString();
+            int checkCount = token.count;
+
+            assertTrue(checkCount > 100);
+
+            for (int cancellationIndex=1; cancellationIndex<=checkCount; cancellationIndex+=Math.max(1, checkCount/50)) {
+                configuration.put("cancellationToken", new CountingCancellationToken(cancellationIndex));
+
+                try {
+                    decompiler.decompile(loader, new PlainTextPrinter(), internalTypeName, configuration);
+                    fail("Not cancelled at check point " + cancellationIndex);
+                } catch (CancellationException ignore) {
+                }
+            }
+
+            configuration.remove("cancellationToken");
+            printer = new PlainTextPrinter();
+            decompiler.decompile(loader, printer, internalTypeName, configuration);
+
+            assertEquals(expected, printer.toString());
+        }
+    }
+
+    @Test
+    public void testCancellationFromAnotherThread() throws Exception {
+        // Cancel from the calling thread while the decompilation is in progress on an executor thread
+        try (InputStream is = new FileInputStream(getCommonsLang3File())) {
+            ZipLoader loader = new ZipLoader(is);
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch cancelRequested = new CountDownLatch(1);
+            CancellationToken token = new CancellationToken() {
+                @Override
+                public void throwIfCancelled() {
+                    if (started.getCount() > 0) {
+                        started.countDown();
+
+                        try {
+                            cancelRequested.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+
+                    super.throwIfCancelled();
+                }
+            };
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+
+            try {
+                Future<?> future = executor.submit(() -> {
+                    decompiler.decompile(loader, new PlainTextPrinter(), "org/apache/commons/lang3/ArrayUtils", Collections.singletonMap("cancellationToken", token));
+                    return null;
+                });
+
+                assertTrue(started.await(1, TimeUnit.MINUTES));
+                token.cancel();
+                cancelRequested.countDown();
+
+                try {
+                    future.get();
+                    fail();
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof CancellationException);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    protected static java.io.File getCommonsLang3File() throws Exception {
+        Class clazz = org.apache.commons.lang3.JavaVersion.class;
+        return Paths.get(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()).toFile();
+    }
+
+    protected static class CountingCancellationToken extends CancellationToken {
+        protected int cancellationIndex;
+        protected int count;
+
+        public CountingCancellationToken(int cancellationIndex) {
+            this.cancellationIndex = cancellationIndex;
+        }
+
+        @Override
+        public void throwIfCancelled() {
+            if (++count >= cancellationIndex) {
+                cancel();
+            }
+
+            super.throwIfCancelled();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1;
+
+import junit.framework.TestCase;
+import org.jd.core.v1.api.Decompiler;
+import org.jd.core.v1.api.printer.TokenStream;
+import org.jd.core.v1.api.printer.TokenStreamPrinter;
+import org.jd.core.v1.loader.ZipLoader;
+import org.jd.core.v1.model.message.Message;
+import org.jd.core.v1.model.token.TokenBuffer;
+import org.jd.core.v1.printer.PlainTextPrinter;
+import org.jd.core.v1.service.writer.WriteTokenProcessor;
+import org.jd.core.v1.util.DefaultList;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.util.List;
+
+public class ClassFileToTokenStreamDecompilerTest extends TestCase {
+    protected static final int ALL_KINDS = TokenStreamPrinter.DECLARATION | TokenStreamPrinter.REFERENCE | TokenStreamPrinter.LINE_NUMBER;
+
+    protected ClassFileToJavaSourceDecompiler decompiler = new ClassFileToJavaSourceDecompiler();
+    protected ClassFileToTokenStreamDecompiler extractor = new ClassFileToTokenStreamDecompiler();
+
+    @Test
+    public void testJdk170() throws Exception {
+        // Same records and same line numbers as the full pipeline
+        try (InputStream is = this.getClass().getResourceAsStream("/zip/data-java-jdk-1.7.0.zip")) {
+            ZipLoader loader = new ZipLoader(is);
+            long classCounter = 0;
+
+            for (String path : loader.getMap().keySet()) {
+                if (path.endsWith(".class") && (path.indexOf('$') == -1)) {
+                    String internalTypeName = path.substring(0, path.length() - 6); // 6 = ".class".length()
+                    List<String> expected = decompile(decompiler, loader, internalTypeName);
+                    List<String> actual = decompile(extractor, loader, internalTypeName);
+
+                    assertEquals(internalTypeName, expected, actual);
+                    classCounter++;
+                }
+            }
+
+            assertTrue(classCounter > 0);
+        }
+    }
+
+    @Test
+    public void testTokenBufferToPlainPrinter() throws Exception {
+        Message message = new Message(new TokenBuffer());
+
+        message.setHeader("printer", new PlainTextPrinter());
+        message.setHeader("maxLineNumber", 0);
+        message.setHeader("majorVersion", 0);
+        message.setHeader("minorVersion", 0);
+
+        try {
+            new WriteTokenProcessor().process(message);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    protected List<String> decompile(Decompiler decompiler, ZipLoader loader, String internalTypeName) throws Exception {
+        RecordTokenStreamPrinter printer = new RecordTokenStreamPrinter();
+        decompiler.decompile(loader, printer, internalTypeName);
+        return printer.records;
+    }
+
+    protected static class RecordTokenStreamPrinter implements TokenStreamPrinter {
+        public List<String> records = new DefaultList<>();
+
+        @Override public void start(int maxLineNumber, int majorVersion, int minorVersion) {}
+        @Override public void end() {}
+
+        @Override
+        public int getTokenKinds() {
+            return ALL_KINDS;
+        }
+
+        @Override
+        public void printTokenStream(TokenStream stream) {
+            for (int i=0, len=stream.size(); i<len; i++) {
+                switch (stream.getKind(i)) {
+                    case LINE_NUMBER:
+                        records.add("L @" + stream.getLineNumber(i));
+                        break;
+                    case DECLARATION:
+                        records.add("D " + stream.getType(i) + " " + stream.getString(stream.getInternalTypeNameId(i)) + " " + stream.getString(stream.getNameId(i)) + " " + stream.getString(stream.getDescriptorId(i)) + " @" + stream.getLineNumber(i));
+                        break;
+                    case REFERENCE:
+                        records.add("R " + stream.getType(i) + " " + stream.getString(stream.getInternalTypeNameId(i)) + " " + stream.getString(stream.getNameId(i)) + " " + stream.getString(stream.getDescriptorId(i)) + " " + stream.getString(stream.getOwnerInternalNameId(i)) + " @" + stream.getLineNumber(i));
+                        break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1;
+
+import junit.framework.TestCase;
+import org.jd.core.v1.api.printer.Printer;
+import org.jd.core.v1.loader.ZipLoader;
+import org.jd.core.v1.model.javafragment.JavaFragment;
+import org.jd.core.v1.model.message.Message;
+import org.jd.core.v1.model.token.*;
+import org.jd.core.v1.printer.PlainTextPrinter;
+import org.jd.core.v1.printer.WriterPrinter;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.ClassFileToJavaSyntaxProcessor;
+import org.jd.core.v1.service.deserializer.classfile.DeserializeClassFileProcessor;
+import org.jd.core.v1.service.fragmenter.javasyntaxtojavafragment.JavaSyntaxToJavaFragmentProcessor;
+import org.jd.core.v1.service.layouter.LayoutFragmentProcessor;
+import org.jd.core.v1.service.tokenizer.javafragmenttotoken.visitor.TokenizeJavaFragmentVisitor;
+import org.jd.core.v1.service.writer.WriteTokenProcessor;
+import org.jd.core.v1.util.DefaultList;
+import org.junit.Test;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.List;
+
+public class CompactTokenBufferTest extends TestCase {
+    protected DeserializeClassFileProcessor deserializer = new DeserializeClassFileProcessor();
+    protected ClassFileToJavaSyntaxProcessor converter = new ClassFileToJavaSyntaxProcessor();
+    protected JavaSyntaxToJavaFragmentProcessor fragmenter = new JavaSyntaxToJavaFragmentProcessor();
+    protected LayoutFragmentProcessor layouter = new LayoutFragmentProcessor();
+    protected WriteTokenProcessor writer = new WriteTokenProcessor();
+
+    @Test
+    public void testView() throws Exception {
+        CompactTokenBuffer buffer = new CompactTokenBuffer(1);
+
+        buffer.add(new LineNumberToken(3));
+        buffer.add(StartBlockToken.START_RESOURCES_BLOCK);
+        buffer.add(new EndBlockToken("%>"));
+        buffer.add(StartMarkerToken.JAVADOC);
+        buffer.add(NewLineToken.NEWLINE_2);
+        buffer.add(new NewLineToken(5));
+        buffer.add(new ReferenceToken(ReferenceToken.TYPE, "java/lang/String", "String", null, "org/jd/Test"));
+        buffer.add(new UnescapedStringConstantToken("a\nb", "org/jd/Test"));
+        buffer.add(new StringConstantToken("c\\td", null));
+        buffer.add(new BooleanConstantToken(true));
+
+        assertEquals(10, buffer.size());
+        assertEquals(3, ((LineNumberToken)buffer.get(0)).getLineNumber());
+        assertSame(StartBlockToken.START_RESOURCES_BLOCK, buffer.get(1));
+        assertEquals("%>", ((EndBlockToken)buffer.get(2)).getText());
+        assertSame(StartMarkerToken.JAVADOC, buffer.get(3));
+        assertSame(NewLineToken.NEWLINE_2, buffer.get(4));
+        assertEquals(5, ((NewLineToken)buffer.get(5)).getCount());
+
+        ReferenceToken reference = (ReferenceToken)buffer.get(6);
+
+        assertEquals(ReferenceToken.TYPE, reference.getType());
+        assertEquals("java/lang/String", reference.getInternalTypeName());
+        assertEquals("String", reference.getName());
+        assertNull(reference.getDescriptor());
+        assertEquals("org/jd/Test", reference.getOwnerInternalName());
+
+        assertEquals("a\\nb", ((StringConstantToken)buffer.get(7)).getText());
+        assertEquals("a\nb", ((UnescapedStringConstantToken)buffer.get(7)).getValue());
+        assertEquals("c\\td", buffer.getText(8));
+        assertNull(buffer.getOwnerInternalName(8));
+        assertTrue(((BooleanConstantToken)buffer.get(9)).getValue());
+    }
+
+    @Test
+    public void testUnknownMarkers() throws Exception {
+        // Marker types other than the singletons are kept as is
+        StartMarkerToken startMarker = new StartMarkerToken(99) {};
+        EndMarkerToken endMarker = new EndMarkerToken(99) {};
+        CompactTokenBuffer buffer = new CompactTokenBuffer(1);
+
+        buffer.add(StartMarkerToken.COMMENT);
+        buffer.add(startMarker);
+        buffer.add(new TextToken("x"));
+        buffer.add(endMarker);
+        buffer.add(EndMarkerToken.COMMENT);
+        buffer.trimToSize();
+
+        assertSame(StartMarkerToken.COMMENT, buffer.get(0));
+        assertSame(startMarker, buffer.get(1));
+        assertSame(endMarker, buffer.get(3));
+        assertSame(EndMarkerToken.COMMENT, buffer.get(4));
+        assertEquals(Printer.COMMENT, buffer.getType(0));
+        assertEquals(99, buffer.getType(1));
+        assertEquals(99, buffer.getType(3));
+
+        try {
+            buffer.set(0, startMarker);
+            fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test
+    public void testPrint() throws Exception {
+        // Print the classes of 'org.apache.commons:commons-lang3:3.9' from the buffers and from the token objects
+        try (InputStream is = new FileInputStream(getCommonsLang3File())) {
+            ZipLoader loader = new ZipLoader(is);
+            int count = 0;
+
+            for (String path : loader.getMap().keySet()) {
+                if (path.endsWith(".class") && (path.indexOf('$') == -1) && (count++ % 5 == 0)) {
+                    String internalTypeName = path.substring(0, path.length() - 6);
+                    RecordingTokenBuffer buffer = tokenize(loader, internalTypeName);
+
+                    assertEquals(internalTypeName, print(buffer.message, buffer.tokens, false), print(buffer.message, buffer, false));
+                    // Char sink printer
+                    assertEquals(internalTypeName, print(buffer.message, buffer.tokens, true), print(buffer.message, buffer, true));
+                }
+            }
+
+            assertTrue(count > 0);
+        }
+    }
+
+    protected RecordingTokenBuffer tokenize(ZipLoader loader, String internalTypeName) throws Exception {
+        Message message = new Message();
+
+        message.setHeader("mainInternalTypeName", internalTypeName);
+        message.setHeader("loader", loader);
+
+        deserializer.process(message);
+        converter.process(message);
+        fragmenter.process(message);
+        layouter.process(message);
+
+        List<JavaFragment> fragments = message.getBody();
+        RecordingTokenizeJavaFragmentVisitor visitor = new RecordingTokenizeJavaFragmentVisitor(fragments.size() * 3);
+
+        for (JavaFragment fragment : fragments) {
+            fragment.accept(visitor);
+        }
+
+        RecordingTokenBuffer buffer = (RecordingTokenBuffer)visitor.getTokens();
+
+        buffer.trimToSize();
+        message.setBody(null);
+        buffer.message = message;
+        return buffer;
+    }
+
+    protected String print(Message message, List<Token> tokens, boolean charSink) throws Exception {
+        StringWriter stringWriter = new StringWriter();
+        Printer printer = charSink ? new WriterPrinter(stringWriter) : new PlainTextPrinter();
+
+        message.setHeader("printer", printer);
+        message.setBody(tokens);
+        writer.process(message);
+        message.setBody(null);
+
+        return charSink ? stringWriter.toString() : printer.toString();
+    }
+
+    protected static java.io.File getCommonsLang3File() throws Exception {
+        Class clazz = org.apache.commons.lang3.JavaVersion.class;
+        return Paths.get(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()).toFile();
+    }
+
+    protected static class RecordingTokenizeJavaFragmentVisitor extends TokenizeJavaFragmentVisitor {
+        public RecordingTokenizeJavaFragmentVisitor(int initialCapacity) {
+            super(initialCapacity);
+            this.tokens = new RecordingTokenBuffer(initialCapacity);
+        }
+    }
+
+    /**
+     * Buffer keeping the original token objects.
+     */
+    protected static class RecordingTokenBuffer extends CompactTokenBuffer {
+        protected Message message;
+        protected DefaultList<Token> tokens;
+
+        public RecordingTokenBuffer(int initialCapacity) {
+            super(initialCapacity);
+            this.tokens = new DefaultList<>(initialCapacity);
+        }
+
+        @Override
+        public boolean add(Token token) {
+            tokens.add(token);
+            return super.add(token);
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends Token> tokens) {
+            this.tokens.addAll(tokens);
+            return super.addAll(tokens);
+        }
+    }
+}
@@ -11,16 +11,20 @@ import junit.framework.TestCase;
 import org.jd.core.v1.api.loader.Loader;
 import org.jd.core.v1.loader.ClassPathLoader;
 import org.jd.core.v1.loader.ZipLoader;
+import org.jd.core.v1.model.classfile.ClassFile;
+import org.jd.core.v1.model.classfile.ConstantPool;
 import org.jd.core.v1.model.classfile.Method;
 import org.jd.core.v1.model.javasyntax.CompilationUnit;
 import org.jd.core.v1.model.javasyntax.declaration.*;
 import org.jd.core.v1.model.message.Message;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.ClassFileToJavaSyntaxProcessor;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.model.cfg.BasicBlock;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.model.cfg.ControlFlowGraph;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.model.cfg.Loop;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.model.javasyntax.declaration.*;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.processor.ConvertClassFileProcessor;
 import org.jd.core.v1.service.converter.classfiletojavasyntax.util.*;
+import org.jd.core.v1.service.deserializer.classfile.ClassFileDeserializer;
 import org.jd.core.v1.service.deserializer.classfile.DeserializeClassFileProcessor;
 import org.jd.core.v1.cfg.ControlFlowGraphPlantUMLWriter;
 import org.junit.Test;
@@ -28,9 +32,12 @@ import org.junit.Test;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.HashSet;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.jd.core.v1.service.converter.classfiletojavasyntax.model.cfg.BasicBlock.*;
 
@@ -2395,6 +2402,125 @@ public class ControlFlowGraphTest extends TestCase {
     }
 
 
+    @Test
+    public void testJdk170ScratchArenaReuse() throws Exception {
+        ZipLoader loader = new ZipLoader(getResource("zip/data-java-jdk-1.7.0.zip"));
+        ClassFileDeserializer classFileDeserializer = new ClassFileDeserializer();
+        int count = 0;
+
+        for (String path : loader.getMap().keySet()) {
+            if (path.endsWith(".class")) {
+                ClassFile classFile = classFileDeserializer.loadClassFile(loader, path.substring(0, path.length() - 6));
+
+                for (Method method : classFile.getMethods()) {
+                    // Arrays of the scratch arena of this thread have been used by the previous methods
+                    String expected = makeAndDumpCFGOnNewThread(method);
+                    String actual = makeAndDumpCFG(method);
+
+                    assertEquals(expected, actual);
+                    count++;
+                }
+            }
+        }
+
+        assertTrue(count > 0);
+    }
+
+    @Test
+    public void testScratchArenaRelease() throws Exception {
+        ZipLoader loader = new ZipLoader(getResource("zip/data-java-jdk-1.7.0.zip"));
+        Message message = new Message();
+
+        message.setHeader("mainInternalTypeName", "org/jd/core/test/TryCatchFinally");
+        message.setHeader("loader", loader);
+
+        deserializer.process(message);
+
+        ClassFile classFile = message.getBody();
+        WeakReference<ConstantPool> constants = new WeakReference<>(classFile.getMethods()[0].getConstants());
+
+        new ClassFileToJavaSyntaxProcessor().process(message);
+
+        // The scratch arena of this thread does not keep the constant pool once the class has been converted
+        classFile = null;
+        message = null;
+
+        for (int i=0; (i<10) && (constants.get() != null); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(constants.get());
+    }
+
+    @Test
+    public void testWatchDog() throws Exception {
+        ControlFlowGraph cfg = new ControlFlowGraph(null);
+        List<BasicBlock> basicBlocks = new ArrayList<>();
+
+        for (int i=0; i<200; i++) {
+            basicBlocks.add(cfg.newBasicBlock(TYPE_STATEMENTS, i, i+1));
+        }
+
+        WatchDog watchdog = new WatchDog();
+
+        for (int round=0; round<2; round++) {
+            // Enough links to grow the table
+            for (int i=0; i<200; i++) {
+                for (int j=0; j<3; j++) {
+                    watchdog.check(basicBlocks.get(i), basicBlocks.get((i + j + 1) % 200));
+                }
+            }
+
+            try {
+                watchdog.check(basicBlocks.get(150), basicBlocks.get(152));
+                fail();
+            } catch (RuntimeException expected) {
+            }
+
+            // Reversed link, and links to end blocks, are not visited twice
+            watchdog.check(basicBlocks.get(152), basicBlocks.get(150));
+            watchdog.check(basicBlocks.get(0), END);
+            watchdog.check(basicBlocks.get(0), END);
+
+            watchdog.clear();
+        }
+    }
+
+    protected static String makeAndDumpCFGOnNewThread(Method method) throws Exception {
+        String[] result = new String[1];
+        Thread thread = new Thread(() -> result[0] = makeAndDumpCFG(method));
+
+        thread.start();
+        thread.join();
+
+        return result[0];
+    }
+
+    protected static String makeAndDumpCFG(Method method) {
+        ControlFlowGraph cfg = ControlFlowGraphMaker.make(method);
+
+        if (cfg == null) {
+            return "";
+        }
+
+        ControlFlowGraphGotoReducer.reduce(cfg);
+        ControlFlowGraphLoopReducer.reduce(cfg);
+
+        StringBuilder sb = new StringBuilder();
+
+        for (BasicBlock basicBlock : cfg.getBasicBlocks()) {
+            sb.append(basicBlock.getIndex()).append(':').append(basicBlock.getTypeName());
+            sb.append(" [").append(basicBlock.getFromOffset()).append(", ").append(basicBlock.getToOffset()).append(']');
+            sb.append(" next=").append((basicBlock.getNext() == null) ? -1 : basicBlock.getNext().getIndex());
+            sb.append(" branch=").append((basicBlock.getBranch() == null) ? -1 : basicBlock.getBranch().getIndex());
+            sb.append(" predecessors=").append(basicBlock.getPredecessors().stream().mapToInt(BasicBlock::getIndex).sorted().boxed().collect(Collectors.toList()));
+            sb.append('\n');
+        }
+
+        return sb.toString();
+    }
+
     protected ControlFlowGraph checkCFGReduction(Method method) throws Exception {
         ControlFlowGraph cfg = ControlFlowGraphMaker.make(method);
 
@@ -2610,17 +2736,7 @@ public class ControlFlowGraphTest extends TestCase {
 
     protected static class SilentWatchDog extends WatchDog {
         public boolean silentCheck(BasicBlock parent, BasicBlock child) {
-            if (!child.matchType(BasicBlock.GROUP_END)) {
-                Link link = new Link(parent, child);
-
-                if (links.contains(link)) {
-                    return false;
-                }
-
-                links.add(link);
-            }
-
-            return true;
+            return child.matchType(BasicBlock.GROUP_END) || add(link(parent, child));
         }
     }
 
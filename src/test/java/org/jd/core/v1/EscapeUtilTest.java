@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1;
+
+import junit.framework.TestCase;
+import org.jd.core.v1.api.printer.CharSink;
+import org.jd.core.v1.model.token.UnescapedStringConstantToken;
+import org.jd.core.v1.printer.ByteChannelPrinter;
+import org.jd.core.v1.util.EscapeUtil;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+public class EscapeUtilTest extends TestCase {
+    @Test
+    public void testEscapeString() throws Exception {
+        String s = "abc";
+        assertSame(s, EscapeUtil.escapeString(s));
+        assertFalse(EscapeUtil.needsEscape(s));
+
+        check("a\\b\"c", "a\\\\b\\\"c");
+        check("\b\f\n\r\t", "\\b\\f\\n\\r\\t");
+        check("\u0001x\u001F", "\\001x\\037");
+        check("été\n", "été\\n");
+        check("😀\"", "😀\\\"");
+    }
+
+    @Test
+    public void testByteChannelPrinter() throws Exception {
+        // Small buffer: the escaped constant is flushed several times
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ByteChannelPrinter printer = new ByteChannelPrinter(Channels.newChannel(baos), ByteBuffer.allocate(8), "  ", null);
+        StringBuilder value = new StringBuilder();
+
+        for (int i=0; i<100; i++) {
+            value.append("é😀\t\"line ").append(i).append('\n');
+        }
+
+        UnescapedStringConstantToken token = new UnescapedStringConstantToken(value.toString(), null);
+
+        printer.start(0, 0, 0);
+        CharSink sink = printer.startStringConstant(null);
+        sink.append('"');
+        token.appendText(sink);
+        sink.append('"');
+        printer.endStringConstant();
+        printer.end();
+
+        assertEquals('"' + EscapeUtil.escapeString(value.toString()) + '"', new String(baos.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(EscapeUtil.escapeString(value.toString()), token.getText());
+    }
+
+    protected static void check(String s, String expected) {
+        assertTrue(EscapeUtil.needsEscape(s));
+        assertEquals(expected, EscapeUtil.escapeString(s));
+        assertEquals(expected.length(), EscapeUtil.escapedLength(s));
+
+        StringBuilder sb = new StringBuilder();
+
+        EscapeUtil.escapeString(s, new CharSink() {
+            @Override public void append(char c) { sb.append(c); }
+            @Override public void append(CharSequence cs, int start, int end) { sb.append(cs, start, end); }
+        });
+
+        assertEquals(expected, sb.toString());
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1;
+
+import junit.framework.TestCase;
+import org.jd.core.v1.loader.ZipLoader;
+import org.jd.core.v1.model.classfile.ClassFile;
+import org.jd.core.v1.model.classfile.ConstantPool;
+import org.jd.core.v1.model.classfile.Method;
+import org.jd.core.v1.model.classfile.attribute.AttributeCode;
+import org.jd.core.v1.model.classfile.constant.ConstantMemberRef;
+import org.jd.core.v1.model.classfile.constant.ConstantNameAndType;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.InstructionStream;
+import org.jd.core.v1.service.deserializer.classfile.ClassFileDeserializer;
+import org.jd.core.v1.util.DefaultList;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.util.List;
+
+public class InstructionStreamTest extends TestCase {
+    protected ClassFileDeserializer deserializer = new ClassFileDeserializer();
+
+    @Test
+    public void testDecode() throws Exception {
+        try (InputStream is = this.getClass().getResourceAsStream("/zip/data-java-jdk-1.7.0.zip")) {
+            List<Method> methods = loadMethods(new ZipLoader(is));
+            int count = 0;
+
+            assertFalse(methods.isEmpty());
+
+            for (Method method : methods) {
+                ConstantPool constants = method.getConstants();
+                byte[] code = method.<AttributeCode>getAttribute("Code").getCode();
+                InstructionStream instructions = new InstructionStream(constants, code);
+                int size = instructions.size();
+
+                assertEquals(0, instructions.getOffset(0));
+                assertEquals(code.length, instructions.getNextOffset(size - 1));
+
+                for (int index=0; index<size; index++) {
+                    int offset = instructions.getOffset(index);
+                    int opcode = instructions.getOpcode(index);
+
+                    assertTrue(offset < instructions.getNextOffset(index));
+                    assertEquals(index, instructions.indexOf(offset));
+                    assertEquals(code[offset] & 255, opcode);
+
+                    switch (opcode) {
+                        case 153: case 154: case 155: case 156: case 157: case 158: case 159: case 160:
+                        case 161: case 162: case 163: case 164: case 165: case 166: case 167: case 168:
+                        case 198: case 199: case 200: case 201:
+                            // Branch targets are instructions
+                            assertEquals(instructions.getOperand(index), instructions.getOffset(instructions.indexOf(instructions.getOperand(index))));
+                            break;
+                        case 170: case 171: // TABLESWITCH, LOOKUPSWITCH
+                            for (int switchOffset : instructions.getSwitchOffsets(index)) {
+                                assertEquals(switchOffset, instructions.getOffset(instructions.indexOf(switchOffset)));
+                            }
+                            break;
+                        case 182: case 183: case 184: case 185: case 186: // INVOKEs
+                            ConstantMemberRef constantMemberRef = constants.getConstant(instructions.getOperand(index));
+                            ConstantNameAndType constantNameAndType = constants.getConstant(constantMemberRef.getNameAndTypeIndex());
+                            String descriptor = constants.getConstantUtf8(constantNameAndType.getDescriptorIndex());
+                            assertEquals(descriptor.endsWith("V"), instructions.isVoidInvocation(index));
+                            count++;
+                            break;
+                    }
+                }
+            }
+
+            assertTrue(count > 0);
+        }
+    }
+
+    protected List<Method> loadMethods(ZipLoader loader) throws Exception {
+        List<Method> methods = new DefaultList<>();
+
+        for (String path : loader.getMap().keySet()) {
+            if (path.endsWith(".class")) {
+                ClassFile classFile = deserializer.loadClassFile(loader, path.substring(0, path.length() - 6));
+
+                if (classFile.getMethods() != null) {
+                    for (Method method : classFile.getMethods()) {
+                        if (method.getAttribute("Code") != null) {
+                            methods.add(method);
+                        }
+                    }
+                }
+            }
+        }
+
+        return methods;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1;
+
+import junit.framework.TestCase;
+import org.jd.core.v1.agent.DecompilerAgent;
+import org.jd.core.v1.loader.InstrumentationLoader;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+public class InstrumentationLoaderTest extends TestCase {
+    @Test
+    public void testAgent() throws Exception {
+        File agent = File.createTempFile("jd-core-agent", ".jar");
+        Manifest manifest = new Manifest();
+        Attributes attributes = manifest.getMainAttributes();
+
+        attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        attributes.putValue("Premain-Class", DecompilerAgent.class.getName());
+        attributes.putValue("Can-Retransform-Classes", "true");
+
+        try {
+            new JarOutputStream(new FileOutputStream(agent), manifest).close();
+
+            // Decompile in a test JVM started with the agent
+            Process process = new ProcessBuilder(
+                    new File(System.getProperty("java.home"), "bin/java").getPath(),
+                    "-javaagent:" + agent.getPath(),
+                    "-cp", System.getProperty("java.class.path"),
+                    Main.class.getName()).redirectErrorStream(true).start();
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+            try (InputStream is = process.getInputStream()) {
+                byte[] buffer = new byte[1024];
+                int read;
+
+                while ((read = is.read(buffer)) > 0) {
+                    output.write(buffer, 0, read);
+                }
+            }
+
+            assertTrue(process.waitFor(60, TimeUnit.SECONDS));
+
+            String source = output.toString("UTF-8");
+
+            assertEquals(source, 0, process.exitValue());
+            // Loaded before the agent, then retransformed
+            assertTrue(source, source.matches("(?s).*public interface Runnable.*void run\\(\\);.*"));
+            // Runtime generated proxy, captured at its definition
+            assertTrue(source, source.matches("(?s).*class \\$Proxy\\d+ extends Proxy implements Runnable.*"));
+            assertTrue(source, source.contains("captureSize > 0"));
+        } finally {
+            agent.delete();
+        }
+    }
+
+    public static class Main {
+        public static void main(String[] args) throws Exception {
+            DecompilerAgent agent = DecompilerAgent.getInstance();
+            InstrumentationLoader loader = agent.getLoader();
+            Class<?> proxyClass = Proxy.newProxyInstance(Main.class.getClassLoader(), new Class<?>[] { Runnable.class }, (proxy, method, arguments) -> null).getClass();
+            String proxyInternalName = proxyClass.getName().replace('.', '/');
+
+            if (!loader.canLoad("java/lang/Runnable") || !loader.canLoad(proxyInternalName) || loader.canLoad("org/jd/core/test/Unknown")) {
+                throw new AssertionError("canLoad");
+            }
+
+            System.out.println(agent.decompile("java/lang/Runnable").get(30, TimeUnit.SECONDS));
+            System.out.println(agent.decompile(proxyInternalName).get(30, TimeUnit.SECONDS));
+            System.out.println((loader.getCaptureSize() > 0) ? "captureSize > 0" : "captureSize = 0");
+
+            agent.close();
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.jd.core.v1.api.printer.Printer;
 import org.jd.core.v1.compiler.CompilerUtil;
 import org.jd.core.v1.compiler.JavaSourceFileObject;
 import org.jd.core.v1.loader.ClassPathLoader;
+import org.jd.core.v1.loader.DirectoryLoader;
 import org.jd.core.v1.loader.ZipLoader;
 import org.jd.core.v1.model.message.Message;
 import org.jd.core.v1.printer.PlainTextPrinter;
@@ -25,6 +26,7 @@ import org.jd.core.v1.service.tokenizer.javafragmenttotoken.JavaFragmentToTokenP
 import org.jd.core.v1.service.writer.WriteTokenProcessor;
 import org.junit.Test;
 
+import java.io.File;
 import java.io.InputStream;
 import java.util.Collections;
 import java.util.Map;
@@ -67,11 +69,42 @@ public class JavaLambdaTest extends TestCase {
         assertTrue(CompilerUtil.compile("1.8", new JavaSourceFileObject(internalClassName, source)));
     }
 
+    @Test
+    public void testManyLambdas() throws Exception {
+        // Synthetic class with 2000 lambdas
+        String internalClassName = "org/jd/core/test/ManyLambdas";
+        StringBuilder sb = new StringBuilder("package org.jd.core.test;\n\npublic class ManyLambdas {\n");
+
+        for (int i=0; i<100; i++) {
+            sb.append("    public java.util.function.IntSupplier[] suppliers").append(i).append("() {\n        return new java.util.function.IntSupplier[] {\n");
+            for (int j=0; j<20; j++) {
+                sb.append("            () -> ").append(i * 20 + j).append(",\n");
+            }
+            sb.append("        };\n    }\n");
+        }
+
+        sb.append("}\n");
+
+        assertTrue(CompilerUtil.compile("1.8", new JavaSourceFileObject(internalClassName, sb.toString())));
+
+        Loader loader = new DirectoryLoader(new File("build/test-recompiled"));
+
+        String source = decompile(loader, new PlainTextPrinter(), internalClassName, Collections.emptyMap(), false);
+
+        assertTrue(source.indexOf("() -> 0,") != -1);
+        assertTrue(source.indexOf("() -> 1999") != -1);
+        assertTrue(source.indexOf("lambda$") == -1);
+    }
+
     protected String decompile(Loader loader, Printer printer, String internalTypeName) throws Exception {
         return decompile(loader, printer, internalTypeName, Collections.emptyMap());
     }
 
     protected String decompile(Loader loader, Printer printer, String internalTypeName, Map<String, Object> configuration) throws Exception {
+        return decompile(loader, printer, internalTypeName, configuration, true);
+    }
+
+    protected String decompile(Loader loader, Printer printer, String internalTypeName, Map<String, Object> configuration, boolean print) throws Exception {
         Message message = new Message();
         message.setHeader("loader", loader);
         message.setHeader("printer", printer);
@@ -87,7 +120,9 @@ public class JavaLambdaTest extends TestCase {
 
         String source = printer.toString();
 
-        printSource(source);
+        if (print) {
+            printSource(source);
+        }
 
         assertTrue(source.indexOf("// Byte code:") == -1);
 
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1;
+
+import junit.framework.TestCase;
+import org.jd.core.v1.model.javasyntax.type.PrimitiveType;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.model.localvariable.AbstractLocalVariable;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.model.localvariable.Frame;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.model.localvariable.PrimitiveLocalVariable;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.model.localvariable.RootFrame;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.model.localvariable.ScopedNameSet;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+public class LocalVariableNamesTest extends TestCase {
+    @Test
+    public void testScopedNameSet() throws Exception {
+        HashSet<String> base = new HashSet<>(Arrays.asList("a", "b"));
+        ScopedNameSet names = new ScopedNameSet(base);
+        int mark0 = names.mark();
+
+        assertFalse(names.add("a"));
+        assertTrue(names.add("c"));
+
+        int mark1 = names.mark();
+
+        assertTrue(names.add("d"));
+        assertTrue(names.contains("d"));
+
+        names.reset(mark1);
+
+        assertFalse(names.contains("d"));
+        assertTrue(names.contains("c"));
+
+        names.reset(mark0);
+
+        assertEquals(new HashSet<>(Arrays.asList("a", "b")), base);
+    }
+
+    @Test
+    public void testNestedFrames() throws Exception {
+        // Nested frames see the names of their parents, sibling frames do not see each other
+        HashSet<String> blackListNames = new HashSet<>(Arrays.asList("k"));
+        Frame root = new RootFrame();
+        AbstractLocalVariable lv0 = addLocalVariable(root, 0, null);
+        Frame child1 = newChild(root);
+        AbstractLocalVariable lv1 = addLocalVariable(child1, 1, null);
+        Frame grandChild = newChild(child1);
+        AbstractLocalVariable lv2 = addLocalVariable(grandChild, 2, null);
+        Frame child2 = newChild(root);
+        AbstractLocalVariable lv3 = addLocalVariable(child2, 1, null);
+
+        root.createNames(blackListNames);
+
+        assertEquals("i", lv0.getName());
+        assertEquals("j", lv1.getName());
+        assertEquals("m", lv2.getName());
+        assertEquals("j", lv3.getName());
+        assertEquals(new HashSet<>(Arrays.asList("k")), blackListNames);
+    }
+
+    @Test
+    public void testDeepNesting() throws Exception {
+        // Name a method containing 2000 nested blocks declaring a named 'int' each, and an unnamed 'int' in the
+        // innermost block
+        int depth = 2000;
+        Frame root = new RootFrame();
+        Frame frame = root;
+
+        for (int j=0; j<depth; j++) {
+            addLocalVariable(frame, j, "value" + j);
+            frame = newChild(frame);
+        }
+
+        AbstractLocalVariable lv = addLocalVariable(frame, depth, null);
+        HashSet<String> blackListNames = new HashSet<>();
+
+        root.createNames(blackListNames);
+
+        assertEquals("i", lv.getName());
+        assertTrue(blackListNames.isEmpty());
+    }
+
+    protected static Frame newChild(Frame parent) {
+        Frame child = new Frame(parent, null);
+        parent.addChild(child);
+        return child;
+    }
+
+    protected static AbstractLocalVariable addLocalVariable(Frame frame, int index, String name) {
+        AbstractLocalVariable lv = new PrimitiveLocalVariable(index, 0, PrimitiveType.TYPE_INT, name);
+        frame.addLocalVariable(lv);
+        return lv;
+    }
+}
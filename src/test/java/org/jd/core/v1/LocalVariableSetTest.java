@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1;
+
+import junit.framework.TestCase;
+import org.jd.core.v1.api.loader.Loader;
+import org.jd.core.v1.compiler.CompilerUtil;
+import org.jd.core.v1.compiler.JavaSourceFileObject;
+import org.jd.core.v1.loader.DirectoryLoader;
+import org.jd.core.v1.model.javasyntax.type.PrimitiveType;
+import org.jd.core.v1.model.message.Message;
+import org.jd.core.v1.printer.PlainTextPrinter;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.ClassFileToJavaSyntaxProcessor;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.model.localvariable.AbstractLocalVariable;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.model.localvariable.LocalVariableSet;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.model.localvariable.PrimitiveLocalVariable;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.model.localvariable.RootFrame;
+import org.jd.core.v1.service.deserializer.classfile.DeserializeClassFileProcessor;
+import org.jd.core.v1.service.fragmenter.javasyntaxtojavafragment.JavaSyntaxToJavaFragmentProcessor;
+import org.jd.core.v1.service.layouter.LayoutFragmentProcessor;
+import org.jd.core.v1.service.tokenizer.javafragmenttotoken.JavaFragmentToTokenProcessor;
+import org.jd.core.v1.service.writer.WriteTokenProcessor;
+import org.junit.Test;
+
+import java.io.File;
+
+public class LocalVariableSetTest extends TestCase {
+    protected DeserializeClassFileProcessor deserializer = new DeserializeClassFileProcessor();
+    protected ClassFileToJavaSyntaxProcessor converter = new ClassFileToJavaSyntaxProcessor();
+    protected JavaSyntaxToJavaFragmentProcessor fragmenter = new JavaSyntaxToJavaFragmentProcessor();
+    protected LayoutFragmentProcessor layouter = new LayoutFragmentProcessor();
+    protected JavaFragmentToTokenProcessor tokenizer = new JavaFragmentToTokenProcessor();
+    protected WriteTokenProcessor writer = new WriteTokenProcessor();
+
+    @Test
+    public void testLookup() throws Exception {
+        LocalVariableSet set = new LocalVariableSet();
+        AbstractLocalVariable lv0 = newLocalVariable(1, 0);
+        AbstractLocalVariable lv10 = newLocalVariable(1, 10);
+        AbstractLocalVariable lv20a = newLocalVariable(1, 20);
+        AbstractLocalVariable lv20b = newLocalVariable(1, 20);
+        AbstractLocalVariable lv30 = newLocalVariable(1, 30);
+
+        set.add(1, lv10);
+        set.add(1, lv30);
+        set.add(1, lv0);
+        set.add(1, lv20a);
+        set.add(1, lv20b);
+        set.add(25, newLocalVariable(25, 5));
+
+        assertNull(set.get(0, 10));
+        assertNull(set.get(100, 10));
+        assertSame(lv0, set.root(1));
+        assertSame(lv0, set.get(1, 5));
+        assertSame(lv10, set.get(1, 19));
+        assertSame(lv20b, set.get(1, 20));
+        assertSame(lv30, set.get(1, 1000));
+
+        assertSame(lv20b, set.remove(1, 25));
+        assertSame(lv20a, set.remove(1, 25));
+        assertSame(lv10, set.remove(1, 25));
+        assertNull(set.get(25, 4));
+
+        RootFrame rootFrame = new RootFrame();
+        AbstractLocalVariable[] cache = set.initialize(rootFrame);
+
+        assertSame(lv0, cache[1]);
+        assertSame(lv0, rootFrame.getLocalVariable(1));
+        assertSame(lv30, set.root(1));
+        assertSame(lv30, set.remove(1, 30));
+        assertNull(set.remove(1, 30));
+        assertFalse(set.isEmpty());
+    }
+
+    @Test
+    public void testSlotHeavyMethod() throws Exception {
+        // Synthetic serializer storing 3000 short-lived variables in the same 4 slots
+        String internalClassName = "org/jd/core/test/SlotHeavySerializer";
+        StringBuilder sb = new StringBuilder("package org.jd.core.test;\n\npublic class SlotHeavySerializer {\n");
+
+        sb.append("    public int write(Object[] values, StringBuilder sb) {\n        int total = 0;\n");
+
+        for (int i=0; i<1000; i++) {
+            sb.append("        {\n");
+            sb.append("            String value").append(i).append(" = String.valueOf(values[").append(i).append("]);\n");
+            sb.append("            int length").append(i).append(" = value").append(i).append(".length();\n");
+            sb.append("            long hash").append(i).append(" = value").append(i).append(".hashCode() + length").append(i).append(";\n");
+            sb.append("            sb.append(value").append(i).append(").append(hash").append(i).append(");\n");
+            sb.append("            total += length").append(i).append(";\n");
+            sb.append("        }\n");
+        }
+
+        sb.append("        return total;\n    }\n}\n");
+
+        assertTrue(CompilerUtil.compile("1.8", true, new JavaSourceFileObject(internalClassName, sb.toString())));
+
+        Loader loader = new DirectoryLoader(new File("build/test-recompiled"));
+
+        String source = decompile(loader, internalClassName);
+
+        assertTrue(source.indexOf("String value0 = String.valueOf(values[0]);") != -1);
+        assertTrue(source.indexOf("int length999 = value999.length();") != -1);
+        assertTrue(source.indexOf("long hash999 = (value999.hashCode() + length999);") != -1);
+
+        // Recompile decompiled source code and check errors
+        assertTrue(CompilerUtil.compile("1.8", new JavaSourceFileObject(internalClassName, source)));
+    }
+
+    protected static AbstractLocalVariable newLocalVariable(int index, int offset) {
+        return new PrimitiveLocalVariable(index, offset, PrimitiveType.TYPE_INT, null);
+    }
+
+    protected String decompile(Loader loader, String internalTypeName) throws Exception {
+        PlainTextPrinter printer = new PlainTextPrinter();
+        Message message = new Message();
+
+        message.setHeader("mainInternalTypeName", internalTypeName);
+        message.setHeader("loader", loader);
+        message.setHeader("printer", printer);
+
+        deserializer.process(message);
+        converter.process(message);
+        fragmenter.process(message);
+        layouter.process(message);
+        tokenizer.process(message);
+        writer.process(message);
+
+        return printer.toString();
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1;
+
+import junit.framework.TestCase;
+import org.jd.core.v1.loader.ZipLoader;
+import org.jd.core.v1.model.classfile.ClassFile;
+import org.jd.core.v1.model.classfile.ConstantPool;
+import org.jd.core.v1.model.classfile.Field;
+import org.jd.core.v1.model.classfile.Method;
+import org.jd.core.v1.model.classfile.attribute.AttributeCode;
+import org.jd.core.v1.model.javafragment.JavaFragment;
+import org.jd.core.v1.model.message.Message;
+import org.jd.core.v1.model.processor.Processor;
+import org.jd.core.v1.printer.PlainTextPrinter;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.ClassFileToJavaSyntaxProcessor;
+import org.jd.core.v1.service.deserializer.classfile.DeserializeClassFileProcessor;
+import org.jd.core.v1.service.fragmenter.javasyntaxtojavafragment.JavaSyntaxToJavaFragmentProcessor;
+import org.jd.core.v1.service.layouter.LayoutFragmentProcessor;
+import org.jd.core.v1.service.tokenizer.javafragmenttotoken.JavaFragmentToTokenProcessor;
+import org.jd.core.v1.service.writer.WriteTokenProcessor;
+import org.jd.core.v1.util.DefaultList;
+import org.junit.Test;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+
+public class MemoryReleaseTest extends TestCase {
+    protected Processor[] processors = {
+        new DeserializeClassFileProcessor(), new ClassFileToJavaSyntaxProcessor(), new JavaSyntaxToJavaFragmentProcessor(),
+        new LayoutFragmentProcessor(), new JavaFragmentToTokenProcessor(), new WriteTokenProcessor()
+    };
+
+    @Test
+    public void testReleasedClassFile() throws Exception {
+        try (InputStream is = new FileInputStream(getCommonsLang3File())) {
+            ZipLoader loader = new ZipLoader(is);
+            Message message = process(loader, "org/apache/commons/lang3/text/StrBuilder", true, 1);
+            ClassFile classFile = message.getBody();
+            List<AttributeCode> attributeCodes = new DefaultList<>();
+            WeakReference<ConstantPool> constants = new WeakReference<>(classFile.getMethods()[0].getConstants());
+
+            collectAttributeCodes(classFile, attributeCodes);
+
+            assertFalse(attributeCodes.isEmpty());
+            assertNotNull(constants.get());
+
+            processors[1].process(message);
+
+            // Byte code released after the creation of the statements, attributes after the conversion
+            for (AttributeCode attributeCode : attributeCodes) {
+                assertTrue(attributeCode.isReleased());
+                assertNull(attributeCode.getExceptionTable());
+            }
+
+            assertReleased(classFile);
+            assertNotNull(classFile.getMethods()[0].getName());
+
+            // The compilation unit in the message no longer retains the constant pool
+            assertNotNull(message.getBody());
+
+            for (int i=0; (i<10) && (constants.get() != null); i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+
+            assertNull(constants.get());
+        }
+    }
+
+    @Test
+    public void testReleasedFragments() throws Exception {
+        try (InputStream is = new FileInputStream(getCommonsLang3File())) {
+            ZipLoader loader = new ZipLoader(is);
+            Message message = process(loader, "org/apache/commons/lang3/text/StrBuilder", true, 4);
+            List<JavaFragment> fragments = message.getBody();
+
+            assertFalse(fragments.isEmpty());
+
+            processors[4].process(message);
+
+            // Fragments released as they are tokenized
+            assertNotSame(fragments, message.getBody());
+            assertFalse(((List<?>)message.getBody()).isEmpty());
+
+            for (JavaFragment fragment : fragments) {
+                assertNull(fragment);
+            }
+        }
+    }
+
+    @Test
+    public void testModelsKeptByDefault() throws Exception {
+        try (InputStream is = new FileInputStream(getCommonsLang3File())) {
+            ZipLoader loader = new ZipLoader(is);
+            Message message = process(loader, "org/apache/commons/lang3/text/StrBuilder", false, 1);
+            ClassFile classFile = message.getBody();
+            List<AttributeCode> attributeCodes = new DefaultList<>();
+
+            collectAttributeCodes(classFile, attributeCodes);
+
+            for (int i=1; i<4; i++) {
+                processors[i].process(message);
+            }
+
+            // The class file of the caller is left intact
+            for (AttributeCode attributeCode : attributeCodes) {
+                assertFalse(attributeCode.isReleased());
+            }
+
+            assertNotNull(classFile.getMethods()[0].getConstants());
+
+            // The fragment list of the caller is left intact, and may be unmodifiable
+            List<JavaFragment> fragments = Collections.unmodifiableList(message.getBody());
+
+            message.setBody(fragments);
+            processors[4].process(message);
+
+            assertFalse(((List<?>)message.getBody()).isEmpty());
+
+            for (JavaFragment fragment : fragments) {
+                assertNotNull(fragment);
+            }
+        }
+    }
+
+    protected static void collectAttributeCodes(ClassFile classFile, List<AttributeCode> attributeCodes) {
+        for (Method method : classFile.getMethods()) {
+            AttributeCode attributeCode = method.getAttribute("Code");
+
+            if (attributeCode != null) {
+                attributeCodes.add(attributeCode);
+            }
+        }
+
+        if (classFile.getInnerClassFiles() != null) {
+            for (ClassFile innerClassFile : classFile.getInnerClassFiles()) {
+                collectAttributeCodes(innerClassFile, attributeCodes);
+            }
+        }
+    }
+
+    protected static void assertReleased(ClassFile classFile) {
+        assertNull(classFile.getAttribute("SourceFile"));
+
+        if (classFile.getFields() != null) {
+            for (Field field : classFile.getFields()) {
+                assertNull(field.getAttribute("Signature"));
+                assertNull(field.getAttribute("ConstantValue"));
+            }
+        }
+
+        for (Method method : classFile.getMethods()) {
+            assertNull(method.getAttribute("Code"));
+            assertNull(method.getAttribute("Exceptions"));
+            assertNull(method.getConstants());
+        }
+
+        if (classFile.getInnerClassFiles() != null) {
+            for (ClassFile innerClassFile : classFile.getInnerClassFiles()) {
+                assertReleased(innerClassFile);
+            }
+        }
+    }
+
+    protected Message process(ZipLoader loader, String internalTypeName, boolean releaseModels, int stageCount) throws Exception {
+        Message message = new Message();
+
+        message.setHeader("mainInternalTypeName", internalTypeName);
+        message.setHeader("loader", loader);
+        message.setHeader("printer", new PlainTextPrinter());
+        message.setHeader("releaseModels", releaseModels);
+
+        for (int i=0; i<stageCount; i++) {
+            processors[i].process(message);
+        }
+
+        return message;
+    }
+
+    protected static java.io.File getCommonsLang3File() throws Exception {
+        Class clazz = org.apache.commons.lang3.JavaVersion.class;
+        return Paths.get(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()).toFile();
+    }
+}
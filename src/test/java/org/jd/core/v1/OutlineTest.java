@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1;
+
+import junit.framework.TestCase;
+import org.jd.core.v1.api.loader.Loader;
+import org.jd.core.v1.compiler.CompilerUtil;
+import org.jd.core.v1.compiler.JavaSourceFileObject;
+import org.jd.core.v1.loader.ClassPathLoader;
+import org.jd.core.v1.loader.DirectoryLoader;
+import org.jd.core.v1.loader.ZipLoader;
+import org.jd.core.v1.model.message.Message;
+import org.jd.core.v1.printer.PlainTextPrinter;
+import org.jd.core.v1.regex.PatternMaker;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.ClassFileToJavaSyntaxProcessor;
+import org.jd.core.v1.service.deserializer.classfile.DeserializeClassFileProcessor;
+import org.jd.core.v1.service.fragmenter.javasyntaxtojavafragment.JavaSyntaxToJavaFragmentProcessor;
+import org.jd.core.v1.service.layouter.LayoutFragmentProcessor;
+import org.jd.core.v1.service.tokenizer.javafragmenttotoken.JavaFragmentToTokenProcessor;
+import org.jd.core.v1.service.writer.WriteTokenProcessor;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class OutlineTest extends TestCase {
+    protected DeserializeClassFileProcessor deserializer = new DeserializeClassFileProcessor();
+    protected ClassFileToJavaSyntaxProcessor converter = new ClassFileToJavaSyntaxProcessor();
+    protected JavaSyntaxToJavaFragmentProcessor fragmenter = new JavaSyntaxToJavaFragmentProcessor();
+    protected LayoutFragmentProcessor layouter = new LayoutFragmentProcessor();
+    protected JavaFragmentToTokenProcessor tokenizer = new JavaFragmentToTokenProcessor();
+    protected WriteTokenProcessor writer = new WriteTokenProcessor();
+
+    static class Sample {
+        protected static final Map<String, Integer> CACHE = new HashMap<>();
+
+        static {
+            CACHE.put("one", 1);
+        }
+
+        protected final int value;
+
+        public Sample(int value) {
+            this.value = value;
+        }
+
+        public Sample() {
+            this(Integer.parseInt("2"));
+        }
+
+        public int sum(List<Integer> values) {
+            return values.stream().mapToInt(i -> i + value).sum();
+        }
+
+        public enum Color {
+            RED("r"), GREEN("g");
+
+            private final String code;
+
+            Color(String code) {
+                this.code = code;
+            }
+
+            public String getCode() {
+                return code;
+            }
+        }
+
+        public class Inner {
+            public int get() {
+                return value;
+            }
+        }
+    }
+
+    @Test
+    public void testOutline() throws Exception {
+        String internalClassName = Sample.class.getName().replace('.', '/');
+        String source = decompile(new ClassPathLoader(), internalClassName, Collections.singletonMap("outline", "true"));
+
+        // Check decompiled source code
+        assertTrue(source.matches(PatternMaker.make("public Sample(int ")));
+        assertTrue(source.matches(PatternMaker.make(": 59 */", "this(Integer.parseInt(\"2\"));")));
+        assertTrue(source.matches(PatternMaker.make("public int sum(List<Integer> ")));
+        assertTrue(source.matches(PatternMaker.make(": 67 */", "RED(\"r\"),")));
+        assertTrue(source.matches(PatternMaker.make(": 67 */", "GREEN(\"g\");")));
+        assertTrue(source.matches(PatternMaker.make("public class Inner {")));
+        assertEquals(6, source.split("throw new RuntimeException\\(\"Stub!\"\\);").length - 1);
+        assertTrue(source.indexOf("static {") == -1);
+        assertTrue(source.indexOf("CACHE.put") == -1);
+        assertTrue(source.indexOf("mapToInt") == -1);
+
+        // Recompile decompiled source code and check errors
+        assertTrue(CompilerUtil.compile("1.8", new JavaSourceFileObject(internalClassName, source)));
+    }
+
+    @Test
+    public void testSyntheticAccessors() throws Exception {
+        // The field initializer of the nested class calls a private method of the outer class through 'access$000'
+        String internalClassName = "org/jd/core/test/Accessors";
+        String source =
+            "package org.jd.core.test;\n\n" +
+            "public class Accessors {\n" +
+            "    private static int compute(int value) {\n" +
+            "        return value * 2;\n" +
+            "    }\n\n" +
+            "    public static class Holder {\n" +
+            "        protected final int value = compute(21);\n" +
+            "    }\n" +
+            "}\n";
+
+        assertTrue(CompilerUtil.compile("1.8", new JavaSourceFileObject(internalClassName, source)));
+
+        source = decompile(new DirectoryLoader(new File("build/test-recompiled")), internalClassName, Collections.singletonMap("outline", "true"));
+
+        // Check decompiled source code
+        assertTrue(source.matches(PatternMaker.make(": 9 */", "protected final int value = Accessors.compute(21);")));
+        assertTrue(source.indexOf("access$") == -1);
+
+        // Recompile decompiled source code and check errors
+        assertTrue(CompilerUtil.compile("1.8", new JavaSourceFileObject(internalClassName, source)));
+    }
+
+    @Test
+    public void testCommonsLang3() throws Exception {
+        // Recompile the outline of the classes of 'org.apache.commons:commons-lang3:3.9'
+        Class clazz = org.apache.commons.lang3.JavaVersion.class;
+
+        try (InputStream is = new FileInputStream(Paths.get(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()).toFile())) {
+            ZipLoader loader = new ZipLoader(is);
+            Map<String, Object> configuration = Collections.singletonMap("outline", "true");
+            int classCounter = 0;
+            int recompilationFailedCounter = 0;
+
+            for (String path : loader.getMap().keySet()) {
+                if (path.endsWith(".class") && (path.indexOf('$') == -1)) {
+                    String internalTypeName = path.substring(0, path.length() - 6);
+                    String source = decompile(loader, internalTypeName, configuration);
+
+                    classCounter++;
+
+                    if (!CompilerUtil.compile("1.8", new JavaSourceFileObject(internalTypeName, source))) {
+                        recompilationFailedCounter++;
+                    }
+                }
+            }
+
+            assertTrue(classCounter > 0);
+            assertEquals(0, recompilationFailedCounter);
+        }
+    }
+
+    protected String decompile(Loader loader, String internalTypeName, Map<String, Object> configuration) throws Exception {
+        PlainTextPrinter printer = new PlainTextPrinter();
+        Message message = new Message();
+
+        message.setHeader("mainInternalTypeName", internalTypeName);
+        message.setHeader("loader", loader);
+        message.setHeader("printer", printer);
+        message.setHeader("configuration", configuration);
+
+        deserializer.process(message);
+        converter.process(message);
+        fragmenter.process(message);
+        layouter.process(message);
+        tokenizer.process(message);
+        writer.process(message);
+
+        return printer.toString();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1;
+
+import junit.framework.TestCase;
+import org.jd.core.v1.api.printer.ProgressivePrinter;
+import org.jd.core.v1.loader.ZipLoader;
+import org.jd.core.v1.printer.PlainTextPrinter;
+import org.jd.core.v1.util.DefaultList;
+import org.junit.Test;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.List;
+
+public class ProgressiveDecompilerTest extends TestCase {
+    protected ClassFileToJavaSourceDecompiler decompiler = new ClassFileToJavaSourceDecompiler();
+    protected ProgressiveClassFileToJavaSourceDecompiler progressiveDecompiler = new ProgressiveClassFileToJavaSourceDecompiler();
+
+    @Test
+    public void testProgressiveDecompilation() throws Exception {
+        try (InputStream is = new FileInputStream(getCommonsLang3File())) {
+            ZipLoader loader = new ZipLoader(is);
+            String internalTypeName = "org/apache/commons/lang3/StringUtils";
+            ProgressivePlainTextPrinter progressivePrinter = new ProgressivePlainTextPrinter();
+            PlainTextPrinter printer = new PlainTextPrinter();
+
+            progressiveDecompiler.decompile(loader, progressivePrinter, internalTypeName);
+            decompiler.decompile(loader, printer, internalTypeName);
+
+            // Outline first, then progress, then complete source
+            assertEquals(ProgressivePrinter.OUTLINE, (int)progressivePrinter.phases.get(0));
+            assertEquals(ProgressivePrinter.SOURCE, (int)progressivePrinter.phases.get(1));
+            assertTrue(progressivePrinter.outline.contains("public static boolean isBlank(CharSequence "));
+            assertTrue(progressivePrinter.outline.contains("throw new RuntimeException(\"Stub!\");"));
+            assertTrue(progressivePrinter.methods.contains("isBlank(Ljava/lang/CharSequence;)Z"));
+            assertTrue(progressivePrinter.methodCountBeforeOutline == 0);
+            assertTrue(progressivePrinter.methodCountBeforeSource == progressivePrinter.methods.size());
+
+            // The complete source is the same as the one of the regular decompiler
+            assertEquals(printer.toString(), progressivePrinter.toString());
+        }
+    }
+
+    protected static java.io.File getCommonsLang3File() throws Exception {
+        Class clazz = org.apache.commons.lang3.JavaVersion.class;
+        return Paths.get(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()).toFile();
+    }
+
+    protected static class ProgressivePlainTextPrinter extends PlainTextPrinter implements ProgressivePrinter {
+        protected List<Integer> phases = new DefaultList<>();
+        protected List<String> methods = new DefaultList<>();
+        protected String outline;
+        protected int methodCountBeforeOutline = -1;
+        protected int methodCountBeforeSource = -1;
+
+        @Override
+        public void startPhase(int phase) {
+            phases.add(phase);
+
+            if (phase == OUTLINE) {
+                methodCountBeforeOutline = methods.size();
+            } else {
+                methodCountBeforeSource = methods.size();
+            }
+        }
+
+        @Override
+        public void methodDecompiled(String internalTypeName, String name, String descriptor) {
+            methods.add(name + descriptor);
+        }
+
+        @Override
+        public void end() {
+            if (phases.size() == 1) {
+                outline = toString();
+                init();
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1;
+
+import junit.framework.TestCase;
+import org.jd.core.v1.util.SmallMap;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+public class SmallMapTest extends TestCase {
+    @Test
+    public void testSmallMap() throws Exception {
+        SmallMap<String, String> map = new SmallMap<>();
+        HashMap<String, String> expected = new HashMap<>();
+
+        assertTrue(map.isEmpty());
+        assertNull(map.get("T"));
+
+        for (int i=0; i<10; i++) {
+            assertEquals(expected.put("T" + i, "V" + i), map.put("T" + i, "V" + i));
+        }
+
+        assertEquals(expected.put("T3", null), map.put("T3", null));
+        assertEquals(expected.put(null, "N"), map.put(null, "N"));
+        assertEquals(expected, map);
+        assertEquals(expected.hashCode(), map.hashCode());
+        assertTrue(map.containsKey("T3"));
+        assertTrue(map.containsValue(null));
+        assertEquals("N", map.get(null));
+
+        assertEquals(expected.remove("T0"), map.remove("T0"));
+        assertEquals(expected.remove("T9"), map.remove("T9"));
+        assertNull(map.remove("T9"));
+        assertEquals(expected, map);
+
+        // Update and remove through the entry set
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            if (entry.getValue() == null) {
+                entry.setValue("W");
+            }
+        }
+
+        assertEquals("W", map.get("T3"));
+
+        Iterator<Map.Entry<String, String>> iterator = map.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            if (iterator.next().getKey() == null) {
+                iterator.remove();
+            }
+        }
+
+        assertFalse(map.containsKey(null));
+        assertEquals(expected.size() - 1, map.size());
+
+        // Copy
+        SmallMap<String, String> copy = new SmallMap<>();
+        copy.putAll(map);
+        assertEquals(map, copy);
+        copy.put("T1", "X");
+        assertEquals("V1", map.get("T1"));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.entrySet().iterator().hasNext());
+    }
+}
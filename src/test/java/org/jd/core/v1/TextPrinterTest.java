@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1;
+
+import junit.framework.TestCase;
+import org.jd.core.v1.api.loader.Loader;
+import org.jd.core.v1.api.printer.CharSink;
+import org.jd.core.v1.loader.ZipLoader;
+import org.jd.core.v1.printer.ByteChannelPrinter;
+import org.jd.core.v1.printer.WriterPrinter;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+public class TextPrinterTest extends TestCase {
+    protected ClassFileToJavaSourceDecompiler decompiler = new ClassFileToJavaSourceDecompiler();
+
+    @Test
+    public void testWriterPrinter() throws Exception {
+        InputStream is = this.getClass().getResourceAsStream("/zip/data-java-jdk-1.7.0.zip");
+        Loader loader = new ZipLoader(is);
+        Map<String, Object> configuration = Collections.singletonMap("realignLineNumbers", Boolean.TRUE);
+        StringWriter source = new StringWriter();
+        StringWriter mapping = new StringWriter();
+        WriterPrinter printer = new WriterPrinter(source, mapping);
+
+        decompiler.decompile(loader, printer, "org/jd/core/test/Basic", configuration);
+
+        assertTrue(source.toString().indexOf("char c2 = '€';") != -1);
+        assertTrue(source.toString().indexOf("\n        System.out.println(\"hello\");\n") != -1);
+        assertTrue(mapping.toString().indexOf("\n26:26\n") != -1);
+        assertEquals(source.toString().split("\n", -1).length - 1, printer.getRealLineNumber());
+    }
+
+    @Test
+    public void testByteChannelPrinter() throws Exception {
+        InputStream is = this.getClass().getResourceAsStream("/zip/data-java-jdk-1.7.0.zip");
+        Loader loader = new ZipLoader(is);
+        StringWriter expected = new StringWriter();
+        StringWriter expectedMapping = new StringWriter();
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        StringWriter actualMapping = new StringWriter();
+
+        decompiler.decompile(loader, new WriterPrinter(expected, expectedMapping), "org/jd/core/test/Basic");
+
+        // Use a small buffer to flush often
+        ByteChannelPrinter printer = new ByteChannelPrinter(Channels.newChannel(actual), ByteBuffer.allocate(16), "    ", actualMapping);
+
+        decompiler.decompile(loader, printer, "org/jd/core/test/Basic");
+
+        assertEquals(expected.toString(), new String(actual.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(expectedMapping.toString(), actualMapping.toString());
+    }
+
+    @Test
+    public void testByteChannelPrinterSurrogatePairs() throws Exception {
+        String value = "a😀b\uD83Dc\uDE00d😀";
+        String expected = "a😀b?c?d😀?";
+
+        // Buffers of 4 to 8 bytes: some pairs are split between two flushes
+        for (int capacity=4; capacity<=8; capacity++) {
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            ByteChannelPrinter printer = new ByteChannelPrinter(Channels.newChannel(actual), ByteBuffer.allocate(capacity), "    ", null);
+
+            printer.start(0, 0, 0);
+            CharSink sink = printer.startStringConstant(null);
+
+            // Char by char, as the string constant escaper does
+            for (int i=0; i<value.length(); i++) {
+                sink.append(value.charAt(i));
+            }
+
+            // Unpaired high surrogate at the end of the source
+            sink.append('\uD83D');
+            printer.endStringConstant();
+            printer.end();
+
+            assertEquals(expected, new String(actual.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+}
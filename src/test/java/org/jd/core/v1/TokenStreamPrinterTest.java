@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1;
+
+import junit.framework.TestCase;
+import org.jd.core.v1.api.loader.Loader;
+import org.jd.core.v1.api.printer.TokenStream;
+import org.jd.core.v1.api.printer.TokenStreamPrinter;
+import org.jd.core.v1.loader.ZipLoader;
+import org.jd.core.v1.printer.PlainTextPrinter;
+import org.jd.core.v1.util.DefaultList;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class TokenStreamPrinterTest extends TestCase {
+    protected ClassFileToJavaSourceDecompiler decompiler = new ClassFileToJavaSourceDecompiler();
+
+    @Test
+    public void testJdk170Basic() throws Exception {
+        test("org/jd/core/test/Basic", Collections.singletonMap("realignLineNumbers", Boolean.TRUE));
+    }
+
+    @Test
+    public void testJdk170GenericClass() throws Exception {
+        test("org/jd/core/test/GenericClass", Collections.emptyMap());
+    }
+
+    @Test
+    public void testSubscription() throws Exception {
+        InputStream is = this.getClass().getResourceAsStream("/zip/data-java-jdk-1.7.0.zip");
+        Loader loader = new ZipLoader(is);
+        RecordTokenStreamPrinter printer = new RecordTokenStreamPrinter(TokenStreamPrinter.DECLARATION);
+
+        decompiler.decompile(loader, printer, "org/jd/core/test/Basic");
+
+        assertFalse(printer.records.isEmpty());
+
+        for (String record : printer.records) {
+            assertTrue(record.startsWith("D "));
+        }
+
+        assertTrue(printer.records.contains("D 1 org/jd/core/test/Basic Basic null"));
+    }
+
+    protected void test(String internalTypeName, Map<String, Object> configuration) throws Exception {
+        InputStream is = this.getClass().getResourceAsStream("/zip/data-java-jdk-1.7.0.zip");
+        Loader loader = new ZipLoader(is);
+        RecordPrinter expected = new RecordPrinter();
+        RecordTokenStreamPrinter actual = new RecordTokenStreamPrinter(TokenStreamPrinter.DECLARATION | TokenStreamPrinter.REFERENCE | TokenStreamPrinter.LINE_NUMBER);
+
+        decompiler.decompile(loader, expected, internalTypeName, configuration);
+        decompiler.decompile(loader, actual, internalTypeName, configuration);
+
+        assertFalse(expected.records.isEmpty());
+        assertEquals(expected.records, actual.records);
+    }
+
+    protected static class RecordPrinter extends PlainTextPrinter {
+        public List<String> records = new DefaultList<>();
+        protected int lineNumber;
+
+        @Override
+        public void startLine(int lineNumber) {
+            super.startLine(lineNumber);
+            this.lineNumber = lineNumber;
+            if (lineNumber != UNKNOWN_LINE_NUMBER) {
+                records.add("L @" + lineNumber + "/" + realLineNumber);
+            }
+        }
+
+        @Override
+        public void printDeclaration(int type, String internalTypeName, String name, String descriptor) {
+            records.add("D " + type + " " + internalTypeName + " " + name + " " + descriptor + " @" + lineNumber + "/" + realLineNumber);
+        }
+
+        @Override
+        public void printReference(int type, String internalTypeName, String name, String descriptor, String ownerInternalName) {
+            records.add("R " + type + " " + internalTypeName + " " + name + " " + descriptor + " " + ownerInternalName + " @" + lineNumber + "/" + realLineNumber);
+        }
+    }
+
+    protected static class RecordTokenStreamPrinter implements TokenStreamPrinter {
+        public List<String> records = new DefaultList<>();
+        protected int tokenKinds;
+
+        public RecordTokenStreamPrinter(int tokenKinds) {
+            this.tokenKinds = tokenKinds;
+        }
+
+        @Override public void start(int maxLineNumber, int majorVersion, int minorVersion) {}
+        @Override public void end() {}
+
+        @Override
+        public int getTokenKinds() {
+            return tokenKinds;
+        }
+
+        @Override
+        public void printTokenStream(TokenStream stream) {
+            for (int i=0, len=stream.size(); i<len; i++) {
+                String position = " @" + stream.getLineNumber(i) + "/" + stream.getRealLineNumber(i);
+
+                switch (stream.getKind(i)) {
+                    case LINE_NUMBER:
+                        records.add("L" + position);
+                        break;
+                    case DECLARATION:
+                        records.add("D " + stream.getType(i) + " " + stream.getString(stream.getInternalTypeNameId(i)) + " " + stream.getString(stream.getNameId(i)) + " " + stream.getString(stream.getDescriptorId(i)) + ((tokenKinds & LINE_NUMBER) != 0 ? position : ""));
+                        break;
+                    case REFERENCE:
+                        records.add("R " + stream.getType(i) + " " + stream.getString(stream.getInternalTypeNameId(i)) + " " + stream.getString(stream.getNameId(i)) + " " + stream.getString(stream.getDescriptorId(i)) + " " + stream.getString(stream.getOwnerInternalNameId(i)) + position);
+                        break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1;
+
+import junit.framework.TestCase;
+import org.jd.core.v1.loader.ZipFileLoader;
+import org.jd.core.v1.loader.ZipLoader;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.zip.ZipFile;
+
+public class ZipFileLoaderTest extends TestCase {
+    @Test
+    public void testLoad() throws Exception {
+        File archive = File.createTempFile("data-java-jdk-1.7.0", ".jar");
+
+        try (InputStream is = this.getClass().getResourceAsStream("/zip/data-java-jdk-1.7.0.zip")) {
+            Files.copy(is, archive.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        try (InputStream is = this.getClass().getResourceAsStream("/zip/data-java-jdk-1.7.0.zip");
+             TestZipFileLoader loader = new TestZipFileLoader(new ZipFile(archive), 1024 * 8)) {
+            ZipLoader expected = new ZipLoader(is);
+            int count = 0;
+
+            for (Map.Entry<String, byte[]> entry : expected.getMap().entrySet()) {
+                String name = entry.getKey();
+
+                if (name.endsWith(".class")) {
+                    String internalTypeName = name.substring(0, name.length() - 6);
+
+                    assertTrue(loader.canLoad(internalTypeName));
+                    assertTrue(Arrays.equals(entry.getValue(), loader.load(internalTypeName)));
+                    // Second request, from the cache or from the archive
+                    assertTrue(Arrays.equals(entry.getValue(), loader.load(internalTypeName)));
+                    assertTrue(loader.getCacheSize() <= 1024 * 8);
+                    // Entry of unknown size
+                    assertTrue(Arrays.equals(entry.getValue(), loader.read(new ByteArrayInputStream(entry.getValue()), -1)));
+                    count++;
+                }
+            }
+
+            assertTrue(count > 0);
+            assertTrue(loader.getCacheSize() > 0);
+            assertFalse(loader.canLoad("org/jd/core/test/Unknown"));
+            assertNull(loader.load("org/jd/core/test/Unknown"));
+        } finally {
+            archive.delete();
+        }
+    }
+
+    @Test
+    public void testClassPrefix() throws Exception {
+        assertEquals("classes/", ZipFileLoader.getClassPrefix("java.base.jmod"));
+        assertEquals("WEB-INF/classes/", ZipFileLoader.getClassPrefix("application.WAR"));
+        assertEquals("", ZipFileLoader.getClassPrefix("library.jar"));
+    }
+
+    protected static class TestZipFileLoader extends ZipFileLoader {
+        public TestZipFileLoader(ZipFile zipFile, int maxCacheSize) {
+            super(zipFile, "", maxCacheSize);
+        }
+
+        @Override
+        public byte[] read(InputStream is, long size) throws IOException {
+            return super.read(is, size);
+        }
+
+        public int getCacheSize() {
+            synchronized (cache) {
+                return cacheSize;
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.benchmark;
+
+import org.jd.core.v1.ClassFileToJavaSourceDecompiler;
+import org.jd.core.v1.api.loader.Loader;
+import org.jd.core.v1.loader.ExecutorBatchLoader;
+import org.jd.core.v1.loader.LatencyBatchLoader;
+import org.jd.core.v1.loader.LatencyLoader;
+import org.jd.core.v1.loader.ZipLoader;
+
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Decompile a class through a store answering each request in 5 ms: one request at a time, in batches, and
+ * concurrently.
+ */
+public class BatchLoaderBenchmark extends MicroBenchmark {
+    protected static final long LATENCY = 5;
+    protected static final String INTERNAL_TYPE_NAME = "org/jd/core/test/OuterClass";
+
+    protected ClassFileToJavaSourceDecompiler decompiler = new ClassFileToJavaSourceDecompiler();
+
+    public BatchLoaderBenchmark() {
+        super("batch-loader", "serial, batch and executor loaders with a latency of " + LATENCY + " ms");
+    }
+
+    @Override
+    public void run(int warmupRounds, int rounds, PrintStream out) throws Exception {
+        Loader loader;
+
+        try (InputStream is = this.getClass().getResourceAsStream("/zip/data-java-jdk-1.8.0.zip")) {
+            loader = new ZipLoader(is);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            for (int i=0; i<warmupRounds; i++) {
+                decompile(decompiler, new LatencyLoader(loader, 0), INTERNAL_TYPE_NAME);
+                decompile(decompiler, new LatencyBatchLoader(loader, 0), INTERNAL_TYPE_NAME);
+                decompile(decompiler, new ExecutorBatchLoader(new LatencyLoader(loader, 0), executor), INTERNAL_TYPE_NAME);
+            }
+
+            long serialTime = 0;
+            long batchTime = 0;
+            long executorTime = 0;
+            LatencyLoader serialLoader = null;
+            LatencyBatchLoader batchLoader = null;
+            LatencyLoader concurrentLoader = null;
+
+            for (int i=0; i<rounds; i++) {
+                serialLoader = new LatencyLoader(loader, LATENCY);
+                long time0 = System.nanoTime();
+                decompile(decompiler, serialLoader, INTERNAL_TYPE_NAME);
+
+                batchLoader = new LatencyBatchLoader(loader, LATENCY);
+                long time1 = System.nanoTime();
+                decompile(decompiler, batchLoader, INTERNAL_TYPE_NAME);
+
+                concurrentLoader = new LatencyLoader(loader, LATENCY);
+                long time2 = System.nanoTime();
+                decompile(decompiler, new ExecutorBatchLoader(concurrentLoader, executor), INTERNAL_TYPE_NAME);
+
+                long time3 = System.nanoTime();
+
+                serialTime += time1 - time0;
+                batchTime += time2 - time1;
+                executorTime += time3 - time2;
+            }
+
+            out.println("  Serial loader  : " + serialLoader.getRoundTrips() + " round trips, " + millis(serialTime, rounds));
+            out.println("  Batch loader   : " + batchLoader.getRoundTrips() + " round trips, " + millis(batchTime, rounds));
+            out.println("  Executor loader: " + concurrentLoader.getRoundTrips() + " round trips, " + millis(executorTime, rounds));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
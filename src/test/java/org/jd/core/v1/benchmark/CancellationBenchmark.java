@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.benchmark;
+
+import org.jd.core.v1.ClassFileToJavaSourceDecompiler;
+import org.jd.core.v1.api.CancellationToken;
+import org.jd.core.v1.loader.ZipLoader;
+import org.jd.core.v1.printer.PlainTextPrinter;
+
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Cancel the decompilation of 'org/apache/commons/lang3/ArrayUtils' after a quarter of its duration and measure the
+ * delay before the decompiler stops.
+ */
+public class CancellationBenchmark extends MicroBenchmark {
+    protected static final String INTERNAL_TYPE_NAME = "org/apache/commons/lang3/ArrayUtils";
+
+    protected ClassFileToJavaSourceDecompiler decompiler = new ClassFileToJavaSourceDecompiler();
+
+    public CancellationBenchmark() {
+        super("cancellation", "cancellation latency during the decompilation of a large commons-lang3 class");
+    }
+
+    @Override
+    public void run(int warmupRounds, int rounds, PrintStream out) throws Exception {
+        ZipLoader loader = newZipLoader(org.apache.commons.lang3.JavaVersion.class);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            for (int i=0; i<warmupRounds; i++) {
+                decompiler.decompile(loader, new PlainTextPrinter(), INTERNAL_TYPE_NAME);
+            }
+
+            long time0 = System.nanoTime();
+
+            for (int i=0; i<rounds; i++) {
+                decompiler.decompile(loader, new PlainTextPrinter(), INTERNAL_TYPE_NAME);
+            }
+
+            long decompilationTime = (System.nanoTime() - time0) / rounds;
+            long totalLatency = 0;
+            long maxLatency = 0;
+            int completedCount = 0;
+
+            for (int i=0; i<rounds; i++) {
+                CancellationToken token = new CancellationToken();
+                Map<String, Object> configuration = Collections.singletonMap("cancellationToken", token);
+                Future<?> future = executor.submit(() -> {
+                    decompiler.decompile(loader, new PlainTextPrinter(), INTERNAL_TYPE_NAME, configuration);
+                    return null;
+                });
+
+                Thread.sleep(decompilationTime / 1000000 / 4 + 1);
+
+                long cancellationTime = System.nanoTime();
+                token.cancel();
+
+                try {
+                    future.get();
+                    completedCount++;
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof CancellationException)) {
+                        throw e;
+                    }
+                }
+
+                long latency = System.nanoTime() - cancellationTime;
+
+                totalLatency += latency;
+                maxLatency = Math.max(maxLatency, latency);
+            }
+
+            out.println("  Decompilation       : " + millis(decompilationTime, 1));
+            out.println("  Cancellation latency: " + millis(totalLatency, rounds) + " average, " + millis(maxLatency, 1) + " max, " + completedCount + " completed before cancellation");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,592 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.benchmark;
+
+import org.jd.core.v1.ClassFileToJavaSourceDecompiler;
+import org.jd.core.v1.loader.ZipLoader;
+import org.jd.core.v1.model.classfile.ClassFile;
+import org.jd.core.v1.model.classfile.Method;
+import org.jd.core.v1.model.classfile.attribute.AttributeCode;
+import org.jd.core.v1.printer.WriterPrinter;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.model.cfg.ControlFlowGraph;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ControlFlowGraphGotoReducer;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ControlFlowGraphLoopReducer;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ControlFlowGraphMaker;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ControlFlowGraphReducer;
+import org.jd.core.v1.service.deserializer.classfile.ClassFileDeserializer;
+import org.jd.core.v1.util.DefaultList;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Decompile every top-level class of whole JARs and report the throughput, the per-class latencies and allocations,
+ * and the slowest classes and methods. The time of a method is the time to build and reduce its control flow graph.
+ * <br><br>
+ *
+ * Usage: DecompilerBenchmark [options] [&lt;jar file&gt; | commons-lang3 | jsoup | log4j | spark-core | guava]...<br>
+ * Options:<br>
+ * &nbsp;&nbsp;--warmup &lt;n&gt;          warm-up rounds, 3 by default<br>
+ * &nbsp;&nbsp;--rounds &lt;n&gt;          measured rounds, 5 by default<br>
+ * &nbsp;&nbsp;--top &lt;n&gt;             number of slowest classes and methods reported, 10 by default<br>
+ * &nbsp;&nbsp;--output &lt;file&gt;       JSON result file<br>
+ * &nbsp;&nbsp;--baseline &lt;file&gt;     JSON result file of a previous run<br>
+ * &nbsp;&nbsp;--max-regression &lt;%&gt;  exit with status 1 when the throughput drops by more than this percentage against the
+ * baseline, 10 by default<br>
+ * &nbsp;&nbsp;--micro &lt;name&gt;        run a micro-benchmark, or all of them with 'all'; repeatable<br><br>
+ *
+ * Without JAR, the test dependencies used by 'JarFileToJavaSourceTest' are decompiled, unless micro-benchmarks are
+ * requested. From Gradle: 'gradlew benchmark -PbenchmarkArgs="--rounds 10 --output build/benchmark.json"' or
+ * 'gradlew benchmark -PbenchmarkArgs="--micro all"'.
+ */
+public class DecompilerBenchmark {
+    protected static final String[][] TEST_JARS = {
+        {"commons-lang3", "org.apache.commons.lang3.JavaVersion"},
+        {"jsoup", "org.jsoup.Jsoup"},
+        {"log4j", "org.apache.log4j.Category"},
+        {"spark-core", "spark.Spark"},
+        {"guava", "com.google.common.collect.Lists"}
+    };
+    protected static final MicroBenchmark[] MICRO_BENCHMARKS = {
+        new ExtractionBenchmark(),
+        new LargeMethodsBenchmark(),
+        new ManyLambdasBenchmark(),
+        new BatchLoaderBenchmark(),
+        new TokenBufferBenchmark(),
+        new OutlineBenchmark(),
+        new ProgressiveBenchmark(),
+        new CancellationBenchmark(),
+        new RetainedHeapBenchmark(),
+        new DeepNestingBenchmark(),
+        new SlotHeavyMethodBenchmark()
+    };
+    protected static final Pattern CLASSES_PER_SECOND = Pattern.compile("\"classesPerSecond\"\\s*:\\s*([0-9.Ee+-]+)");
+
+    protected int warmupRounds = 3;
+    protected int rounds = 5;
+    protected int topCount = 10;
+
+    protected ClassFileToJavaSourceDecompiler decompiler = new ClassFileToJavaSourceDecompiler();
+    protected ClassFileDeserializer deserializer = new ClassFileDeserializer();
+    protected com.sun.management.ThreadMXBean threadMXBean;
+
+    public DecompilerBenchmark() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+        if ((bean instanceof com.sun.management.ThreadMXBean) && ((com.sun.management.ThreadMXBean)bean).isThreadAllocatedMemorySupported()) {
+            threadMXBean = (com.sun.management.ThreadMXBean)bean;
+            threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        DecompilerBenchmark benchmark = new DecompilerBenchmark();
+        List<String> jars = new DefaultList<>();
+        List<String> microNames = new DefaultList<>();
+        String output = null;
+        String baseline = null;
+        double maxRegression = 10;
+
+        for (int i=0; i<args.length; i++) {
+            switch (args[i]) {
+                case "--warmup": benchmark.setWarmupRounds(Integer.parseInt(args[++i])); break;
+                case "--rounds": benchmark.setRounds(Integer.parseInt(args[++i])); break;
+                case "--top": benchmark.setTopCount(Integer.parseInt(args[++i])); break;
+                case "--output": output = args[++i]; break;
+                case "--baseline": baseline = args[++i]; break;
+                case "--max-regression": maxRegression = Double.parseDouble(args[++i]); break;
+                case "--micro": microNames.add(args[++i]); break;
+                default: jars.add(args[i]);
+            }
+        }
+
+        for (MicroBenchmark microBenchmark : getMicroBenchmarks(microNames)) {
+            System.out.println(microBenchmark);
+            microBenchmark.run(benchmark.warmupRounds, benchmark.rounds, System.out);
+        }
+
+        if (jars.isEmpty()) {
+            if (!microNames.isEmpty()) {
+                return;
+            }
+
+            for (String[] testJar : TEST_JARS) {
+                jars.add(testJar[0]);
+            }
+        }
+
+        Report report = new Report(benchmark.warmupRounds, benchmark.rounds);
+
+        for (String jar : jars) {
+            JarResult result = benchmark.benchmark(jar, getFile(jar));
+            report.add(result);
+            System.out.println(result);
+        }
+
+        System.out.println(String.format(Locale.ROOT, "Total: %.1f classes/s", report.getClassesPerSecond()));
+
+        if (output != null) {
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(output), StandardCharsets.UTF_8)) {
+                report.writeJson(writer);
+            }
+        }
+
+        if (baseline != null) {
+            double baselineClassesPerSecond = readClassesPerSecond(baseline);
+            double change = (report.getClassesPerSecond() - baselineClassesPerSecond) * 100 / baselineClassesPerSecond;
+
+            System.out.println(String.format(Locale.ROOT, "Baseline: %.1f classes/s, change: %+.1f%%", baselineClassesPerSecond, change));
+
+            if (change < -maxRegression) {
+                System.out.println("Throughput regression greater than " + maxRegression + "%");
+                System.exit(1);
+            }
+        }
+    }
+
+    public void setWarmupRounds(int warmupRounds) {
+        this.warmupRounds = warmupRounds;
+    }
+
+    public void setRounds(int rounds) {
+        this.rounds = Math.max(rounds, 1);
+    }
+
+    public void setTopCount(int topCount) {
+        this.topCount = topCount;
+    }
+
+    public JarResult benchmark(String name, File file) throws Exception {
+        ZipLoader loader;
+
+        try (InputStream is = new FileInputStream(file)) {
+            loader = new ZipLoader(is);
+        }
+
+        List<String> internalTypeNames = new DefaultList<>();
+
+        for (String path : loader.getMap().keySet()) {
+            if (path.endsWith(".class") && (path.indexOf('$') == -1)) {
+                internalTypeNames.add(path.substring(0, path.length() - 6)); // 6 = ".class".length()
+            }
+        }
+
+        internalTypeNames.sort(null);
+
+        int classCount = internalTypeNames.size();
+        long[][] times = new long[classCount][rounds];
+        long[] allocatedBytes = new long[classCount];
+        boolean[] failures = new boolean[classCount];
+        CharArrayWriter writer = new CharArrayWriter(1024 * 64);
+
+        for (int round=-warmupRounds; round<rounds; round++) {
+            for (int i=0; i<classCount; i++) {
+                long allocated0 = getAllocatedBytes();
+                long time0 = System.nanoTime();
+
+                writer.reset();
+
+                try {
+                    decompiler.decompile(loader, new WriterPrinter(writer), internalTypeNames.get(i));
+                } catch (Throwable t) {
+                    failures[i] = true;
+                }
+
+                long time = System.nanoTime() - time0;
+
+                if (round >= 0) {
+                    times[i][round] = time;
+                    allocatedBytes[i] += getAllocatedBytes() - allocated0;
+                }
+            }
+        }
+
+        JarResult result = new JarResult(name, file.getPath(), rounds, topCount);
+
+        for (int i=0; i<classCount; i++) {
+            result.addClass(internalTypeNames.get(i), times[i], allocatedBytes[i] / rounds, failures[i]);
+        }
+
+        result.sortClasses();
+
+        // Time the control flow graphs of the methods of the slowest classes
+        for (int i=0, len=Math.min(topCount, classCount); i<len; i++) {
+            ClassFile classFile = deserializer.loadClassFile(loader, result.classNames.get(i));
+            benchmarkMethods(result, classFile);
+        }
+
+        result.sortMethods();
+        return result;
+    }
+
+    protected void benchmarkMethods(JarResult result, ClassFile classFile) {
+        if (classFile.getMethods() != null) {
+            for (Method method : classFile.getMethods()) {
+                if (method.<AttributeCode>getAttribute("Code") != null) {
+                    long time = Long.MAX_VALUE;
+
+                    for (int round=-warmupRounds; round<rounds; round++) {
+                        long time0 = System.nanoTime();
+
+                        try {
+                            ControlFlowGraph cfg = ControlFlowGraphMaker.make(method);
+
+                            if (cfg != null) {
+                                ControlFlowGraphGotoReducer.reduce(cfg);
+                                ControlFlowGraphLoopReducer.reduce(cfg);
+                                ControlFlowGraphReducer.reduce(cfg);
+                            }
+                        } catch (Exception ignore) {
+                            // Failures are reported by the decompilation of the class
+                        }
+
+                        if (round >= 0) {
+                            time = Math.min(time, System.nanoTime() - time0);
+                        }
+                    }
+
+                    result.addMethod(classFile.getInternalTypeName(), method.getName() + method.getDescriptor(), time);
+                }
+            }
+        }
+
+        if (classFile.getInnerClassFiles() != null) {
+            for (ClassFile innerClassFile : classFile.getInnerClassFiles()) {
+                benchmarkMethods(result, innerClassFile);
+            }
+        }
+    }
+
+    protected long getAllocatedBytes() {
+        return (threadMXBean == null) ? 0 : threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    protected static List<MicroBenchmark> getMicroBenchmarks(List<String> names) {
+        List<MicroBenchmark> microBenchmarks = new DefaultList<>();
+
+        for (String name : names) {
+            if ("all".equals(name)) {
+                microBenchmarks.addAll(Arrays.asList(MICRO_BENCHMARKS));
+            } else {
+                MicroBenchmark found = null;
+
+                for (MicroBenchmark microBenchmark : MICRO_BENCHMARKS) {
+                    if (microBenchmark.getName().equals(name)) {
+                        found = microBenchmark;
+                        break;
+                    }
+                }
+
+                if (found == null) {
+                    StringBuilder sb = new StringBuilder("Unknown micro-benchmark '").append(name).append("', expected 'all'");
+
+                    for (MicroBenchmark microBenchmark : MICRO_BENCHMARKS) {
+                        sb.append(", '").append(microBenchmark.getName()).append('\'');
+                    }
+
+                    throw new IllegalArgumentException(sb.toString());
+                }
+
+                microBenchmarks.add(found);
+            }
+        }
+
+        return microBenchmarks;
+    }
+
+    protected static File getFile(String jar) throws Exception {
+        for (String[] testJar : TEST_JARS) {
+            if (testJar[0].equals(jar)) {
+                return MicroBenchmark.getJarFile(Class.forName(testJar[1]));
+            }
+        }
+
+        File file = new File(jar);
+
+        if (!file.isFile()) {
+            throw new FileNotFoundException(jar);
+        }
+
+        return file;
+    }
+
+    protected static double readClassesPerSecond(String fileName) throws IOException {
+        String json = new String(Files.readAllBytes(Paths.get(fileName)), StandardCharsets.UTF_8);
+        Matcher matcher = CLASSES_PER_SECOND.matcher(json);
+
+        if (!matcher.find()) {
+            throw new IOException("No 'classesPerSecond' in " + fileName);
+        }
+
+        return Double.parseDouble(matcher.group(1));
+    }
+
+    protected static String quote(String s) {
+        return '"' + s.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    public static class Report {
+        protected int warmupRounds;
+        protected int rounds;
+        protected List<JarResult> results = new DefaultList<>();
+
+        public Report(int warmupRounds, int rounds) {
+            this.warmupRounds = warmupRounds;
+            this.rounds = rounds;
+        }
+
+        public void add(JarResult result) {
+            results.add(result);
+        }
+
+        public List<JarResult> getResults() {
+            return results;
+        }
+
+        public double getClassesPerSecond() {
+            long classCount = 0;
+            long totalTime = 0;
+
+            for (JarResult result : results) {
+                classCount += result.classNames.size();
+                totalTime += result.totalTime;
+            }
+
+            return (totalTime == 0) ? 0 : classCount * (double)rounds * 1000000000L / totalTime;
+        }
+
+        public void writeJson(Writer writer) throws IOException {
+            PrintWriter out = new PrintWriter(writer);
+
+            out.println("{");
+            out.println("  \"warmupRounds\": " + warmupRounds + ",");
+            out.println("  \"rounds\": " + rounds + ",");
+            out.println(String.format(Locale.ROOT, "  \"classesPerSecond\": %.1f,", getClassesPerSecond()));
+            out.println("  \"jars\": [");
+
+            for (int i=0, len=results.size(); i<len; i++) {
+                results.get(i).writeJson(out);
+                out.println((i+1 < len) ? "," : "");
+            }
+
+            out.println("  ]");
+            out.println("}");
+            out.flush();
+        }
+    }
+
+    public static class JarResult {
+        protected String name;
+        protected String path;
+        protected int rounds;
+        protected int topCount;
+        protected List<String> classNames = new DefaultList<>();
+        protected long[] classTimes = new long[16];      // Median time of each class
+        protected long[] allocatedBytes = new long[16];  // Average allocation of each class
+        protected long[] samples = new long[16];         // Time of each class and round
+        protected int sampleCount;
+        protected long totalTime;
+        protected long totalAllocatedBytes;
+        protected int failedClassCount;
+        protected List<MethodTime> methods = new DefaultList<>();
+
+        public JarResult(String name, String path, int rounds, int topCount) {
+            this.name = name;
+            this.path = path;
+            this.rounds = rounds;
+            this.topCount = topCount;
+        }
+
+        public void addClass(String internalTypeName, long[] times, long allocated, boolean failed) {
+            int index = classNames.size();
+
+            if (index == classTimes.length) {
+                classTimes = Arrays.copyOf(classTimes, index * 2);
+                allocatedBytes = Arrays.copyOf(allocatedBytes, index * 2);
+            }
+            if (sampleCount + times.length > samples.length) {
+                samples = Arrays.copyOf(samples, Math.max(sampleCount + times.length, samples.length * 2));
+            }
+
+            long[] sorted = times.clone();
+
+            Arrays.sort(sorted);
+            System.arraycopy(times, 0, samples, sampleCount, times.length);
+            sampleCount += times.length;
+
+            for (long time : times) {
+                totalTime += time;
+            }
+
+            classNames.add(internalTypeName);
+            classTimes[index] = sorted[sorted.length / 2];
+            allocatedBytes[index] = allocated;
+            totalAllocatedBytes += allocated;
+
+            if (failed) {
+                failedClassCount++;
+            }
+        }
+
+        public void addMethod(String internalTypeName, String method, long time) {
+            methods.add(new MethodTime(internalTypeName, method, time));
+        }
+
+        public int getClassCount() {
+            return classNames.size();
+        }
+
+        public int getFailedClassCount() {
+            return failedClassCount;
+        }
+
+        public double getClassesPerSecond() {
+            return (totalTime == 0) ? 0 : classNames.size() * (double)rounds * 1000000000L / totalTime;
+        }
+
+        /**
+         * @param percentile between 0 and 100
+         * @return the per-class latency in nanoseconds
+         */
+        public long getLatency(double percentile) {
+            if (sampleCount == 0) {
+                return 0;
+            }
+
+            long[] sorted = Arrays.copyOf(samples, sampleCount);
+
+            Arrays.sort(sorted);
+            int rank = (int)Math.ceil(percentile * sampleCount / 100);
+            return sorted[Math.max(0, Math.min(sampleCount, rank) - 1)];
+        }
+
+        public long getAllocatedBytesPerClass() {
+            return classNames.isEmpty() ? 0 : totalAllocatedBytes / classNames.size();
+        }
+
+        public List<String> getSlowestClasses() {
+            return classNames;
+        }
+
+        public List<MethodTime> getSlowestMethods() {
+            return methods;
+        }
+
+        protected void sortClasses() {
+            int count = classNames.size();
+            Integer[] indexes = new Integer[count];
+
+            for (int i=0; i<count; i++) {
+                indexes[i] = i;
+            }
+
+            Arrays.sort(indexes, Comparator.comparingLong((Integer i) -> classTimes[i]).reversed());
+
+            List<String> names = new DefaultList<>(count);
+            long[] times = new long[Math.max(count, 1)];
+            long[] allocated = new long[Math.max(count, 1)];
+
+            for (int i=0; i<count; i++) {
+                names.add(classNames.get(indexes[i]));
+                times[i] = classTimes[indexes[i]];
+                allocated[i] = allocatedBytes[indexes[i]];
+            }
+
+            classNames = names;
+            classTimes = times;
+            allocatedBytes = allocated;
+        }
+
+        protected void sortMethods() {
+            methods.sort(Comparator.comparingLong((MethodTime m) -> m.time).reversed());
+
+            if (methods.size() > topCount) {
+                methods = new DefaultList<>(methods.subList(0, topCount));
+            }
+        }
+
+        protected void writeJson(PrintWriter out) {
+            out.println("    {");
+            out.println("      \"name\": " + quote(name) + ",");
+            out.println("      \"file\": " + quote(path) + ",");
+            out.println("      \"classCount\": " + classNames.size() + ",");
+            out.println("      \"failedClassCount\": " + failedClassCount + ",");
+            out.println(String.format(Locale.ROOT, "      \"classesPerSecond\": %.1f,", getClassesPerSecond()));
+            out.println("      \"latencyMicros\": { \"p50\": " + (getLatency(50) / 1000) + ", \"p99\": " + (getLatency(99) / 1000) + ", \"max\": " + (getLatency(100) / 1000) + " },");
+            out.println("      \"allocatedBytesPerClass\": " + getAllocatedBytesPerClass() + ",");
+            out.println("      \"slowestClasses\": [");
+
+            for (int i=0, len=Math.min(topCount, classNames.size()); i<len; i++) {
+                out.print("        { \"name\": " + quote(classNames.get(i)) + ", \"medianMicros\": " + (classTimes[i] / 1000) + ", \"allocatedBytes\": " + allocatedBytes[i] + " }");
+                out.println((i+1 < len) ? "," : "");
+            }
+
+            out.println("      ],");
+            out.println("      \"slowestMethods\": [");
+
+            for (int i=0, len=methods.size(); i<len; i++) {
+                MethodTime method = methods.get(i);
+                out.print("        { \"class\": " + quote(method.internalTypeName) + ", \"method\": " + quote(method.method) + ", \"micros\": " + (method.time / 1000) + " }");
+                out.println((i+1 < len) ? "," : "");
+            }
+
+            out.println("      ]");
+            out.print("    }");
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+
+            sb.append(String.format(Locale.ROOT, "%s: %d classes, %d failed, %.1f classes/s, p50=%d us, p99=%d us, max=%d us, %d KB allocated/class%n",
+                    name, classNames.size(), failedClassCount, getClassesPerSecond(), getLatency(50) / 1000, getLatency(99) / 1000, getLatency(100) / 1000, getAllocatedBytesPerClass() / 1024));
+
+            for (int i=0, len=Math.min(topCount, classNames.size()); i<len; i++) {
+                sb.append(String.format(Locale.ROOT, "  class  %8d us  %s%n", classTimes[i] / 1000, classNames.get(i)));
+            }
+            for (MethodTime method : methods) {
+                sb.append(String.format(Locale.ROOT, "  method %8d us  %s.%s%n", method.time / 1000, method.internalTypeName, method.method));
+            }
+
+            return sb.toString();
+        }
+    }
+
+    public static class MethodTime {
+        protected String internalTypeName;
+        protected String method;
+        protected long time;
+
+        public MethodTime(String internalTypeName, String method, long time) {
+            this.internalTypeName = internalTypeName;
+            this.method = method;
+            this.time = time;
+        }
+
+        public String getInternalTypeName() {
+            return internalTypeName;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public long getTime() {
+            return time;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.benchmark;
+
+import junit.framework.TestCase;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+public class DecompilerBenchmarkTest extends TestCase {
+    @Test
+    public void testBenchmark() throws Exception {
+        Class clazz = com.jakewharton.disklrucache.DiskLruCache.class;
+        File jar = Paths.get(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()).toFile();
+        DecompilerBenchmark benchmark = new DecompilerBenchmark();
+
+        benchmark.setWarmupRounds(1);
+        benchmark.setRounds(2);
+        benchmark.setTopCount(2);
+
+        DecompilerBenchmark.JarResult result = benchmark.benchmark("disklrucache", jar);
+
+        assertTrue(result.getClassCount() > 0);
+        assertEquals(0, result.getFailedClassCount());
+        assertTrue(result.getLatency(50) <= result.getLatency(99));
+        assertTrue(result.getLatency(99) <= result.getLatency(100));
+        assertTrue(result.getSlowestMethods().size() <= 2);
+
+        DecompilerBenchmark.Report report = new DecompilerBenchmark.Report(1, 2);
+        report.add(result);
+
+        File json = File.createTempFile("jd-core-benchmark", ".json");
+
+        try {
+            try (Writer writer = new FileWriter(json)) {
+                report.writeJson(writer);
+            }
+
+            StringWriter writer = new StringWriter();
+            report.writeJson(writer);
+
+            assertTrue(writer.toString(), writer.toString().contains("\"slowestMethods\""));
+            assertEquals(Math.round(report.getClassesPerSecond() * 10), Math.round(DecompilerBenchmark.readClassesPerSecond(json.getPath()) * 10));
+        } finally {
+            json.delete();
+        }
+    }
+
+    @Test
+    public void testMicroBenchmarkNames() throws Exception {
+        assertEquals(DecompilerBenchmark.MICRO_BENCHMARKS.length, DecompilerBenchmark.getMicroBenchmarks(Arrays.asList("all")).size());
+
+        for (MicroBenchmark microBenchmark : DecompilerBenchmark.MICRO_BENCHMARKS) {
+            assertSame(microBenchmark, DecompilerBenchmark.getMicroBenchmarks(Arrays.asList(microBenchmark.getName())).get(0));
+        }
+
+        try {
+            DecompilerBenchmark.getMicroBenchmarks(Arrays.asList("unknown"));
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.benchmark;
+
+import org.jd.core.v1.model.javasyntax.type.PrimitiveType;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.model.localvariable.Frame;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.model.localvariable.PrimitiveLocalVariable;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.model.localvariable.RootFrame;
+
+import java.io.PrintStream;
+import java.util.HashSet;
+
+/**
+ * Name the local variables of a method containing 2000 nested blocks declaring a named 'int' each, and an unnamed
+ * 'int' in the innermost block.
+ */
+public class DeepNestingBenchmark extends MicroBenchmark {
+    protected static final int DEPTH = 2000;
+
+    public DeepNestingBenchmark() {
+        super("deep-nesting", "local variable naming in " + DEPTH + " nested frames");
+    }
+
+    @Override
+    public void run(int warmupRounds, int rounds, PrintStream out) throws Exception {
+        for (int i=0; i<warmupRounds; i++) {
+            benchmark();
+        }
+
+        long time = 0;
+
+        for (int i=0; i<rounds; i++) {
+            time += benchmark();
+        }
+
+        out.println("  " + DEPTH + " nested frames named in " + millis(time, rounds));
+    }
+
+    protected long benchmark() {
+        Frame root = new RootFrame();
+        Frame frame = root;
+
+        for (int j=0; j<DEPTH; j++) {
+            frame.addLocalVariable(new PrimitiveLocalVariable(j, 0, PrimitiveType.TYPE_INT, "value" + j));
+
+            Frame child = new Frame(frame, null);
+            frame.addChild(child);
+            frame = child;
+        }
+
+        frame.addLocalVariable(new PrimitiveLocalVariable(DEPTH, 0, PrimitiveType.TYPE_INT, null));
+
+        long time0 = System.nanoTime();
+
+        root.createNames(new HashSet<>());
+        return System.nanoTime() - time0;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.benchmark;
+
+import org.jd.core.v1.ClassFileToJavaSourceDecompiler;
+import org.jd.core.v1.ClassFileToTokenStreamDecompiler;
+import org.jd.core.v1.api.Decompiler;
+import org.jd.core.v1.api.printer.Printer;
+import org.jd.core.v1.api.printer.TokenStream;
+import org.jd.core.v1.api.printer.TokenStreamPrinter;
+import org.jd.core.v1.loader.ZipLoader;
+import org.jd.core.v1.printer.PlainTextPrinter;
+
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decompile 'org.apache.commons:commons-lang3:3.9' to text, then extract the declarations and the references only.
+ */
+public class ExtractionBenchmark extends MicroBenchmark {
+    protected ClassFileToJavaSourceDecompiler decompiler = new ClassFileToJavaSourceDecompiler();
+    protected ClassFileToTokenStreamDecompiler extractor = new ClassFileToTokenStreamDecompiler();
+
+    public ExtractionBenchmark() {
+        super("extraction", "full decompilation vs declaration and reference extraction of commons-lang3");
+    }
+
+    @Override
+    public void run(int warmupRounds, int rounds, PrintStream out) throws Exception {
+        ZipLoader loader = newZipLoader(org.apache.commons.lang3.JavaVersion.class);
+        List<String> internalTypeNames = getTopLevelTypeNames(loader);
+        PlainTextPrinter plainTextPrinter = new PlainTextPrinter();
+        CountTokenStreamPrinter countPrinter = new CountTokenStreamPrinter();
+        Map<String, Object> configuration = Collections.singletonMap("realignLineNumbers", Boolean.TRUE);
+
+        for (int i=0; i<warmupRounds; i++) {
+            benchmark(decompiler, loader, internalTypeNames, plainTextPrinter, configuration);
+            benchmark(extractor, loader, internalTypeNames, countPrinter, null);
+        }
+
+        long decompilerTime = 0;
+        long extractorTime = 0;
+
+        countPrinter.count = 0;
+
+        for (int i=0; i<rounds; i++) {
+            decompilerTime += benchmark(decompiler, loader, internalTypeNames, plainTextPrinter, configuration);
+            extractorTime += benchmark(extractor, loader, internalTypeNames, countPrinter, null);
+        }
+
+        out.println("  Full decompilation: " + millis(decompilerTime, rounds));
+        out.println("  Extraction        : " + millis(extractorTime, rounds) + ", " + (countPrinter.count / rounds) + " tokens");
+    }
+
+    protected long benchmark(Decompiler decompiler, ZipLoader loader, List<String> internalTypeNames, Printer printer, Map<String, Object> configuration) throws Exception {
+        long time0 = System.nanoTime();
+
+        for (String internalTypeName : internalTypeNames) {
+            if (printer instanceof PlainTextPrinter) {
+                ((PlainTextPrinter)printer).init();
+            }
+            decompiler.decompile(loader, printer, internalTypeName, configuration);
+        }
+
+        return System.nanoTime() - time0;
+    }
+
+    protected static class CountTokenStreamPrinter implements TokenStreamPrinter {
+        protected long count;
+
+        @Override public void start(int maxLineNumber, int majorVersion, int minorVersion) {}
+        @Override public void end() {}
+
+        @Override
+        public int getTokenKinds() {
+            return DECLARATION | REFERENCE | LINE_NUMBER;
+        }
+
+        @Override
+        public void printTokenStream(TokenStream stream) {
+            count += stream.size();
+        }
+    }
+}
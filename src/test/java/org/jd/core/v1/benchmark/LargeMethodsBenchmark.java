@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.benchmark;
+
+import org.jd.core.v1.loader.ZipLoader;
+import org.jd.core.v1.model.classfile.ClassFile;
+import org.jd.core.v1.model.classfile.Method;
+import org.jd.core.v1.model.classfile.attribute.AttributeCode;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.ControlFlowGraphMaker;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.util.InstructionStream;
+import org.jd.core.v1.service.deserializer.classfile.ClassFileDeserializer;
+import org.jd.core.v1.util.DefaultList;
+
+import java.io.PrintStream;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Decode the byte code and build the control flow graphs of the 100 largest methods of
+ * 'org.apache.commons:commons-lang3:3.9'.
+ */
+public class LargeMethodsBenchmark extends MicroBenchmark {
+    protected static final int PASSES = 20;
+
+    protected ClassFileDeserializer deserializer = new ClassFileDeserializer();
+
+    public LargeMethodsBenchmark() {
+        super("large-methods", "instruction decoding and control flow graphs of the 100 largest methods of commons-lang3");
+    }
+
+    @Override
+    public void run(int warmupRounds, int rounds, PrintStream out) throws Exception {
+        List<Method> methods = loadMethods(newZipLoader(org.apache.commons.lang3.JavaVersion.class));
+
+        methods.sort(Comparator.comparingInt((Method m) -> m.<AttributeCode>getAttribute("Code").getCode().length).reversed());
+        methods = methods.subList(0, Math.min(100, methods.size()));
+
+        long size = 0;
+
+        for (Method method : methods) {
+            size += method.<AttributeCode>getAttribute("Code").getCode().length;
+        }
+
+        for (int i=0; i<warmupRounds; i++) {
+            benchmarkDecode(methods);
+            benchmarkControlFlowGraph(methods);
+        }
+
+        long decodeTime = 0;
+        long cfgTime = 0;
+
+        for (int i=0; i<rounds; i++) {
+            decodeTime += benchmarkDecode(methods);
+            cfgTime += benchmarkControlFlowGraph(methods);
+        }
+
+        out.println("  " + methods.size() + " largest methods, " + size + " bytes of code, times for " + PASSES + " passes");
+        out.println("  Decoding           : " + millis(decodeTime, rounds));
+        out.println("  Control flow graphs: " + millis(cfgTime, rounds));
+    }
+
+    protected List<Method> loadMethods(ZipLoader loader) throws Exception {
+        List<Method> methods = new DefaultList<>();
+
+        for (String path : loader.getMap().keySet()) {
+            if (path.endsWith(".class")) {
+                ClassFile classFile = deserializer.loadClassFile(loader, path.substring(0, path.length() - 6));
+
+                if (classFile.getMethods() != null) {
+                    for (Method method : classFile.getMethods()) {
+                        if (method.getAttribute("Code") != null) {
+                            methods.add(method);
+                        }
+                    }
+                }
+            }
+        }
+
+        return methods;
+    }
+
+    protected long benchmarkDecode(List<Method> methods) {
+        InstructionStream instructions = new InstructionStream();
+        long time0 = System.nanoTime();
+
+        for (int i=0; i<PASSES; i++) {
+            for (Method method : methods) {
+                instructions.init(method.getConstants(), method.<AttributeCode>getAttribute("Code").getCode());
+            }
+        }
+
+        return System.nanoTime() - time0;
+    }
+
+    protected long benchmarkControlFlowGraph(List<Method> methods) {
+        long time0 = System.nanoTime();
+
+        for (int i=0; i<PASSES; i++) {
+            for (Method method : methods) {
+                ControlFlowGraphMaker.make(method);
+            }
+        }
+
+        return System.nanoTime() - time0;
+    }
+}
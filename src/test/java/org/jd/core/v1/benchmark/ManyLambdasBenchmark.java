@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.benchmark;
+
+import org.jd.core.v1.ClassFileToJavaSourceDecompiler;
+import org.jd.core.v1.api.loader.Loader;
+
+import java.io.PrintStream;
+
+/**
+ * Decompile a generated class with 2000 lambdas, resolved through the member index of the class body.
+ */
+public class ManyLambdasBenchmark extends MicroBenchmark {
+    protected ClassFileToJavaSourceDecompiler decompiler = new ClassFileToJavaSourceDecompiler();
+
+    public ManyLambdasBenchmark() {
+        super("many-lambdas", "decompilation of a generated class with 2000 lambdas");
+    }
+
+    @Override
+    public void run(int warmupRounds, int rounds, PrintStream out) throws Exception {
+        String internalClassName = "org/jd/core/benchmark/ManyLambdas";
+        StringBuilder sb = new StringBuilder("package org.jd.core.benchmark;\n\npublic class ManyLambdas {\n");
+
+        for (int i=0; i<100; i++) {
+            sb.append("    public java.util.function.IntSupplier[] suppliers").append(i).append("() {\n        return new java.util.function.IntSupplier[] {\n");
+            for (int j=0; j<20; j++) {
+                sb.append("            () -> ").append(i * 20 + j).append(",\n");
+            }
+            sb.append("        };\n    }\n");
+        }
+
+        sb.append("}\n");
+
+        Loader loader = compile(internalClassName, sb.toString(), false);
+
+        for (int i=0; i<warmupRounds; i++) {
+            decompile(decompiler, loader, internalClassName);
+        }
+
+        long time0 = System.nanoTime();
+
+        for (int i=0; i<rounds; i++) {
+            decompile(decompiler, loader, internalClassName);
+        }
+
+        out.println("  2000 lambdas: " + millis(System.nanoTime() - time0, rounds));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.benchmark;
+
+import org.jd.core.v1.ClassFileToJavaSourceDecompiler;
+import org.jd.core.v1.api.loader.Loader;
+import org.jd.core.v1.compiler.CompilerUtil;
+import org.jd.core.v1.compiler.JavaSourceFileObject;
+import org.jd.core.v1.loader.DirectoryLoader;
+import org.jd.core.v1.loader.ZipLoader;
+import org.jd.core.v1.printer.PlainTextPrinter;
+import org.jd.core.v1.util.DefaultList;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Benchmark of one part of the decompiler, run with 'DecompilerBenchmark --micro &lt;name&gt;'. The unit tests check
+ * the behavior of the same code without timing it.
+ */
+public abstract class MicroBenchmark {
+    protected String name;
+    protected String description;
+
+    protected MicroBenchmark(String name, String description) {
+        this.name = name;
+        this.description = description;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Run 'warmupRounds' rounds, then 'rounds' measured rounds, and print the results.
+     */
+    public abstract void run(int warmupRounds, int rounds, PrintStream out) throws Exception;
+
+    protected static File getJarFile(Class<?> clazz) throws Exception {
+        return Paths.get(clazz.getProtectionDomain().getCodeSource().getLocation().toURI()).toFile();
+    }
+
+    protected static ZipLoader newZipLoader(Class<?> clazz) throws Exception {
+        try (InputStream is = new FileInputStream(getJarFile(clazz))) {
+            return new ZipLoader(is);
+        }
+    }
+
+    /**
+     * @return the sorted internal names of the top-level types of the archive
+     */
+    protected static List<String> getTopLevelTypeNames(ZipLoader loader) {
+        List<String> internalTypeNames = new DefaultList<>();
+
+        for (String path : loader.getMap().keySet()) {
+            if (path.endsWith(".class") && (path.indexOf('$') == -1)) {
+                internalTypeNames.add(path.substring(0, path.length() - 6)); // 6 = ".class".length()
+            }
+        }
+
+        internalTypeNames.sort(null);
+        return internalTypeNames;
+    }
+
+    /**
+     * Compile a generated class.
+     *
+     * @return a loader of the compiled classes
+     */
+    protected static Loader compile(String internalTypeName, String source, boolean debugInfo) throws Exception {
+        if (!CompilerUtil.compile("1.8", debugInfo, new JavaSourceFileObject(internalTypeName, source))) {
+            throw new IllegalStateException("Compilation failed: " + internalTypeName);
+        }
+
+        return new DirectoryLoader(new File("build/test-recompiled"));
+    }
+
+    protected static String decompile(ClassFileToJavaSourceDecompiler decompiler, Loader loader, String internalTypeName) throws Exception {
+        PlainTextPrinter printer = new PlainTextPrinter();
+
+        decompiler.decompile(loader, printer, internalTypeName);
+        return printer.toString();
+    }
+
+    protected static long getUsedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+
+        for (int i=0; i<3; i++) {
+            System.gc();
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    protected static String millis(long time, int rounds) {
+        return String.format(Locale.ROOT, "%.1f ms", time / (double)rounds / 1000000);
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + description;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.benchmark;
+
+import org.jd.core.v1.ClassFileToJavaSourceDecompiler;
+import org.jd.core.v1.loader.ZipLoader;
+import org.jd.core.v1.printer.PlainTextPrinter;
+
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decompile the classes of 'org.apache.commons:commons-lang3:3.9' in full and in outline mode.
+ */
+public class OutlineBenchmark extends MicroBenchmark {
+    protected ClassFileToJavaSourceDecompiler decompiler = new ClassFileToJavaSourceDecompiler();
+
+    public OutlineBenchmark() {
+        super("outline", "full vs outline decompilation of commons-lang3");
+    }
+
+    @Override
+    public void run(int warmupRounds, int rounds, PrintStream out) throws Exception {
+        ZipLoader loader = newZipLoader(org.apache.commons.lang3.JavaVersion.class);
+        List<String> internalTypeNames = getTopLevelTypeNames(loader);
+        Map<String, Object> fullConfiguration = Collections.emptyMap();
+        Map<String, Object> outlineConfiguration = Collections.singletonMap("outline", "true");
+
+        for (int i=0; i<warmupRounds; i++) {
+            benchmark(loader, internalTypeNames, fullConfiguration);
+            benchmark(loader, internalTypeNames, outlineConfiguration);
+        }
+
+        long fullTime = 0;
+        long outlineTime = 0;
+
+        for (int i=0; i<rounds; i++) {
+            fullTime += benchmark(loader, internalTypeNames, fullConfiguration);
+            outlineTime += benchmark(loader, internalTypeNames, outlineConfiguration);
+        }
+
+        out.println("  " + internalTypeNames.size() + " classes");
+        out.println("  Full decompilation   : " + millis(fullTime, rounds));
+        out.println("  Outline decompilation: " + millis(outlineTime, rounds));
+    }
+
+    protected long benchmark(ZipLoader loader, List<String> internalTypeNames, Map<String, Object> configuration) throws Exception {
+        PlainTextPrinter printer = new PlainTextPrinter();
+        long time0 = System.nanoTime();
+
+        for (String internalTypeName : internalTypeNames) {
+            printer.init();
+            decompiler.decompile(loader, printer, internalTypeName, configuration);
+        }
+
+        return System.nanoTime() - time0;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.benchmark;
+
+import org.jd.core.v1.ProgressiveClassFileToJavaSourceDecompiler;
+import org.jd.core.v1.api.printer.ProgressivePrinter;
+import org.jd.core.v1.loader.ZipLoader;
+import org.jd.core.v1.printer.PlainTextPrinter;
+
+import java.io.PrintStream;
+
+/**
+ * Measure the time to the outline and to the complete source of large classes of
+ * 'org.apache.commons:commons-lang3:3.9' with the progressive decompiler.
+ */
+public class ProgressiveBenchmark extends MicroBenchmark {
+    protected static final String[] INTERNAL_TYPE_NAMES = {
+        "org/apache/commons/lang3/StringUtils", "org/apache/commons/lang3/ArrayUtils",
+        "org/apache/commons/lang3/time/FastDateParser", "org/apache/commons/lang3/math/NumberUtils"
+    };
+
+    protected ProgressiveClassFileToJavaSourceDecompiler progressiveDecompiler = new ProgressiveClassFileToJavaSourceDecompiler();
+
+    public ProgressiveBenchmark() {
+        super("progressive", "time to first content and to complete source of large commons-lang3 classes");
+    }
+
+    @Override
+    public void run(int warmupRounds, int rounds, PrintStream out) throws Exception {
+        ZipLoader loader = newZipLoader(org.apache.commons.lang3.JavaVersion.class);
+
+        for (int i=0; i<warmupRounds; i++) {
+            for (String internalTypeName : INTERNAL_TYPE_NAMES) {
+                progressiveDecompiler.decompile(loader, new TimingPrinter(), internalTypeName);
+            }
+        }
+
+        for (String internalTypeName : INTERNAL_TYPE_NAMES) {
+            long firstContentTime = 0, sourceTime = 0;
+
+            for (int i=0; i<rounds; i++) {
+                TimingPrinter printer = new TimingPrinter();
+                long time0 = System.nanoTime();
+
+                progressiveDecompiler.decompile(loader, printer, internalTypeName);
+
+                firstContentTime += printer.outlineTime - time0;
+                sourceTime += printer.sourceTime - time0;
+            }
+
+            out.println("  " + internalTypeName + ": first content after " + millis(firstContentTime, rounds) + ", complete source after " + millis(sourceTime, rounds));
+        }
+    }
+
+    protected static class TimingPrinter extends PlainTextPrinter implements ProgressivePrinter {
+        protected int phaseCount;
+        protected long outlineTime;
+        protected long sourceTime;
+
+        @Override
+        public void startPhase(int phase) {
+            phaseCount++;
+        }
+
+        @Override
+        public void end() {
+            if (phaseCount == 1) {
+                outlineTime = System.nanoTime();
+                init();
+            } else {
+                sourceTime = System.nanoTime();
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.benchmark;
+
+import org.jd.core.v1.loader.ZipLoader;
+import org.jd.core.v1.model.message.Message;
+import org.jd.core.v1.model.processor.Processor;
+import org.jd.core.v1.printer.PlainTextPrinter;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.ClassFileToJavaSyntaxProcessor;
+import org.jd.core.v1.service.deserializer.classfile.DeserializeClassFileProcessor;
+import org.jd.core.v1.service.fragmenter.javasyntaxtojavafragment.JavaSyntaxToJavaFragmentProcessor;
+import org.jd.core.v1.service.layouter.LayoutFragmentProcessor;
+import org.jd.core.v1.service.tokenizer.javafragmenttotoken.JavaFragmentToTokenProcessor;
+import org.jd.core.v1.service.writer.WriteTokenProcessor;
+
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measure the heap retained by the messages between two processors: the class file, the compilation unit, the
+ * fragments or the tokens, and what they reference. Each measure is averaged over 20 live messages.
+ */
+public class RetainedHeapBenchmark extends MicroBenchmark {
+    protected static final int MESSAGE_COUNT = 20;
+    protected static final String[] STAGES = { "deserializer", "converter", "fragmenter", "layouter", "tokenizer", "writer" };
+    protected static final String[] INTERNAL_TYPE_NAMES = {
+        "org/apache/commons/lang3/StringUtils", "org/apache/commons/lang3/ArrayUtils", "org/apache/commons/lang3/text/StrBuilder"
+    };
+
+    protected Processor[] processors = {
+        new DeserializeClassFileProcessor(), new ClassFileToJavaSyntaxProcessor(), new JavaSyntaxToJavaFragmentProcessor(),
+        new LayoutFragmentProcessor(), new JavaFragmentToTokenProcessor(), new WriteTokenProcessor()
+    };
+
+    public RetainedHeapBenchmark() {
+        super("retained-heap", "heap retained per message between the processors for large commons-lang3 classes");
+    }
+
+    @Override
+    public void run(int warmupRounds, int rounds, PrintStream out) throws Exception {
+        ZipLoader loader = newZipLoader(org.apache.commons.lang3.JavaVersion.class);
+        Map<String, Object> configuration = new HashMap<>();
+
+        configuration.put("realignLineNumbers", "true");
+
+        // Warm up, and create the type maker
+        for (int i=0; i<Math.max(1, warmupRounds); i++) {
+            for (String internalTypeName : INTERNAL_TYPE_NAMES) {
+                process(loader, internalTypeName, configuration, processors.length);
+            }
+        }
+
+        for (String internalTypeName : INTERNAL_TYPE_NAMES) {
+            StringBuilder sb = new StringBuilder("  ").append(internalTypeName);
+            long peak = 0;
+
+            for (int stage=1; stage<processors.length; stage++) {
+                long retained = 0;
+
+                for (int i=0; i<rounds; i++) {
+                    retained += retainedHeap(loader, internalTypeName, configuration, stage);
+                }
+
+                retained /= rounds;
+                sb.append((stage == 1) ? ": after " : ", ").append(STAGES[stage-1]).append(' ').append(retained / 1024).append(" KB");
+                peak = Math.max(peak, retained);
+            }
+
+            out.println(sb.append(", max ").append(peak / 1024).append(" KB"));
+        }
+    }
+
+    protected long retainedHeap(ZipLoader loader, String internalTypeName, Map<String, Object> configuration, int stageCount) throws Exception {
+        Message[] messages = new Message[MESSAGE_COUNT];
+        long heap0 = getUsedHeap();
+
+        for (int i=0; i<MESSAGE_COUNT; i++) {
+            messages[i] = process(loader, internalTypeName, configuration, stageCount);
+        }
+
+        long heap1 = getUsedHeap();
+
+        // Keep the messages reachable until the second measure
+        return (messages[MESSAGE_COUNT - 1] == null) ? 0 : (heap1 - heap0) / MESSAGE_COUNT;
+    }
+
+    protected Message process(ZipLoader loader, String internalTypeName, Map<String, Object> configuration, int stageCount) throws Exception {
+        Message message = new Message();
+
+        message.setHeader("mainInternalTypeName", internalTypeName);
+        message.setHeader("loader", loader);
+        message.setHeader("printer", new PlainTextPrinter());
+        message.setHeader("configuration", configuration);
+        message.setHeader("releaseModels", Boolean.TRUE);
+
+        for (int i=0; i<stageCount; i++) {
+            processors[i].process(message);
+        }
+
+        return message;
+    }
+}
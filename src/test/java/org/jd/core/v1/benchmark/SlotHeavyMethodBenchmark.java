@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.benchmark;
+
+import org.jd.core.v1.ClassFileToJavaSourceDecompiler;
+import org.jd.core.v1.api.loader.Loader;
+
+import java.io.PrintStream;
+
+/**
+ * Decompile a generated serializer, compiled with debug information, storing 3000 short-lived variables in the same
+ * 4 slots.
+ */
+public class SlotHeavyMethodBenchmark extends MicroBenchmark {
+    protected ClassFileToJavaSourceDecompiler decompiler = new ClassFileToJavaSourceDecompiler();
+
+    public SlotHeavyMethodBenchmark() {
+        super("slot-heavy-method", "decompilation of a method storing 3000 local variables in 4 slots");
+    }
+
+    @Override
+    public void run(int warmupRounds, int rounds, PrintStream out) throws Exception {
+        String internalClassName = "org/jd/core/benchmark/SlotHeavySerializer";
+        StringBuilder sb = new StringBuilder("package org.jd.core.benchmark;\n\npublic class SlotHeavySerializer {\n");
+
+        sb.append("    public int write(Object[] values, StringBuilder sb) {\n        int total = 0;\n");
+
+        for (int i=0; i<1000; i++) {
+            sb.append("        {\n");
+            sb.append("            String value").append(i).append(" = String.valueOf(values[").append(i).append("]);\n");
+            sb.append("            int length").append(i).append(" = value").append(i).append(".length();\n");
+            sb.append("            long hash").append(i).append(" = value").append(i).append(".hashCode() + length").append(i).append(";\n");
+            sb.append("            sb.append(value").append(i).append(").append(hash").append(i).append(");\n");
+            sb.append("            total += length").append(i).append(";\n");
+            sb.append("        }\n");
+        }
+
+        sb.append("        return total;\n    }\n}\n");
+
+        Loader loader = compile(internalClassName, sb.toString(), true);
+
+        for (int i=0; i<warmupRounds; i++) {
+            decompile(decompiler, loader, internalClassName);
+        }
+
+        long time0 = System.nanoTime();
+
+        for (int i=0; i<rounds; i++) {
+            decompile(decompiler, loader, internalClassName);
+        }
+
+        out.println("  3000 variables in 4 slots: " + millis(System.nanoTime() - time0, rounds));
+    }
+}
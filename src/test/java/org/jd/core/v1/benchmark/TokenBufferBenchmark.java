@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.benchmark;
+
+import org.jd.core.v1.api.printer.Printer;
+import org.jd.core.v1.loader.ZipLoader;
+import org.jd.core.v1.model.javafragment.JavaFragment;
+import org.jd.core.v1.model.message.Message;
+import org.jd.core.v1.model.token.CompactTokenBuffer;
+import org.jd.core.v1.model.token.Token;
+import org.jd.core.v1.service.converter.classfiletojavasyntax.ClassFileToJavaSyntaxProcessor;
+import org.jd.core.v1.service.deserializer.classfile.DeserializeClassFileProcessor;
+import org.jd.core.v1.service.fragmenter.javasyntaxtojavafragment.JavaSyntaxToJavaFragmentProcessor;
+import org.jd.core.v1.service.layouter.LayoutFragmentProcessor;
+import org.jd.core.v1.service.tokenizer.javafragmenttotoken.visitor.TokenizeJavaFragmentVisitor;
+import org.jd.core.v1.service.writer.WriteTokenProcessor;
+import org.jd.core.v1.util.DefaultList;
+
+import java.io.PrintStream;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Print the classes of 'org.apache.commons:commons-lang3:3.9' from compact token buffers and from lists of token
+ * objects, and measure the heap retained by both.
+ */
+public class TokenBufferBenchmark extends MicroBenchmark {
+    protected static final int PASSES = 20;
+
+    protected DeserializeClassFileProcessor deserializer = new DeserializeClassFileProcessor();
+    protected ClassFileToJavaSyntaxProcessor converter = new ClassFileToJavaSyntaxProcessor();
+    protected JavaSyntaxToJavaFragmentProcessor fragmenter = new JavaSyntaxToJavaFragmentProcessor();
+    protected LayoutFragmentProcessor layouter = new LayoutFragmentProcessor();
+    protected WriteTokenProcessor writer = new WriteTokenProcessor();
+
+    public TokenBufferBenchmark() {
+        super("token-buffer", "printing and retained heap of compact token buffers vs token lists for commons-lang3");
+    }
+
+    @Override
+    public void run(int warmupRounds, int rounds, PrintStream out) throws Exception {
+        ZipLoader loader = newZipLoader(org.apache.commons.lang3.JavaVersion.class);
+        List<RecordingTokenBuffer> buffers = new DefaultList<>();
+        List<List<Token>> lists = new DefaultList<>();
+        long tokenCount = 0;
+
+        for (String internalTypeName : getTopLevelTypeNames(loader)) {
+            RecordingTokenBuffer buffer = tokenize(loader, internalTypeName);
+
+            tokenCount += buffer.size();
+            buffers.add(buffer);
+            lists.add(buffer.tokens);
+        }
+
+        for (int i=0; i<warmupRounds; i++) {
+            benchmarkPrint(buffers, lists, true);
+            benchmarkPrint(buffers, lists, false);
+        }
+
+        long listTime = 0;
+        long bufferTime = 0;
+
+        for (int i=0; i<rounds; i++) {
+            listTime += benchmarkPrint(buffers, lists, false);
+            bufferTime += benchmarkPrint(buffers, lists, true);
+        }
+
+        // Retained heap: the messages are released first, the string tables are shared by both representations
+        for (RecordingTokenBuffer buffer : buffers) {
+            buffer.message = null;
+        }
+
+        long heap0 = getUsedHeap();
+
+        for (RecordingTokenBuffer buffer : buffers) {
+            buffer.tokens = null;
+        }
+
+        lists.clear();
+
+        long heap1 = getUsedHeap();
+        int classCount = buffers.size();
+
+        buffers.clear();
+
+        long heap2 = getUsedHeap();
+
+        out.println("  " + classCount + " classes, " + tokenCount + " tokens, times for " + PASSES + " passes");
+        out.println("  Print from token objects: " + millis(listTime, rounds));
+        out.println("  Print from buffers      : " + millis(bufferTime, rounds));
+        out.println("  Token objects heap      : " + ((heap0 - heap1) / 1024) + " KB");
+        out.println("  Buffers heap            : " + ((heap1 - heap2) / 1024) + " KB");
+    }
+
+    protected RecordingTokenBuffer tokenize(ZipLoader loader, String internalTypeName) throws Exception {
+        Message message = new Message();
+
+        message.setHeader("mainInternalTypeName", internalTypeName);
+        message.setHeader("loader", loader);
+
+        deserializer.process(message);
+        converter.process(message);
+        fragmenter.process(message);
+        layouter.process(message);
+
+        List<JavaFragment> fragments = message.getBody();
+        RecordingTokenizeJavaFragmentVisitor visitor = new RecordingTokenizeJavaFragmentVisitor(fragments.size() * 3);
+
+        for (JavaFragment fragment : fragments) {
+            fragment.accept(visitor);
+        }
+
+        RecordingTokenBuffer buffer = (RecordingTokenBuffer)visitor.getTokens();
+
+        buffer.trimToSize();
+        message.setBody(null);
+        buffer.message = message;
+        return buffer;
+    }
+
+    protected long benchmarkPrint(List<RecordingTokenBuffer> buffers, List<List<Token>> lists, boolean fromBuffers) throws Exception {
+        long time0 = System.nanoTime();
+
+        for (int i=0; i<PASSES; i++) {
+            for (int j=0, len=buffers.size(); j<len; j++) {
+                Message message = buffers.get(j).message;
+
+                message.setHeader("printer", new NopPrinter());
+                message.setBody(fromBuffers ? buffers.get(j) : lists.get(j));
+                writer.process(message);
+                message.setBody(null);
+            }
+        }
+
+        return System.nanoTime() - time0;
+    }
+
+    protected static class RecordingTokenizeJavaFragmentVisitor extends TokenizeJavaFragmentVisitor {
+        public RecordingTokenizeJavaFragmentVisitor(int initialCapacity) {
+            super(initialCapacity);
+            this.tokens = new RecordingTokenBuffer(initialCapacity);
+        }
+    }
+
+    /**
+     * Buffer keeping the original token objects.
+     */
+    protected static class RecordingTokenBuffer extends CompactTokenBuffer {
+        protected Message message;
+        protected DefaultList<Token> tokens;
+
+        public RecordingTokenBuffer(int initialCapacity) {
+            super(initialCapacity);
+            this.tokens = new DefaultList<>(initialCapacity);
+        }
+
+        @Override
+        public boolean add(Token token) {
+            tokens.add(token);
+            return super.add(token);
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends Token> tokens) {
+            this.tokens.addAll(tokens);
+            return super.addAll(tokens);
+        }
+    }
+
+    protected static class NopPrinter implements Printer {
+        @Override public void start(int maxLineNumber, int majorVersion, int minorVersion) {}
+        @Override public void end() {}
+        @Override public void printText(String text) {}
+        @Override public void printNumericConstant(String constant) {}
+        @Override public void printStringConstant(String constant, String ownerInternalName) {}
+        @Override public void printKeyword(String keyword) {}
+        @Override public void printDeclaration(int type, String internalTypeName, String name, String descriptor) {}
+        @Override public void printReference(int type, String internalTypeName, String name, String descriptor, String ownerInternalName) {}
+        @Override public void indent() {}
+        @Override public void unindent() {}
+        @Override public void startLine(int lineNumber) {}
+        @Override public void endLine() {}
+        @Override public void extraLine(int count) {}
+        @Override public void startMarker(int type) {}
+        @Override public void endMarker(int type) {}
+    }
+}
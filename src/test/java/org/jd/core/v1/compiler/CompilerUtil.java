@@ -18,6 +18,10 @@ public class CompilerUtil {
     protected static final String DESTINATION_DIRECTORY_PATH = DESTINATION_DIRECTORY.getAbsolutePath();
 
     public static boolean compile(String preferredJavaVersion, JavaFileObject... javaFileObjects) throws Exception {
+        return compile(preferredJavaVersion, false, javaFileObjects);
+    }
+
+    public static boolean compile(String preferredJavaVersion, boolean debugInfo, JavaFileObject... javaFileObjects) throws Exception {
         boolean compilationSuccess = false;
         String javaVersion = getJavaVersion(preferredJavaVersion);
 
@@ -26,7 +30,7 @@ public class CompilerUtil {
         JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
         StringWriter writer = new StringWriter();
         DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
-        List<String> options = Arrays.asList("-source", javaVersion, "-target", javaVersion, "-d", DESTINATION_DIRECTORY_PATH, "-cp", System.getProperty("java.class.path"));
+        List<String> options = Arrays.asList("-source", javaVersion, "-target", javaVersion, "-d", DESTINATION_DIRECTORY_PATH, "-cp", System.getProperty("java.class.path"), debugInfo ? "-g" : "-g:source,lines");
         List<JavaFileObject> compilationUnits = Arrays.asList(javaFileObjects);
 
         try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
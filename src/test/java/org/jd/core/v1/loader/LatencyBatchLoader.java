@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.loader;
+
+import org.jd.core.v1.api.loader.BatchLoader;
+import org.jd.core.v1.api.loader.Loader;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+/**
+ * Stand-in for a remote store answering a batch of requests in a single round trip.
+ */
+public class LatencyBatchLoader extends LatencyLoader implements BatchLoader {
+    public LatencyBatchLoader(Loader loader, long latency) {
+        super(loader, latency);
+    }
+
+    @Override
+    public Map<String, Future<byte[]>> loadAll(Collection<String> internalNames) {
+        HashMap<String, Future<byte[]>> futures = new HashMap<>();
+        CompletableFuture<Void> batch = CompletableFuture.runAsync(this::roundTrip);
+
+        for (String internalName : internalNames) {
+            futures.put(internalName, batch.thenApply(v -> {
+                try {
+                    return loader.canLoad(internalName) ? loader.load(internalName) : null;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+
+        return futures;
+    }
+}
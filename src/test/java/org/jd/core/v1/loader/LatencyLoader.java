@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2008, 2019 Emmanuel Dupuy.
+ * This project is distributed under the GPLv3 license.
+ * This is a Copyleft license that gives the user the right to use,
+ * copy and modify the code freely for non-commercial purposes.
+ */
+
+package org.jd.core.v1.loader;
+
+import org.jd.core.v1.api.loader.Loader;
+import org.jd.core.v1.api.loader.LoaderException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stand-in for a remote store: each request waits 'latency' milliseconds.
+ */
+public class LatencyLoader implements Loader {
+    protected Loader loader;
+    protected long latency;
+    protected AtomicInteger roundTrips = new AtomicInteger();
+
+    public LatencyLoader(Loader loader, long latency) {
+        this.loader = loader;
+        this.latency = latency;
+    }
+
+    public int getRoundTrips() {
+        return roundTrips.get();
+    }
+
+    @Override
+    public boolean canLoad(String internalName) {
+        roundTrip();
+        return loader.canLoad(internalName);
+    }
+
+    @Override
+    public byte[] load(String internalName) throws LoaderException {
+        roundTrip();
+        return loader.load(internalName);
+    }
+
+    protected void roundTrip() {
+        roundTrips.incrementAndGet();
+
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}